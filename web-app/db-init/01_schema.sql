@@ -50,9 +50,10 @@ CREATE TABLE comments (
     user_id INT UNSIGNED NOT NULL COMMENT '댓글 작성자 ID',
     comment VARCHAR(500) NOT NULL COMMENT '댓글 내용',
     created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '작성일',
-    updated_at DATETIME NULL ON UPDATE CURRENT_TIMESTAMP COMMENT '수정일',
+    updated_at DATETIME(3) NULL ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '수정일(ms, 댓글 목록 ETag가 1초 안의 두 번 수정도 구분)',
 
     INDEX idx_comments_post_id (post_id),
+    INDEX idx_comments_post_updated (post_id, updated_at) COMMENT '댓글 목록 ETag(최근 수정 시각)',
     INDEX idx_comments_user_id (user_id),
 
     CONSTRAINT fk_comments_post
@@ -89,4 +90,47 @@ CREATE TABLE `testdb`.`post_view_logs` (
   `viewer_key` VARCHAR(100) NOT NULL,
   `viewed_at` DATETIME NULL DEFAULT CURRENT_TIMESTAMP,
   PRIMARY KEY (`post_id`, `viewer_key`)
-);
\ No newline at end of file
+);
+
+-- =========================
+-- post_comment_count_slots
+-- - 댓글 작성/삭제는 posts.comments_cnt 대신 (post_id, 임의 slot) 행에 ±1
+-- - 읽을 때 comments_cnt + SUM(delta), 주기적으로 comments_cnt에 접고 삭제(CommentCounter)
+-- =========================
+CREATE TABLE post_comment_count_slots (
+    post_id INT UNSIGNED NOT NULL COMMENT '게시글 ID',
+    slot TINYINT UNSIGNED NOT NULL COMMENT '슬롯 번호(0 ~ slots-1)',
+    delta INT NOT NULL DEFAULT 0 COMMENT '아직 접히지 않은 댓글 수 증감',
+
+    PRIMARY KEY (post_id, slot)
+);
+
+-- =========================
+-- outbox_events
+-- - 게시글/댓글 쓰기와 같은 트랜잭션에서 기록하는 변경 이벤트(OutboxWriter)
+-- - OutboxDispatcher가 id 순서로 폴링해서 구독자(검색 색인, 캐시, 전체 개수)에 전달
+-- - created_ms가 보존 기간(app.outbox.retention-ms)보다 오래되면 삭제
+-- =========================
+CREATE TABLE outbox_events (
+    id BIGINT UNSIGNED NOT NULL AUTO_INCREMENT COMMENT '이벤트 ID(전달 순서)',
+    event_type VARCHAR(40) NOT NULL COMMENT 'POST_CREATED, COMMENT_DELETED 등',
+    post_id INT UNSIGNED NOT NULL COMMENT '게시글 ID(같은 글의 이벤트는 순서대로 전달)',
+    comment_id INT UNSIGNED NULL COMMENT '댓글 이벤트의 댓글 ID',
+    user_id INT UNSIGNED NOT NULL COMMENT '작성자 ID',
+    created_ms BIGINT NOT NULL COMMENT '기록 시각(epoch ms, 전달 지연 측정용)',
+
+    PRIMARY KEY (id),
+    INDEX idx_outbox_events_created_ms (created_ms)
+);
+
+-- =========================
+-- outbox_offsets
+-- - 노드(consumer)별로 마지막으로 전달을 마친 outbox_events.id
+-- =========================
+CREATE TABLE outbox_offsets (
+    consumer VARCHAR(100) NOT NULL COMMENT '노드 이름(app.outbox.consumer)',
+    last_id BIGINT UNSIGNED NOT NULL COMMENT '전달을 마친 마지막 이벤트 ID',
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (consumer)
+);
@@ -0,0 +1,101 @@
+package com.example.demo.dto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * GET /posts 50건 페이지 응답: 응답 객체 생성 / JSON 직렬화
+ *
+ * - build*: 행 50개 + 페이지 래퍼 + { ok, data } 생성만
+ * - serialize*: 이미 만든 응답을 byte[]로 직렬화만
+ * - *Maps: 예전 HashMap 응답(ResponseJsonTests의 legacy* 와 같은 모양), *Records: 현재 ApiResponse/PostSummary
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseBenchmark {
+
+	private final JsonMapper mapper = JsonMapper.builder().build();
+
+	private List<PostSummary> source;
+	private Object builtMaps;
+	private Object builtRecords;
+
+	@Setup
+	public void setUp() {
+		source = new ArrayList<>();
+		for (int i = 50; i > 0; i--)
+			source.add(new PostSummary(i, i % 7, "제목 " + i, "본문 내용 " + i, i * 3, i % 5, "2026-01-01 00:00:00"));
+		builtMaps = buildMaps();
+		builtRecords = buildRecords();
+	}
+
+	@Benchmark
+	public Object buildMaps() {
+		List<Map<String, Object>> items = new ArrayList<>(source.size());
+		for (PostSummary p : source) {
+			Map<String, Object> row = new HashMap<>();
+			row.put("id", p.id());
+			row.put("user_id", p.userId());
+			row.put("title", p.title());
+			row.put("content", p.content());
+			row.put("view_count", p.viewCount());
+			row.put("comments_cnt", p.commentsCnt());
+			row.put("created_at", p.createdAt());
+			items.add(row);
+		}
+		Map<String, Object> r = new HashMap<>();
+		r.put("ok", true);
+		r.put("data", page(items));
+		return r;
+	}
+
+	@Benchmark
+	public Object buildRecords() {
+		List<PostSummary> items = new ArrayList<>(source.size());
+		for (PostSummary p : source)
+			items.add(new PostSummary(p.id(), p.userId(), p.title(), p.content(), p.viewCount(), p.commentsCnt(),
+					p.createdAt()));
+		return ApiResponse.ok(page(items));
+	}
+
+	@Benchmark
+	public byte[] serializeMaps() {
+		return mapper.writeValueAsBytes(builtMaps);
+	}
+
+	@Benchmark
+	public byte[] serializeRecords() {
+		return mapper.writeValueAsBytes(builtRecords);
+	}
+
+	// ApiController.postList의 페이지 래퍼와 같은 키
+	private static Map<String, Object> page(List<?> items) {
+		Map<String, Object> data = new HashMap<>();
+		data.put("page", 1);
+		data.put("pageSize", items.size());
+		data.put("total", 1234L);
+		data.put("items", items);
+		data.put("next_cursor", "bjox");
+		return data;
+	}
+}
@@ -0,0 +1,124 @@
+package com.example.demo.dto;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.support.ResponseFormat;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * 응답 형식(JSON / CBOR / Smile)별 직렬화 시간과 크기
+ *
+ * - payload: list(GET /posts 50건, 본문 약 300자), detail(GET /posts/{id}, 본문 약 3000자), comments(댓글 200개)
+ * - serialize: 서버 쪽 ApiResponse → byte[]
+ * - parse: 클라이언트 쪽 byte[] → 트리
+ * - 크기(원본 / gzip)는 Setup에서 한 번 출력("size ..." 줄)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseFormatBenchmark {
+
+	@Param({ "JSON", "CBOR", "SMILE" })
+	public ResponseFormat format;
+
+	@Param({ "list", "detail", "comments" })
+	public String payload;
+
+	private ObjectMapper mapper;
+	private Object response;
+	private byte[] encoded;
+
+	@Setup
+	public void setUp() throws Exception {
+		mapper = format.mapper(JsonMapper.builder().build());
+		response = switch (payload) {
+			case "list" -> ApiResponse.ok(listPage());
+			case "detail" -> ApiResponse.ok(new PostDetail(1234, 7, "긴 글 제목 1234", text(3000, 1234), 98765, 42,
+					"2026-01-01 12:34:56", 4321, "u:7"));
+			default -> ApiResponse.ok(Map.of("items", comments()));
+		};
+		encoded = serialize();
+		System.out.println("size " + format + " " + payload + ": " + encoded.length + " B, gzip " + gzip(encoded)
+				+ " B");
+	}
+
+	@Benchmark
+	public byte[] serialize() {
+		return mapper.writeValueAsBytes(response);
+	}
+
+	@Benchmark
+	public JsonNode parse() {
+		return mapper.readTree(encoded);
+	}
+
+	private static Map<String, Object> listPage() {
+		List<PostSummary> items = new ArrayList<>();
+		for (int i = 50; i > 0; i--)
+			items.add(new PostSummary(1000 + i, i % 7, "제목 " + i + " 오늘의 게시글", text(300, i), i * 37L, i % 5,
+					"2026-01-01 00:00:00"));
+		Map<String, Object> data = new HashMap<>();
+		data.put("page", 1);
+		data.put("pageSize", items.size());
+		data.put("total", 20000L);
+		data.put("items", items);
+		data.put("next_cursor", "bjoxMDAx");
+		return data;
+	}
+
+	private static List<Comment> comments() {
+		List<Comment> items = new ArrayList<>();
+		for (int i = 1; i <= 200; i++)
+			items.add(new Comment(i, 1, i % 13, text(60, i), "2026-01-01 00:00:" + (10 + i % 50)));
+		return items;
+	}
+
+	private static final String[] WORDS = { "오늘", "게시판", "질문", "답변", "감사합니다", "서버", "배포", "로그",
+			"확인", "했는데", "문제가", "계속", "발생합니다", "설정", "변경", "후에", "다시", "시도", "해보세요", "DB",
+			"캐시", "Redis", "응답", "시간이", "느려요", "왜", "그런지", "아시는", "분", "있나요", "API", "버전" };
+
+	// 단어를 seed별 난수로 골라 만든 본문(같은 문장 반복이면 gzip 크기가 비현실적으로 작아짐)
+	private static String text(int chars, int seed) {
+		Random random = new Random(seed);
+		StringBuilder sb = new StringBuilder(chars);
+		while (sb.length() < chars) {
+			sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+			if (random.nextInt(8) == 0)
+				sb.append(random.nextInt(10_000)).append(". ");
+		}
+		return sb.substring(0, chars);
+	}
+
+	private static int gzip(byte[] bytes) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+			gz.write(bytes);
+		}
+		return out.size();
+	}
+}
@@ -0,0 +1,96 @@
+package com.example.demo.post;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.dto.Comment;
+
+/**
+ * 댓글 50행 매핑: 인덱스(CommentRepository.mapRow) vs 컬럼 이름(예전 mapCommentRow)
+ *
+ * - DB 없이 메모리 ResultSet(CachedRowSet)을 처음으로 되감아 가며 읽음
+ *   → 드라이버 네트워크/디코딩 비용은 빠지고 매핑 코드 자체의 비용만 남음
+ * - 이름 조회 비용은 드라이버마다 다름(CachedRowSet은 컬럼 이름 선형 탐색)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RowMappingBenchmark {
+
+	private CachedRowSet rows;
+
+	@Setup
+	public void setUp() throws SQLException {
+		RowSetMetaDataImpl meta = new RowSetMetaDataImpl();
+		meta.setColumnCount(5);
+		String[] names = { "id", "post_id", "user_id", "comment", "created_at" };
+		int[] types = { Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.VARCHAR, Types.VARCHAR };
+		for (int i = 0; i < names.length; i++) {
+			meta.setColumnName(i + 1, names[i]);
+			meta.setColumnLabel(i + 1, names[i]);
+			meta.setColumnType(i + 1, types[i]);
+		}
+
+		rows = RowSetProvider.newFactory().createCachedRowSet();
+		rows.setMetaData(meta);
+		for (int i = 1; i <= 50; i++) {
+			rows.moveToInsertRow();
+			rows.updateInt(1, i);
+			rows.updateInt(2, 7);
+			rows.updateInt(3, i % 9);
+			rows.updateString(4, "댓글 내용 " + i);
+			rows.updateString(5, "2026-01-01 00:00:00");
+			rows.insertRow();
+		}
+		rows.moveToCurrentRow();
+	}
+
+	@Benchmark
+	public List<Comment> byIndex() throws SQLException {
+		rows.beforeFirst();
+		List<Comment> items = new ArrayList<>();
+		while (rows.next())
+			items.add(CommentRepository.mapRow(rows));
+		return items;
+	}
+
+	@Benchmark
+	public List<Comment> byName() throws SQLException {
+		rows.beforeFirst();
+		List<Comment> items = new ArrayList<>();
+		while (rows.next())
+			items.add(mapByName(rows));
+		return items;
+	}
+
+	private static Comment mapByName(ResultSet rs) throws SQLException {
+		return new Comment(
+				rs.getInt("id"),
+				rs.getInt("post_id"),
+				rs.getInt("user_id"),
+				rs.getString("comment"),
+				rs.getString("created_at"));
+	}
+}
@@ -0,0 +1,49 @@
+package com.example.demo.post.viewer;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 비로그인 viewer_key 생성(GET /posts/{id}마다 한 번)
+ *
+ * - legacy: 예전 ApiController.sha256Hex(getInstance + 바이트마다 String.format("%02x")) 그대로
+ * - current: ViewerKeys.guest(clone + HexFormat, 필요한 16바이트만)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ViewerKeyBenchmark {
+
+	private final String ip = "203.0.113.57";
+	private final String ua = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/126.0 Safari/537.36";
+
+	@Benchmark
+	public String current() {
+		return ViewerKeys.guest(ip, ua);
+	}
+
+	@Benchmark
+	public String legacy() throws Exception {
+		String raw = ip + "|" + ua;
+		MessageDigest md = MessageDigest.getInstance("SHA-256");
+		byte[] dig = md.digest(raw.getBytes(StandardCharsets.UTF_8));
+		StringBuilder sb = new StringBuilder();
+		for (byte b : dig)
+			sb.append(String.format("%02x", b));
+		return "g:" + sb.toString().substring(0, 32);
+	}
+}
@@ -0,0 +1,82 @@
+package com.example.demo.support;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * PK 조회 한 번(커넥션 빌림 → prepare → execute → 한 행 읽기 → 반납): 원본 vs InstrumentedDataSource
+ *
+ * - H2 메모리 DB + 커넥션 하나를 계속 재사용(풀에서 바로 빌리는 경우와 비슷하게 대기 시간 0)
+ *   → 네트워크 왕복이 없으므로 실제 MySQL 조회(수백 µs~)보다 계측 비용의 비율이 훨씬 크게 보임
+ * - 계측 쪽은 타이머 2개(커넥션 대기, db.query) 기록 + 커넥션/문장 프록시 생성
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstrumentedDataSourceBenchmark {
+
+	private static final String SQL = "/* post.byId */ SELECT id, title FROM posts WHERE id = ?";
+
+	private SingleConnectionDataSource raw;
+	private DataSource instrumented;
+
+	@Setup
+	public void setUp() throws SQLException {
+		raw = new SingleConnectionDataSource("jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1", true);
+		try (Connection conn = raw.getConnection(); Statement st = conn.createStatement()) {
+			st.execute("CREATE TABLE posts (id INT PRIMARY KEY, title VARCHAR(200))");
+			st.execute("INSERT INTO posts SELECT X, CONCAT('title ', X) FROM SYSTEM_RANGE(1, 1000)");
+		}
+		instrumented = new InstrumentedDataSource(raw, new SimpleMeterRegistry());
+	}
+
+	@TearDown
+	public void tearDown() {
+		raw.destroy();
+	}
+
+	@Benchmark
+	public String raw() throws SQLException {
+		return findTitle(raw);
+	}
+
+	@Benchmark
+	public String instrumented() throws SQLException {
+		return findTitle(instrumented);
+	}
+
+	private static String findTitle(DataSource ds) throws SQLException {
+		try (Connection conn = ds.getConnection();
+				PreparedStatement ps = conn.prepareStatement(SQL)) {
+			ps.setInt(1, ThreadLocalRandom.current().nextInt(1, 1001));
+			try (ResultSet rs = ps.executeQuery()) {
+				return rs.next() ? rs.getString(2) : null;
+			}
+		}
+	}
+}
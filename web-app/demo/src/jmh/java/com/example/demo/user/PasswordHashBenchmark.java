@@ -0,0 +1,53 @@
+package com.example.demo.user;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt cost factor별 해시/검증 시간(app.password-hash.strength를 정할 때 참고)
+ *
+ * - cost가 1 오를 때마다 약 2배
+ * - PasswordHasher 풀의 스레드 하나가 초당 처리할 수 있는 로그인 수 ≈ 1000 / matches(ms)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordHashBenchmark {
+
+	@Param({ "4", "6", "8", "10", "12" })
+	public int cost;
+
+	private BCryptPasswordEncoder encoder;
+	private String hash;
+
+	@Setup
+	public void setUp() {
+		encoder = new BCryptPasswordEncoder(cost);
+		hash = encoder.encode("password123!");
+	}
+
+	@Benchmark
+	public String encode() {
+		return encoder.encode("password123!");
+	}
+
+	@Benchmark
+	public boolean matches() {
+		return encoder.matches("password123!", hash);
+	}
+}
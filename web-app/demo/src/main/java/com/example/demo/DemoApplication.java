@@ -2,8 +2,10 @@ package com.example.demo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling // 캐시 재동기화/카운터 flush 등 주기 작업(스레드 수: spring.task.scheduling.pool.size)
 public class DemoApplication {
 
   public static void main(String[] args) {
@@ -0,0 +1,387 @@
+package com.example.demo.controller;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.dto.ApiResponse;
+import com.example.demo.outbox.OutboxDispatcher;
+import com.example.demo.post.CommentCounter;
+import com.example.demo.post.PostCache;
+import com.example.demo.post.PostListPageCache;
+import com.example.demo.post.PostTotalCounter;
+import com.example.demo.post.ViewCountBuffer;
+import com.example.demo.post.viewer.UniqueViewerCounter;
+import com.example.demo.search.PostSearchIndex;
+import com.example.demo.support.GatedDataSource;
+import com.example.demo.support.InstrumentedDataSource;
+import com.example.demo.support.ReplicaRoutingDataSource;
+import com.example.demo.support.SingleFlight;
+import com.example.demo.support.SlowQueryLog;
+import com.example.demo.user.PasswordHasher;
+import com.example.demo.user.UserCache;
+
+import javax.sql.DataSource;
+
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * 운영/복구용 API
+ *
+ * - 로그인한 사용자 중 app.admin.user-ids 에 등록된 사용자만 사용 가능(기본값은 비어 있음 → 아무도 사용 불가)
+ * - 응답 포맷은 ApiController와 동일({ ok, data?, message? })
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+  private static final Logger log = LoggerFactory.getLogger(AdminController.class);
+
+  private final PostSearchIndex searchIndex;
+  private final PostTotalCounter postTotals;
+  private final ViewCountBuffer viewCounts;
+  private final CommentCounter commentCounts;
+  private final OutboxDispatcher outbox;
+  private final UniqueViewerCounter uniqueViewers;
+  private final PostCache postCache;
+  // null이면 목록 페이지 캐시 사용 안 함
+  private final PostListPageCache postListCache;
+  private final UserCache userCache;
+  private final SingleFlight singleFlight;
+  private final PasswordHasher passwordHasher;
+  private final DataSource dataSource;
+
+  // 관리자 user_id 목록(콤마 구분, 비어 있으면 아무도 사용 불가)
+  private final Set<Integer> adminUserIds;
+
+  public AdminController(
+      PostSearchIndex searchIndex,
+      PostTotalCounter postTotals,
+      ViewCountBuffer viewCounts,
+      CommentCounter commentCounts,
+      OutboxDispatcher outbox,
+      UniqueViewerCounter uniqueViewers,
+      PostCache postCache,
+      ObjectProvider<PostListPageCache> postListCache,
+      UserCache userCache,
+      SingleFlight singleFlight,
+      PasswordHasher passwordHasher,
+      DataSource dataSource,
+      @Value("${app.admin.user-ids:}") String adminUserIds) {
+    this.searchIndex = searchIndex;
+    this.postTotals = postTotals;
+    this.viewCounts = viewCounts;
+    this.commentCounts = commentCounts;
+    this.outbox = outbox;
+    this.uniqueViewers = uniqueViewers;
+    this.postCache = postCache;
+    this.postListCache = postListCache.getIfAvailable();
+    this.userCache = userCache;
+    this.singleFlight = singleFlight;
+    this.passwordHasher = passwordHasher;
+    this.dataSource = dataSource;
+    this.adminUserIds = Arrays.stream(adminUserIds.split(","))
+        .map(String::trim)
+        .filter(v -> !v.isEmpty())
+        .map(Integer::valueOf)
+        .collect(Collectors.toUnmodifiableSet());
+    if (this.adminUserIds.isEmpty())
+      log.info("admin API disabled: app.admin.user-ids is empty");
+  }
+
+  private ApiResponse<Object> ok(Object data) {
+    return ApiResponse.ok(data);
+  }
+
+  private ApiResponse<Object> fail(String message) {
+    return ApiResponse.fail(message);
+  }
+
+  private boolean isAdmin(HttpSession session) {
+    Object userIdObj = session.getAttribute("user_id");
+    return userIdObj != null && adminUserIds.contains((Integer) userIdObj);
+  }
+
+  // --------------------------------------------------
+  // 검색 색인
+  // --------------------------------------------------
+
+  /**
+   * GET /admin/search/stats
+   * - 색인 준비 여부, 문서/토큰 수, 마지막 구축 시간
+   */
+  @GetMapping("/search/stats")
+  public ApiResponse<?> searchStats(HttpSession session) {
+    if (!isAdmin(session))
+      return fail("권한 없음");
+    return ok(searchIndex.stats());
+  }
+
+  /**
+   * POST /admin/search/reindex
+   * - posts 전체를 다시 읽어 색인 재구축(백그라운드)
+   * - 재구축 중에도 기존 색인으로 검색은 계속 동작
+   */
+  @PostMapping("/search/reindex")
+  public ApiResponse<?> reindex(HttpSession session) {
+    if (!isAdmin(session))
+      return fail("권한 없음");
+
+    boolean started = searchIndex.rebuildAsync();
+    if (!started)
+      return fail("이미 재구축 중");
+    return ok(Map.of("started", true));
+  }
+
+  // --------------------------------------------------
+  // 목록 total
+  // --------------------------------------------------
+
+  /**
+   * GET /admin/post-count/stats
+   * - 메모리 전체 개수, 검색 개수 캐시 hit/miss
+   */
+  @GetMapping("/post-count/stats")
+  public ApiResponse<?> postCountStats(HttpSession session) {
+    if (!isAdmin(session))
+      return fail("권한 없음");
+    return ok(postTotals.stats());
+  }
+
+  // --------------------------------------------------
+  // 조회수 write-behind
+  // --------------------------------------------------
+
+  /**
+   * GET /admin/view-count/stats
+   * - 미반영 증가분, flush 횟수/지연 시간, 새 조회/중복 조회 건수
+   * - 중복 방지 전략 지표(오탐률 추정, shadow 비교), 고유 조회자 수 저장소 지표
+   */
+  @GetMapping("/view-count/stats")
+  public ApiResponse<?> viewCountStats(HttpSession session) {
+    if (!isAdmin(session))
+      return fail("권한 없음");
+
+    Map<String, Object> data = new LinkedHashMap<>(viewCounts.stats());
+    data.put("unique_viewers", uniqueViewers.stats());
+    return ok(data);
+  }
+
+  // --------------------------------------------------
+  // 댓글 수
+  // --------------------------------------------------
+
+  /**
+   * GET /admin/comment-count/stats
+   * - 슬롯 수, fold 횟수/소요 시간, reconcile 확인/복구 건수
+   */
+  @GetMapping("/comment-count/stats")
+  public ApiResponse<?> commentCountStats(HttpSession session) {
+    if (!isAdmin(session))
+      return fail("권한 없음");
+    return ok(commentCounts.stats());
+  }
+
+  /**
+   * POST /admin/comment-count/reconcile
+   * - 전체 게시글의 댓글 수를 comments 기준으로 확인/복구(백그라운드)
+   */
+  @PostMapping("/comment-count/reconcile")
+  public ApiResponse<?> reconcileCommentCounts(HttpSession session) {
+    if (!isAdmin(session))
+      return fail("권한 없음");
+
+    if (!commentCounts.reconcileAsync())
+      return fail("이미 확인 중");
+    return ok(Map.of("started", true));
+  }
+
+  // --------------------------------------------------
+  // outbox 이벤트 전달
+  // --------------------------------------------------
+
+  /**
+   * GET /admin/outbox/stats
+   * - 이 노드의 오프셋, 전달/재시도/dead letter 수, 건너뛴 id 빈칸, 전달 지연
+   */
+  @GetMapping("/outbox/stats")
+  public ApiResponse<?> outboxStats(HttpSession session) {
+    if (!isAdmin(session))
+      return fail("권한 없음");
+    return ok(outbox.stats());
+  }
+
+  // --------------------------------------------------
+  // 게시글 캐시
+  // --------------------------------------------------
+
+  /**
+   * GET /admin/post-cache/stats
+   * - hit/miss/eviction, 현재 사용량(바이트 추정)
+   */
+  @GetMapping("/post-cache/stats")
+  public ApiResponse<?> postCacheStats(HttpSession session) {
+    if (!isAdmin(session))
+      return fail("권한 없음");
+    return ok(postCache.stats());
+  }
+
+  /**
+   * GET /admin/post-list-cache/stats
+   * - 목록 페이지 캐시 hit / soft 만료(stale) hit / miss, 다시 만든 횟수, 락 대기 결과, generation 증가 수
+   */
+  @GetMapping("/post-list-cache/stats")
+  public ApiResponse<?> postListCacheStats(HttpSession session) {
+    if (!isAdmin(session))
+      return fail("권한 없음");
+    if (postListCache == null)
+      return fail("목록 캐시 미설정(app.post-list-cache.enabled=false)");
+    return ok(postListCache.stats());
+  }
+
+  /**
+   * GET /admin/single-flight/stats
+   * - 조회 종류(group)별 DB 호출(leader) / 합쳐진 요청(shared = 아낀 DB 호출) / 대기 시간 초과 / 오류 수
+   */
+  @GetMapping("/single-flight/stats")
+  public ApiResponse<?> singleFlightStats(HttpSession session) {
+    if (!isAdmin(session))
+      return fail("권한 없음");
+    return ok(singleFlight.stats());
+  }
+
+  /**
+   * GET /admin/user-cache/stats
+   * - 사용자 캐시 hit/miss/eviction(누적)
+   */
+  @GetMapping("/user-cache/stats")
+  public ApiResponse<?> userCacheStats(HttpSession session) {
+    if (!isAdmin(session))
+      return fail("권한 없음");
+    return ok(userCache.stats());
+  }
+
+  /**
+   * POST /admin/user-cache/redis?enabled=false
+   * - 사용자 캐시 Redis 계층 킬 스위치(조회/저장만 멈추고 무효화 메시지는 계속 발행)
+   * - 노드별 설정이므로 모든 노드에 각각 호출해야 함
+   */
+  @PostMapping("/user-cache/redis")
+  public ApiResponse<?> userCacheRedis(
+      @RequestParam("enabled") boolean enabled,
+      HttpSession session) {
+    if (!isAdmin(session))
+      return fail("권한 없음");
+    if (!userCache.setRedisEnabled(enabled))
+      return fail("Redis 계층 미설정(app.user-cache.redis.enabled=false)");
+    return ok(userCache.stats());
+  }
+
+  /**
+   * GET /admin/password-hash/stats
+   * - 비밀번호 해시 풀: 대기열 길이, 거절(429)/시간 초과 수, 해시 평균·최대 소요 시간
+   */
+  @GetMapping("/password-hash/stats")
+  public ApiResponse<?> passwordHashStats(HttpSession session) {
+    if (!isAdmin(session))
+      return fail("권한 없음");
+    return ok(passwordHasher.stats());
+  }
+
+  /**
+   * GET /admin/db-gate/stats
+   * - 커넥션 풀 앞단 세마포어: 대기 중인 스레드 수, 평균·최대 대기 시간(app.db-gate.enabled=true 일 때)
+   * - 읽기/쓰기 분리가 켜져 있으면 바깥 값은 primary 게이트, replicas에 복제본 풀별 게이트
+   */
+  @GetMapping("/db-gate/stats")
+  public ApiResponse<?> dbGateStats(HttpSession session) throws SQLException {
+    if (!isAdmin(session))
+      return fail("권한 없음");
+    // InstrumentedDataSource(+ ReplicaRoutingDataSource)가 바깥에서 감싸고 있으므로 unwrap으로 찾음
+    if (!dataSource.isWrapperFor(GatedDataSource.class))
+      return ok(Map.of("enabled", false));
+    GatedDataSource gated = dataSource.unwrap(GatedDataSource.class);
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("enabled", true);
+    s.putAll(gated.stats());
+    if (dataSource.isWrapperFor(ReplicaRoutingDataSource.class))
+      s.put("replicas", dataSource.unwrap(ReplicaRoutingDataSource.class).gateStats());
+    return ok(s);
+  }
+
+  // --------------------------------------------------
+  // 읽기/쓰기 분리
+  // --------------------------------------------------
+
+  /**
+   * GET /admin/replicas/stats
+   * - 복제본별 상태(healthy, 지연 ms, 보낸 커넥션 수), primary로 돌린 읽기 수(app.replica.enabled=true 일 때)
+   */
+  @GetMapping("/replicas/stats")
+  public ApiResponse<?> replicaStats(HttpSession session) throws SQLException {
+    if (!isAdmin(session))
+      return fail("권한 없음");
+    if (!dataSource.isWrapperFor(ReplicaRoutingDataSource.class))
+      return ok(Map.of("enabled", false));
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("enabled", true);
+    s.putAll(dataSource.unwrap(ReplicaRoutingDataSource.class).stats());
+    return ok(s);
+  }
+
+  // --------------------------------------------------
+  // 느린 문장
+  // --------------------------------------------------
+
+  /**
+   * GET /admin/slow-queries
+   * - 최근 느린 문장(최신순): query 이름, 실행 시간, SQL, 바인딩 값, EXPLAIN 결과(SELECT, 비동기라 늦게 채워짐)
+   */
+  @GetMapping("/slow-queries")
+  public ApiResponse<?> slowQueries(HttpSession session) throws SQLException {
+    if (!isAdmin(session))
+      return fail("권한 없음");
+    SlowQueryLog slow = slowQueryLog();
+    if (slow == null)
+      return ok(Map.of("enabled", false));
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("enabled", true);
+    s.putAll(slow.stats());
+    s.put("items", slow.recent());
+    return ok(s);
+  }
+
+  /**
+   * POST /admin/slow-queries/clear
+   * - 링 버퍼 비우기(인덱스 추가 등 조치 후 다시 관찰할 때)
+   */
+  @PostMapping("/slow-queries/clear")
+  public ApiResponse<?> clearSlowQueries(HttpSession session) throws SQLException {
+    if (!isAdmin(session))
+      return fail("권한 없음");
+    SlowQueryLog slow = slowQueryLog();
+    if (slow == null)
+      return fail("느린 문장 기록 꺼짐(app.slow-query.enabled=false)");
+    slow.clear();
+    return ok(slow.stats());
+  }
+
+  private SlowQueryLog slowQueryLog() throws SQLException {
+    if (!dataSource.isWrapperFor(InstrumentedDataSource.class))
+      return null;
+    return dataSource.unwrap(InstrumentedDataSource.class).slowQueries();
+  }
+}
@@ -1,20 +1,65 @@
 package com.example.demo.controller;
 
+import java.io.ByteArrayOutputStream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
-import java.sql.SQLIntegrityConstraintViolationException;
-import java.sql.Statement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import javax.sql.DataSource;
 
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
+
+import com.example.demo.dto.ApiResponse;
+import com.example.demo.dto.Comment;
+import com.example.demo.dto.CommentRequest;
+import com.example.demo.dto.LoginRequest;
+import com.example.demo.dto.PostDetail;
+import com.example.demo.dto.PostRequest;
+import com.example.demo.dto.PostSummary;
+import com.example.demo.dto.ProfileRequest;
+import com.example.demo.dto.SignupRequest;
+import com.example.demo.post.CommentRepository;
+import com.example.demo.post.PostCache;
+import com.example.demo.post.PostCache.CachedPost;
+import com.example.demo.post.PostListPageCache;
+import com.example.demo.post.PostListVersion;
+import com.example.demo.post.PostRepository;
+import com.example.demo.post.PostTotalCounter;
+import com.example.demo.post.ViewCountBuffer;
+import com.example.demo.post.viewer.UniqueViewerCounter;
+import com.example.demo.post.viewer.ViewerKeys;
+import com.example.demo.search.PostSearchIndex;
+import com.example.demo.support.OwnedWrite;
+import com.example.demo.support.ParallelQueryExecutor;
+import com.example.demo.support.ParallelQueryExecutor.Timed;
+import com.example.demo.support.ReadRouting;
+import com.example.demo.support.ResponseFormat;
+import com.example.demo.support.SingleFlight;
+import com.example.demo.user.PasswordHasher;
+import com.example.demo.user.UserCache;
+import com.example.demo.user.UserCache.CachedUser;
+import com.example.demo.user.UserRepository;
+import com.example.demo.user.UserRepository.Credentials;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
 
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -25,49 +70,135 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 
 /**
  * 게시판 API 컨트롤러 (JDBC + Session 기반)
  *
  * - @RestController: return 값이 View(html)가 아니라 응답 바디(JSON)로 내려감
- * - DB 접근은 DataSource -> Connection -> PreparedStatement 순서로 수행
+ * - SQL은 PostRepository / CommentRepository / UserRepository에 있음(여기서는 입력 검증 + 캐시/색인 반영)
  * - 로그인 상태는 HttpSession("user_id")로 관리
  */
 @RestController
 @RequestMapping("/api") // 모든 엔드포인트에 /api prefix 부여
 public class ApiController {
 
+  private static final Logger log = LoggerFactory.getLogger(ApiController.class);
+
   private final DataSource dataSource;
 
-  // 비밀번호 해시/검증 도구(BCrypt)
-  private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+  private final PostRepository postRepository;
+  private final CommentRepository commentRepository;
+  private final UserRepository userRepository;
+
+  // 게시글 검색용 인메모리 역색인(준비 전에는 LIKE로 처리)
+  private final PostSearchIndex searchIndex;
+
+  // 목록 total(전체 개수는 메모리, 검색 개수는 TTL 캐시)
+  private final PostTotalCounter postTotals;
+
+  // 조회수 write-behind 버퍼
+  private final ViewCountBuffer viewCounts;
+
+  // 게시글별 고유 조회자 수(HyperLogLog)
+  private final UniqueViewerCounter uniqueViewers;
+
+  // 게시글 단건 캐시(GET /posts/{id})
+  private final PostCache postCache;
+
+  // 목록 앞쪽 페이지 응답 캐시(Redis, null이면 사용 안 함)
+  private final PostListPageCache postListCache;
+
+  // 목록 조건부 GET 검증값(쓰기 generation + 시간 구간)
+  private final PostListVersion postListVersion;
+
+  // 한 요청 안의 독립 조회 병렬 실행(GET /posts/{id}/full)
+  private final ParallelQueryExecutor parallelQueries;
+
+  // 사용자(작성자 정보) 캐시(GET /users/{userId}, GET /users?ids=)
+  private final UserCache userCache;
+
+  // GET /users?ids= 한 번에 조회 가능한 id 수
+  private final int maxBatchIds;
+
+  // 댓글 스트리밍 응답용(JSON을 직접 씀)
+  private final JsonMapper jsonMapper;
+
+  // 댓글 스트리밍 시 한 번에 받아오는 행 수
+  private final int commentFetchSize;
+
+  // 스트리밍 모드에서 동시 요청끼리 한 번의 조회 결과(JSON)를 나눠 쓰는 최대 댓글 수
+  private final int commentCoalesceMaxRows;
 
-  public ApiController(DataSource dataSource) {
+  // 같은 키 동시 조회 합치기(캐시 미스 loader, 댓글/목록 페이지)
+  private final SingleFlight singleFlight;
+
+  // 비밀번호 해시/검증(BCrypt, 전용 스레드 풀에서 실행)
+  private final PasswordHasher passwordHasher;
+
+  public ApiController(
+      DataSource dataSource,
+      PostRepository postRepository,
+      CommentRepository commentRepository,
+      UserRepository userRepository,
+      PostSearchIndex searchIndex,
+      PostTotalCounter postTotals,
+      ViewCountBuffer viewCounts,
+      UniqueViewerCounter uniqueViewers,
+      PostCache postCache,
+      ObjectProvider<PostListPageCache> postListCache,
+      PostListVersion postListVersion,
+      ParallelQueryExecutor parallelQueries,
+      UserCache userCache,
+      @Value("${app.users.max-batch-ids:100}") int maxBatchIds,
+      PasswordHasher passwordHasher,
+      JsonMapper jsonMapper,
+      @Value("${app.comments.fetch-size:500}") int commentFetchSize,
+      @Value("${app.comments.coalesce-max-rows:2000}") int commentCoalesceMaxRows,
+      SingleFlight singleFlight) {
     this.dataSource = dataSource;
+    this.postRepository = postRepository;
+    this.commentRepository = commentRepository;
+    this.userRepository = userRepository;
+    this.searchIndex = searchIndex;
+    this.postTotals = postTotals;
+    this.viewCounts = viewCounts;
+    this.uniqueViewers = uniqueViewers;
+    this.postCache = postCache;
+    this.postListCache = postListCache.getIfAvailable();
+    this.postListVersion = postListVersion;
+    this.parallelQueries = parallelQueries;
+    this.userCache = userCache;
+    this.maxBatchIds = maxBatchIds;
+    this.passwordHasher = passwordHasher;
+    this.jsonMapper = jsonMapper;
+    this.commentFetchSize = commentFetchSize;
+    this.commentCoalesceMaxRows = commentCoalesceMaxRows;
+    this.singleFlight = singleFlight;
   }
 
   // --------------------------------------------------
   // 공통 유틸: 응답 포맷
-  // - 모든 API는 { ok: boolean, data?: any, message?: string } 형태로 통일
+  // - 모든 API는 { ok: boolean, data?: any, message?: string } 형태로 통일(ApiResponse)
   // --------------------------------------------------
-  private Map<String, Object> ok(Object data) {
-    Map<String, Object> r = new HashMap<>();
-    r.put("ok", true);
-    r.put("data", data);
-    return r;
+  private ApiResponse<Object> ok(Object data) {
+    return ApiResponse.ok(data);
   }
 
-  private Map<String, Object> fail(String message) {
-    Map<String, Object> r = new HashMap<>();
-    r.put("ok", false);
-    r.put("message", message);
-    return r;
+  private ApiResponse<Object> fail(String message) {
+    return ApiResponse.fail(message);
   }
 
   // --------------------------------------------------
@@ -101,28 +232,8 @@ public class ApiController {
       return "u:" + uid;
 
     // 3) 비로그인이면 ip + user-agent 해시
-    String ip = req.getRemoteAddr();
-    String ua = req.getHeader("User-Agent");
-    if (ua == null)
-      ua = "";
-    String raw = ip + "|" + ua;
-
     // 길이 제한 고려: post_view_logs.viewer_key가 100 이내라면 32글자 정도로 충분
-    return "g:" + sha256Hex(raw).substring(0, 32);
-  }
-
-  private String sha256Hex(String s) {
-    try {
-      MessageDigest md = MessageDigest.getInstance("SHA-256");
-      byte[] dig = md.digest(s.getBytes(StandardCharsets.UTF_8));
-      StringBuilder sb = new StringBuilder();
-      for (byte b : dig)
-        sb.append(String.format("%02x", b));
-      return sb.toString();
-    } catch (Exception e) {
-      // 해시 실패 시 fallback(실습 안전망)
-      return Integer.toHexString(s.hashCode());
-    }
+    return ViewerKeys.guest(req.getRemoteAddr(), req.getHeader("User-Agent"));
   }
 
   // --------------------------------------------------
@@ -131,7 +242,7 @@ public class ApiController {
   // --------------------------------------------------
   @GetMapping("/db-debug")
   public List<Map<String, Object>> dbDebug() throws Exception {
-    String sql = "SELECT 1 AS one";
+    String sql = "/* debug.ping */ SELECT 1 AS one";
 
     List<Map<String, Object>> result = new ArrayList<>();
 
@@ -167,10 +278,10 @@ public class ApiController {
    * - password는 BCrypt로 해시 저장
    */
   @PostMapping("/signup")
-  public Map<String, Object> signup(@RequestBody Map<String, Object> body) throws Exception {
-    String username = (String) body.get("username");
-    String password = (String) body.get("password");
-    String nickname = (String) body.get("nickname");
+  public ApiResponse<?> signup(@RequestBody SignupRequest body) throws Exception {
+    String username = body.username();
+    String password = body.password();
+    String nickname = body.nickname();
 
     // 기본 유효성 검사(실습용 최소)
     if (username == null || username.isBlank()
@@ -184,53 +295,18 @@ public class ApiController {
       return fail("입력값 오류");
     }
 
-    String checkSql = """
-        SELECT id
-        FROM users
-        WHERE username = ?
-        LIMIT 1
-        """;
-
-    String insertSql = """
-        INSERT INTO users (username, password, nickname)
-        VALUES (?, ?, ?)
-        """;
-
-    try (Connection conn = dataSource.getConnection()) {
-
-      // username 중복 확인
-      try (PreparedStatement ps = conn.prepareStatement(checkSql)) {
-        ps.setString(1, username);
-        try (ResultSet rs = ps.executeQuery()) {
-          if (rs.next())
-            return fail("이미 존재하는 아이디");
-        }
-      }
-
-      // 비밀번호 해시
-      String hash = passwordEncoder.encode(password);
-
-      // users INSERT (생성된 PK 반환)
-      try (PreparedStatement ps = conn.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS)) {
-        ps.setString(1, username);
-        ps.setString(2, hash);
-        ps.setString(3, nickname);
+    // username 중복 확인(해시 전에: 중복 아이디에 BCrypt 비용을 쓰지 않도록)
+    if (userRepository.existsByUsername(username))
+      return fail("이미 존재하는 아이디");
 
-        int affected = ps.executeUpdate();
-        if (affected != 1)
-          return fail("입력 실패");
+    // 비밀번호 해시(풀이 가득 차면 429)
+    String hash = passwordHasher.encode(password);
 
-        try (ResultSet keys = ps.getGeneratedKeys()) {
-          if (!keys.next())
-            return fail("생성된 user_id 키 없음");
-          int userId = keys.getInt(1);
+    int userId = userRepository.insert(username, hash, nickname);
 
-          Map<String, Object> data = new HashMap<>();
-          data.put("user_id", userId);
-          return ok(data);
-        }
-      }
-    }
+    Map<String, Object> data = new HashMap<>();
+    data.put("user_id", userId);
+    return ok(data);
   }
 
   /**
@@ -239,44 +315,51 @@ public class ApiController {
    * - 성공 시 session에 user_id 저장
    */
   @PostMapping("/login")
-  public Map<String, Object> login(@RequestBody Map<String, Object> body, HttpSession session) throws Exception {
-    String username = (String) body.get("username");
-    String password = (String) body.get("password");
+  public ApiResponse<?> login(@RequestBody LoginRequest body, HttpSession session) throws Exception {
+    String username = body.username();
+    String password = body.password();
 
     if (username == null || username.isBlank() || password == null || password.isBlank()) {
       return fail("입력값 오류");
     }
 
-    String sql = """
-        SELECT id, password
-        FROM users
-        WHERE username = ?
-        LIMIT 1
-        """;
-
-    try (Connection conn = dataSource.getConnection();
-        PreparedStatement ps = conn.prepareStatement(sql)) {
+    Credentials cred = userRepository.findCredentials(username);
+    if (cred == null)
+      return fail("아이디 없음");
 
-      ps.setString(1, username);
+    int userId = cred.id();
+    String hash = cred.passwordHash();
 
-      try (ResultSet rs = ps.executeQuery()) {
-        if (!rs.next())
-          return fail("아이디 없음");
+    boolean ok = passwordHasher.matches(password, hash);
+    if (!ok)
+      return fail("비밀번호 오류");
 
-        int userId = rs.getInt("id");
-        String hash = rs.getString("password");
+    // cost 설정이 바뀌었으면 새 cost로 다시 해시해서 저장(응답은 기다리지 않음)
+    if (passwordHasher.needsRehash(hash)) {
+      passwordHasher.rehashAsync(password).thenAccept(newHash -> {
+        if (newHash != null)
+          updatePasswordHash(userId, hash, newHash);
+      });
+    }
 
-        boolean ok = passwordEncoder.matches(password, hash);
-        if (!ok)
-          return fail("비밀번호 오류");
+    // 세션에 로그인 정보 저장
+    session.setAttribute("user_id", userId);
 
-        // 세션에 로그인 정보 저장
-        session.setAttribute("user_id", userId);
+    Map<String, Object> data = new HashMap<>();
+    data.put("user_id", userId);
+    return ok(data);
+  }
 
-        Map<String, Object> data = new HashMap<>();
-        data.put("user_id", userId);
-        return ok(data);
-      }
+  /**
+   * 비밀번호 해시 교체(rehash)
+   * - 그 사이 비밀번호가 바뀌었으면 덮어쓰지 않음(UserRepository.updatePasswordHash)
+   */
+  private void updatePasswordHash(int userId, String oldHash, String newHash) {
+    try {
+      userRepository.updatePasswordHash(userId, oldHash, newHash);
+    } catch (Exception e) {
+      // 다음 로그인 때 다시 시도
+      log.warn("password rehash update failed: user_id={} {}", userId, e.toString());
     }
   }
 
@@ -285,7 +368,7 @@ public class ApiController {
    * - 세션 무효화
    */
   @PostMapping("/logout")
-  public Map<String, Object> logout(HttpSession session) {
+  public ApiResponse<?> logout(HttpSession session) {
     session.invalidate();
     return ok(Map.of());
   }
@@ -295,7 +378,7 @@ public class ApiController {
    * - 로그인 상태 확인(세션 기반)
    */
   @GetMapping("/me")
-  public Map<String, Object> me(HttpSession session) {
+  public ApiResponse<?> me(HttpSession session) {
     Integer userId = requireLogin(session);
     if (userId == null)
       return ok(Map.of("logged_in", false));
@@ -309,63 +392,36 @@ public class ApiController {
   // --------------------------------------------------
   // 프로필
   // - GET /me/profile : 내 프로필 조회 (LEFT JOIN)
-  // - PUT /me/profile : UPSERT (UPDATE 먼저, 없으면 INSERT)
+  // - PUT /me/profile : UPSERT (INSERT ... ON DUPLICATE KEY UPDATE 한 문장)
   // --------------------------------------------------
 
   @GetMapping("/me/profile")
-  public Map<String, Object> myProfile(HttpSession session) throws Exception {
+  public ApiResponse<?> myProfile(HttpSession session) throws Exception {
     Integer userId = requireLogin(session);
     if (userId == null)
       return fail("로그인 필요");
 
-    String sql = """
-        SELECT u.id, u.username, u.nickname, u.email, u.created_at,
-               p.bio, p.phone, p.birth_date, p.profile_image_url, p.updated_at
-        FROM users u
-        LEFT JOIN user_profiles p ON u.id = p.user_id
-        WHERE u.id = ?
-        LIMIT 1
-        """;
+    // GET /users/{userId}와 같은 캐시(users LEFT JOIN user_profiles)
+    CachedUser u = userCache.get(userId, this::loadUser);
+    if (u == null)
+      return fail("사용자 없음");
 
-    try (Connection conn = dataSource.getConnection();
-        PreparedStatement ps = conn.prepareStatement(sql)) {
-
-      ps.setInt(1, userId);
-
-      try (ResultSet rs = ps.executeQuery()) {
-        if (!rs.next())
-          return fail("사용자 없음");
-
-        Map<String, Object> data = new HashMap<>();
-        data.put("id", rs.getInt("id"));
-        data.put("username", rs.getString("username"));
-        data.put("nickname", rs.getString("nickname"));
-        data.put("email", rs.getString("email"));
-        data.put("created_at", rs.getString("created_at"));
-
-        // profile 컬럼들(LEFT JOIN이라 null일 수 있음)
-        data.put("bio", rs.getString("bio"));
-        data.put("phone", rs.getString("phone"));
-        data.put("birth_date", rs.getString("birth_date"));
-        data.put("profile_image_url", rs.getString("profile_image_url"));
-        data.put("profile_updated_at", rs.getString("updated_at"));
-
-        return ok(data);
-      }
-    }
+    Map<String, Object> data = userView(u);
+    data.put("profile_updated_at", u.profileUpdatedAt());
+    return ok(data);
   }
 
   @PutMapping("/me/profile")
-  public Map<String, Object> upsertMyProfile(@RequestBody Map<String, Object> body, HttpSession session)
+  public ApiResponse<?> upsertMyProfile(@RequestBody ProfileRequest body, HttpSession session)
       throws Exception {
     Integer userId = requireLogin(session);
     if (userId == null)
       return fail("로그인 필요");
 
-    String bio = (String) body.get("bio");
-    String phone = (String) body.get("phone");
-    String birthDate = (String) body.get("birth_date"); // "YYYY-MM-DD"
-    String profileImageUrl = (String) body.get("profile_image_url");
+    String bio = body.bio();
+    String phone = body.phone();
+    String birthDate = body.birthDate(); // "YYYY-MM-DD"
+    String profileImageUrl = body.profileImageUrl();
 
     // 공백 문자열은 null로 정리(특히 DATE)
     if (birthDate != null && birthDate.isBlank())
@@ -385,103 +441,100 @@ public class ApiController {
     if (profileImageUrl != null && profileImageUrl.length() > 500)
       return fail("입력값 오류");
 
-    /**
-     * UPDATE 먼저 실행
-     * - MySQL은 "값이 동일"하면 updatedRows가 0이 될 수 있음
-     * - 그래서 updated_at을 CURRENT_TIMESTAMP로 강제로 갱신해 "존재하면 1"에 가깝게 만듦
-     */
-    String updateSql = """
-        UPDATE user_profiles
-        SET bio = ?,
-            phone = ?,
-            birth_date = ?,
-            profile_image_url = ?,
-            updated_at = CURRENT_TIMESTAMP
-        WHERE user_id = ?
-        """;
-
-    String insertSql = """
-        INSERT INTO user_profiles (user_id, bio, phone, birth_date, profile_image_url)
-        VALUES (?, ?, ?, ?, ?)
-        """;
-
-    try (Connection conn = dataSource.getConnection()) {
-      conn.setAutoCommit(false);
-
-      try {
-        int updated;
-        try (PreparedStatement ps = conn.prepareStatement(updateSql)) {
-          ps.setString(1, bio);
-          ps.setString(2, phone);
-          ps.setString(3, birthDate); // DATE 컬럼에 "YYYY-MM-DD" 문자열 가능
-          ps.setString(4, profileImageUrl);
-          ps.setInt(5, userId);
-          updated = ps.executeUpdate();
-        }
-
-        // 존재하지 않아서 업데이트가 0건이면 INSERT
-        if (updated == 0) {
-          try (PreparedStatement ps = conn.prepareStatement(insertSql)) {
-            ps.setInt(1, userId);
-            ps.setString(2, bio);
-            ps.setString(3, phone);
-            ps.setString(4, birthDate);
-            ps.setString(5, profileImageUrl);
-            ps.executeUpdate();
-          }
-        }
+    userRepository.upsertProfile(userId, bio, phone, birthDate, profileImageUrl);
 
-        conn.commit();
-        return ok(Map.of("user_id", userId, "upserted", true));
-
-      } catch (Exception e) {
-        conn.rollback();
-        throw e;
-      } finally {
-        conn.setAutoCommit(true);
-      }
-    }
+    // 이 노드 + (Redis 계층이 켜져 있으면) 다른 노드 캐시까지 무효화
+    userCache.invalidate(userId);
+    return ok(Map.of("user_id", userId, "upserted", true));
   }
 
   /**
    * GET /users/{userId}
    * - 작성자 정보 표시에 사용
+   * - UserCache에서 먼저 찾고, 없을 때만 DB 조회
+   * - ETag(응답 필드 해시) / Last-Modified(프로필 수정 시각, 없으면 가입 시각) → 같으면 304
    */
   @GetMapping("/users/{userId}")
-  public Map<String, Object> userProfile(@PathVariable("userId") int userId) throws Exception {
-    String sql = """
-        SELECT u.id, u.username, u.nickname, u.email, u.created_at,
-               p.bio, p.phone, p.birth_date, p.profile_image_url
-        FROM users u
-        LEFT JOIN user_profiles p ON u.id = p.user_id
-        WHERE u.id = ?
-        LIMIT 1
-        """;
+  public ApiResponse<?> userProfile(@PathVariable("userId") int userId, WebRequest webRequest) throws Exception {
+    CachedUser u = userCache.get(userId, this::loadUser);
+    if (u == null)
+      return fail("사용자 없음");
 
-    try (Connection conn = dataSource.getConnection();
-        PreparedStatement ps = conn.prepareStatement(sql)) {
+    if (notModified(webRequest, userEtag(u), dbTimeMillis(
+        u.profileUpdatedAt() != null ? u.profileUpdatedAt() : u.createdAt())))
+      return null; // 304
 
-      ps.setInt(1, userId);
+    return ok(userView(u));
+  }
 
-      try (ResultSet rs = ps.executeQuery()) {
-        if (!rs.next())
-          return fail("사용자 없음");
+  /**
+   * GET /users?ids=1,2,3
+   * - 작성자 정보 여러 건을 한 번에(목록 화면에서 user_id마다 호출하지 않도록)
+   * - 캐시에 없는 id만 모아서 WHERE u.id IN (...) 한 번으로 조회
+   * - 중복 id는 한 번만, 최대 app.users.max-batch-ids개
+   * - items는 요청 순서대로, 없는 id는 missing
+   * - cache: 이번 호출의 캐시 적중/미스 수(near cache / Redis / DB)
+   */
+  @GetMapping("/users")
+  public ApiResponse<?> userBatch(@RequestParam(value = "ids", required = false) String idsParam)
+      throws Exception {
+    if (idsParam == null || idsParam.isBlank())
+      return fail("입력값 오류");
 
-        Map<String, Object> data = new HashMap<>();
-        data.put("id", rs.getInt("id"));
-        data.put("username", rs.getString("username"));
-        data.put("nickname", rs.getString("nickname"));
-        data.put("email", rs.getString("email"));
-        data.put("created_at", rs.getString("created_at"));
+    Set<Integer> ids = new LinkedHashSet<>();
+    try {
+      for (String part : idsParam.split(",")) {
+        if (part.isBlank())
+          continue;
+        ids.add(Integer.parseInt(part.trim()));
+      }
+    } catch (NumberFormatException e) {
+      return fail("입력값 오류");
+    }
 
-        data.put("bio", rs.getString("bio"));
-        data.put("phone", rs.getString("phone"));
-        data.put("birth_date", rs.getString("birth_date"));
-        data.put("profile_image_url", rs.getString("profile_image_url"));
+    if (ids.isEmpty())
+      return fail("입력값 오류");
+    if (ids.size() > maxBatchIds)
+      return fail("요청 id 수 초과(최대 " + maxBatchIds + ")");
 
-        return ok(data);
-      }
+    UserCache.Lookup lookup = userCache.getAll(ids, userRepository::findAllById);
+
+    List<Map<String, Object>> items = new ArrayList<>();
+    List<Integer> missing = new ArrayList<>();
+    for (Integer id : ids) {
+      CachedUser u = lookup.found().get(id);
+      if (u == null)
+        missing.add(id);
+      else
+        items.add(userView(u));
     }
+
+    Map<String, Object> cacheStats = new LinkedHashMap<>();
+    cacheStats.put("hits", lookup.hits());
+    cacheStats.put("redis_hits", lookup.redisHits());
+    cacheStats.put("misses", lookup.misses());
+
+    Map<String, Object> data = new HashMap<>();
+    data.put("items", items);
+    data.put("missing", missing);
+    data.put("cache", cacheStats);
+    return ok(data);
+  }
+
+  // 공개 작성자 정보(GET /users/{userId} 응답 필드)
+  private Map<String, Object> userView(CachedUser u) {
+    Map<String, Object> data = new HashMap<>();
+    data.put("id", u.id());
+    data.put("username", u.username());
+    data.put("nickname", u.nickname());
+    data.put("email", u.email());
+    data.put("created_at", u.createdAt());
+
+    data.put("bio", u.bio());
+    data.put("phone", u.phone());
+    data.put("birth_date", u.birthDate());
+    data.put("profile_image_url", u.profileImageUrl());
+    return data;
   }
 
   // --------------------------------------------------
@@ -492,13 +545,27 @@ public class ApiController {
    * GET /posts
    * - page/pageSize 기본 페이징
    * - type(title|content|both) + keyword로 검색 지원
+   *   (역색인이 준비되어 있으면 LIKE 대신 색인으로 id 목록을 구한 뒤 PK로 조회)
+   * - after_id / before_id / cursor 중 하나가 오면 커서(keyset) 모드
+   *   (OFFSET 없이 PK로 seek 하므로 깊은 페이지도 첫 페이지와 비용이 같다)
+   * - total(exact|estimate|none): total 계산 방식
+   *   exact(기본) : 전체 개수는 메모리 값, 검색 개수는 TTL 캐시(없으면 COUNT)
+   *   estimate    : 만료된 캐시/테이블 통계도 허용
+   *   none        : COUNT 생략, 대신 has_next 제공
+   * - 검색/커서 없는 앞쪽 페이지는 Redis에 직렬화해 둔 응답을 그대로 내려줌(PostListPageCache, 켜져 있을 때)
+   * - ETag / Last-Modified는 PostListVersion(마지막 게시글 이벤트 + 시간 구간) → 같으면 조회 없이 304
    */
   @GetMapping("/posts")
-  public Map<String, Object> postList(
+  public Object postList(
       @RequestParam(value = "page", required = false, defaultValue = "1") int page,
       @RequestParam(value = "pageSize", required = false, defaultValue = "20") int pageSize,
       @RequestParam(value = "type", required = false) String type,
-      @RequestParam(value = "keyword", required = false) String keyword) throws Exception {
+      @RequestParam(value = "keyword", required = false) String keyword,
+      @RequestParam(value = "after_id", required = false) Integer afterId,
+      @RequestParam(value = "before_id", required = false) Integer beforeId,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "total", required = false, defaultValue = "exact") String totalMode,
+      WebRequest webRequest) throws Exception {
 
     if (page < 1)
       page = 1;
@@ -507,8 +574,6 @@ public class ApiController {
     if (pageSize > 50)
       pageSize = 50;
 
-    int offset = (page - 1) * pageSize;
-
     boolean hasSearch = (keyword != null && !keyword.isBlank());
 
     // type 허용 범위 제한(그 외는 both로 처리)
@@ -518,181 +583,381 @@ public class ApiController {
     if (!("title".equals(type) || "content".equals(type) || "both".equals(type)))
       type = "both";
 
-    String where = "";
-    if (hasSearch) {
-      if ("title".equals(type)) {
-        where = "WHERE title LIKE ?";
-      } else if ("content".equals(type)) {
-        where = "WHERE content LIKE ?";
-      } else {
-        where = "WHERE (title LIKE ? OR content LIKE ?)";
-      }
+    // total 모드 허용 범위 제한(그 외는 exact)
+    totalMode = totalMode.trim();
+    if (!("estimate".equals(totalMode) || "none".equals(totalMode)))
+      totalMode = "exact";
+    boolean countTotal = !"none".equals(totalMode);
+    boolean estimate = "estimate".equals(totalMode);
+
+    // 커서 모드 진입: cursor가 after_id/before_id보다 우선
+    if (cursor != null && !cursor.isBlank()) {
+      int[] decoded = decodeCursor(cursor.trim());
+      if (decoded == null)
+        return fail("입력값 오류");
+      afterId = decoded[0] == 'n' ? decoded[1] : null;
+      beforeId = decoded[0] == 'p' ? decoded[1] : null;
     }
+    if (afterId != null && beforeId != null)
+      return fail("입력값 오류");
 
-    String listSql = """
-        SELECT id, user_id, title, content, view_count, created_at, comments_cnt
-        FROM posts
-        %s
-        ORDER BY id DESC
-        LIMIT ? OFFSET ?
-        """.formatted(where);
+    long now = System.currentTimeMillis();
+    if (notModified(webRequest, postListVersion.etag(now), postListVersion.lastModified(now)))
+      return null; // 304
 
-    String countSql = hasSearch
-        ? ("SELECT COUNT(*) AS cnt FROM posts " + where)
-        : "SELECT COUNT(*) AS cnt FROM posts";
+    // 검색어(검색이 아니면 null)
+    String search = hasSearch ? keyword.trim() : null;
 
-    List<Map<String, Object>> items = new ArrayList<>();
-    long total = 0;
+    // 검색이면 역색인 먼저 시도(null이면 LIKE 사용)
+    int[] hitIds = hasSearch ? searchIndex.search(type, search) : null;
 
-    try (Connection conn = dataSource.getConnection()) {
-
-      // 1) total count 조회
-      try (PreparedStatement ps = conn.prepareStatement(countSql)) {
-        if (hasSearch && keyword != null && !keyword.isBlank()) {
-          String like = "%" + keyword.trim() + "%";
-          if ("both".equals(type)) {
-            ps.setString(1, like);
-            ps.setString(2, like);
-          } else {
-            ps.setString(1, like);
-          }
-        }
-        try (ResultSet rs = ps.executeQuery()) {
-          if (rs.next())
-            total = rs.getLong("cnt");
+    if (afterId != null || beforeId != null) {
+      return postListByCursor(pageSize, type, search, hitIds, afterId, beforeId);
+    }
+
+    // 캐시에는 JSON 바이트만 있으므로 CBOR/Smile 요청은 아래 일반 경로로
+    if (postListCache != null && !hasSearch && postListCache.covers(page)
+        && !ResponseFormat.of(webRequest.getHeader("Accept")).binary()) {
+      int p = page;
+      int size = pageSize;
+      byte[] body = postListCache.get(page, pageSize, totalMode, () -> jsonMapper.writeValueAsBytes(
+          ok(ReadRouting.onPrimary(() -> postPage(p, size, "both", null, null, countTotal, estimate)))));
+      return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // 같은 페이지 동시 요청은 COUNT + 목록 조회 한 번
+    int p = page;
+    int size = pageSize;
+    String t = type;
+    String key = type + ":" + search + ":" + page + ":" + pageSize + ":" + totalMode;
+    return ok(singleFlight.execute("posts.page", key,
+        () -> postPage(p, size, t, search, hitIds, countTotal, estimate)));
+  }
+
+  /**
+   * 페이지 번호 목록 조회(postList 본문, PostListPageCache loader에서도 사용)
+   */
+  private Map<String, Object> postPage(
+      int page, int pageSize, String type, String search, int[] hitIds,
+      boolean countTotal, boolean estimate) throws Exception {
+
+    int offset = (page - 1) * pageSize;
+    boolean hasSearch = search != null;
+
+    List<PostSummary> items;
+    long total = 0;
+    boolean hasNext;
+
+    if (hitIds != null) {
+      // 색인 결과: total은 id 개수, 목록은 해당 페이지 id만 PK로 조회
+      total = hitIds.length;
+      int from = Math.min(offset, hitIds.length);
+      int to = Math.min(from + pageSize, hitIds.length);
+      items = postRepository.findByIds(hitIds, from, to);
+      hasNext = to < hitIds.length;
+
+    } else {
+      // 1) total count 조회(none이면 생략)
+      if (countTotal && !hasSearch) {
+        total = estimate ? postTotals.estimate() : postTotals.exact();
+
+      } else if (countTotal) {
+        Long cached = postTotals.cachedSearchCount(type, search, estimate);
+        if (cached != null) {
+          total = cached;
+        } else {
+          total = postRepository.countMatching(type, search);
+          postTotals.putSearchCount(type, search, total);
         }
       }
 
-      // 2) 목록 조회
-      try (PreparedStatement ps = conn.prepareStatement(listSql)) {
-        int idx = 1;
-
-        if (hasSearch && keyword != null && !keyword.isBlank()) {
-          String like = "%" + keyword.trim() + "%";
-          if ("both".equals(type)) {
-            ps.setString(idx++, like);
-            ps.setString(idx++, like);
-          } else {
-            ps.setString(idx++, like);
-          }
-        }
+      // 2) 목록 조회(none 모드는 1건 더 읽어서 다음 페이지 존재 여부 판단)
+      items = postRepository.findPage(type, search, countTotal ? pageSize : pageSize + 1, offset);
 
-        ps.setInt(idx++, pageSize);
-        ps.setInt(idx++, offset);
-
-        try (ResultSet rs = ps.executeQuery()) {
-          while (rs.next()) {
-            Map<String, Object> row = new HashMap<>();
-            row.put("id", rs.getInt("id"));
-            row.put("user_id", rs.getInt("user_id"));
-            row.put("title", rs.getString("title"));
-            row.put("content", rs.getString("content"));
-            row.put("view_count", rs.getInt("view_count"));
-            row.put("comments_cnt", rs.getInt("comments_cnt"));
-            row.put("created_at", rs.getString("created_at"));
-            items.add(row);
-          }
-        }
+      if (countTotal) {
+        hasNext = offset + items.size() < total;
+      } else {
+        hasNext = items.size() > pageSize;
+        if (hasNext)
+          items.remove(items.size() - 1);
       }
     }
 
-    return ok(Map.of(
-        "page", page,
-        "pageSize", pageSize,
-        "total", total,
-        "items", items));
+    Map<String, Object> data = new HashMap<>();
+    data.put("page", page);
+    data.put("pageSize", pageSize);
+    if (countTotal)
+      data.put("total", total);
+    else
+      data.put("has_next", hasNext);
+    data.put("items", items);
+
+    // 기존 페이지 응답에서도 커서 모드로 이어서 넘어갈 수 있도록 next_cursor를 함께 내려줌
+    if (!items.isEmpty() && hasNext) {
+      data.put("next_cursor", encodeCursor('n', items.get(items.size() - 1).id()));
+    }
+
+    return data;
+  }
+
+  /**
+   * 커서(keyset) 목록 조회
+   * - 정렬은 항상 id DESC (기존 목록과 동일)
+   * - afterId: 해당 id 다음(더 오래된) 글들 → WHERE id < ? ORDER BY id DESC
+   * - beforeId: 해당 id 이전(더 최신) 글들 → WHERE id > ? ORDER BY id ASC 로 읽고 뒤집음
+   * - pageSize + 1건을 읽어서 다음/이전 페이지 존재 여부를 COUNT 없이 판단
+   * - hitIds(역색인 결과, id DESC)가 있으면 SQL 검색 대신 배열에서 seek
+   */
+  private ApiResponse<?> postListByCursor(
+      int pageSize, String type, String keyword, int[] hitIds,
+      Integer afterId, Integer beforeId) throws Exception {
+
+    boolean forward = (afterId != null);
+    int anchor = forward ? afterId : beforeId;
+
+    List<PostSummary> items;
+    boolean more;
+
+    if (hitIds != null) {
+      // hitIds는 id DESC 정렬이므로 anchor 경계를 이진 탐색한 뒤 구간을 자름
+      int pos = seekDesc(hitIds, forward ? anchor : anchor + 1);
+      int from;
+      int to;
+      if (forward) {
+        from = pos;
+        to = Math.min(pos + pageSize + 1, hitIds.length);
+        more = (to - from) > pageSize;
+        if (more)
+          to--;
+      } else {
+        to = pos;
+        from = Math.max(0, pos - (pageSize + 1));
+        more = (to - from) > pageSize;
+        if (more)
+          from++;
+      }
+      items = postRepository.findByIds(hitIds, from, to);
+
+    } else {
+      items = postRepository.seek(type, keyword, anchor, forward, pageSize + 1);
+
+      more = items.size() > pageSize;
+      if (more)
+        items.remove(items.size() - 1);
+
+      // 역방향으로 읽은 경우 화면 순서(id DESC)로 되돌림
+      if (!forward)
+        Collections.reverse(items);
+    }
+
+    // forward: 이전 페이지는 anchor가 있었으므로 항상 존재, 다음 페이지는 more로 판단
+    // backward: 다음 페이지는 anchor가 있었으므로 항상 존재, 이전 페이지는 more로 판단
+    boolean hasNext = forward ? more : true;
+    boolean hasPrev = forward ? true : more;
+
+    String nextCursor = null;
+    String prevCursor = null;
+    if (!items.isEmpty()) {
+      int firstId = items.get(0).id();
+      int lastId = items.get(items.size() - 1).id();
+      if (hasNext)
+        nextCursor = encodeCursor('n', lastId);
+      if (hasPrev)
+        prevCursor = encodeCursor('p', firstId);
+    } else if (forward) {
+      // 끝을 넘어간 경우에도 되돌아갈 수 있도록 anchor 기준 prev 제공
+      prevCursor = encodeCursor('p', anchor - 1);
+    } else {
+      nextCursor = encodeCursor('n', anchor + 1);
+    }
+
+    // Map.of는 null 값을 허용하지 않으므로 HashMap 사용(next/prev 없음 = null)
+    Map<String, Object> data = new HashMap<>();
+    data.put("pageSize", pageSize);
+    data.put("items", items);
+    data.put("next_cursor", nextCursor);
+    data.put("prev_cursor", prevCursor);
+    return ok(data);
+  }
+
+  // id DESC 배열에서 id < bound 가 처음 나오는 위치
+  private int seekDesc(int[] idsDesc, int bound) {
+    int lo = 0;
+    int hi = idsDesc.length;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (idsDesc[mid] >= bound)
+        lo = mid + 1;
+      else
+        hi = mid;
+    }
+    return lo;
+  }
+
+  // --------------------------------------------------
+  // 공통 유틸: 목록 커서
+  // - "n:{id}"(다음 페이지) / "p:{id}"(이전 페이지)를 base64url로 감싼 불투명 문자열
+  // - 클라이언트는 내용을 해석하지 않고 그대로 돌려주기만 하면 됨
+  // --------------------------------------------------
+  private String encodeCursor(char direction, int id) {
+    String raw = direction + ":" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  // 반환값: { 방향문자('n'|'p'), id } / 형식 오류면 null
+  private int[] decodeCursor(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      if (raw.length() < 3 || raw.charAt(1) != ':')
+        return null;
+      char direction = raw.charAt(0);
+      if (direction != 'n' && direction != 'p')
+        return null;
+      return new int[] { direction, Integer.parseInt(raw.substring(2)) };
+    } catch (IllegalArgumentException e) {
+      // base64 형식 오류 / 숫자 변환 오류(NumberFormatException 포함)
+      return null;
+    }
   }
 
   /**
    * GET /posts/{id}
-   * - 조회수 증가(중복 방지): post_view_logs에 (post_id, viewer_key) UNIQUE
-   * - insert 성공했을 때만 posts.view_count +1
+   * - 조회수 증가(중복 방지): (post_id, viewer_key) 기준, 판단 방식은 app.view-dedup.strategy
+   * - 조회 기록은 ViewCountBuffer에 쌓았다가 주기적으로 일괄 반영(write-behind)
+   *   → 요청마다 트랜잭션/row lock을 잡지 않음
+   * - 응답 view_count = DB 값 + 아직 반영 안 된 증가분(PostCache에는 조회수를 담지 않음)
+   * - 응답 unique_viewers = 고유 조회자 수 추정치(HyperLogLog)
+   * - 게시글 행은 PostCache에서 먼저 찾고, 없을 때만 DB 조회
+   * - 약한 ETag(제목/본문/댓글 수, 조회수 제외) → 같으면 304(조회 기록은 그대로)
+   * - Last-Modified(글 수정 시각, 없으면 작성 시각)는 200/304 모두 내려주지만 판단은 ETag로만
+   *   (댓글 수 변화는 시각 값에 남지 않음 → If-Modified-Since만 보내면 200)
    */
   @GetMapping("/posts/{id}")
-  public Map<String, Object> postDetail(
+  public ApiResponse<?> postDetail(
+      @PathVariable("id") int id,
+      @RequestParam(value = "viewer_key", required = false) String viewerKeyParam,
+      HttpSession session,
+      HttpServletRequest req,
+      HttpServletResponse res,
+      WebRequest webRequest) throws Exception {
+
+    String viewerKey = buildViewerKey(session, req, viewerKeyParam);
+
+    // 캐시 → 없으면 DB
+    CachedPost p = postCache.get(id, this::loadPost);
+    if (p == null)
+      return fail("게시글 없음");
+
+    long modified = dbTimeMillis(p.updatedAt() != null ? p.updatedAt() : p.createdAt());
+    if (modified >= 0)
+      res.setDateHeader(HttpHeaders.LAST_MODIFIED, modified);
+
+    if (notModified(webRequest, postEtag(p), -1)) {
+      viewCounts.record(id, viewerKey);
+      uniqueViewers.observe(id, viewerKey);
+      return null; // 304
+    }
+
+    return ok(viewPost(p, viewerKey));
+  }
+
+  /**
+   * GET /posts/{id}/full
+   * - 게시글 화면 한 번에: 게시글 + 댓글 첫 페이지 + 작성자 정보(중복 제거)
+   *   (기존: /posts/{id} → /posts/{id}/comments → /users/{userId} × N 번 호출)
+   * - 세 조회는 서로 독립적이라 각자 커넥션을 빌려 병렬 실행
+   *   (작성자 목록도 게시글/댓글 결과를 기다리지 않도록 서브쿼리로 user_id를 구함)
+   * - 조회수 기록은 /posts/{id}와 동일
+   * - timings_ms: 각 조회 소요 시간(커넥션 획득 포함) + 전체
+   */
+  @GetMapping("/posts/{id}/full")
+  public ApiResponse<?> postFull(
       @PathVariable("id") int id,
       @RequestParam(value = "viewer_key", required = false) String viewerKeyParam,
+      @RequestParam(value = "commentLimit", required = false, defaultValue = "20") int commentLimit,
       HttpSession session,
       HttpServletRequest req) throws Exception {
 
+    long started = System.nanoTime();
+
+    if (commentLimit < 1)
+      commentLimit = 20;
+    if (commentLimit > 100)
+      commentLimit = 100;
+    int limit = commentLimit;
+
+    // 세션/요청 객체는 요청 스레드에서만 사용
     String viewerKey = buildViewerKey(session, req, viewerKeyParam);
 
-    String insertLogSql = """
-        INSERT INTO post_view_logs (post_id, viewer_key, viewed_at)
-        VALUES (?, ?, NOW())
-        """;
-
-    String incSql = """
-        UPDATE posts
-        SET view_count = view_count + 1
-        WHERE id = ?
-        """;
-
-    String selectSql = """
-        SELECT id, user_id, title, content, view_count, comments_cnt, created_at
-        FROM posts
-        WHERE id = ?
-        LIMIT 1
-        """;
-
-    try (Connection conn = dataSource.getConnection()) {
-      conn.setAutoCommit(false);
-
-      try {
-        // 1) 조회 로그 INSERT 시도
-        boolean inserted = false;
-        try (PreparedStatement ps = conn.prepareStatement(insertLogSql)) {
-          ps.setInt(1, id);
-          ps.setString(2, viewerKey);
-          ps.executeUpdate();
-          inserted = true;
-        } catch (SQLIntegrityConstraintViolationException dupOrFk) {
-          // - UNIQUE 충돌(이미 본 사용자) -> inserted=false
-          // - FK 오류(게시글 없음) -> 아래 select에서 fail 처리되도록 유도
-          inserted = false;
-        }
+    CompletableFuture<Timed<CachedPost>> postF = parallelQueries.submit(() -> postCache.get(id, this::loadPost));
+    CompletableFuture<Timed<List<Comment>>> commentsF = parallelQueries
+        .submit(() -> commentRepository.findPage(id, 0, limit + 1));
+    CompletableFuture<Timed<Map<String, Object>>> authorsF = parallelQueries
+        .submit(() -> loadPageAuthors(id, limit));
+
+    Timed<CachedPost> post = ParallelQueryExecutor.join(postF);
+    Timed<List<Comment>> comments = ParallelQueryExecutor.join(commentsF);
+    Timed<Map<String, Object>> authors = ParallelQueryExecutor.join(authorsF);
+
+    if (post.value() == null)
+      return fail("게시글 없음");
+
+    List<Comment> items = comments.value();
+    boolean hasMore = items.size() > limit;
+    if (hasMore)
+      items.remove(items.size() - 1);
+
+    // 다음 댓글은 GET /posts/{id}/comments?cursor=... 로 이어서 조회
+    Map<String, Object> commentPage = new HashMap<>();
+    commentPage.put("items", items);
+    commentPage.put("has_more", hasMore);
+    if (hasMore)
+      commentPage.put("next_cursor", encodeCursor('n', items.get(items.size() - 1).id()));
+
+    Map<String, Object> timings = new LinkedHashMap<>();
+    timings.put("post", post.millis());
+    timings.put("comments", comments.millis());
+    timings.put("authors", authors.millis());
+    timings.put("total", Math.round((System.nanoTime() - started) / 1_000.0) / 1_000.0);
 
-        // 2) 로그가 새로 들어갔을 때만 view_count 증가
-        if (inserted) {
-          try (PreparedStatement ps = conn.prepareStatement(incSql)) {
-            ps.setInt(1, id);
-            ps.executeUpdate();
-          }
-        }
+    return ok(Map.of(
+        "post", viewPost(post.value(), viewerKey),
+        "comments", commentPage,
+        "authors", authors.value(),
+        "timings_ms", timings));
+  }
 
-        // 3) 게시글 조회
-        try (PreparedStatement ps = conn.prepareStatement(selectSql)) {
-          ps.setInt(1, id);
-          try (ResultSet rs = ps.executeQuery()) {
-            if (!rs.next()) {
-              conn.rollback();
-              return fail("게시글 없음");
-            }
-
-            Map<String, Object> post = new HashMap<>();
-            post.put("id", rs.getInt("id"));
-            post.put("user_id", rs.getInt("user_id"));
-            post.put("title", rs.getString("title"));
-            post.put("content", rs.getString("content"));
-            post.put("view_count", rs.getInt("view_count"));
-            post.put("comments_cnt", rs.getInt("comments_cnt"));
-            post.put("created_at", rs.getString("created_at"));
-
-            // 디버그/테스트용으로 viewer_key도 같이 내려줌
-            post.put("viewer_key", viewerKey);
-
-            conn.commit();
-            return ok(post);
-          }
-        }
+  /**
+   * 게시글 조회 응답 생성 + 조회 기록
+   * - 존재하는 게시글에 대해서만 호출(조회 기록은 메모리)
+   */
+  private PostDetail viewPost(CachedPost p, String viewerKey) throws SQLException {
+    int id = p.id();
+    viewCounts.record(id, viewerKey);
+
+    return new PostDetail(
+        id,
+        p.userId(),
+        p.title(),
+        p.content(),
+        postRepository.viewCount(id),
+        p.commentsCnt(),
+        p.createdAt(),
+        uniqueViewers.observe(id, viewerKey),
+        // 디버그/테스트용으로 viewer_key도 같이 내려줌
+        viewerKey);
+  }
 
-      } catch (Exception e) {
-        conn.rollback();
-        throw e;
-      } finally {
-        conn.setAutoCommit(true);
-      }
-    }
+  /**
+   * 게시글 작성자 + 댓글 첫 페이지 작성자 정보
+   * - 반환: { "user_id": { GET /users/{userId}와 같은 필드 } }
+   * - user_id 목록을 서브쿼리로 구해서 게시글/댓글 조회와 동시에 실행 가능
+   */
+  private Map<String, Object> loadPageAuthors(int postId, int commentLimit) throws Exception {
+    Map<String, Object> authors = new LinkedHashMap<>();
+    for (CachedUser u : userRepository.findPageAuthors(postId, commentLimit))
+      authors.put(String.valueOf(u.id()), userView(u));
+    return authors;
   }
 
   /**
@@ -701,13 +966,13 @@ public class ApiController {
    * - posts INSERT 후 생성된 post_id 반환
    */
   @PostMapping("/posts")
-  public Map<String, Object> createPost(@RequestBody Map<String, Object> body, HttpSession session) throws Exception {
+  public ApiResponse<?> createPost(@RequestBody PostRequest body, HttpSession session) throws Exception {
     Integer userId = requireLogin(session);
     if (userId == null)
       return fail("로그인 필요");
 
-    String title = (String) body.get("title");
-    String content = (String) body.get("content");
+    String title = body.title();
+    String content = body.content();
 
     if (title == null || title.isBlank() || content == null || content.isBlank())
       return fail("입력값 오류");
@@ -716,29 +981,11 @@ public class ApiController {
     if (title.length() > 45)
       return fail("입력값 오류");
 
-    String sql = """
-        INSERT INTO posts (user_id, title, content)
-        VALUES (?, ?, ?)
-        """;
+    // 검색 색인 / 전체 개수는 같은 트랜잭션의 outbox 이벤트로 반영(OutboxSubscribers)
+    int postId = postRepository.insert(userId, title, content);
+    bumpPostListGeneration();
 
-    try (Connection conn = dataSource.getConnection();
-        PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-      ps.setInt(1, userId);
-      ps.setString(2, title);
-      ps.setString(3, content);
-
-      int affected = ps.executeUpdate();
-      if (affected != 1)
-        return fail("입력 실패");
-
-      try (ResultSet keys = ps.getGeneratedKeys()) {
-        if (!keys.next())
-          return fail("생성된 post_id 키 없음");
-        int postId = keys.getInt(1);
-        return ok(Map.of("post_id", postId));
-      }
-    }
+    return ok(Map.of("post_id", postId));
   }
 
   /**
@@ -747,106 +994,67 @@ public class ApiController {
    * - 작성자 본인만 수정 가능
    */
   @PutMapping("/posts/{id}")
-  public Map<String, Object> updatePost(
+  public ApiResponse<?> updatePost(
       @PathVariable("id") int id,
-      @RequestBody Map<String, Object> body,
+      @RequestBody PostRequest body,
       HttpSession session) throws Exception {
 
     Integer userId = requireLogin(session);
     if (userId == null)
       return fail("로그인 필요");
 
-    String title = (String) body.get("title");
-    String content = (String) body.get("content");
+    String title = body.title();
+    String content = body.content();
 
     if (title == null || title.isBlank() || content == null || content.isBlank())
       return fail("입력값 오류");
     if (title.length() > 45)
       return fail("입력값 오류");
 
-    String ownerSql = """
-        SELECT user_id
-        FROM posts
-        WHERE id = ?
-        """;
-
-    String updateSql = """
-        UPDATE posts
-        SET title = ?, content = ?
-        WHERE id = ?
-        """;
-
-    try (Connection conn = dataSource.getConnection()) {
-
-      // 1) 작성자 확인
-      Integer ownerId = null;
-      try (PreparedStatement ps = conn.prepareStatement(ownerSql)) {
-        ps.setInt(1, id);
-        try (ResultSet rs = ps.executeQuery()) {
-          if (!rs.next())
-            return fail("게시글 없음");
-          ownerId = rs.getInt("user_id");
-        }
-      }
-
-      if (ownerId == null || ownerId.intValue() != userId.intValue())
-        return fail("권한 없음");
+    // 작성자 확인 + UPDATE를 한 문장으로(0건일 때만 없음/권한 없음 구분)
+    OwnedWrite result = postRepository.update(id, userId, title, content);
+    if (result == OwnedWrite.NOT_FOUND)
+      return fail("게시글 없음");
+    if (result == OwnedWrite.FORBIDDEN)
+      return fail("권한 없음");
 
-      // 2) UPDATE
-      try (PreparedStatement ps = conn.prepareStatement(updateSql)) {
-        ps.setString(1, title);
-        ps.setString(2, content);
-        ps.setInt(3, id);
+    // 이 노드의 캐시는 바로 무효화(수정한 사람이 곧바로 다시 읽음), 검색 색인 / 다른 노드 캐시는 outbox 이벤트로
+    postCache.invalidate(id);
+    bumpPostListGeneration();
 
-        int updated = ps.executeUpdate();
-        return ok(Map.of("updated", updated));
-      }
-    }
+    return ok(Map.of("updated", 1));
   }
 
   /**
    * DELETE /posts/{id}
    * - 로그인 필요
    * - 작성자 본인만 삭제 가능
-   * - comments는 FK ON DELETE CASCADE로 자동 삭제
+   * - 댓글도 같은 트랜잭션에서 삭제(PostRepository.delete)
    */
   @DeleteMapping("/posts/{id}")
-  public Map<String, Object> deletePost(@PathVariable("id") int id, HttpSession session) throws Exception {
+  public ApiResponse<?> deletePost(@PathVariable("id") int id, HttpSession session) throws Exception {
     Integer userId = requireLogin(session);
     if (userId == null)
       return fail("로그인 필요");
 
-    String ownerSql = """
-        SELECT user_id
-        FROM posts
-        WHERE id = ?
-        """;
-
-    String deleteSql = "DELETE FROM posts WHERE id = ?";
+    OwnedWrite result = postRepository.delete(id, userId);
+    if (result == OwnedWrite.NOT_FOUND)
+      return fail("게시글 없음");
+    if (result == OwnedWrite.FORBIDDEN)
+      return fail("권한 없음");
 
-    try (Connection conn = dataSource.getConnection()) {
-
-      // 1) 작성자 확인
-      Integer ownerId = null;
-      try (PreparedStatement ps = conn.prepareStatement(ownerSql)) {
-        ps.setInt(1, id);
-        try (ResultSet rs = ps.executeQuery()) {
-          if (!rs.next())
-            return fail("게시글 없음");
-          ownerId = rs.getInt("user_id");
-        }
-      }
+    // 이 노드의 캐시는 바로 무효화, 검색 색인 / 전체 개수 / 다른 노드 캐시는 outbox 이벤트로
+    postCache.invalidate(id);
+    bumpPostListGeneration();
 
-      if (ownerId == null || ownerId.intValue() != userId.intValue())
-        return fail("권한 없음");
+    return ok(Map.of("deleted", 1));
+  }
 
-      // 2) DELETE
-      try (PreparedStatement ps = conn.prepareStatement(deleteSql)) {
-        ps.setInt(1, id);
-        int deleted = ps.executeUpdate();
-        return ok(Map.of("deleted", deleted));
-      }
-    }
+  // 목록 페이지 캐시 전체 무효화(글을 쓴 사람이 바로 목록에서 확인하도록 요청 안에서)
+  private void bumpPostListGeneration() {
+    postListVersion.bump();
+    if (postListCache != null)
+      postListCache.bumpGeneration();
   }
 
   // --------------------------------------------------
@@ -855,122 +1063,210 @@ public class ApiController {
 
   /**
    * GET /posts/{postId}/comments
-   * - 해당 게시글의 댓글 목록
+   * - 해당 게시글의 댓글 목록(id ASC)
+   * - 페이지 모드: cursor / after_id / limit 중 하나라도 있으면
+   *   comments(post_id, id) 인덱스로 after_id 다음부터 limit건(기본 50, 최대 200)
+   *   → 다음 페이지가 있으면 next_cursor를 같이 내려줌
+   * - 스트리밍 모드: 파라미터가 없으면 전체 목록을 ResultSet에서 읽는 대로 응답에 바로 씀
+   *   (fetch size 단위로 받아오므로 댓글 수와 상관없이 메모리 사용량 일정, 응답 JSON 형식은 기존과 동일)
+   * - 두 모드 모두 목록 버전(댓글 수/마지막 id/최근 수정 시각, 인덱스 끝만 읽음)으로 ETag → 같으면 304
    */
   @GetMapping("/posts/{postId}/comments")
-  public Map<String, Object> commentList(@PathVariable("postId") int postId) throws Exception {
+  public ApiResponse<?> commentList(
+      @PathVariable("postId") int postId,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "after_id", required = false) Integer afterId,
+      @RequestParam(value = "limit", required = false) Integer limit,
+      HttpServletResponse res,
+      WebRequest webRequest) throws Exception {
+
+    if (cursor == null && afterId == null && limit == null) {
+      if (commentsNotModified(postId, webRequest))
+        return null; // 304
+      streamComments(postId, ResponseFormat.of(webRequest.getHeader("Accept")), res);
+      return null; // 응답은 이미 씀
+    }
 
-    String sql = """
-        SELECT id, post_id, user_id, comment, created_at
-        FROM comments
-        WHERE post_id = ?
-        ORDER BY id ASC
-        """;
+    if (cursor != null && !cursor.isBlank()) {
+      int[] decoded = decodeCursor(cursor.trim());
+      if (decoded == null || decoded[0] != 'n')
+        return fail("입력값 오류");
+      afterId = decoded[1];
+    }
 
-    List<Map<String, Object>> items = new ArrayList<>();
+    int pageSize = (limit == null || limit < 1) ? 50 : Math.min(limit, 200);
+    int after = afterId == null ? 0 : afterId;
+
+    if (commentsNotModified(postId, webRequest))
+      return null; // 304
+
+    // 같은 페이지 동시 요청은 조회 한 번(결과 Map은 요청끼리 공유 → 만든 뒤 수정하지 않음)
+    return ok(singleFlight.execute("comments.page", postId + ":" + after + ":" + pageSize, () -> {
+      List<Comment> items = commentRepository.findPage(postId, after, pageSize + 1);
+      boolean hasMore = items.size() > pageSize;
+      if (hasMore)
+        items.remove(items.size() - 1);
+
+      Map<String, Object> data = new HashMap<>();
+      data.put("items", items);
+      if (hasMore)
+        data.put("next_cursor", encodeCursor('n', items.get(items.size() - 1).id()));
+      return data;
+    }));
+  }
 
-    try (Connection conn = dataSource.getConnection();
-        PreparedStatement ps = conn.prepareStatement(sql)) {
-
-      ps.setInt(1, postId);
-
-      try (ResultSet rs = ps.executeQuery()) {
-        while (rs.next()) {
-          Map<String, Object> row = new HashMap<>();
-          row.put("id", rs.getInt("id"));
-          row.put("post_id", rs.getInt("post_id"));
-          row.put("user_id", rs.getInt("user_id"));
-          row.put("comment", rs.getString("comment"));
-          row.put("created_at", rs.getString("created_at"));
-          items.add(row);
+  /**
+   * 댓글 전체 목록 스트리밍
+   * - 동시 요청은 먼저 온 요청이 만든 JSON 바이트를 같이 씀(댓글 수가 coalesce-max-rows 이하일 때만)
+   *   → 넘으면 버퍼를 버리고 요청마다 스트리밍(메모리 사용량 일정)
+   * - 쿼리 실행까지 끝난 뒤에 응답을 쓰기 시작(그 전 오류는 일반 예외 처리로 감)
+   * - 응답 모양은 ok(Map.of("items", ...))와 동일(행은 Comment 직렬화기로 씀)
+   * - Accept가 CBOR/Smile이면 같은 구조를 그 형식 generator로 씀(공유 버퍼도 형식별)
+   */
+  private void streamComments(int postId, ResponseFormat format, HttpServletResponse res) throws Exception {
+    ObjectMapper mapper = format.mapper(jsonMapper);
+    byte[] shared = singleFlight.execute("comments.all", postId + ":" + format, () -> {
+      ByteArrayOutputStream buf = new ByteArrayOutputStream();
+      boolean[] complete = { false };
+      commentRepository.streamByPost(postId, commentFetchSize, rows -> {
+        try (JsonGenerator g = mapper.createGenerator(buf)) {
+          complete[0] = writeComments(g, rows, commentCoalesceMaxRows);
         }
+      });
+      return complete[0] ? buf.toByteArray() : null;
+    });
+
+    if (shared != null) {
+      setContentType(res, format);
+      res.setContentLength(shared.length);
+      res.getOutputStream().write(shared);
+      return;
+    }
+
+    commentRepository.streamByPost(postId, commentFetchSize, rows -> {
+      setContentType(res, format);
+
+      try (JsonGenerator g = mapper.createGenerator(res.getOutputStream())) {
+        writeComments(g, rows, Integer.MAX_VALUE);
       }
+    });
+  }
+
+  private static void setContentType(HttpServletResponse res, ResponseFormat format) {
+    res.setContentType(format.mediaType().toString());
+    if (!format.binary())
+      res.setCharacterEncoding("UTF-8");
+  }
+
+  /**
+   * { data: { items: [...] }, ok: true } 쓰기
+   * - maxRows를 넘으면 중간에 멈추고 false(쓴 내용은 버림)
+   */
+  private static boolean writeComments(JsonGenerator g, CommentRepository.Rows rows, int maxRows)
+      throws Exception {
+    g.writeStartObject();
+    g.writeName("data");
+    g.writeStartObject();
+    g.writeArrayPropertyStart("items");
+    int n = 0;
+    while (rows.next()) {
+      if (++n > maxRows)
+        return false;
+      g.writePOJO(rows.current());
     }
+    g.writeEndArray();
+    g.writeEndObject();
+    g.writeBooleanProperty("ok", true);
+    g.writeEndObject();
+    return true;
+  }
+
+  // --------------------------------------------------
+  // 공통 유틸: 조건부 GET 검증값
+  // - 모두 약한 ETag(W/): 표현이 "같은 의미"면 같음(조회수처럼 계속 바뀌는 값은 빼고, gzip 등 변환에도 유지)
+  // - 목록 버전은 쓰기 전에 확인 → 확인 후 바뀐 내용이 나가도 다음 요청의 ETag가 달라 200
+  // - CBOR/Smile 응답은 ETag 끝에 형식 표시(ResponseFormat.etag), Last-Modified는 형식과 무관
+  // --------------------------------------------------
+  private static boolean notModified(WebRequest webRequest, String etag, long lastModified) {
+    return webRequest.checkNotModified(ResponseFormat.of(webRequest.getHeader("Accept")).etag(etag), lastModified);
+  }
+
+  private static String weakEtag(String prefix, Object... parts) {
+    return "W/\"" + prefix + "-" + Integer.toHexString(Arrays.hashCode(parts)) + "\"";
+  }
+
+  // 본문 String의 hashCode는 String 안에 저장되므로 캐시된 글은 처음 한 번만 계산
+  private static String postEtag(CachedPost p) {
+    return weakEtag("p" + p.id(), p.title(), p.content(), p.commentsCnt(), p.userId());
+  }
 
-    return ok(Map.of("items", items));
+  private static String userEtag(CachedUser u) {
+    return weakEtag("u" + u.id(), u.username(), u.nickname(), u.email(), u.createdAt(),
+        u.bio(), u.phone(), u.birthDate(), u.profileImageUrl());
+  }
+
+  // 댓글 목록: 게시글 댓글 수(PostCache, 작성/삭제 시 무효화) + 마지막 댓글 id + 마지막 수정 시각(ms)
+  private boolean commentsNotModified(int postId, WebRequest webRequest) throws Exception {
+    CachedPost p = postCache.get(postId, this::loadPost);
+    CommentRepository.Version v = singleFlight.execute("comments.version", postId,
+        () -> commentRepository.version(postId));
+    return notModified(webRequest, "W/\"c" + postId + "-" + (p == null ? -1 : p.commentsCnt())
+        + "-" + v.maxId() + "-" + dbTimeMillis(v.lastEdited()) + "\"", -1);
+  }
+
+  // DB DATETIME 문자열("yyyy-MM-dd HH:mm:ss[.f]") → epoch ms(없거나 형식이 다르면 -1: Last-Modified 생략)
+  // - 소수부도 살림(댓글 수정 시각은 ms 단위), Last-Modified 비교는 스프링이 초 단위로 자름
+  private static long dbTimeMillis(String value) {
+    if (value == null || value.length() < 19)
+      return -1;
+    try {
+      return LocalDateTime.parse(value.replace(' ', 'T'))
+          .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    } catch (DateTimeParseException e) {
+      return -1;
+    }
+  }
+
+  // 캐시 미스 loader: 같은 id 동시 미스는 DB 한 번(캐시가 꺼져 있어도 동작)
+  private CachedPost loadPost(int id) throws Exception {
+    return singleFlight.execute("post", id, () -> postRepository.findById(id));
+  }
+
+  private CachedUser loadUser(int id) throws Exception {
+    return singleFlight.execute("user", id, () -> userRepository.findById(id));
   }
 
   /**
    * POST /posts/{postId}/comments
    * - 로그인 필요
    * - comments INSERT
-   * - posts.comments_cnt +1
+   * - 댓글 수 +1(posts 행이 아니라 CommentCounter 슬롯, 인기 글에서도 작성자끼리 락 경합 없음)
    * - 트랜잭션으로 정합성 유지
    */
   @PostMapping("/posts/{postId}/comments")
-  public Map<String, Object> createComment(
+  public ApiResponse<?> createComment(
       @PathVariable("postId") int postId,
-      @RequestBody Map<String, Object> body,
+      @RequestBody CommentRequest body,
       HttpSession session) throws Exception {
 
     Integer userId = requireLogin(session);
     if (userId == null)
       return fail("로그인 필요");
 
-    String comment = (String) body.get("comment");
+    String comment = body.comment();
     if (comment == null || comment.isBlank())
       return fail("입력값 오류");
     if (comment.length() > 255)
       return fail("입력값 오류");
 
-    String insertSql = """
-        INSERT INTO comments (post_id, user_id, comment)
-        VALUES (?, ?, ?)
-        """;
-
-    String incSql = """
-        UPDATE posts
-        SET comments_cnt = comments_cnt + 1
-        WHERE id = ?
-        """;
-
-    try (Connection conn = dataSource.getConnection()) {
-      conn.setAutoCommit(false);
-
-      try {
-        int commentId;
-
-        // 1) 댓글 INSERT
-        try (PreparedStatement ps = conn.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS)) {
-          ps.setInt(1, postId);
-          ps.setInt(2, userId);
-          ps.setString(3, comment);
-
-          int affected = ps.executeUpdate();
-          if (affected != 1) {
-            conn.rollback();
-            return fail("입력 실패");
-          }
-
-          try (ResultSet keys = ps.getGeneratedKeys()) {
-            if (!keys.next()) {
-              conn.rollback();
-              return fail("생성된 comment_id 키 없음");
-            }
-            commentId = keys.getInt(1);
-          }
-        } catch (SQLIntegrityConstraintViolationException fk) {
-          // post_id가 없거나(user FK 등) 무결성 오류인 경우
-          conn.rollback();
-          return fail("게시글 없음");
-        }
+    Integer commentId = commentRepository.insert(postId, userId, comment);
+    if (commentId == null)
+      return fail("게시글 없음");
 
-        // 2) posts.comments_cnt +1
-        try (PreparedStatement ps = conn.prepareStatement(incSql)) {
-          ps.setInt(1, postId);
-          ps.executeUpdate();
-        }
+    // comments_cnt가 바뀌었으므로 게시글 캐시 무효화(다른 노드는 outbox 이벤트로)
+    postCache.invalidate(postId);
 
-        conn.commit();
-        return ok(Map.of("comment_id", commentId));
-
-      } catch (Exception e) {
-        conn.rollback();
-        throw e;
-      } finally {
-        conn.setAutoCommit(true);
-      }
-    }
+    return ok(Map.of("comment_id", commentId));
   }
 
   /**
@@ -979,138 +1275,53 @@ public class ApiController {
    * - 댓글 작성자만 수정 가능
    */
   @PutMapping("/comments/{commentId}")
-  public Map<String, Object> updateComment(
+  public ApiResponse<?> updateComment(
       @PathVariable("commentId") int commentId,
-      @RequestBody Map<String, Object> body,
+      @RequestBody CommentRequest body,
       HttpSession session) throws Exception {
 
     Integer userId = requireLogin(session);
     if (userId == null)
       return fail("로그인 필요");
 
-    String comment = (String) body.get("comment");
+    String comment = body.comment();
     if (comment == null || comment.isBlank())
       return fail("입력값 오류");
     if (comment.length() > 255)
       return fail("입력값 오류");
 
-    String ownerSql = """
-        SELECT user_id
-        FROM comments
-        WHERE id = ?
-        """;
-
-    String updateSql = """
-        UPDATE comments
-        SET comment = ?
-        WHERE id = ?
-        """;
-
-    try (Connection conn = dataSource.getConnection()) {
-
-      // 1) 작성자 확인
-      Integer ownerId = null;
-      try (PreparedStatement ps = conn.prepareStatement(ownerSql)) {
-        ps.setInt(1, commentId);
-        try (ResultSet rs = ps.executeQuery()) {
-          if (!rs.next())
-            return fail("댓글 없음");
-          ownerId = rs.getInt("user_id");
-        }
-      }
+    // 작성자 확인 + UPDATE를 한 문장으로(0건일 때만 없음/권한 없음 구분)
+    OwnedWrite result = commentRepository.update(commentId, userId, comment);
+    if (result == OwnedWrite.NOT_FOUND)
+      return fail("댓글 없음");
+    if (result == OwnedWrite.FORBIDDEN)
+      return fail("권한 없음");
 
-      if (ownerId == null || ownerId.intValue() != userId.intValue())
-        return fail("권한 없음");
-
-      // 2) UPDATE
-      try (PreparedStatement ps = conn.prepareStatement(updateSql)) {
-        ps.setString(1, comment);
-        ps.setInt(2, commentId);
-        int updated = ps.executeUpdate();
-        return ok(Map.of("updated", updated));
-      }
-    }
+    return ok(Map.of("updated", 1));
   }
 
   /**
    * DELETE /comments/{commentId}
    * - 로그인 필요
    * - 댓글 작성자만 삭제 가능
-   * - 삭제 후 posts.comments_cnt -1
+   * - 삭제 후 댓글 수 -1(CommentCounter 슬롯)
    */
   @DeleteMapping("/comments/{commentId}")
-  public Map<String, Object> deleteComment(@PathVariable("commentId") int commentId, HttpSession session)
+  public ApiResponse<?> deleteComment(@PathVariable("commentId") int commentId, HttpSession session)
       throws Exception {
     Integer userId = requireLogin(session);
     if (userId == null)
       return fail("로그인 필요");
 
-    // 삭제 시 post_id가 필요(댓글 수 -1)
-    String selectSql = """
-        SELECT post_id, user_id
-        FROM comments
-        WHERE id = ?
-        """;
-
-    String deleteSql = "DELETE FROM comments WHERE id = ?";
-
-    String decSql = """
-        UPDATE posts
-        SET comments_cnt = CASE WHEN comments_cnt > 0 THEN comments_cnt - 1 ELSE 0 END
-        WHERE id = ?
-        """;
-
-    try (Connection conn = dataSource.getConnection()) {
-      conn.setAutoCommit(false);
-
-      try {
-        Integer ownerId = null;
-        Integer postId = null;
-
-        // 1) 댓글 존재 + 작성자 확인 + post_id 확보
-        try (PreparedStatement ps = conn.prepareStatement(selectSql)) {
-          ps.setInt(1, commentId);
-          try (ResultSet rs = ps.executeQuery()) {
-            if (!rs.next()) {
-              conn.rollback();
-              return fail("댓글 없음");
-            }
-            postId = rs.getInt("post_id");
-            ownerId = rs.getInt("user_id");
-          }
-        }
-
-        if (ownerId == null || ownerId.intValue() != userId.intValue()) {
-          conn.rollback();
-          return fail("권한 없음");
-        }
-
-        // 2) 댓글 DELETE
-        int deleted;
-        try (PreparedStatement ps = conn.prepareStatement(deleteSql)) {
-          ps.setInt(1, commentId);
-          deleted = ps.executeUpdate();
-          if (deleted != 1) {
-            conn.rollback();
-            return fail("삭제 실패");
-          }
-        }
+    CommentRepository.Deleted deleted = commentRepository.delete(commentId, userId);
+    if (deleted.result() == OwnedWrite.NOT_FOUND)
+      return fail("댓글 없음");
+    if (deleted.result() == OwnedWrite.FORBIDDEN)
+      return fail("권한 없음");
 
-        // 3) posts.comments_cnt -1
-        try (PreparedStatement ps = conn.prepareStatement(decSql)) {
-          ps.setInt(1, postId);
-          ps.executeUpdate();
-        }
+    // comments_cnt가 바뀌었으므로 게시글 캐시 무효화(다른 노드는 outbox 이벤트로)
+    postCache.invalidate(deleted.postId());
 
-        conn.commit();
-        return ok(Map.of("deleted", deleted));
-
-      } catch (Exception e) {
-        conn.rollback();
-        throw e;
-      } finally {
-        conn.setAutoCommit(true);
-      }
-    }
+    return ok(Map.of("deleted", 1));
   }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.example.demo.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.example.demo.dto.ApiResponse;
+import com.example.demo.support.SingleFlight;
+import com.example.demo.user.PasswordHasher;
+
+/**
+ * 컨트롤러 공통 예외 → 응답 변환
+ *
+ * - 응답 포맷은 ApiController와 동일(ApiResponse.fail → { ok: false, message })
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+  /**
+   * 비밀번호 해시 풀이 가득 참 → 429 + Retry-After
+   * - 요청 스레드가 대기열에 쌓이지 않도록 바로 거절
+   */
+  @ExceptionHandler(PasswordHasher.BusyException.class)
+  public ResponseEntity<ApiResponse<?>> passwordHashBusy(PasswordHasher.BusyException e) {
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header("Retry-After", "1")
+        .body(ApiResponse.fail("요청이 많습니다. 잠시 후 다시 시도해 주세요"));
+  }
+
+  /**
+   * 같은 조회를 기다리다 시간 초과(SingleFlight) → 503 + Retry-After
+   * - 먼저 간 조회가 느린 상황이라 같은 쿼리를 새로 보내지 않고 거절
+   */
+  @ExceptionHandler(SingleFlight.WaitTimeoutException.class)
+  public ResponseEntity<ApiResponse<?>> singleFlightTimeout(SingleFlight.WaitTimeoutException e) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header("Retry-After", "1")
+        .body(ApiResponse.fail("요청이 많습니다. 잠시 후 다시 시도해 주세요"));
+  }
+}
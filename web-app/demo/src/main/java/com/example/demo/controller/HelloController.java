@@ -1,18 +1,14 @@
 package com.example.demo.controller;
 
-import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 public class HelloController {
 
+  // 살아 있는지 확인용(BCrypt 풀은 로그인/가입 전용이라 여기서 해시하지 않음)
   @GetMapping("/")
   public String hello() {
-
-    // bcrypt 해시 생성 (salt 포함)
-    String hash = BCrypt.hashpw("password", BCrypt.gensalt());
-
-    return "hello : " + hash;
+    return "hello";
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package com.example.demo.dto;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * 공통 응답 { ok: boolean, data?: any, message?: string }
+ *
+ * - 성공: {"data":...,"ok":true} / 실패: {"ok":false,"message":"..."}
+ *   (키 순서는 예전 HashMap 응답과 같게 유지 → 클라이언트가 보는 바이트가 동일)
+ * - 직렬화는 Serializer가 미리 인코딩한 키 이름으로 직접 씀(리플렉션/Map 순회 없음)
+ */
+@JsonSerialize(using = ApiResponse.Serializer.class)
+public record ApiResponse<T>(boolean ok, T data, String message) {
+
+  public static <T> ApiResponse<T> ok(T data) {
+    return new ApiResponse<>(true, data, null);
+  }
+
+  public static <T> ApiResponse<T> fail(String message) {
+    return new ApiResponse<>(false, null, message);
+  }
+
+  static final class Serializer extends ValueSerializer<ApiResponse<?>> {
+
+    private static final SerializableString OK = new SerializedString("ok");
+    private static final SerializableString DATA = new SerializedString("data");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+
+    @Override
+    public void serialize(ApiResponse<?> r, JsonGenerator g, SerializationContext ctxt) {
+      g.writeStartObject(r);
+      if (r.ok()) {
+        g.writeName(DATA);
+        ctxt.writeValue(g, r.data());
+        g.writeName(OK);
+        g.writeBoolean(true);
+      } else {
+        g.writeName(OK);
+        g.writeBoolean(false);
+        g.writeName(MESSAGE);
+        g.writeString(r.message());
+      }
+      g.writeEndObject();
+    }
+  }
+}
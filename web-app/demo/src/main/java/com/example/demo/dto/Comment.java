@@ -0,0 +1,47 @@
+package com.example.demo.dto;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * 댓글 한 행(GET /posts/{postId}/comments)
+ *
+ * - 키 순서는 예전 HashMap 응답과 동일
+ */
+@JsonSerialize(using = Comment.Serializer.class)
+public record Comment(
+    int id,
+    int postId,
+    int userId,
+    String comment,
+    String createdAt) {
+
+  static final class Serializer extends ValueSerializer<Comment> {
+
+    private static final SerializableString POST_ID = new SerializedString("post_id");
+    private static final SerializableString USER_ID = new SerializedString("user_id");
+    private static final SerializableString CREATED_AT = new SerializedString("created_at");
+    private static final SerializableString COMMENT = new SerializedString("comment");
+    private static final SerializableString ID = new SerializedString("id");
+
+    @Override
+    public void serialize(Comment c, JsonGenerator g, SerializationContext ctxt) {
+      g.writeStartObject(c);
+      g.writeName(POST_ID);
+      g.writeNumber(c.postId());
+      g.writeName(USER_ID);
+      g.writeNumber(c.userId());
+      g.writeName(CREATED_AT);
+      g.writeString(c.createdAt());
+      g.writeName(COMMENT);
+      g.writeString(c.comment());
+      g.writeName(ID);
+      g.writeNumber(c.id());
+      g.writeEndObject();
+    }
+  }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+/**
+ * POST /posts/{postId}/comments, PUT /comments/{commentId} 요청 바디
+ */
+public record CommentRequest(String comment) {
+}
@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+/**
+ * POST /login 요청 바디
+ */
+public record LoginRequest(String username, String password) {
+}
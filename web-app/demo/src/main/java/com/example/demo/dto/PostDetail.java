@@ -0,0 +1,65 @@
+package com.example.demo.dto;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * 게시글 상세(GET /posts/{id}, GET /posts/{id}/full의 post)
+ *
+ * - unique_viewers: 고유 조회자 수 추정치(HyperLogLog)
+ * - viewer_key: 디버그/테스트용
+ * - 키 순서는 예전 HashMap 응답과 동일
+ */
+@JsonSerialize(using = PostDetail.Serializer.class)
+public record PostDetail(
+    int id,
+    int userId,
+    String title,
+    String content,
+    long viewCount,
+    int commentsCnt,
+    String createdAt,
+    long uniqueViewers,
+    String viewerKey) {
+
+  static final class Serializer extends ValueSerializer<PostDetail> {
+
+    private static final SerializableString COMMENTS_CNT = new SerializedString("comments_cnt");
+    private static final SerializableString USER_ID = new SerializedString("user_id");
+    private static final SerializableString VIEWER_KEY = new SerializedString("viewer_key");
+    private static final SerializableString CREATED_AT = new SerializedString("created_at");
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString CONTENT = new SerializedString("content");
+    private static final SerializableString VIEW_COUNT = new SerializedString("view_count");
+    private static final SerializableString UNIQUE_VIEWERS = new SerializedString("unique_viewers");
+
+    @Override
+    public void serialize(PostDetail p, JsonGenerator g, SerializationContext ctxt) {
+      g.writeStartObject(p);
+      g.writeName(COMMENTS_CNT);
+      g.writeNumber(p.commentsCnt());
+      g.writeName(USER_ID);
+      g.writeNumber(p.userId());
+      g.writeName(VIEWER_KEY);
+      g.writeString(p.viewerKey());
+      g.writeName(CREATED_AT);
+      g.writeString(p.createdAt());
+      g.writeName(ID);
+      g.writeNumber(p.id());
+      g.writeName(TITLE);
+      g.writeString(p.title());
+      g.writeName(CONTENT);
+      g.writeString(p.content());
+      g.writeName(VIEW_COUNT);
+      g.writeNumber(p.viewCount());
+      g.writeName(UNIQUE_VIEWERS);
+      g.writeNumber(p.uniqueViewers());
+      g.writeEndObject();
+    }
+  }
+}
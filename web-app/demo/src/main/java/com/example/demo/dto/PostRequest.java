@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+/**
+ * POST /posts, PUT /posts/{id} 요청 바디
+ */
+public record PostRequest(String title, String content) {
+}
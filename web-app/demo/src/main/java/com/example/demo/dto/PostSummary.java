@@ -0,0 +1,56 @@
+package com.example.demo.dto;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * 게시글 목록 한 행(GET /posts)
+ *
+ * - view_count: DB 값 + 아직 반영 안 된 조회수
+ * - 키 순서는 예전 HashMap 응답과 동일
+ */
+@JsonSerialize(using = PostSummary.Serializer.class)
+public record PostSummary(
+    int id,
+    int userId,
+    String title,
+    String content,
+    long viewCount,
+    int commentsCnt,
+    String createdAt) {
+
+  static final class Serializer extends ValueSerializer<PostSummary> {
+
+    private static final SerializableString COMMENTS_CNT = new SerializedString("comments_cnt");
+    private static final SerializableString USER_ID = new SerializedString("user_id");
+    private static final SerializableString CREATED_AT = new SerializedString("created_at");
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString CONTENT = new SerializedString("content");
+    private static final SerializableString VIEW_COUNT = new SerializedString("view_count");
+
+    @Override
+    public void serialize(PostSummary p, JsonGenerator g, SerializationContext ctxt) {
+      g.writeStartObject(p);
+      g.writeName(COMMENTS_CNT);
+      g.writeNumber(p.commentsCnt());
+      g.writeName(USER_ID);
+      g.writeNumber(p.userId());
+      g.writeName(CREATED_AT);
+      g.writeString(p.createdAt());
+      g.writeName(ID);
+      g.writeNumber(p.id());
+      g.writeName(TITLE);
+      g.writeString(p.title());
+      g.writeName(CONTENT);
+      g.writeString(p.content());
+      g.writeName(VIEW_COUNT);
+      g.writeNumber(p.viewCount());
+      g.writeEndObject();
+    }
+  }
+}
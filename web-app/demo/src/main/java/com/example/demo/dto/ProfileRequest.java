@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * PUT /me/profile 요청 바디
+ *
+ * - birth_date: "YYYY-MM-DD"
+ */
+public record ProfileRequest(
+    String bio,
+    String phone,
+    @JsonProperty("birth_date") String birthDate,
+    @JsonProperty("profile_image_url") String profileImageUrl) {
+}
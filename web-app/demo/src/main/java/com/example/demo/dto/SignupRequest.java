@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+/**
+ * POST /signup 요청 바디
+ */
+public record SignupRequest(String username, String password, String nickname) {
+}
@@ -0,0 +1,505 @@
+package com.example.demo.outbox;
+
+import java.net.InetAddress;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.support.InList;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * outbox_events 폴링 → 프로세스 안 구독자(OutboxSubscriber)에게 전달
+ *
+ * - 노드마다 자기 오프셋(outbox_offsets.consumer = app.outbox.consumer, 기본 호스트명)
+ *   → 모든 노드가 모든 이벤트를 받음(노드 로컬 캐시/색인 갱신용)
+ *   · 처음 뜬 노드는 현재 MAX(id)부터(지난 이벤트는 시작 시 재구축/재동기화가 이미 반영)
+ * - 배치: id > 오프셋 ORDER BY id LIMIT batch-size, 전용 스레드(@Scheduled 스레드를 잡지 않음)
+ * - 순서: post_id % lanes 단일 스레드 레인 → 같은 게시글 이벤트는 id 순서대로, 다른 글끼리는 병렬
+ * - at-least-once: 배치를 다 처리한 뒤 오프셋 저장 → 중간에 죽으면 그 배치는 다시 전달
+ * - 실패: 구독자별로 backoff 재시도(max-attempts), 끝까지 실패하면 dead letter(로그 + 카운트)로 넘기고 진행
+ *   (구독자 하나 때문에 전체 파이프라인이 멈추지 않게, 파생 데이터는 재구축/재동기화로 복구 가능)
+ * - id 빈칸: AUTO_INCREMENT는 커밋 순서가 아님 → 더 작은 id가 아직 커밋 전일 수 있음
+ *   · 빈칸 앞에서 멈추고 기다림, gap-timeout-ms 동안 안 채워지면 건너뛰고 뒤 이벤트부터 전달
+ *   · 건너뛴 id는 late-window-ms 동안 기억해 폴링마다 다시 확인 → 늦게 커밋된 이벤트도 전달(순서만 늦음)
+ *     (락 대기/GC 등으로 커밋이 gap-timeout-ms보다 늦어도 유실되지 않음, 그 뒤에도 없으면 롤백으로 봄)
+ *   · 기억은 메모리에만: 재시작하면 노드 로컬 캐시/색인은 처음부터 다시 만들어지므로 잃을 것이 없음
+ * - 보존: created_ms가 retention-ms보다 오래된 행은 주기적으로 삭제(LIMIT 단위)
+ * - 지표: outbox.lag(기록 → 구독자 처리 완료, subscriber 태그), outbox.events(subscriber, outcome 태그)
+ */
+@Component
+public class OutboxDispatcher {
+
+  private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+  private static final String FETCH_SQL = """
+      /* outbox.fetch */
+      SELECT id, event_type, post_id, comment_id, user_id, created_ms
+      FROM outbox_events
+      WHERE id > ?
+      ORDER BY id
+      LIMIT ?
+      """;
+  private static final String LOAD_OFFSET_SQL = "/* outbox.loadOffset */ SELECT last_id FROM outbox_offsets WHERE consumer = ?";
+  private static final String MAX_ID_SQL = "/* outbox.maxId */ SELECT COALESCE(MAX(id), 0) FROM outbox_events";
+  private static final String SAVE_OFFSET_SQL = "/* outbox.saveOffset */ INSERT INTO outbox_offsets (consumer, last_id)"
+      + " VALUES (?, ?) ON DUPLICATE KEY UPDATE last_id = ?";
+  private static final String FETCH_BY_IDS_SQL = "/* outbox.fetchByIds */ SELECT id, event_type, post_id, comment_id, user_id, created_ms"
+      + " FROM outbox_events WHERE id IN (%s) ORDER BY id";
+  private static final String PURGE_SQL = "/* outbox.purge */ DELETE FROM outbox_events WHERE created_ms < ? LIMIT ?";
+
+  private static final int PURGE_BATCH = 1000;
+  // 건너뛴 id 다시 확인: 한 번에 묻는 최대 개수 / 기억하는 최대 개수
+  private static final int LATE_FETCH_MAX = 64;
+  private static final int MAX_SKIPPED = 10_000;
+
+  private final DataSource dataSource;
+  private final List<OutboxSubscriber> subscribers;
+  private final MeterRegistry registry;
+  private final boolean enabled;
+  private final String consumer;
+  private final long pollIntervalMillis;
+  private final int batchSize;
+  private final int maxAttempts;
+  private final long retryBackoffMillis;
+  private final long gapTimeoutMillis;
+  private final long lateWindowMillis;
+  private final long retentionMillis;
+
+  private final ExecutorService[] lanes;
+  private final ScheduledExecutorService poller;
+
+  // 폴링은 한 번에 하나만(스케줄 + 관리자 호출 겹침 방지), offset/gapFirstSeen/skipped는 이 락 안에서만
+  private final ReentrantLock pollLock = new ReentrantLock();
+  private volatile long offset = -1;
+  // 빈칸 시작 id → 처음 본 시각
+  private final Map<Long, Long> gapFirstSeen = new HashMap<>();
+  // 건너뛴 id → 건너뛴 시각(id 순, stats()가 락 밖에서 크기를 읽으므로 동시성 맵)
+  private final ConcurrentSkipListMap<Long, Long> skipped = new ConcurrentSkipListMap<>();
+
+  private final Map<String, Timer> lagTimers = new ConcurrentHashMap<>();
+  private final Map<String, Counter> eventCounters = new ConcurrentHashMap<>();
+
+  // 지표
+  private final AtomicLong batches = new AtomicLong();
+  private final AtomicLong dispatched = new AtomicLong();
+  private final AtomicLong retries = new AtomicLong();
+  private final AtomicLong deadLettered = new AtomicLong();
+  private final AtomicLong gapsSkipped = new AtomicLong();
+  private final AtomicLong lateDelivered = new AtomicLong();
+  private final AtomicLong gapsExpired = new AtomicLong();
+  private final AtomicLong pollFailures = new AtomicLong();
+  private final AtomicLong purged = new AtomicLong();
+  private volatile long lastLagMillis = -1;
+  private final AtomicLong maxLagMillis = new AtomicLong();
+  private volatile long lastBatchMillis = -1;
+  private volatile String lastError;
+  private volatile Instant lastDeadLetterAt;
+  private volatile boolean failing;
+
+  public OutboxDispatcher(
+      DataSource dataSource,
+      List<OutboxSubscriber> subscribers,
+      MeterRegistry registry,
+      @Value("${app.outbox.enabled:true}") boolean enabled,
+      @Value("${app.outbox.consumer:}") String consumer,
+      @Value("${app.outbox.poll-interval-ms:200}") long pollIntervalMillis,
+      @Value("${app.outbox.batch-size:200}") int batchSize,
+      @Value("${app.outbox.lanes:4}") int lanes,
+      @Value("${app.outbox.max-attempts:5}") int maxAttempts,
+      @Value("${app.outbox.retry-backoff-ms:100}") long retryBackoffMillis,
+      @Value("${app.outbox.gap-timeout-ms:2000}") long gapTimeoutMillis,
+      @Value("${app.outbox.late-window-ms:600000}") long lateWindowMillis,
+      @Value("${app.outbox.retention-ms:86400000}") long retentionMillis) {
+    this.dataSource = dataSource;
+    this.subscribers = List.copyOf(subscribers);
+    this.registry = registry;
+    this.enabled = enabled;
+    this.consumer = consumer == null || consumer.isBlank() ? defaultConsumer() : consumer;
+    this.pollIntervalMillis = Math.max(10, pollIntervalMillis);
+    this.batchSize = Math.max(1, batchSize);
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.retryBackoffMillis = Math.max(0, retryBackoffMillis);
+    this.gapTimeoutMillis = Math.max(0, gapTimeoutMillis);
+    this.lateWindowMillis = Math.max(0, lateWindowMillis);
+    this.retentionMillis = retentionMillis;
+
+    this.lanes = new ExecutorService[Math.max(1, lanes)];
+    for (int i = 0; i < this.lanes.length; i++) {
+      String name = "outbox-lane-" + i;
+      this.lanes[i] = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+      });
+    }
+    this.poller = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "outbox-dispatcher");
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  private static String defaultConsumer() {
+    try {
+      return InetAddress.getLocalHost().getHostName();
+    } catch (Exception e) {
+      return "node-" + ProcessHandle.current().pid();
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!enabled)
+      return;
+    poller.scheduleWithFixedDelay(this::poll, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    if (retentionMillis > 0)
+      poller.scheduleWithFixedDelay(this::purge, 60_000, 60_000, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    poller.shutdownNow();
+    for (ExecutorService lane : lanes)
+      lane.shutdown();
+  }
+
+  /**
+   * 밀린 이벤트를 모두 전달(가득 찬 배치가 이어지는 동안 반복)
+   * - DB 장애 중에는 첫 실패만 로그(폴링마다 로그가 쌓이지 않게)
+   */
+  public void poll() {
+    if (!pollLock.tryLock())
+      return;
+    try {
+      redeliverSkipped();
+      while (dispatchBatch() == batchSize) {
+        // 가득 찼으면 바로 다음 배치
+      }
+      if (failing) {
+        failing = false;
+        log.info("outbox dispatch recovered");
+      }
+    } catch (Exception e) {
+      pollFailures.incrementAndGet();
+      lastError = e.toString();
+      if (!failing) {
+        failing = true;
+        log.warn("outbox dispatch failed: {}", e.toString());
+      }
+    } finally {
+      pollLock.unlock();
+    }
+  }
+
+  /**
+   * 배치 하나 전달, 반환: 전달한 이벤트 수(빈칸 앞에서 멈추면 batch-size보다 작음)
+   */
+  int dispatchBatch() throws SQLException {
+    long started = System.nanoTime();
+    List<OutboxEvent> batch;
+    try (Connection conn = dataSource.getConnection()) {
+      if (offset < 0)
+        offset = loadOffset(conn);
+      batch = fetch(conn, offset);
+    }
+
+    List<OutboxEvent> ready = contiguous(batch);
+    if (ready.isEmpty())
+      return 0;
+
+    // 모든 레인이 끝나야 오프셋 이동
+    deliverAll(ready);
+
+    long last = ready.get(ready.size() - 1).id();
+    try (Connection conn = dataSource.getConnection()) {
+      saveOffset(conn, last);
+    }
+    offset = last;
+    gapFirstSeen.keySet().removeIf(id -> id <= last);
+
+    batches.incrementAndGet();
+    dispatched.addAndGet(ready.size());
+    lastBatchMillis = (System.nanoTime() - started) / 1_000_000;
+    return ready.size();
+  }
+
+  // 레인별로 나눠 id 순서대로 전달, 모두 끝날 때까지 기다림
+  private void deliverAll(List<OutboxEvent> ready) {
+    List<List<OutboxEvent>> byLane = new ArrayList<>();
+    for (int i = 0; i < lanes.length; i++)
+      byLane.add(new ArrayList<>());
+    for (OutboxEvent e : ready)
+      byLane.get(Math.floorMod(e.postId(), lanes.length)).add(e);
+
+    List<CompletableFuture<Void>> running = new ArrayList<>();
+    for (int i = 0; i < lanes.length; i++) {
+      List<OutboxEvent> events = byLane.get(i);
+      if (!events.isEmpty())
+        running.add(CompletableFuture.runAsync(() -> events.forEach(this::deliver), lanes[i]));
+    }
+    CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+  }
+
+  // 오프셋 바로 다음부터 id가 이어지는 앞부분만(빈칸은 gap-timeout-ms가 지나야 건너뜀 → skipped에 기억)
+  private List<OutboxEvent> contiguous(List<OutboxEvent> batch) {
+    List<OutboxEvent> ready = new ArrayList<>(batch.size());
+    long expected = offset + 1;
+    long now = System.currentTimeMillis();
+    for (OutboxEvent e : batch) {
+      if (e.id() != expected) {
+        Long firstSeen = gapFirstSeen.putIfAbsent(expected, now);
+        if (firstSeen == null || now - firstSeen < gapTimeoutMillis)
+          break;
+        gapsSkipped.addAndGet(e.id() - expected);
+        gapFirstSeen.remove(expected);
+        for (long id = expected; id < e.id(); id++)
+          remember(id, now);
+      }
+      ready.add(e);
+      expected = e.id() + 1;
+    }
+    return ready;
+  }
+
+  private void remember(long id, long now) {
+    skipped.put(id, now);
+    if (skipped.size() > MAX_SKIPPED) {
+      long oldest = skipped.pollFirstEntry().getKey();
+      gapsExpired.incrementAndGet();
+      log.warn("outbox gap {} no longer watched: more than {} skipped ids", oldest, MAX_SKIPPED);
+    }
+  }
+
+  /**
+   * 건너뛴 id 중 그 사이 커밋된 이벤트 전달(오프셋과 무관, id 순서로 레인에 전달)
+   * - late-window-ms가 지나도 없으면 롤백으로 보고 잊음
+   * - 반환: 늦게 전달한 이벤트 수
+   */
+  int redeliverSkipped() throws SQLException {
+    if (skipped.isEmpty())
+      return 0;
+
+    long now = System.currentTimeMillis();
+    int before = skipped.size();
+    skipped.values().removeIf(at -> now - at >= lateWindowMillis);
+    gapsExpired.addAndGet(before - skipped.size());
+    if (skipped.isEmpty())
+      return 0;
+
+    List<Long> ids = new ArrayList<>(skipped.keySet());
+    List<OutboxEvent> found = new ArrayList<>();
+    try (Connection conn = dataSource.getConnection()) {
+      for (int from = 0; from < ids.size(); from += LATE_FETCH_MAX)
+        found.addAll(fetchByIds(conn, ids.subList(from, Math.min(ids.size(), from + LATE_FETCH_MAX))));
+    }
+    if (found.isEmpty())
+      return 0;
+
+    deliverAll(found);
+    for (OutboxEvent e : found)
+      skipped.remove(e.id());
+    lateDelivered.addAndGet(found.size());
+    dispatched.addAndGet(found.size());
+    log.info("outbox delivered {} late event(s) after gap skip", found.size());
+    return found.size();
+  }
+
+  private void deliver(OutboxEvent event) {
+    for (OutboxSubscriber s : subscribers) {
+      for (int attempt = 1;; attempt++) {
+        try {
+          s.handler().handle(event);
+          long lag = Math.max(0, System.currentTimeMillis() - event.createdMillis());
+          lagTimer(s.name()).record(lag, TimeUnit.MILLISECONDS);
+          eventCounter(s.name(), "success").increment();
+          lastLagMillis = lag;
+          maxLagMillis.accumulateAndGet(lag, Math::max);
+          break;
+        } catch (Exception e) {
+          if (attempt >= maxAttempts) {
+            deadLettered.incrementAndGet();
+            lastDeadLetterAt = Instant.now();
+            eventCounter(s.name(), "dead").increment();
+            log.error("outbox event {} ({} post {}) dropped by {} after {} attempts: {}",
+                event.id(), event.type(), event.postId(), s.name(), attempt, e.toString());
+            break;
+          }
+          retries.incrementAndGet();
+          eventCounter(s.name(), "retry").increment();
+          if (!sleep(retryBackoffMillis << Math.min(attempt - 1, 6)))
+            return;
+        }
+      }
+    }
+  }
+
+  private static boolean sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private Timer lagTimer(String subscriber) {
+    return lagTimers.computeIfAbsent(subscriber, n -> Timer.builder("outbox.lag")
+        .description("outbox 이벤트 기록부터 구독자 처리 완료까지")
+        .tag("subscriber", n)
+        .publishPercentileHistogram()
+        .register(registry));
+  }
+
+  private Counter eventCounter(String subscriber, String outcome) {
+    return eventCounters.computeIfAbsent(subscriber + "|" + outcome, k -> Counter.builder("outbox.events")
+        .tag("subscriber", subscriber)
+        .tag("outcome", outcome)
+        .register(registry));
+  }
+
+  // 저장된 오프셋, 없으면 현재 MAX(id)로 시작(저장까지)
+  private long loadOffset(Connection conn) throws SQLException {
+    try (PreparedStatement ps = conn.prepareStatement(LOAD_OFFSET_SQL)) {
+      ps.setString(1, consumer);
+      try (ResultSet rs = ps.executeQuery()) {
+        if (rs.next())
+          return rs.getLong(1);
+      }
+    }
+    long start;
+    try (PreparedStatement ps = conn.prepareStatement(MAX_ID_SQL);
+        ResultSet rs = ps.executeQuery()) {
+      rs.next();
+      start = rs.getLong(1);
+    }
+    saveOffset(conn, start);
+    log.info("outbox consumer '{}' starts after event {}", consumer, start);
+    return start;
+  }
+
+  private void saveOffset(Connection conn, long lastId) throws SQLException {
+    try (PreparedStatement ps = conn.prepareStatement(SAVE_OFFSET_SQL)) {
+      ps.setString(1, consumer);
+      ps.setLong(2, lastId);
+      ps.setLong(3, lastId);
+      ps.executeUpdate();
+    }
+  }
+
+  private List<OutboxEvent> fetch(Connection conn, long afterId) throws SQLException {
+    List<OutboxEvent> events = new ArrayList<>();
+    try (PreparedStatement ps = conn.prepareStatement(FETCH_SQL)) {
+      ps.setLong(1, afterId);
+      ps.setInt(2, batchSize);
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next())
+          events.add(read(rs));
+      }
+    }
+    return events;
+  }
+
+  // 자리표시자 개수는 InList.slots로 맞춤(남는 자리는 마지막 id 반복)
+  private List<OutboxEvent> fetchByIds(Connection conn, List<Long> ids) throws SQLException {
+    int slots = InList.slots(ids.size());
+    List<OutboxEvent> events = new ArrayList<>();
+    try (PreparedStatement ps = conn.prepareStatement(FETCH_BY_IDS_SQL.formatted(InList.placeholders(slots)))) {
+      for (int i = 0; i < slots; i++)
+        ps.setLong(i + 1, ids.get(Math.min(i, ids.size() - 1)));
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next())
+          events.add(read(rs));
+      }
+    }
+    return events;
+  }
+
+  private static OutboxEvent read(ResultSet rs) throws SQLException {
+    int commentId = rs.getInt(4);
+    return new OutboxEvent(
+        rs.getLong(1),
+        OutboxEvent.Type.valueOf(rs.getString(2)),
+        rs.getInt(3),
+        rs.wasNull() ? null : commentId,
+        rs.getInt(5),
+        rs.getLong(6));
+  }
+
+  /**
+   * 보존 기간이 지난 이벤트 삭제(노드마다 돌아도 결과는 같음), 반환: 삭제한 행 수
+   */
+  int purge() {
+    int total = 0;
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(PURGE_SQL)) {
+      ps.setLong(1, System.currentTimeMillis() - retentionMillis);
+      ps.setInt(2, PURGE_BATCH);
+      int n;
+      do {
+        n = ps.executeUpdate();
+        total += n;
+      } while (n == PURGE_BATCH);
+    } catch (Exception e) {
+      log.debug("outbox purge failed: {}", e.toString());
+    }
+    purged.addAndGet(total);
+    return total;
+  }
+
+  public Map<String, Object> stats() {
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("enabled", enabled);
+    s.put("consumer", consumer);
+    s.put("offset", offset);
+    s.put("subscribers", subscribers.stream().map(OutboxSubscriber::name).toList());
+    s.put("lanes", lanes.length);
+    s.put("batch_size", batchSize);
+    s.put("batches", batches.get());
+    s.put("dispatched", dispatched.get());
+    s.put("retries", retries.get());
+    s.put("dead_lettered", deadLettered.get());
+    s.put("last_dead_letter_at", lastDeadLetterAt == null ? null : lastDeadLetterAt.toString());
+    s.put("gaps_skipped", gapsSkipped.get());
+    s.put("gaps_watching", skipped.size());
+    s.put("late_delivered", lateDelivered.get());
+    s.put("gaps_expired", gapsExpired.get()); // late-window-ms 안에 안 나타난 id(롤백으로 봄)
+    s.put("last_lag_ms", lastLagMillis);
+    s.put("max_lag_ms", maxLagMillis.get());
+    s.put("last_batch_ms", lastBatchMillis);
+    s.put("poll_failures", pollFailures.get());
+    s.put("last_error", lastError);
+    s.put("purged", purged.get());
+    return s;
+  }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.outbox;
+
+/**
+ * outbox_events 한 행
+ *
+ * - postId: 순서 보장 단위(같은 게시글의 이벤트는 id 순서대로 전달)
+ * - commentId: 댓글 이벤트만(그 외 null)
+ * - createdMillis: 쓰기 트랜잭션에서 기록한 시각(epoch ms, 전달 지연 측정용)
+ */
+public record OutboxEvent(long id, Type type, int postId, Integer commentId, int userId, long createdMillis) {
+
+  public enum Type {
+    POST_CREATED, POST_UPDATED, POST_DELETED, COMMENT_CREATED, COMMENT_DELETED
+  }
+}
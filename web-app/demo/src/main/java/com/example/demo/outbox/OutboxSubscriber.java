@@ -0,0 +1,16 @@
+package com.example.demo.outbox;
+
+/**
+ * 프로세스 안 이벤트 구독자(빈으로 등록하면 OutboxDispatcher가 모두 받음)
+ *
+ * - 같은 이벤트가 두 번 이상 올 수 있음(at-least-once) → handler는 여러 번 실행해도 결과가 같아야 함
+ * - 예외를 던지면 재시도(app.outbox.max-attempts까지)
+ * - name은 지표 태그(subscriber)와 로그에 쓰임
+ */
+public record OutboxSubscriber(String name, Handler handler) {
+
+  @FunctionalInterface
+  public interface Handler {
+    void handle(OutboxEvent event) throws Exception;
+  }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.outbox;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.demo.post.PostCache;
+import com.example.demo.post.PostCache.CachedPost;
+import com.example.demo.post.PostListVersion;
+import com.example.demo.post.PostRepository;
+import com.example.demo.post.PostTotalCounter;
+import com.example.demo.search.PostSearchIndex;
+
+/**
+ * 게시글/댓글 쓰기에서 파생되는 작업(요청 경로 밖, 모든 노드에서 실행)
+ *
+ * - post-cache: 단건 캐시 무효화(쓴 노드는 요청 안에서도 바로 무효화, 나머지 노드는 여기서)
+ * - search-index: 게시글을 다시 읽어 색인(없으면 제거) → 이벤트 본문 없이 최신 상태 기준이라 중복/역순에도 안전
+ * - post-total: 전체 개수 ±1(중복 전달 오차는 PostTotalCounter 재동기화가 보정)
+ * - post-list-version: 목록 ETag generation = 받은 게시글 이벤트 id 중 최댓값(중복/역순 전달에도 같은 값)
+ */
+@Configuration
+public class OutboxSubscribers {
+
+  @Bean
+  public OutboxSubscriber postCacheSubscriber(PostCache postCache) {
+    return new OutboxSubscriber("post-cache", e -> postCache.invalidate(e.postId()));
+  }
+
+  @Bean
+  public OutboxSubscriber searchIndexSubscriber(PostSearchIndex searchIndex, PostRepository postRepository) {
+    return new OutboxSubscriber("search-index", e -> {
+      switch (e.type()) {
+        case POST_CREATED, POST_UPDATED -> {
+          CachedPost p = postRepository.findById(e.postId());
+          if (p == null)
+            searchIndex.remove(e.postId());
+          else
+            searchIndex.index(p.id(), p.title(), p.content());
+        }
+        case POST_DELETED -> searchIndex.remove(e.postId());
+        default -> {
+          // 댓글은 색인 대상 아님
+        }
+      }
+    });
+  }
+
+  @Bean
+  public OutboxSubscriber postTotalSubscriber(PostTotalCounter postTotals) {
+    return new OutboxSubscriber("post-total", e -> {
+      if (e.type() == OutboxEvent.Type.POST_CREATED)
+        postTotals.onCreated();
+      else if (e.type() == OutboxEvent.Type.POST_DELETED)
+        postTotals.onDeleted();
+    });
+  }
+
+  @Bean
+  public OutboxSubscriber postListVersionSubscriber(PostListVersion postListVersion) {
+    return new OutboxSubscriber("post-list-version", e -> {
+      switch (e.type()) {
+        case POST_CREATED, POST_UPDATED, POST_DELETED -> postListVersion.observe(e.id(), e.createdMillis());
+        default -> {
+          // 댓글 수 변화는 시간 구간(bucket-ms)으로 반영
+        }
+      }
+    });
+  }
+}
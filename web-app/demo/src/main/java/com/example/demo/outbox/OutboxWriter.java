@@ -0,0 +1,36 @@
+package com.example.demo.outbox;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * outbox_events INSERT(쓰기와 같은 커넥션/트랜잭션에서 호출)
+ *
+ * - 쓰기가 롤백되면 이벤트도 같이 사라지고, 커밋되면 반드시 남음
+ * - 전달은 OutboxDispatcher가 따로 폴링해서 함(요청 스레드는 INSERT 한 번만)
+ */
+public final class OutboxWriter {
+
+  private static final String INSERT_SQL = "/* outbox.append */ INSERT INTO outbox_events"
+      + " (event_type, post_id, comment_id, user_id, created_ms) VALUES (?, ?, ?, ?, ?)";
+
+  private OutboxWriter() {
+  }
+
+  public static void append(Connection conn, OutboxEvent.Type type, int postId, Integer commentId, int userId)
+      throws SQLException {
+    try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+      ps.setString(1, type.name());
+      ps.setInt(2, postId);
+      if (commentId == null)
+        ps.setNull(3, Types.INTEGER);
+      else
+        ps.setInt(3, commentId);
+      ps.setInt(4, userId);
+      ps.setLong(5, System.currentTimeMillis());
+      ps.executeUpdate();
+    }
+  }
+}
@@ -0,0 +1,458 @@
+package com.example.demo.post;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+import com.example.demo.support.InList;
+
+/**
+ * 게시글 댓글 수(posts.comments_cnt) 분산 카운터
+ *
+ * - 기존: 댓글 작성/삭제 트랜잭션마다 UPDATE posts SET comments_cnt = comments_cnt ± 1
+ *   → 인기 글 한 행(posts.id)에 X 락이 몰려 댓글 작성이 줄을 섬(조회수 flush도 같은 행)
+ * - 변경: post_comment_count_slots(post_id, slot)의 임의 슬롯 하나에 ±1(같은 트랜잭션, UPSERT)
+ *   → 같은 글의 동시 작성자는 slots개 행에 나뉘어 락을 잡음
+ *   (댓글 INSERT의 FK 확인은 posts 행에 S 락만 잡으므로 작성자끼리는 막지 않음)
+ * - 읽기: comments_cnt + 슬롯 합(PostRepository SELECT의 서브쿼리)
+ * - fold(fold-interval-ms마다): 슬롯 합을 comments_cnt에 더하고 슬롯 행 삭제 → 슬롯 테이블은 작게 유지
+ *   · 락 순서 posts → slots(댓글 작성: posts S → slots X와 같은 방향이라 교착 없음)
+ * - reconcile(reconcile-interval-ms마다, 전용 단일 스레드 실행기): comments COUNT와 비교해 어긋난 글만 다시 계산
+ *   · 확인은 잠금 없는 한 문장(같은 스냅샷) → 다를 때만 posts → comments → slots 순서로 잠그고 고침
+ *   · 여러 노드 중 하나만 실행: MySQL GET_LOCK(이름 잠금, 연결이 끊기면 자동 해제), 못 잡은 노드는 건너뜀
+ *   · GET_LOCK이 없는 DB(H2)는 단일 노드로 보고 잠금 없이 실행
+ * - slots=0 이면 기존 방식(posts 직접 UPDATE), 부하 테스트 전후 비교용
+ */
+@Component
+public class CommentCounter {
+
+  private static final Logger log = LoggerFactory.getLogger(CommentCounter.class);
+
+  static final String SLOT_TABLE = "post_comment_count_slots";
+
+  // 슬롯 합(PostRepository SELECT 컬럼에서 posts.id 기준으로 사용)
+  static final String PENDING_SUM = "COALESCE((SELECT SUM(s.delta) FROM " + SLOT_TABLE
+      + " s WHERE s.post_id = posts.id), 0)";
+
+  private static final String SLOT_SQL = "/* commentCount.slot */ INSERT INTO " + SLOT_TABLE
+      + " (post_id, slot, delta) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE delta = delta + ?";
+  private static final String INC_SQL = "/* comment.incCount */ UPDATE posts SET comments_cnt = comments_cnt + 1 WHERE id = ?";
+  private static final String DEC_SQL = """
+      /* comment.decCount */
+      UPDATE posts
+      SET comments_cnt = CASE WHEN comments_cnt > 0 THEN comments_cnt - 1 ELSE 0 END
+      WHERE id = ?
+      """;
+
+  private static final String PENDING_POSTS_SQL = "/* commentCount.pendingPosts */ SELECT DISTINCT post_id FROM "
+      + SLOT_TABLE + " ORDER BY post_id LIMIT ?";
+  // comments_cnt는 UNSIGNED: 더할 값과 뺄 값을 따로 받아 음수가 되는 계산을 하지 않음
+  private static final String FOLD_SQL = "/* commentCount.fold */ UPDATE posts"
+      + " SET comments_cnt = comments_cnt + ? - LEAST(comments_cnt, ?) WHERE id = ?";
+  private static final String CLEAR_SLOT_SQL = "/* commentCount.clearSlot */ DELETE FROM " + SLOT_TABLE
+      + " WHERE post_id = ? AND slot = ?";
+
+  private static final String SCAN_SQL = """
+      /* commentCount.scan */
+      SELECT p.id,
+             p.comments_cnt + COALESCE((SELECT SUM(s.delta) FROM %s s WHERE s.post_id = p.id), 0),
+             (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id)
+      FROM posts p
+      WHERE p.id > ?
+      ORDER BY p.id
+      LIMIT ?
+      """.formatted(SLOT_TABLE);
+  private static final String LOCK_POST_SQL = "/* commentCount.lockPost */ SELECT id FROM posts WHERE id = ? FOR UPDATE";
+  private static final String LOCK_COMMENTS_SQL = "/* commentCount.lockComments */ SELECT id FROM comments WHERE post_id = ? FOR UPDATE";
+  private static final String SET_COUNT_SQL = "/* commentCount.set */ UPDATE posts SET comments_cnt = ? WHERE id = ?";
+  private static final String CLEAR_POST_SQL = "/* commentCount.clearPost */ DELETE FROM " + SLOT_TABLE
+      + " WHERE post_id = ?";
+
+  // 기다리지 않음(0초): 다른 노드가 실행 중이면 이번 주기는 그 노드에 맡김
+  static final String RECONCILE_LOCK = "comment_count_reconcile";
+  private static final String GET_LOCK_SQL = "/* commentCount.getLock */ SELECT GET_LOCK(?, 0)";
+  private static final String RELEASE_LOCK_SQL = "/* commentCount.releaseLock */ SELECT RELEASE_LOCK(?)";
+
+  private final DataSource dataSource;
+  private final PostCache postCache;
+  private final int slots;
+  private final int foldBatchSize;
+  private final int reconcileBatchSize;
+
+  // fold는 한 번에 하나만(스케줄러 + 종료 시 fold 겹침 방지)
+  private final ReentrantLock foldLock = new ReentrantLock();
+  private final AtomicBoolean reconciling = new AtomicBoolean();
+  private final ExecutorService reconcileExecutor = Executors.newSingleThreadExecutor(r -> {
+    Thread t = new Thread(r, "comment-count-reconcile");
+    t.setDaemon(true);
+    return t;
+  });
+  // GET_LOCK이 없는 DB로 확인되면 false(이후 잠금 없이 실행)
+  private volatile boolean namedLockSupported = true;
+
+  // 지표
+  private final AtomicLong foldCount = new AtomicLong();
+  private final AtomicLong foldedPosts = new AtomicLong();
+  private final AtomicLong foldFailures = new AtomicLong();
+  private volatile long lastFoldMillis = -1;
+  private final AtomicLong maxFoldMillis = new AtomicLong();
+  private final AtomicLong reconcileRuns = new AtomicLong();
+  private final AtomicLong reconcileChecked = new AtomicLong();
+  private final AtomicLong reconcileRepaired = new AtomicLong();
+  private final AtomicLong reconcileFailures = new AtomicLong();
+  private final AtomicLong reconcileSkipped = new AtomicLong();
+  private volatile long lastReconcileMillis = -1;
+  private volatile Instant lastReconcileAt;
+
+  public CommentCounter(
+      DataSource dataSource,
+      PostCache postCache,
+      @Value("${app.comment-count.slots:16}") int slots,
+      @Value("${app.comment-count.fold-batch-size:100}") int foldBatchSize,
+      @Value("${app.comment-count.reconcile-batch-size:1000}") int reconcileBatchSize) {
+    this.dataSource = dataSource;
+    this.postCache = postCache;
+    this.slots = Math.max(0, slots);
+    this.foldBatchSize = Math.max(1, foldBatchSize);
+    this.reconcileBatchSize = Math.max(1, reconcileBatchSize);
+  }
+
+  /**
+   * 댓글 수 ±1(호출한 쪽 트랜잭션 안에서)
+   */
+  void add(Connection conn, int postId, int delta) throws SQLException {
+    if (slots == 0) {
+      try (PreparedStatement ps = conn.prepareStatement(delta > 0 ? INC_SQL : DEC_SQL)) {
+        ps.setInt(1, postId);
+        ps.executeUpdate();
+      }
+      return;
+    }
+
+    try (PreparedStatement ps = conn.prepareStatement(SLOT_SQL)) {
+      ps.setInt(1, postId);
+      ps.setInt(2, ThreadLocalRandom.current().nextInt(slots));
+      ps.setInt(3, delta);
+      ps.setInt(4, delta);
+      ps.executeUpdate();
+    }
+  }
+
+  // --------------------------------------------------
+  // fold: 슬롯 → posts.comments_cnt
+  // --------------------------------------------------
+
+  /**
+   * 주기적 fold
+   * - 시작 시점에 슬롯이 있던 글만(batch 단위 트랜잭션), 실패하면 다음 주기에 다시
+   * - 읽는 값(comments_cnt + 슬롯 합)은 그대로라 캐시 무효화 없음
+   */
+  @Scheduled(fixedDelayString = "${app.comment-count.fold-interval-ms:5000}")
+  public void fold() {
+    if (slots == 0 || !foldLock.tryLock())
+      return;
+    long started = System.nanoTime();
+    try (Connection conn = dataSource.getConnection()) {
+      List<Integer> postIds = new ArrayList<>();
+      try (PreparedStatement ps = conn.prepareStatement(PENDING_POSTS_SQL)) {
+        ps.setInt(1, foldBatchSize * 10);
+        try (ResultSet rs = ps.executeQuery()) {
+          while (rs.next())
+            postIds.add(rs.getInt(1));
+        }
+      }
+
+      for (int from = 0; from < postIds.size(); from += foldBatchSize)
+        foldChunk(conn, postIds.subList(from, Math.min(from + foldBatchSize, postIds.size())));
+
+      if (!postIds.isEmpty()) {
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+        lastFoldMillis = elapsed;
+        maxFoldMillis.accumulateAndGet(elapsed, Math::max);
+        foldCount.incrementAndGet();
+      }
+    } catch (Exception e) {
+      foldFailures.incrementAndGet();
+      log.warn("comment count fold failed: {}", e.toString());
+    } finally {
+      foldLock.unlock();
+    }
+  }
+
+  // postIds: 오름차순(여러 노드가 동시에 fold해도 같은 순서로 잠금)
+  private void foldChunk(Connection conn, List<Integer> postIds) throws SQLException {
+    int n = InList.slots(postIds.size());
+    String in = InList.placeholders(n);
+
+    conn.setAutoCommit(false);
+    try {
+      try (PreparedStatement ps = conn.prepareStatement(
+          "/* commentCount.lockPosts */ SELECT id FROM posts WHERE id IN (" + in + ") ORDER BY id FOR UPDATE")) {
+        bindIds(ps, postIds, n);
+        try (ResultSet rs = ps.executeQuery()) {
+          while (rs.next()) {
+            // 잠금만 필요
+          }
+        }
+      }
+
+      Map<Integer, Long> sums = new LinkedHashMap<>();
+      List<int[]> slotRows = new ArrayList<>();
+      try (PreparedStatement ps = conn.prepareStatement("/* commentCount.lockSlots */ SELECT post_id, slot, delta FROM "
+          + SLOT_TABLE + " WHERE post_id IN (" + in + ") ORDER BY post_id, slot FOR UPDATE")) {
+        bindIds(ps, postIds, n);
+        try (ResultSet rs = ps.executeQuery()) {
+          while (rs.next()) {
+            int postId = rs.getInt(1);
+            slotRows.add(new int[] { postId, rs.getInt(2) });
+            sums.merge(postId, rs.getLong(3), Long::sum);
+          }
+        }
+      }
+
+      try (PreparedStatement ps = conn.prepareStatement(FOLD_SQL)) {
+        for (Map.Entry<Integer, Long> e : sums.entrySet()) {
+          long d = e.getValue();
+          if (d == 0)
+            continue;
+          ps.setLong(1, Math.max(d, 0));
+          ps.setLong(2, Math.max(-d, 0));
+          ps.setInt(3, e.getKey());
+          ps.addBatch();
+        }
+        ps.executeBatch();
+      }
+
+      // 읽은 슬롯만 지움(잠근 뒤 새로 생긴 슬롯은 다음 주기)
+      try (PreparedStatement ps = conn.prepareStatement(CLEAR_SLOT_SQL)) {
+        for (int[] r : slotRows) {
+          ps.setInt(1, r[0]);
+          ps.setInt(2, r[1]);
+          ps.addBatch();
+        }
+        ps.executeBatch();
+      }
+
+      conn.commit();
+      foldedPosts.addAndGet(sums.size());
+    } catch (SQLException | RuntimeException e) {
+      conn.rollback();
+      throw e;
+    } finally {
+      conn.setAutoCommit(true);
+    }
+  }
+
+  private static void bindIds(PreparedStatement ps, List<Integer> ids, int n) throws SQLException {
+    for (int i = 0; i < n; i++)
+      ps.setInt(i + 1, ids.get(Math.min(i, ids.size() - 1)));
+  }
+
+  // --------------------------------------------------
+  // reconcile: comments 기준으로 어긋난 값 복구
+  // --------------------------------------------------
+
+  @Scheduled(
+      initialDelayString = "${app.comment-count.reconcile-interval-ms:600000}",
+      fixedDelayString = "${app.comment-count.reconcile-interval-ms:600000}")
+  public void scheduledReconcile() {
+    reconcileAsync();
+  }
+
+  /**
+   * 전체 게시글 확인(전용 실행기, 스케줄러 스레드를 오래 잡지 않음)
+   * - 이미 실행 중이거나 종료 중이면 false
+   */
+  public boolean reconcileAsync() {
+    if (!reconciling.compareAndSet(false, true))
+      return false;
+
+    try {
+      reconcileExecutor.execute(() -> {
+        try {
+          reconcile();
+        } finally {
+          reconciling.set(false);
+        }
+      });
+      return true;
+    } catch (RejectedExecutionException e) {
+      reconciling.set(false);
+      return false;
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    // 인터럽트는 배치 사이에서 확인(진행 중인 배치의 복구는 끝까지, 남은 글은 다음 주기에)
+    reconcileExecutor.shutdownNow();
+  }
+
+  /**
+   * id 순서로 reconcile-batch-size개씩 확인, 반환: 고친 글 수
+   * - 다른 노드가 잠금을 잡고 있으면 건너뜀(0)
+   */
+  int reconcile() {
+    long started = System.nanoTime();
+    int repaired = 0;
+    int afterId = 0;
+    try (Connection conn = dataSource.getConnection()) {
+      if (!acquireReconcileLock(conn)) {
+        reconcileSkipped.incrementAndGet();
+        return 0;
+      }
+      try {
+        while (!Thread.currentThread().isInterrupted()) {
+          List<Integer> drifted = new ArrayList<>();
+          int scanned = 0;
+          try (PreparedStatement ps = conn.prepareStatement(SCAN_SQL)) {
+            ps.setInt(1, afterId);
+            ps.setInt(2, reconcileBatchSize);
+            try (ResultSet rs = ps.executeQuery()) {
+              while (rs.next()) {
+                afterId = rs.getInt(1);
+                scanned++;
+                if (rs.getLong(2) != rs.getLong(3))
+                  drifted.add(afterId);
+              }
+            }
+          }
+          reconcileChecked.addAndGet(scanned);
+
+          for (int postId : drifted) {
+            repair(conn, postId);
+            postCache.invalidate(postId);
+            repaired++;
+          }
+          if (scanned < reconcileBatchSize)
+            break;
+        }
+      } finally {
+        releaseReconcileLock(conn);
+      }
+    } catch (Exception e) {
+      reconcileFailures.incrementAndGet();
+      log.warn("comment count reconcile failed after post {}: {}", afterId, e.toString());
+    }
+
+    reconcileRuns.incrementAndGet();
+    reconcileRepaired.addAndGet(repaired);
+    lastReconcileMillis = (System.nanoTime() - started) / 1_000_000;
+    lastReconcileAt = Instant.now();
+    if (repaired > 0)
+      log.info("comment count reconcile: {} post(s) repaired", repaired);
+    return repaired;
+  }
+
+  // 잡으면 true, 다른 노드가 잡고 있으면 false(GET_LOCK 결과 0/NULL)
+  private boolean acquireReconcileLock(Connection conn) throws SQLException {
+    if (!namedLockSupported)
+      return true;
+    try (PreparedStatement ps = conn.prepareStatement(GET_LOCK_SQL)) {
+      ps.setString(1, RECONCILE_LOCK);
+      try (ResultSet rs = ps.executeQuery()) {
+        return rs.next() && rs.getInt(1) == 1;
+      }
+    } catch (SQLSyntaxErrorException e) {
+      namedLockSupported = false;
+      log.info("GET_LOCK not supported, comment count reconcile runs without election: {}", e.toString());
+      return true;
+    }
+  }
+
+  // 커넥션 풀로 돌려주기 전에 해제(연결 단위 잠금이라 풀에 남으면 다른 노드가 계속 건너뜀)
+  private void releaseReconcileLock(Connection conn) throws SQLException {
+    if (!namedLockSupported)
+      return;
+    try (PreparedStatement ps = conn.prepareStatement(RELEASE_LOCK_SQL)) {
+      ps.setString(1, RECONCILE_LOCK);
+      ps.executeQuery().close();
+    }
+  }
+
+  // 락 순서: posts(새 댓글의 FK S 락 차단) → comments(삭제 중인 댓글 대기) → 슬롯 정리
+  private void repair(Connection conn, int postId) throws SQLException {
+    conn.setAutoCommit(false);
+    try {
+      boolean exists;
+      try (PreparedStatement ps = conn.prepareStatement(LOCK_POST_SQL)) {
+        ps.setInt(1, postId);
+        try (ResultSet rs = ps.executeQuery()) {
+          exists = rs.next();
+        }
+      }
+
+      if (exists) {
+        int count = 0;
+        try (PreparedStatement ps = conn.prepareStatement(LOCK_COMMENTS_SQL)) {
+          ps.setInt(1, postId);
+          try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next())
+              count++;
+          }
+        }
+        try (PreparedStatement ps = conn.prepareStatement(SET_COUNT_SQL)) {
+          ps.setInt(1, count);
+          ps.setInt(2, postId);
+          ps.executeUpdate();
+        }
+      }
+
+      try (PreparedStatement ps = conn.prepareStatement(CLEAR_POST_SQL)) {
+        ps.setInt(1, postId);
+        ps.executeUpdate();
+      }
+
+      conn.commit();
+    } catch (SQLException | RuntimeException e) {
+      conn.rollback();
+      throw e;
+    } finally {
+      conn.setAutoCommit(true);
+    }
+  }
+
+  public Map<String, Object> stats() {
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("mode", slots == 0 ? "direct" : "slots");
+    s.put("slots", slots);
+    s.put("fold_count", foldCount.get());
+    s.put("folded_posts", foldedPosts.get());
+    s.put("fold_failures", foldFailures.get());
+    s.put("last_fold_ms", lastFoldMillis);
+    s.put("max_fold_ms", maxFoldMillis.get());
+    s.put("reconciling", reconciling.get());
+    s.put("reconcile_runs", reconcileRuns.get());
+    s.put("reconcile_checked", reconcileChecked.get());
+    s.put("reconcile_repaired", reconcileRepaired.get());
+    s.put("reconcile_failures", reconcileFailures.get());
+    s.put("reconcile_skipped", reconcileSkipped.get());
+    s.put("last_reconcile_ms", lastReconcileMillis);
+    s.put("last_reconcile_at", lastReconcileAt == null ? null : lastReconcileAt.toString());
+    return s;
+  }
+}
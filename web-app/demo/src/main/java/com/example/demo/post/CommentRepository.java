@@ -0,0 +1,273 @@
+package com.example.demo.post;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.dto.Comment;
+import com.example.demo.outbox.OutboxEvent;
+import com.example.demo.outbox.OutboxWriter;
+import com.example.demo.support.OwnedWrite;
+
+/**
+ * comments 테이블 접근(댓글 수 증감 포함)
+ *
+ * - PostRepository와 같은 규칙: 상수 SQL, 고정 컬럼 순서 + 인덱스 매핑
+ * - 댓글 작성/삭제는 댓글 수 변경(CommentCounter 슬롯), outbox 이벤트(OutboxWriter)와 한 트랜잭션
+ * - SQL 앞의 주석은 메트릭의 query 이름(InstrumentedDataSource)
+ */
+@Repository
+public class CommentRepository {
+
+  // 1:id 2:post_id 3:user_id 4:comment 5:created_at
+  private static final String COLUMNS = "id, post_id, user_id, comment, created_at";
+
+  private static final String PAGE_SQL = "/* comment.page */ SELECT " + COLUMNS
+      + " FROM comments WHERE post_id = ? AND id > ? ORDER BY id ASC LIMIT ?";
+  private static final String ALL_SQL = "/* comment.byPost */ SELECT " + COLUMNS
+      + " FROM comments WHERE post_id = ? ORDER BY id ASC";
+  private static final String INSERT_SQL = "/* comment.insert */ INSERT INTO comments (post_id, user_id, comment) VALUES (?, ?, ?)";
+  // updated_at을 직접 갱신(같은 내용으로 수정하면 ON UPDATE가 걸리지 않음, 댓글 목록 ETag가 수정 시각을 봄)
+  // - ms 단위(DATETIME(3)): 초 단위면 1초 안에 두 번 고친 댓글이 같은 ETag로 남아 304에 옛 내용이 보임
+  private static final String UPDATE_SQL = "/* comment.update */ UPDATE comments SET comment = ?, updated_at = CURRENT_TIMESTAMP(3) WHERE id = ? AND user_id = ?";
+  // 목록 ETag용: 인덱스 끝 한 번씩만 읽음(idx_comments_post_id의 마지막 id, idx_comments_post_updated의 마지막 수정 시각)
+  // - COUNT(*)는 인기 글에서 댓글 수만큼 인덱스를 훑으므로 넣지 않음(삭제는 게시글 댓글 수로 확인)
+  private static final String VERSION_SQL = "/* comment.version */ SELECT"
+      + " (SELECT COALESCE(MAX(id), 0) FROM comments WHERE post_id = ?),"
+      + " (SELECT MAX(updated_at) FROM comments WHERE post_id = ?)";
+  private static final String EXISTS_SQL = "/* comment.exists */ SELECT 1 FROM comments WHERE id = ?";
+  private static final String OWNER_SQL = "/* comment.owner */ SELECT post_id, user_id FROM comments WHERE id = ?";
+  private static final String DELETE_SQL = "/* comment.delete */ DELETE FROM comments WHERE id = ?";
+
+  /**
+   * 스트리밍 조회 중인 행(ResultSet을 감싼 것, handler 안에서만 유효)
+   */
+  public interface Rows {
+    boolean next() throws SQLException;
+
+    Comment current() throws SQLException;
+  }
+
+  @FunctionalInterface
+  public interface RowsHandler {
+    void handle(Rows rows) throws Exception;
+  }
+
+  /**
+   * 댓글 삭제 결과(post_id는 DONE일 때만 의미 있음)
+   */
+  public record Deleted(OwnedWrite result, int postId) {
+  }
+
+  /**
+   * 게시글 댓글 목록의 버전 일부(작성 → maxId, 수정 → lastEdited가 바뀜, 삭제는 게시글 댓글 수로 확인)
+   */
+  public record Version(long maxId, String lastEdited) {
+  }
+
+  private final DataSource dataSource;
+  private final CommentCounter counter;
+
+  public CommentRepository(DataSource dataSource, CommentCounter counter) {
+    this.dataSource = dataSource;
+    this.counter = counter;
+  }
+
+  // 패키지 공개: JMH 벤치마크(RowMappingBenchmark)에서 직접 호출
+  static Comment mapRow(ResultSet rs) throws SQLException {
+    return new Comment(
+        rs.getInt(1),
+        rs.getInt(2),
+        rs.getInt(3),
+        rs.getString(4),
+        rs.getString(5));
+  }
+
+  /**
+   * 댓글 한 페이지(id > afterId, id ASC, 최대 limit건)
+   */
+  public List<Comment> findPage(int postId, int afterId, int limit) throws SQLException {
+    List<Comment> items = new ArrayList<>();
+
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(PAGE_SQL)) {
+      ps.setInt(1, postId);
+      ps.setInt(2, afterId);
+      ps.setInt(3, limit);
+
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next())
+          items.add(mapRow(rs));
+      }
+    }
+    return items;
+  }
+
+  /**
+   * 댓글 목록 버전(조건부 GET 확인용, 목록 자체는 읽지 않음)
+   */
+  public Version version(int postId) throws SQLException {
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(VERSION_SQL)) {
+      ps.setInt(1, postId);
+      ps.setInt(2, postId);
+
+      try (ResultSet rs = ps.executeQuery()) {
+        rs.next();
+        return new Version(rs.getLong(1), rs.getString(2));
+      }
+    }
+  }
+
+  /**
+   * 게시글의 댓글 전체를 읽는 대로 handler에 넘김(목록을 메모리에 모으지 않음)
+   * - 쿼리 실행까지 끝난 뒤에 handler 호출(그 전 오류는 handler가 아무것도 쓰기 전에 던져짐)
+   * - MySQL은 URL에 useCursorFetch=true가 있어야 fetch size 단위로 받아옴
+   */
+  public void streamByPost(int postId, int fetchSize, RowsHandler handler) throws Exception {
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(ALL_SQL)) {
+      ps.setInt(1, postId);
+      ps.setFetchSize(fetchSize);
+
+      try (ResultSet rs = ps.executeQuery()) {
+        handler.handle(new Rows() {
+          @Override
+          public boolean next() throws SQLException {
+            return rs.next();
+          }
+
+          @Override
+          public Comment current() throws SQLException {
+            return mapRow(rs);
+          }
+        });
+      }
+    }
+  }
+
+  /**
+   * 댓글 INSERT + 댓글 수 +1 + COMMENT_CREATED 이벤트(한 트랜잭션)
+   * - 반환: 생성된 comment_id / 게시글이 없으면(FK 오류) null
+   */
+  public Integer insert(int postId, int userId, String comment) throws SQLException {
+    try (Connection conn = dataSource.getConnection()) {
+      conn.setAutoCommit(false);
+
+      try {
+        int commentId;
+
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+          ps.setInt(1, postId);
+          ps.setInt(2, userId);
+          ps.setString(3, comment);
+          ps.executeUpdate();
+
+          try (ResultSet keys = ps.getGeneratedKeys()) {
+            if (!keys.next())
+              throw new SQLException("생성된 comment_id 키 없음");
+            commentId = keys.getInt(1);
+          }
+        } catch (SQLIntegrityConstraintViolationException fk) {
+          // post_id가 없거나(user FK 등) 무결성 오류인 경우
+          conn.rollback();
+          return null;
+        }
+
+        counter.add(conn, postId, 1);
+        OutboxWriter.append(conn, OutboxEvent.Type.COMMENT_CREATED, postId, commentId, userId);
+
+        conn.commit();
+        return commentId;
+
+      } catch (SQLException | RuntimeException e) {
+        conn.rollback();
+        throw e;
+      } finally {
+        conn.setAutoCommit(true);
+      }
+    }
+  }
+
+  public OwnedWrite update(int commentId, int userId, String comment) throws SQLException {
+    try (Connection conn = dataSource.getConnection()) {
+      try (PreparedStatement ps = conn.prepareStatement(UPDATE_SQL)) {
+        ps.setString(1, comment);
+        ps.setInt(2, commentId);
+        ps.setInt(3, userId);
+        if (ps.executeUpdate() > 0)
+          return OwnedWrite.DONE;
+      }
+
+      // 작성자 조건으로 0건: 댓글이 있으면 권한 없음
+      try (PreparedStatement ps = conn.prepareStatement(EXISTS_SQL)) {
+        ps.setInt(1, commentId);
+        try (ResultSet rs = ps.executeQuery()) {
+          return rs.next() ? OwnedWrite.FORBIDDEN : OwnedWrite.NOT_FOUND;
+        }
+      }
+    }
+  }
+
+  /**
+   * 댓글 DELETE + 댓글 수 -1 + COMMENT_DELETED 이벤트(한 트랜잭션)
+   * - 댓글 수를 줄일 post_id가 필요하므로 작성자 확인 SELECT는 유지
+   */
+  public Deleted delete(int commentId, int userId) throws SQLException {
+    try (Connection conn = dataSource.getConnection()) {
+      conn.setAutoCommit(false);
+
+      try {
+        int postId;
+        int ownerId;
+
+        try (PreparedStatement ps = conn.prepareStatement(OWNER_SQL)) {
+          ps.setInt(1, commentId);
+          try (ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) {
+              conn.rollback();
+              return new Deleted(OwnedWrite.NOT_FOUND, 0);
+            }
+            postId = rs.getInt(1);
+            ownerId = rs.getInt(2);
+          }
+        }
+
+        if (ownerId != userId) {
+          conn.rollback();
+          return new Deleted(OwnedWrite.FORBIDDEN, postId);
+        }
+
+        try (PreparedStatement ps = conn.prepareStatement(DELETE_SQL)) {
+          ps.setInt(1, commentId);
+          if (ps.executeUpdate() != 1) {
+            // 그 사이 다른 요청이 먼저 지움
+            conn.rollback();
+            return new Deleted(OwnedWrite.NOT_FOUND, postId);
+          }
+        }
+
+        counter.add(conn, postId, -1);
+        OutboxWriter.append(conn, OutboxEvent.Type.COMMENT_DELETED, postId, commentId, userId);
+
+        conn.commit();
+        return new Deleted(OwnedWrite.DONE, postId);
+
+      } catch (SQLException | RuntimeException e) {
+        conn.rollback();
+        throw e;
+      } finally {
+        conn.setAutoCommit(true);
+      }
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package com.example.demo.post;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.support.ReadRouting;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * 게시글 단건 read-through 캐시
+ *
+ * - 게시글 본문은 작성 후 거의 바뀌지 않으므로 GET /posts/{id}마다 DB를 읽지 않음
+ * - Caffeine(W-TinyLFU): 자주 읽히는 글이 한 번 읽힌 글에 밀려나지 않음
+ * - content(TEXT) 길이가 제각각이라 개수가 아닌 "대략적인 바이트"로 상한(max-bytes)
+ * - 무효화: updatePost / deletePost / 댓글 작성·삭제(comments_cnt 변경)
+ * - view_count는 담지 않음: 응답 시 DB 값(PK 한 칸 조회) + 아직 반영 안 된 증가분
+ *   (캐시에 두면 flush 직후 다시 읽은 값에 증가분이 또 더해지고, 다른 노드의 flush는 TTL까지 안 보임)
+ * - 다른 노드의 수정은 outbox 이벤트로 무효화(이벤트가 늦어도 ttl-ms 이내에는 반영)
+ */
+@Component
+public class PostCache {
+
+  /**
+   * 캐시 항목(posts 한 행)
+   */
+  public record CachedPost(
+      int id,
+      int userId,
+      String title,
+      String content,
+      int commentsCnt,
+      String createdAt,
+      String updatedAt) {
+
+    // 문자열은 UTF-16 기준 2바이트/글자 + 객체 헤더 여유분
+    int weight() {
+      long chars = (long) title.length() + content.length()
+          + (createdAt == null ? 0 : createdAt.length()) + (updatedAt == null ? 0 : updatedAt.length());
+      return (int) Math.min(Integer.MAX_VALUE, 96 + chars * 2);
+    }
+  }
+
+  @FunctionalInterface
+  public interface Loader {
+    // 없으면 null
+    CachedPost load(int id) throws Exception;
+  }
+
+  // null이면 캐시 비활성
+  private final Cache<Integer, CachedPost> cache;
+
+  private final long maxBytes;
+
+  public PostCache(
+      @Value("${app.post-cache.enabled:true}") boolean enabled,
+      @Value("${app.post-cache.max-bytes:67108864}") long maxBytes,
+      @Value("${app.post-cache.ttl-ms:60000}") long ttlMillis) {
+    this.maxBytes = maxBytes;
+    this.cache = !enabled ? null
+        : Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((Integer id, CachedPost p) -> p.weight())
+            .expireAfterWrite(Duration.ofMillis(ttlMillis))
+            .recordStats()
+            .build();
+  }
+
+  /**
+   * 캐시 조회, 없으면 loader로 읽어서 저장
+   * - 같은 id를 동시에 읽으면 loader는 한 번만 실행
+   * - 없는 게시글(null)은 저장하지 않음
+   * - 캐시에 넣을 값은 primary에서 읽음(복제 지연된 값을 TTL 동안 들고 있지 않도록)
+   */
+  public CachedPost get(int id, Loader loader) throws Exception {
+    if (cache == null)
+      return loader.load(id);
+
+    try {
+      return cache.get(id, k -> {
+        try {
+          return ReadRouting.onPrimary(() -> loader.load(k));
+        } catch (Exception e) {
+          throw new CompletionException(e);
+        }
+      });
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof Exception cause)
+        throw cause;
+      throw e;
+    }
+  }
+
+  public void invalidate(int id) {
+    if (cache != null)
+      cache.invalidate(id);
+  }
+
+  public Map<String, Object> stats() {
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("enabled", cache != null);
+    if (cache == null)
+      return s;
+
+    CacheStats st = cache.stats();
+    s.put("entries", cache.estimatedSize());
+    s.put("weighted_bytes", cache.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L));
+    s.put("max_bytes", maxBytes);
+    s.put("hits", st.hitCount());
+    s.put("misses", st.missCount());
+    s.put("hit_rate", st.hitRate());
+    s.put("evictions", st.evictionCount());
+    s.put("evicted_bytes", st.evictionWeight());
+    s.put("load_failures", st.loadFailureCount());
+    return s;
+  }
+}
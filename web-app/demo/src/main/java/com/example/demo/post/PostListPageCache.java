@@ -0,0 +1,316 @@
+package com.example.demo.post;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 게시글 목록 앞쪽 페이지(검색 없음) 응답 캐시(Redis, 직렬화된 JSON 그대로)
+ *
+ * - 목록 트래픽 대부분이 1~N 페이지 → 노드마다 같은 COUNT + 페이지 조회를 반복하지 않음
+ * - key: {prefix}{pageSize}:{page}:{total 모드} / value: "{generation}:{soft 만료 epoch ms}:" + 응답 JSON 바이트
+ *   · 응답은 직렬화된 바이트를 그대로 내려줌(객체 변환 없음)
+ * - generation: 게시글 작성/수정/삭제 시 INCR → 값에 적힌 generation이 다르면 미스(모든 페이지 한 번에 무효화)
+ *   · 조회는 MGET(generation, 페이지) 한 번
+ * - soft-ttl-ms가 지나면 옛 값을 바로 내려주고 백그라운드에서 다시 만듦, ttl-ms가 지나면 Redis에서 사라짐
+ * - 다시 만들기는 SET NX 락을 잡은 노드 하나만(lock-ms 뒤 자동 해제)
+ *   · 미스인데 락을 못 잡으면 lock-wait-ms 동안 다른 노드가 채우기를 기다리고, 그래도 없으면 직접 조회(저장은 안 함)
+ * - Redis 오류는 캐시 미스로 처리(요청은 실패시키지 않음)
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.post-list-cache", name = "enabled", havingValue = "true")
+public class PostListPageCache {
+
+  private static final Logger log = LoggerFactory.getLogger(PostListPageCache.class);
+
+  // 락 주인만 해제(만료 후 다른 노드가 잡은 락을 지우지 않도록)
+  private static final DefaultRedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+      "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+      Long.class);
+
+  private static final long WAIT_STEP_MILLIS = 20;
+
+  @FunctionalInterface
+  public interface Loader {
+    // 응답 JSON 바이트
+    byte[] load() throws Exception;
+  }
+
+  private record Entry(long generation, long softExpiresAt, byte[] body) {
+  }
+
+  private final StringRedisTemplate redis;
+  private final String keyPrefix;
+  private final byte[] generationKey;
+  private final int maxPages;
+  private final long ttlMillis;
+  private final long softTtlMillis;
+  private final long lockMillis;
+  private final long lockWaitMillis;
+
+  // soft 만료 갱신용(같은 키는 이 노드에서 한 번에 하나만 대기)
+  private final ThreadPoolExecutor refresher;
+  private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong staleHits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong builds = new AtomicLong();
+  private final AtomicLong refreshes = new AtomicLong();
+  private final AtomicLong waitHits = new AtomicLong();
+  private final AtomicLong waitTimeouts = new AtomicLong();
+  private final AtomicLong generationBumps = new AtomicLong();
+  private final AtomicLong redisErrors = new AtomicLong();
+
+  public PostListPageCache(
+      StringRedisTemplate redis,
+      @Value("${app.post-list-cache.key-prefix:posts:list:}") String keyPrefix,
+      @Value("${app.post-list-cache.max-pages:5}") int maxPages,
+      @Value("${app.post-list-cache.ttl-ms:60000}") long ttlMillis,
+      @Value("${app.post-list-cache.soft-ttl-ms:5000}") long softTtlMillis,
+      @Value("${app.post-list-cache.lock-ms:3000}") long lockMillis,
+      @Value("${app.post-list-cache.lock-wait-ms:300}") long lockWaitMillis) {
+    this.redis = redis;
+    this.keyPrefix = keyPrefix;
+    this.generationKey = bytes(keyPrefix + "gen");
+    this.maxPages = maxPages;
+    this.ttlMillis = Math.max(1, ttlMillis);
+    this.softTtlMillis = Math.min(Math.max(0, softTtlMillis), this.ttlMillis);
+    this.lockMillis = Math.max(1, lockMillis);
+    this.lockWaitMillis = Math.max(0, lockWaitMillis);
+    this.refresher = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(64), r -> {
+      Thread t = new Thread(r, "post-list-refresh");
+      t.setDaemon(true);
+      return t;
+    }, new ThreadPoolExecutor.DiscardPolicy());
+  }
+
+  @PreDestroy
+  public void close() {
+    refresher.shutdownNow();
+  }
+
+  /**
+   * 캐시 대상 페이지인지(검색/커서 아님은 호출한 쪽에서 확인)
+   */
+  public boolean covers(int page) {
+    return page >= 1 && page <= maxPages;
+  }
+
+  /**
+   * 캐시된 응답 JSON, 없으면 loader로 만들어 저장
+   */
+  public byte[] get(int page, int pageSize, String totalMode, Loader loader) throws Exception {
+    String key = keyPrefix + pageSize + ":" + page + ":" + totalMode;
+    byte[] keyBytes = bytes(key);
+
+    long generation;
+    Entry entry;
+    try {
+      List<byte[]> values = redis.execute((RedisCallback<List<byte[]>>) c -> c.stringCommands().mGet(generationKey, keyBytes));
+      generation = parseGeneration(values == null ? null : values.get(0));
+      entry = values == null ? null : parse(values.get(1));
+    } catch (Exception e) {
+      onError("mget", e);
+      return loader.load();
+    }
+
+    if (entry != null && entry.generation() == generation) {
+      if (System.currentTimeMillis() < entry.softExpiresAt()) {
+        hits.incrementAndGet();
+      } else {
+        staleHits.incrementAndGet();
+        refreshAsync(key, generation, loader);
+      }
+      return entry.body();
+    }
+
+    misses.incrementAndGet();
+    String token = tryLock(key);
+    if (token != null) {
+      try {
+        builds.incrementAndGet();
+        return build(keyBytes, generation, loader);
+      } finally {
+        unlock(key, token);
+      }
+    }
+
+    // 다른 노드가 만드는 중: 잠깐 기다렸다가 그 결과를 씀
+    for (long waited = 0; waited < lockWaitMillis; waited += WAIT_STEP_MILLIS) {
+      try {
+        Thread.sleep(WAIT_STEP_MILLIS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+      Entry filled = read(keyBytes);
+      if (filled != null && filled.generation() == generation) {
+        waitHits.incrementAndGet();
+        return filled.body();
+      }
+    }
+    waitTimeouts.incrementAndGet();
+    return loader.load();
+  }
+
+  /**
+   * 모든 페이지 무효화(게시글 작성/수정/삭제 후)
+   */
+  public void bumpGeneration() {
+    try {
+      redis.execute((RedisCallback<Long>) c -> c.stringCommands().incr(generationKey));
+      generationBumps.incrementAndGet();
+    } catch (Exception e) {
+      onError("incr", e);
+    }
+  }
+
+  private void refreshAsync(String key, long generation, Loader loader) {
+    if (!refreshing.add(key))
+      return;
+    try {
+      refresher.execute(() -> {
+        try {
+          String token = tryLock(key);
+          if (token == null)
+            return; // 다른 노드가 갱신 중
+          try {
+            build(bytes(key), generation, loader);
+            refreshes.incrementAndGet();
+          } finally {
+            unlock(key, token);
+          }
+        } catch (Exception e) {
+          log.debug("post list refresh failed for {}: {}", key, e.toString());
+        } finally {
+          refreshing.remove(key);
+        }
+      });
+    } catch (RuntimeException e) {
+      refreshing.remove(key);
+    }
+  }
+
+  // generation은 조회 전에 읽은 값 → 만드는 사이 글이 바뀌었으면 다음 조회에서 미스
+  private byte[] build(byte[] keyBytes, long generation, Loader loader) throws Exception {
+    byte[] body = loader.load();
+    byte[] header = bytes(generation + ":" + (System.currentTimeMillis() + softTtlMillis) + ":");
+    byte[] value = Arrays.copyOf(header, header.length + body.length);
+    System.arraycopy(body, 0, value, header.length, body.length);
+    try {
+      redis.execute((RedisCallback<Boolean>) c -> c.stringCommands().set(keyBytes, value,
+          Expiration.milliseconds(ttlMillis), SetOption.upsert()));
+    } catch (Exception e) {
+      onError("set", e);
+    }
+    return body;
+  }
+
+  private Entry read(byte[] keyBytes) {
+    try {
+      return parse(redis.execute((RedisCallback<byte[]>) c -> c.stringCommands().get(keyBytes)));
+    } catch (Exception e) {
+      onError("get", e);
+      return null;
+    }
+  }
+
+  // 락 토큰, 못 잡았거나 오류면 null
+  private String tryLock(String key) {
+    String token = UUID.randomUUID().toString();
+    try {
+      Boolean locked = redis.execute((RedisCallback<Boolean>) c -> c.stringCommands().set(bytes(key + ":lock"),
+          bytes(token), Expiration.milliseconds(lockMillis), SetOption.ifAbsent()));
+      return Boolean.TRUE.equals(locked) ? token : null;
+    } catch (Exception e) {
+      onError("lock", e);
+      return null;
+    }
+  }
+
+  private void unlock(String key, String token) {
+    try {
+      redis.execute(UNLOCK_SCRIPT, List.of(key + ":lock"), token);
+    } catch (Exception e) {
+      onError("unlock", e);
+    }
+  }
+
+  private static long parseGeneration(byte[] v) {
+    return v == null ? 0 : Long.parseLong(new String(v, StandardCharsets.US_ASCII));
+  }
+
+  // "{generation}:{soft 만료}:" + JSON, 형식이 다르면 null(미스)
+  private static Entry parse(byte[] v) {
+    if (v == null)
+      return null;
+    int first = indexOf(v, 0);
+    int second = first < 0 ? -1 : indexOf(v, first + 1);
+    if (second < 0)
+      return null;
+    try {
+      long generation = Long.parseLong(new String(v, 0, first, StandardCharsets.US_ASCII));
+      long softExpiresAt = Long.parseLong(new String(v, first + 1, second - first - 1, StandardCharsets.US_ASCII));
+      return new Entry(generation, softExpiresAt, Arrays.copyOfRange(v, second + 1, v.length));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  // 헤더는 숫자 두 개라 앞쪽 40바이트 안에서만 찾음
+  private static int indexOf(byte[] v, int from) {
+    for (int i = from; i < Math.min(v.length, 40); i++)
+      if (v[i] == ':')
+        return i;
+    return -1;
+  }
+
+  private static byte[] bytes(String s) {
+    return s.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private void onError(String op, Exception e) {
+    if (redisErrors.incrementAndGet() % 1000 == 1)
+      log.warn("post list cache redis {} failed, falling back: {}", op, e.toString());
+  }
+
+  public Map<String, Object> stats() {
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("max_pages", maxPages);
+    s.put("ttl_ms", ttlMillis);
+    s.put("soft_ttl_ms", softTtlMillis);
+    s.put("hits", hits.get());
+    s.put("stale_hits", staleHits.get());
+    s.put("misses", misses.get());
+    s.put("builds", builds.get());
+    s.put("refreshes", refreshes.get());
+    s.put("lock_wait_hits", waitHits.get());
+    s.put("lock_wait_timeouts", waitTimeouts.get());
+    s.put("generation_bumps", generationBumps.get());
+    s.put("redis_errors", redisErrors.get());
+    return s;
+  }
+}
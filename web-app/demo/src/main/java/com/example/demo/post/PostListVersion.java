@@ -0,0 +1,97 @@
+package com.example.demo.post;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.support.ReadRouting;
+
+/**
+ * 게시글 목록(GET /posts) 조건부 GET 검증값
+ *
+ * - generation: 마지막 게시글 작성/수정/삭제 outbox 이벤트 id(데이터에서 나온 값이라 노드/재시작과 무관)
+ *   · 다른 노드의 쓰기: outbox 이벤트를 받을 때 observe로 올림
+ *   · 이 노드의 쓰기: bump()로 표시만 해 두고 다음 목록 요청에서 DB의 마지막 이벤트를 다시 읽음
+ *   · 처음 요청 때도 DB에서 읽음 → 모든 노드가 같은 ETag, 재시작해도 같은 ETag
+ * - 목록의 조회수/댓글 수는 쓰기 없이도 바뀌므로 bucket-ms 단위 시간 구간을 같이 넣음
+ *   → 같은 구간 안에서는 304, 구간이 바뀌면 다시 200(목록 캐시 soft-ttl과 같은 "최대 이만큼 늦게 보임")
+ * - Last-Modified: 마지막 이벤트의 작성 시각과 현재 구간 시작 시각 중 늦은 쪽
+ * - 늦게 전달된 빈칸 이벤트(id가 더 작음)는 generation을 올리지 않음 → 다음 구간에 반영
+ */
+@Component
+public class PostListVersion {
+
+  // PK 역순으로 훑다가 처음 만나는 게시글 이벤트(댓글 이벤트만 계속 쌓인 경우에도 보통 몇 행)
+  private static final String LATEST_SQL = "/* postList.version */ SELECT id, created_ms FROM outbox_events"
+      + " WHERE event_type IN ('POST_CREATED', 'POST_UPDATED', 'POST_DELETED') ORDER BY id DESC LIMIT 1";
+
+  private final DataSource dataSource;
+  private final AtomicLong generation = new AtomicLong();
+  private volatile long changedMillis;
+  // true면 다음 etag/lastModified에서 DB를 다시 읽음(시작 직후, 이 노드의 쓰기 직후)
+  private volatile boolean stale = true;
+  private final long bucketMillis;
+
+  public PostListVersion(
+      DataSource dataSource,
+      @Value("${app.conditional-get.list-bucket-ms:5000}") long bucketMillis) {
+    this.dataSource = dataSource;
+    this.bucketMillis = Math.max(1000, bucketMillis);
+  }
+
+  /**
+   * 이 노드에서 게시글을 쓴 직후(커밋 후) 호출
+   */
+  public void bump() {
+    stale = true;
+  }
+
+  /**
+   * outbox 이벤트로 받은 게시글 쓰기(중복/역순 전달에도 큰 쪽만 남음)
+   */
+  public void observe(long eventId, long createdMillis) {
+    if (generation.accumulateAndGet(eventId, Math::max) == eventId && createdMillis > changedMillis)
+      changedMillis = createdMillis;
+  }
+
+  public String etag(long nowMillis) throws Exception {
+    refreshIfStale();
+    return "W/\"l" + generation.get() + "-" + nowMillis / bucketMillis + "\"";
+  }
+
+  /**
+   * 마지막 쓰기 시각과 현재 구간 시작 시각 중 늦은 쪽
+   */
+  public long lastModified(long nowMillis) throws Exception {
+    refreshIfStale();
+    return Math.max(changedMillis, nowMillis / bucketMillis * bucketMillis);
+  }
+
+  // 방금 쓴 이벤트를 복제 지연 없이 보도록 primary에서 읽음
+  private void refreshIfStale() throws Exception {
+    if (!stale)
+      return;
+    // 읽는 도중 들어온 bump는 다시 stale로 남음
+    stale = false;
+    try {
+      ReadRouting.onPrimary(() -> {
+        try (Connection conn = dataSource.getConnection();
+            PreparedStatement ps = conn.prepareStatement(LATEST_SQL);
+            ResultSet rs = ps.executeQuery()) {
+          if (rs.next())
+            observe(rs.getLong(1), rs.getLong(2));
+        }
+        return null;
+      });
+    } catch (Exception e) {
+      stale = true;
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,362 @@
+package com.example.demo.post;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.dto.PostSummary;
+import com.example.demo.outbox.OutboxEvent;
+import com.example.demo.outbox.OutboxWriter;
+import com.example.demo.post.PostCache.CachedPost;
+import com.example.demo.support.InList;
+import com.example.demo.support.OwnedWrite;
+
+/**
+ * posts 테이블 접근
+ *
+ * - SQL 문자열은 모두 상수(검색 type / 커서 방향별로 미리 만들어 둠)
+ *   → 같은 문장이 드라이버/서버의 prepared statement 캐시에서 재사용됨
+ * - SELECT 컬럼 순서를 COLUMNS로 고정하고 행은 인덱스로 읽음(컬럼 이름 검색 없음)
+ * - 작성자 확인이 필요한 수정/삭제는 WHERE id = ? AND user_id = ? 한 번으로 처리
+ *   (0건일 때만 "없음/권한 없음" 구분용 SELECT를 한 번 더 실행)
+ * - 목록 view_count는 아직 DB에 반영되지 않은 조회수까지 더한 값
+ * - comments_cnt는 posts 값 + 아직 접히지 않은 댓글 수 슬롯 합(CommentCounter)
+ * - 작성/수정/삭제는 outbox 이벤트와 같은 트랜잭션(OutboxWriter)
+ * - SQL 앞의 주석(post.page 등)은 메트릭의 query 이름(InstrumentedDataSource)
+ */
+@Repository
+public class PostRepository {
+
+  // 1:id 2:user_id 3:title 4:content 5:view_count 6:comments_cnt 7:created_at
+  private static final String COLUMNS = "id, user_id, title, content, view_count, comments_cnt + "
+      + CommentCounter.PENDING_SUM + ", created_at";
+
+  // 검색 조건 종류: 0=없음, 1=title, 2=content, 3=both
+  private static final String[] SEARCH_COND = {
+      null,
+      "title LIKE ?",
+      "content LIKE ?",
+      "(title LIKE ? OR content LIKE ?)"
+  };
+  private static final String[] SEARCH_NAME = { "", ".title", ".content", ".both" };
+
+  private static final String[] PAGE_SQL = new String[SEARCH_COND.length];
+  private static final String[] COUNT_SQL = new String[SEARCH_COND.length];
+  private static final String[] SEEK_NEXT_SQL = new String[SEARCH_COND.length];
+  private static final String[] SEEK_PREV_SQL = new String[SEARCH_COND.length];
+
+  static {
+    for (int i = 0; i < SEARCH_COND.length; i++) {
+      String where = SEARCH_COND[i] == null ? "" : "WHERE " + SEARCH_COND[i];
+      String seekPrefix = SEARCH_COND[i] == null ? "WHERE " : "WHERE " + SEARCH_COND[i] + " AND ";
+
+      PAGE_SQL[i] = "/* post.page" + SEARCH_NAME[i] + " */ SELECT " + COLUMNS + " FROM posts " + where + " ORDER BY id DESC LIMIT ? OFFSET ?";
+      COUNT_SQL[i] = "/* post.count" + SEARCH_NAME[i] + " */ SELECT COUNT(*) FROM posts " + where;
+      SEEK_NEXT_SQL[i] = "/* post.seekNext" + SEARCH_NAME[i] + " */ SELECT " + COLUMNS + " FROM posts " + seekPrefix + "id < ? ORDER BY id DESC LIMIT ?";
+      SEEK_PREV_SQL[i] = "/* post.seekPrev" + SEARCH_NAME[i] + " */ SELECT " + COLUMNS + " FROM posts " + seekPrefix + "id > ? ORDER BY id ASC LIMIT ?";
+    }
+  }
+
+  // 8:updated_at(상세 Last-Modified)
+  private static final String FIND_BY_ID_SQL = "/* post.byId */ SELECT " + COLUMNS + ", updated_at FROM posts WHERE id = ? LIMIT 1";
+  private static final String VIEW_COUNT_SQL = "/* post.viewCount */ SELECT view_count FROM posts WHERE id = ?";
+  private static final String EXISTS_SQL = "/* post.exists */ SELECT 1 FROM posts WHERE id = ?";
+  private static final String INSERT_SQL = "/* post.insert */ INSERT INTO posts (user_id, title, content) VALUES (?, ?, ?)";
+  // Connector/J는 기본으로 "바뀐 행"이 아니라 "조건에 맞은 행" 수를 돌려줌(같은 값으로 수정해도 1)
+  // updated_at을 직접 갱신(같은 값으로 수정하면 ON UPDATE가 걸리지 않음, 상세 Last-Modified가 수정 시각을 봄)
+  private static final String UPDATE_SQL = "/* post.update */ UPDATE posts SET title = ?, content = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ? AND user_id = ?";
+  // 삭제: 게시글 행을 잠그고 작성자 확인 → 댓글, 댓글 수 슬롯, 게시글 순서(fk_comments_post에 ON DELETE CASCADE 없음)
+  private static final String LOCK_OWNER_SQL = "/* post.lockOwner */ SELECT user_id FROM posts WHERE id = ? FOR UPDATE";
+  private static final String DELETE_COMMENTS_SQL = "/* post.deleteComments */ DELETE FROM comments WHERE post_id = ?";
+  private static final String DELETE_COUNT_SLOTS_SQL = "/* post.deleteCountSlots */ DELETE FROM post_comment_count_slots WHERE post_id = ?";
+  private static final String DELETE_SQL = "/* post.delete */ DELETE FROM posts WHERE id = ?";
+
+  // 자리표시자 개수(InList.slots)별 WHERE id IN (...) 문장
+  private final Map<Integer, String> findByIdsSql = new ConcurrentHashMap<>();
+
+  private final DataSource dataSource;
+  private final ViewCountBuffer viewCounts;
+
+  public PostRepository(DataSource dataSource, ViewCountBuffer viewCounts) {
+    this.dataSource = dataSource;
+    this.viewCounts = viewCounts;
+  }
+
+  // type은 호출 쪽에서 title|content|both로 정리된 값, keyword가 null이면 검색 없음
+  private static int searchKind(String type, String keyword) {
+    if (keyword == null)
+      return 0;
+    return switch (type) {
+      case "title" -> 1;
+      case "content" -> 2;
+      default -> 3;
+    };
+  }
+
+  // 검색 조건(LIKE) 바인딩: 다음 파라미터 인덱스를 반환
+  private static int bindSearch(PreparedStatement ps, int idx, int kind, String keyword) throws SQLException {
+    if (kind == 0)
+      return idx;
+    String like = "%" + keyword + "%";
+    ps.setString(idx++, like);
+    if (kind == 3)
+      ps.setString(idx++, like);
+    return idx;
+  }
+
+  private PostSummary mapSummary(ResultSet rs) throws SQLException {
+    int id = rs.getInt(1);
+    return new PostSummary(
+        id,
+        rs.getInt(2),
+        rs.getString(3),
+        rs.getString(4),
+        rs.getInt(5) + viewCounts.pendingDelta(id),
+        rs.getInt(6),
+        rs.getString(7));
+  }
+
+  private List<PostSummary> readSummaries(PreparedStatement ps) throws SQLException {
+    List<PostSummary> items = new ArrayList<>();
+    try (ResultSet rs = ps.executeQuery()) {
+      while (rs.next())
+        items.add(mapSummary(rs));
+    }
+    return items;
+  }
+
+  /**
+   * OFFSET 페이지(id DESC)
+   */
+  public List<PostSummary> findPage(String type, String keyword, int limit, int offset) throws SQLException {
+    int kind = searchKind(type, keyword);
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(PAGE_SQL[kind])) {
+      int idx = bindSearch(ps, 1, kind, keyword);
+      ps.setInt(idx++, limit);
+      ps.setInt(idx, offset);
+      return readSummaries(ps);
+    }
+  }
+
+  /**
+   * 검색 조건에 맞는 게시글 수(COUNT)
+   */
+  public long countMatching(String type, String keyword) throws SQLException {
+    int kind = searchKind(type, keyword);
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(COUNT_SQL[kind])) {
+      bindSearch(ps, 1, kind, keyword);
+      try (ResultSet rs = ps.executeQuery()) {
+        return rs.next() ? rs.getLong(1) : 0;
+      }
+    }
+  }
+
+  /**
+   * 커서(keyset) 조회
+   * - forward: id < anchor, id DESC
+   * - backward: id > anchor, id ASC(읽은 순서 그대로 반환, 뒤집기는 호출 쪽)
+   */
+  public List<PostSummary> seek(String type, String keyword, int anchor, boolean forward, int limit)
+      throws SQLException {
+    int kind = searchKind(type, keyword);
+    String sql = forward ? SEEK_NEXT_SQL[kind] : SEEK_PREV_SQL[kind];
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(sql)) {
+      int idx = bindSearch(ps, 1, kind, keyword);
+      ps.setInt(idx++, anchor);
+      ps.setInt(idx, limit);
+      return readSummaries(ps);
+    }
+  }
+
+  /**
+   * id 목록(id DESC 배열의 [from, to) 구간)으로 게시글 조회
+   * - PK IN 조회라 검색어와 무관하게 페이지 크기만큼만 읽음
+   * - 색인과 DB 사이에 삭제된 글은 자연스럽게 빠짐
+   */
+  public List<PostSummary> findByIds(int[] ids, int from, int to) throws SQLException {
+    if (from >= to)
+      return new ArrayList<>();
+
+    int slots = InList.slots(to - from);
+    String sql = findByIdsSql.computeIfAbsent(slots,
+        n -> "/* post.byIds */ SELECT " + COLUMNS + " FROM posts WHERE id IN (" + InList.placeholders(n) + ") ORDER BY id DESC");
+
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(sql)) {
+      for (int i = 0; i < slots; i++)
+        ps.setInt(i + 1, ids[Math.min(from + i, to - 1)]);
+      return readSummaries(ps);
+    }
+  }
+
+  /**
+   * 게시글 단건(PostCache loader), 없으면 null
+   * - view_count는 캐시하지 않음(viewCount로 따로 읽음)
+   */
+  public CachedPost findById(int id) throws SQLException {
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(FIND_BY_ID_SQL)) {
+      ps.setInt(1, id);
+      try (ResultSet rs = ps.executeQuery()) {
+        if (!rs.next())
+          return null;
+        return new CachedPost(
+            rs.getInt(1),
+            rs.getInt(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getInt(6),
+            rs.getString(7),
+            rs.getString(8));
+      }
+    }
+  }
+
+  /**
+   * 게시글 상세 응답용 조회수: DB 값 + 아직 반영 안 된 증가분(없는 게시글이면 0 + 증가분)
+   * - 목록과 같은 방식이라 어느 노드가 flush했든 다음 조회에 바로 보임
+   */
+  public long viewCount(int id) throws SQLException {
+    long stored = 0;
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(VIEW_COUNT_SQL)) {
+      ps.setInt(1, id);
+      try (ResultSet rs = ps.executeQuery()) {
+        if (rs.next())
+          stored = rs.getLong(1);
+      }
+    }
+    return stored + viewCounts.pendingDelta(id);
+  }
+
+  /**
+   * 게시글 INSERT + POST_CREATED 이벤트(한 트랜잭션), 생성된 post_id 반환
+   */
+  public int insert(int userId, String title, String content) throws SQLException {
+    try (Connection conn = dataSource.getConnection()) {
+      conn.setAutoCommit(false);
+      try {
+        int postId;
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+          ps.setInt(1, userId);
+          ps.setString(2, title);
+          ps.setString(3, content);
+          ps.executeUpdate();
+
+          try (ResultSet keys = ps.getGeneratedKeys()) {
+            if (!keys.next())
+              throw new SQLException("생성된 post_id 키 없음");
+            postId = keys.getInt(1);
+          }
+        }
+
+        OutboxWriter.append(conn, OutboxEvent.Type.POST_CREATED, postId, null, userId);
+        conn.commit();
+        return postId;
+
+      } catch (SQLException | RuntimeException e) {
+        conn.rollback();
+        throw e;
+      } finally {
+        conn.setAutoCommit(true);
+      }
+    }
+  }
+
+  /**
+   * 게시글 UPDATE + POST_UPDATED 이벤트(한 트랜잭션)
+   */
+  public OwnedWrite update(int id, int userId, String title, String content) throws SQLException {
+    try (Connection conn = dataSource.getConnection()) {
+      conn.setAutoCommit(false);
+      try {
+        try (PreparedStatement ps = conn.prepareStatement(UPDATE_SQL)) {
+          ps.setString(1, title);
+          ps.setString(2, content);
+          ps.setInt(3, id);
+          ps.setInt(4, userId);
+          if (ps.executeUpdate() == 0) {
+            conn.rollback();
+            return notFoundOrForbidden(conn, id);
+          }
+        }
+
+        OutboxWriter.append(conn, OutboxEvent.Type.POST_UPDATED, id, null, userId);
+        conn.commit();
+        return OwnedWrite.DONE;
+
+      } catch (SQLException | RuntimeException e) {
+        conn.rollback();
+        throw e;
+      } finally {
+        conn.setAutoCommit(true);
+      }
+    }
+  }
+
+  /**
+   * 게시글 DELETE + 댓글/댓글 수 슬롯 DELETE + POST_DELETED 이벤트(한 트랜잭션)
+   * - 댓글은 FK가 막으므로 직접 지움(CASCADE 없음)
+   * - 게시글 행을 먼저 잠금: 그 사이에 달리는 댓글은 FK 확인에서 기다렸다가 실패(삭제된 글에 댓글이 남지 않음)
+   */
+  public OwnedWrite delete(int id, int userId) throws SQLException {
+    try (Connection conn = dataSource.getConnection()) {
+      conn.setAutoCommit(false);
+      try {
+        try (PreparedStatement ps = conn.prepareStatement(LOCK_OWNER_SQL)) {
+          ps.setInt(1, id);
+          try (ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) {
+              conn.rollback();
+              return OwnedWrite.NOT_FOUND;
+            }
+            if (rs.getInt(1) != userId) {
+              conn.rollback();
+              return OwnedWrite.FORBIDDEN;
+            }
+          }
+        }
+
+        for (String sql : new String[] { DELETE_COMMENTS_SQL, DELETE_COUNT_SLOTS_SQL, DELETE_SQL }) {
+          try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, id);
+            ps.executeUpdate();
+          }
+        }
+
+        OutboxWriter.append(conn, OutboxEvent.Type.POST_DELETED, id, null, userId);
+        conn.commit();
+        return OwnedWrite.DONE;
+
+      } catch (SQLException | RuntimeException e) {
+        conn.rollback();
+        throw e;
+      } finally {
+        conn.setAutoCommit(true);
+      }
+    }
+  }
+
+  // 작성자 조건으로 0건이었을 때: 게시글이 있으면 권한 없음
+  private OwnedWrite notFoundOrForbidden(Connection conn, int id) throws SQLException {
+    try (PreparedStatement ps = conn.prepareStatement(EXISTS_SQL)) {
+      ps.setInt(1, id);
+      try (ResultSet rs = ps.executeQuery()) {
+        return rs.next() ? OwnedWrite.FORBIDDEN : OwnedWrite.NOT_FOUND;
+      }
+    }
+  }
+}
@@ -0,0 +1,183 @@
+package com.example.demo.post;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 게시글 목록 total(전체 개수) 관리
+ *
+ * - InnoDB의 COUNT(*)는 매번 인덱스 전체를 훑으므로 요청마다 실행하지 않는다
+ * - 전체 개수: 처음 한 번만 COUNT(*) 후 메모리에서 +1/-1 (글 작성/삭제 outbox 이벤트, 모든 노드가 받음)
+ *   → 이벤트 중복 전달(at-least-once)로 생긴 오차는 주기적인 재동기화로 보정
+ * - 검색 개수: (type, keyword)별로 TTL 동안만 캐시
+ */
+@Component
+public class PostTotalCounter {
+
+  private static final Logger log = LoggerFactory.getLogger(PostTotalCounter.class);
+
+  // 아직 한 번도 읽지 않았으면 -1
+  private static final long UNKNOWN = -1;
+
+  private final DataSource dataSource;
+
+  private final AtomicLong total = new AtomicLong(UNKNOWN);
+
+  private final Map<String, SearchCount> searchCounts = new ConcurrentHashMap<>();
+
+  private final long searchTtlMillis;
+  private final int searchMaxEntries;
+
+  private final AtomicLong searchHits = new AtomicLong();
+  private final AtomicLong searchMisses = new AtomicLong();
+
+  private record SearchCount(long count, long expiresAt) {
+  }
+
+  public PostTotalCounter(
+      DataSource dataSource,
+      @Value("${app.post-count.search-ttl-ms:30000}") long searchTtlMillis,
+      @Value("${app.post-count.search-max-entries:1000}") int searchMaxEntries) {
+    this.dataSource = dataSource;
+    this.searchTtlMillis = searchTtlMillis;
+    this.searchMaxEntries = searchMaxEntries;
+  }
+
+  // --------------------------------------------------
+  // 전체 개수(검색 없음)
+  // --------------------------------------------------
+
+  /**
+   * 정확한 전체 개수
+   * - 처음 호출 시에만 COUNT(*) 실행
+   */
+  public long exact() throws Exception {
+    long v = total.get();
+    if (v != UNKNOWN)
+      return v;
+
+    long counted;
+    try (Connection conn = dataSource.getConnection()) {
+      counted = countAll(conn);
+    }
+    // 동시에 여러 요청이 처음 읽은 경우 먼저 들어간 값 유지
+    total.compareAndSet(UNKNOWN, counted);
+    return total.get();
+  }
+
+  /**
+   * 추정 전체 개수
+   * - 메모리 값이 있으면 그대로 사용
+   * - 없으면 InnoDB 통계(information_schema.TABLES.TABLE_ROWS) 사용(스캔 없음, 오차 있음)
+   */
+  public long estimate() throws Exception {
+    long v = total.get();
+    if (v != UNKNOWN)
+      return v;
+
+    String sql = """
+        /* post.tableRows */
+        SELECT TABLE_ROWS
+        FROM information_schema.TABLES
+        WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'posts'
+        """;
+
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(sql);
+        ResultSet rs = ps.executeQuery()) {
+      if (rs.next())
+        return rs.getLong(1);
+    }
+    return exact();
+  }
+
+  public void onCreated() {
+    total.updateAndGet(v -> v == UNKNOWN ? UNKNOWN : v + 1);
+  }
+
+  public void onDeleted() {
+    total.updateAndGet(v -> v == UNKNOWN ? UNKNOWN : Math.max(0, v - 1));
+  }
+
+  /**
+   * 주기적 재동기화
+   * - outbox 이벤트 중복 전달 / 노드 시작 전 이벤트로 생긴 오차를 여기서 보정
+   * - 아직 한 번도 읽지 않았으면 건너뜀(요청이 없으면 COUNT도 없음)
+   */
+  @Scheduled(
+      initialDelayString = "${app.post-count.resync-interval-ms:60000}",
+      fixedDelayString = "${app.post-count.resync-interval-ms:60000}")
+  public void resync() {
+    if (total.get() == UNKNOWN)
+      return;
+
+    try (Connection conn = dataSource.getConnection()) {
+      total.set(countAll(conn));
+    } catch (Exception e) {
+      log.warn("post total resync failed: {}", e.toString());
+    }
+  }
+
+  private long countAll(Connection conn) throws Exception {
+    try (PreparedStatement ps = conn.prepareStatement("/* post.countAll */ SELECT COUNT(*) FROM posts");
+        ResultSet rs = ps.executeQuery()) {
+      return rs.next() ? rs.getLong(1) : 0;
+    }
+  }
+
+  // --------------------------------------------------
+  // 검색 개수(TTL 캐시)
+  // --------------------------------------------------
+
+  /**
+   * 캐시된 검색 개수
+   * - allowExpired=true(estimate 모드)면 만료된 값도 사용
+   * - 없으면 null
+   */
+  public Long cachedSearchCount(String type, String keyword, boolean allowExpired) {
+    SearchCount c = searchCounts.get(searchKey(type, keyword));
+    if (c != null && (allowExpired || c.expiresAt() > System.currentTimeMillis())) {
+      searchHits.incrementAndGet();
+      return c.count();
+    }
+    searchMisses.incrementAndGet();
+    return null;
+  }
+
+  public void putSearchCount(String type, String keyword, long count) {
+    long now = System.currentTimeMillis();
+    if (searchCounts.size() >= searchMaxEntries) {
+      // 먼저 만료된 항목 정리, 그래도 가득이면 전체 비움(단순/안전)
+      searchCounts.values().removeIf(c -> c.expiresAt() <= now);
+      if (searchCounts.size() >= searchMaxEntries)
+        searchCounts.clear();
+    }
+    searchCounts.put(searchKey(type, keyword), new SearchCount(count, now + searchTtlMillis));
+  }
+
+  private String searchKey(String type, String keyword) {
+    return type + "|" + keyword;
+  }
+
+  public Map<String, Object> stats() {
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("total", total.get());
+    s.put("search_entries", searchCounts.size());
+    s.put("search_hits", searchHits.get());
+    s.put("search_misses", searchMisses.get());
+    return s;
+  }
+}
@@ -0,0 +1,452 @@
+package com.example.demo.post;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.post.viewer.ViewDedupStrategy;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 조회수 write-behind 버퍼
+ *
+ * - 기존: 조회 1번 = 트랜잭션 1개(post_view_logs INSERT + posts UPDATE)
+ *   → 인기 글 한 행(posts.id)에 row lock이 몰림
+ * - 변경: 조회는 메모리에만 기록하고, 주기적으로 한 번에 DB 반영
+ *   1) post_view_logs: 모든 조합을 INSERT IGNORE 배치로 → 행별 결과(1 = 새 조회, 0 = 이미 있음)로 판단
+ *      (PK가 최종 판단이므로 여러 노드가 같은 조합을 동시에 반영해도 한 번만 셈)
+ *   2) posts.view_count: 게시글별 증가분을 한 행짜리 UPDATE 배치로 반영
+ *   → 배치 크기와 관계없이 문장은 두 종류(prepared statement 캐시 재사용)
+ * - 읽기: DB 값 + 아직 반영 안 된 증가분(pendingDelta)
+ *   exact도 스케치(Bloom)가 처음 본다고 한 조회만 pendingDelta에 더함
+ *   → 다시 본 사용자 때문에 조회수가 올랐다가 flush 후 내려가는 일이 없음
+ * - 대기열(post_view_logs 기록 대기)은 max-queued까지만: DB 장애로 flush가 계속 실패하면
+ *   그 뒤 조회는 버리고 dropped_views로 셈(메모리가 끝없이 늘지 않도록)
+ *
+ * 중복 판단(ViewDedupStrategy)
+ * - exact: 위 1)의 post_view_logs PK로 판단(기존과 같은 의미)
+ * - bloom/window/redis: 조회 시점에 메모리/Redis로 판단, post_view_logs는 쓰지 않고
+ *   flush 때 증가분만 UPDATE
+ * - app.view-dedup.shadow-exact=true면 근사 전략을 쓰면서 post_view_logs에도 기록해
+ *   두 판단이 어긋난 건수(오탐/누락)를 지표로 비교
+ */
+@Component
+public class ViewCountBuffer {
+
+  private static final Logger log = LoggerFactory.getLogger(ViewCountBuffer.class);
+
+  private final DataSource dataSource;
+  private final ViewDedupStrategy dedup;
+  private final int batchSize;
+
+  // 근사 전략 사용 시에도 post_view_logs에 기록해 정확한 판단과 비교할지 여부
+  private final boolean shadowExact;
+
+  // 게시글별 미반영 증가분
+  // - 조회는 getAndIncrement 한 번(락 없음), flush가 0까지 뺀 항목은 SEALED로 바꾼 뒤 지움
+  // - SEALED(음수)를 본 조회는 새 항목에 다시 더함 → 지우는 순간 들어온 증가분이 사라지지 않음
+  private static final long SEALED = Long.MIN_VALUE;
+  private final Map<Integer, AtomicLong> pending = new ConcurrentHashMap<>();
+
+  // 미반영 (post_id, viewer_key): 같은 flush 주기 안의 중복 조회 제거용
+  private final Set<String> pendingKeys = ConcurrentHashMap.newKeySet();
+  private final ConcurrentLinkedQueue<ViewLog> queue = new ConcurrentLinkedQueue<>();
+  // queue.size()는 전체를 훑으므로 따로 셈
+  private final AtomicInteger queued = new AtomicInteger();
+  private final int maxQueued;
+
+  // flush는 한 번에 하나만(스케줄러 + 종료 시 flush 겹침 방지)
+  private final ReentrantLock flushLock = new ReentrantLock();
+
+  // 지표
+  private final AtomicLong flushCount = new AtomicLong();
+  private final AtomicLong flushFailures = new AtomicLong();
+  private final AtomicLong flushTotalMillis = new AtomicLong();
+  private final AtomicLong flushMaxMillis = new AtomicLong();
+  private volatile long lastFlushMillis = -1;
+  private final AtomicLong newViews = new AtomicLong();
+  private final AtomicLong duplicateViews = new AtomicLong();
+  private final AtomicLong droppedViews = new AtomicLong();
+  private final AtomicLong shadowCompared = new AtomicLong();
+  private final AtomicLong shadowMissed = new AtomicLong();
+  private final AtomicLong shadowExtra = new AtomicLong();
+
+  // counted: 전략(스케치)이 "처음 본 조회"로 판단했는지
+  // - exact: pendingDelta에 더했는지(flush 때 그만큼 뺌)
+  // - shadow: 근사 판단과 테이블 판단 비교용
+  private record ViewLog(int postId, String viewerKey, boolean counted) {
+    String key() {
+      return postId + "|" + viewerKey;
+    }
+  }
+
+  public ViewCountBuffer(
+      DataSource dataSource,
+      ViewDedupStrategy dedup,
+      @Value("${app.view-count.batch-size:500}") int batchSize,
+      @Value("${app.view-count.max-queued:100000}") int maxQueued,
+      @Value("${app.view-dedup.shadow-exact:false}") boolean shadowExact) {
+    this.dataSource = dataSource;
+    this.dedup = dedup;
+    this.batchSize = batchSize;
+    this.maxQueued = maxQueued;
+    this.shadowExact = shadowExact && !dedup.requiresLog();
+  }
+
+  /**
+   * 조회 기록(메모리만)
+   * - exact: 같은 주기 안에서 이미 기록된 (post_id, viewer_key)면 무시,
+   *   DB에 이미 있는 조합(예전에 본 사용자)은 flush 때 걸러짐
+   *   스케치가 처음 본다고 한 조회만 증가분 +1(화면 표시용, 최종 판단은 flush)
+   * - 그 외: 전략이 처음 본 조회라고 판단한 경우에만 증가분 +1
+   * - 증가분을 먼저 더하고 대기열에 넣음(넣자마자 flush가 꺼내 빼더라도 음수/잔여분이 생기지 않도록)
+   */
+  public void record(int postId, String viewerKey) {
+    if (dedup.requiresLog()) {
+      if (queued.get() >= maxQueued) {
+        droppedViews.incrementAndGet();
+        return;
+      }
+      if (!pendingKeys.add(postId + "|" + viewerKey))
+        return;
+      boolean provisional = dedup.firstView(postId, viewerKey);
+      if (provisional)
+        incrementPending(postId);
+      enqueue(new ViewLog(postId, viewerKey, provisional));
+      return;
+    }
+
+    boolean first = dedup.firstView(postId, viewerKey);
+    if (first)
+      incrementPending(postId);
+
+    // shadow: 주기 안의 첫 조회만 테이블 판단과 비교(대기열이 차면 비교만 건너뜀)
+    if (shadowExact && queued.get() < maxQueued) {
+      ViewLog v = new ViewLog(postId, viewerKey, first);
+      if (pendingKeys.add(v.key()))
+        enqueue(v);
+    }
+  }
+
+  private void enqueue(ViewLog v) {
+    queued.incrementAndGet();
+    queue.add(v);
+  }
+
+  private void incrementPending(int postId) {
+    while (true) {
+      AtomicLong a = pending.computeIfAbsent(postId, k -> new AtomicLong());
+      if (a.getAndIncrement() >= 0)
+        return;
+      // flush가 막 비운 항목: 치우고 새 항목에 다시
+      pending.remove(postId, a);
+    }
+  }
+
+  /**
+   * 아직 DB에 반영되지 않은 증가분
+   */
+  public long pendingDelta(int postId) {
+    AtomicLong a = pending.get(postId);
+    return a == null ? 0 : Math.max(0, a.get());
+  }
+
+  /**
+   * 주기적 flush
+   * - 시작 시점에 쌓여 있던 만큼만 처리(계속 들어오는 조회 때문에 끝나지 않는 일 방지)
+   */
+  @Scheduled(fixedDelayString = "${app.view-count.flush-interval-ms:1000}")
+  public void flush() {
+    if (!flushLock.tryLock())
+      return;
+    try {
+      if (!dedup.requiresLog())
+        flushCounts();
+
+      int remaining = queued.get();
+      while (remaining > 0) {
+        int drained = flushBatch();
+        if (drained <= 0)
+          break;
+        remaining -= drained;
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  /**
+   * 종료 시 남은 조회수 반영
+   */
+  @PreDestroy
+  public void flushOnShutdown() {
+    flushLock.lock();
+    try {
+      if (!dedup.requiresLog())
+        flushCounts();
+
+      while (!queue.isEmpty()) {
+        if (flushBatch() <= 0)
+          break;
+      }
+      if (!queue.isEmpty())
+        log.warn("view count flush on shutdown incomplete: {} views dropped", queued.get());
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  /**
+   * 근사 전략: 게시글별 증가분만 UPDATE 배치로 반영
+   * - 반영한 값만큼만 빼므로 flush 도중 들어온 조회는 다음 주기로 넘어감
+   */
+  private void flushCounts() {
+    Map<Integer, Long> chunk = new LinkedHashMap<>();
+    for (Map.Entry<Integer, AtomicLong> e : pending.entrySet()) {
+      long d = e.getValue().get();
+      if (d > 0)
+        chunk.put(e.getKey(), d);
+      if (chunk.size() >= batchSize) {
+        if (!flushCountChunk(chunk))
+          return;
+        chunk = new LinkedHashMap<>();
+      }
+    }
+    if (!chunk.isEmpty())
+      flushCountChunk(chunk);
+  }
+
+  private boolean flushCountChunk(Map<Integer, Long> chunk) {
+    long started = System.nanoTime();
+    try (Connection conn = dataSource.getConnection()) {
+      incrementViewCounts(conn, chunk);
+    } catch (Exception e) {
+      flushFailures.incrementAndGet();
+      log.warn("view count flush failed: {}", e.toString());
+      return false;
+    }
+
+    long views = 0;
+    for (Map.Entry<Integer, Long> e : chunk.entrySet()) {
+      subtractPending(e.getKey(), e.getValue());
+      views += e.getValue();
+    }
+    newViews.addAndGet(views);
+    recordFlushTime(started);
+    return true;
+  }
+
+  /**
+   * post_view_logs 배치 반영
+   * - exact: INSERT IGNORE로 실제 들어간 조합만큼 view_count 증가
+   * - shadow: INSERT만 하고(조회수는 flushCounts에서 반영) 근사 판단과 비교
+   * - 반환: 처리한 건수(실패 시 -1, 꺼낸 항목은 다시 대기열로)
+   */
+  private int flushBatch() {
+    List<ViewLog> batch = new ArrayList<>(batchSize);
+    ViewLog v;
+    while (batch.size() < batchSize && (v = queue.poll()) != null)
+      batch.add(v);
+    if (batch.isEmpty())
+      return 0;
+    queued.addAndGet(-batch.size());
+
+    // 키 순서대로 잠금(여러 노드가 겹치는 조합을 동시에 넣을 때 교착 방지)
+    batch.sort(Comparator.comparingInt(ViewLog::postId).thenComparing(ViewLog::viewerKey));
+
+    long started = System.nanoTime();
+
+    boolean applyCounts = dedup.requiresLog();
+
+    // 게시글별 pendingDelta에 더했던 건수 / 실제 새 조회 건수
+    Map<Integer, Long> provisionalByPost = new HashMap<>();
+    Map<Integer, Long> freshByPost = new TreeMap<>();
+    long fresh = 0;
+    long missed = 0;
+    long extra = 0;
+
+    try (Connection conn = dataSource.getConnection()) {
+      conn.setAutoCommit(false);
+      try {
+        // 1) 조회 로그 INSERT IGNORE, 행별 결과로 새 조회 판단
+        //    (먼저 SELECT로 거르면 두 노드가 동시에 "없음"을 보고 둘 다 셀 수 있음
+        //     → 다른 노드가 커밋 전이면 PK 잠금을 기다렸다가 0을 받음)
+        int[] inserted = insertLogs(conn, batch);
+
+        for (int i = 0; i < batch.size(); i++) {
+          ViewLog b = batch.get(i);
+          if (b.counted())
+            provisionalByPost.merge(b.postId(), 1L, Long::sum);
+          boolean isNew = inserted[i] > 0;
+          if (isNew) {
+            fresh++;
+            freshByPost.merge(b.postId(), 1L, Long::sum);
+          }
+          // shadow 비교: 근사 판단 vs 테이블 판단
+          if (!applyCounts && isNew && !b.counted())
+            missed++;
+          if (!applyCounts && !isNew && b.counted())
+            extra++;
+        }
+
+        // 2) 게시글별 증가분 UPDATE
+        if (applyCounts && !freshByPost.isEmpty())
+          incrementViewCounts(conn, freshByPost);
+
+        conn.commit();
+
+        if (applyCounts) {
+          newViews.addAndGet(fresh);
+          duplicateViews.addAndGet(batch.size() - fresh);
+        } else {
+          shadowCompared.addAndGet(batch.size());
+          shadowMissed.addAndGet(missed);
+          shadowExtra.addAndGet(extra);
+        }
+
+      } catch (Exception e) {
+        conn.rollback();
+        throw e;
+      } finally {
+        conn.setAutoCommit(true);
+      }
+
+    } catch (Exception e) {
+      // DB 장애 등: 다음 주기에 다시 시도(pending 증가분은 그대로 유지)
+      // 꺼낸 만큼만 되돌리므로 대기열은 max-queued를 넘지 않음(넘치는 새 조회는 record에서 버림)
+      queued.addAndGet(batch.size());
+      queue.addAll(batch);
+      flushFailures.incrementAndGet();
+      log.warn("view count flush failed: {}", e.toString());
+      return -1;
+    }
+
+    // 반영 완료분만큼 미반영 증가분/중복키 제거
+    if (applyCounts) {
+      for (Map.Entry<Integer, Long> e : provisionalByPost.entrySet())
+        subtractPending(e.getKey(), e.getValue());
+    }
+    for (ViewLog b : batch)
+      pendingKeys.remove(b.key());
+
+    recordFlushTime(started);
+    return batch.size();
+  }
+
+  // 빼는 양은 항상 이 항목에 더해진 만큼 이하(증가분을 먼저 더하고 대기열에 넣으므로)
+  private void subtractPending(int postId, long amount) {
+    AtomicLong a = pending.get(postId);
+    if (a == null)
+      return;
+
+    // 더 쌓인 게 없으면 SEALED로 막고 제거(그 사이 더해졌으면 CAS 실패 → 그대로 둠)
+    if (a.addAndGet(-amount) == 0 && a.compareAndSet(0, SEALED))
+      pending.remove(postId, a);
+  }
+
+  private void recordFlushTime(long startedNanos) {
+    long elapsed = (System.nanoTime() - startedNanos) / 1_000_000;
+    lastFlushMillis = elapsed;
+    flushCount.incrementAndGet();
+    flushTotalMillis.addAndGet(elapsed);
+    flushMaxMillis.accumulateAndGet(elapsed, Math::max);
+  }
+
+  // 한 행짜리 상수 문장 + addBatch, 행마다 결과(1 = 들어감, 0 = 이미 있던 조합)를 받음
+  // - VALUES 대신 SELECT: Connector/J가 multi-row INSERT로 다시 쓰지 않음
+  //   (rewriteBatchedStatements로 묶이면 행별 결과가 SUCCESS_NO_INFO로 바뀜,
+  //    대신 여러 문장을 한 번에 보내므로 왕복은 여전히 한 번)
+  private int[] insertLogs(Connection conn, List<ViewLog> batch) throws Exception {
+    String sql = """
+        /* viewLog.insert */
+        INSERT IGNORE INTO post_view_logs (post_id, viewer_key, viewed_at)
+        SELECT ?, ?, NOW()
+        """;
+
+    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+      for (ViewLog b : batch) {
+        ps.setInt(1, b.postId());
+        ps.setString(2, b.viewerKey());
+        ps.addBatch();
+      }
+      int[] counts = ps.executeBatch();
+      for (int c : counts) {
+        if (c < 0)
+          throw new IllegalStateException("post_view_logs batch returned no per-row update counts");
+      }
+      return counts;
+    }
+  }
+
+  // 게시글마다 같은 한 행짜리 UPDATE를 addBatch(게시글 수가 달라도 문장 하나)
+  // - id 순서대로 잠금(교착 방지)
+  private void incrementViewCounts(Connection conn, Map<Integer, Long> deltas) throws Exception {
+    String sql = """
+        /* post.incViewCount */
+        UPDATE posts
+        SET view_count = view_count + ?
+        WHERE id = ?
+        """;
+
+    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+      for (Map.Entry<Integer, Long> e : new TreeMap<>(deltas).entrySet()) {
+        ps.setLong(1, e.getValue());
+        ps.setInt(2, e.getKey());
+        ps.addBatch();
+      }
+      ps.executeBatch();
+    }
+  }
+
+  public Map<String, Object> stats() {
+    long pendingViews = 0;
+    for (AtomicLong a : pending.values())
+      pendingViews += Math.max(0, a.get());
+
+    long flushes = flushCount.get();
+
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("pending_posts", pending.size());
+    s.put("pending_views", pendingViews);
+    s.put("queued_logs", queued.get());
+    s.put("max_queued", maxQueued);
+    s.put("dropped_views", droppedViews.get());
+    s.put("flush_count", flushes);
+    s.put("flush_failures", flushFailures.get());
+    s.put("last_flush_ms", lastFlushMillis);
+    s.put("max_flush_ms", flushMaxMillis.get());
+    s.put("avg_flush_ms", flushes == 0 ? 0 : flushTotalMillis.get() / flushes);
+    s.put("new_views", newViews.get());
+    s.put("duplicate_views", duplicateViews.get());
+    if (shadowExact) {
+      // missed: 근사 전략이 "본 적 있음"이라 했지만 테이블 기준 새 조회(오탐 → 과소 집계)
+      // extra : 근사 전략이 "처음"이라 했지만 테이블 기준 이미 본 조회(창 만료 등 → 과다 집계)
+      s.put("shadow_compared", shadowCompared.get());
+      s.put("shadow_missed", shadowMissed.get());
+      s.put("shadow_extra", shadowExtra.get());
+    }
+    s.put("dedup", dedup.stats());
+    return s;
+  }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.post.viewer;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 고정 크기 Bloom filter(스레드 안전)
+ *
+ * - 비트 수 m, 해시 함수 수 k는 예상 원소 수 n과 목표 오탐률 p로 계산
+ *   m = -n ln p / (ln 2)^2, k = m/n ln 2
+ * - 64비트 해시 하나를 둘로 나눠 double hashing(h1 + i*h2)
+ */
+final class BloomFilter {
+
+  private final AtomicLongArray words;
+  private final long bits;
+  private final int k;
+
+  BloomFilter(int expected, double fpp) {
+    long m = (long) Math.ceil(-expected * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+    m = Math.max(64, m);
+    this.words = new AtomicLongArray((int) ((m + 63) / 64));
+    this.bits = (long) words.length() * 64;
+    this.k = Math.max(1, (int) Math.round((double) bits / expected * Math.log(2)));
+  }
+
+  /**
+   * 추가
+   * - 반환: 새로 켜진 비트가 있으면 true(= 확실히 처음 본 원소)
+   */
+  boolean add(long hash) {
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    boolean changed = false;
+    for (int i = 1; i <= k; i++) {
+      int combined = h1 + i * h2;
+      long idx = (combined & Integer.MAX_VALUE) % bits;
+      int w = (int) (idx >>> 6);
+      long mask = 1L << idx;
+      long prev = words.getAndUpdate(w, v -> v | mask);
+      if ((prev & mask) == 0)
+        changed = true;
+    }
+    return changed;
+  }
+
+  boolean mightContain(long hash) {
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= k; i++) {
+      int combined = h1 + i * h2;
+      long idx = (combined & Integer.MAX_VALUE) % bits;
+      if ((words.get((int) (idx >>> 6)) & (1L << idx)) == 0)
+        return false;
+    }
+    return true;
+  }
+
+  /**
+   * 현재 채워진 비율 기준 오탐률 추정: (켜진 비트 비율)^k
+   */
+  double estimatedFpp() {
+    long set = 0;
+    for (int i = 0; i < words.length(); i++)
+      set += Long.bitCount(words.get(i));
+    return Math.pow((double) set / bits, k);
+  }
+
+  long sizeInBytes() {
+    return (long) words.length() * 8;
+  }
+}
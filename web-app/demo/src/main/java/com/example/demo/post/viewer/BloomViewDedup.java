@@ -0,0 +1,113 @@
+package com.example.demo.post.viewer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 게시글별 Bloom filter로 중복 조회 판단
+ *
+ * - DB 기록 없이 메모리만 사용(게시글당 고정 크기)
+ * - 오탐(처음 본 사용자를 본 적 있다고 판단) → 그 조회는 카운트되지 않음(과소 집계)
+ * - filter가 포화되지 않도록 window마다 세대 교체(현재 + 직전 세대만 확인)
+ *   → 같은 사용자는 window 이후 다시 1회로 인정될 수 있음
+ * - 추적 게시글 수가 max-posts를 넘어도 세대 교체(메모리 상한)
+ */
+public class BloomViewDedup implements ViewDedupStrategy {
+
+  private final int expectedViewers;
+  private final double fpp;
+  private final long windowMillis;
+  private final int maxPosts;
+
+  private volatile Generation gen;
+
+  private final AtomicLong checks = new AtomicLong();
+  private final AtomicLong firstViews = new AtomicLong();
+  private final AtomicLong rotations = new AtomicLong();
+
+  private record Generation(
+      Map<Integer, BloomFilter> current,
+      Map<Integer, BloomFilter> previous,
+      long startedAt) {
+  }
+
+  public BloomViewDedup(int expectedViewers, double fpp, long windowMillis, int maxPosts) {
+    this.expectedViewers = expectedViewers;
+    this.fpp = fpp;
+    this.windowMillis = windowMillis;
+    this.maxPosts = maxPosts;
+    this.gen = new Generation(new ConcurrentHashMap<>(), Map.of(), System.currentTimeMillis());
+  }
+
+  @Override
+  public boolean firstView(int postId, String viewerKey) {
+    checks.incrementAndGet();
+    Generation g = rotateIfNeeded();
+
+    long hash = ViewerHash.hash64(viewerKey);
+
+    BloomFilter prev = g.previous().get(postId);
+    if (prev != null && prev.mightContain(hash))
+      return false;
+
+    BloomFilter cur = g.current().computeIfAbsent(postId, k -> new BloomFilter(expectedViewers, fpp));
+    boolean first = cur.add(hash);
+    if (first)
+      firstViews.incrementAndGet();
+    return first;
+  }
+
+  private Generation rotateIfNeeded() {
+    Generation g = gen;
+    long now = System.currentTimeMillis();
+    if (now - g.startedAt() < windowMillis && g.current().size() < maxPosts)
+      return g;
+
+    synchronized (this) {
+      g = gen;
+      if (now - g.startedAt() >= windowMillis || g.current().size() >= maxPosts) {
+        g = new Generation(new ConcurrentHashMap<>(), g.current(), now);
+        gen = g;
+        rotations.incrementAndGet();
+      }
+      return g;
+    }
+  }
+
+  @Override
+  public String name() {
+    return "bloom";
+  }
+
+  @Override
+  public Map<String, Object> stats() {
+    Generation g = gen;
+
+    long bytes = 0;
+    double maxFpp = 0;
+    double sumFpp = 0;
+    for (BloomFilter f : g.current().values()) {
+      bytes += f.sizeInBytes();
+      double e = f.estimatedFpp();
+      sumFpp += e;
+      maxFpp = Math.max(maxFpp, e);
+    }
+    for (BloomFilter f : g.previous().values())
+      bytes += f.sizeInBytes();
+
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("strategy", name());
+    s.put("checks", checks.get());
+    s.put("first_views", firstViews.get());
+    s.put("repeat_views", checks.get() - firstViews.get());
+    s.put("tracked_posts", g.current().size());
+    s.put("memory_bytes", bytes);
+    s.put("target_fpp", fpp);
+    s.put("avg_estimated_fpp", g.current().isEmpty() ? 0 : sumFpp / g.current().size());
+    s.put("max_estimated_fpp", maxFpp);
+    s.put("rotations", rotations.get());
+    return s;
+  }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.post.viewer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 기존 방식: post_view_logs (post_id, viewer_key) PK로 판단
+ *
+ * - 최종 판단은 메모리에서 하지 않음: ViewCountBuffer가 flush 시 테이블에 넣어 보고 실제 새 조회만 반영
+ * - firstView는 flush 전 화면에 보일 증가분(pendingDelta)에 더할지만 정함
+ *   → 스케치(예: Bloom)가 처음 본다고 한 조회만 true, 스케치가 없으면 모두 true
+ */
+public class ExactViewDedup implements ViewDedupStrategy {
+
+  private final ViewDedupStrategy sketch;
+
+  public ExactViewDedup() {
+    this(null);
+  }
+
+  public ExactViewDedup(ViewDedupStrategy sketch) {
+    this.sketch = sketch;
+  }
+
+  @Override
+  public boolean firstView(int postId, String viewerKey) {
+    return sketch == null || sketch.firstView(postId, viewerKey);
+  }
+
+  @Override
+  public boolean requiresLog() {
+    return true;
+  }
+
+  @Override
+  public String name() {
+    return "exact";
+  }
+
+  @Override
+  public Map<String, Object> stats() {
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("strategy", name());
+    if (sketch != null)
+      s.put("sketch", sketch.stats());
+    return s;
+  }
+}
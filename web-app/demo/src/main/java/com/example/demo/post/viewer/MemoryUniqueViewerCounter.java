@@ -0,0 +1,59 @@
+package com.example.demo.post.viewer;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 메모리 HyperLogLog 고유 조회자 수
+ *
+ * - 게시글 수 상한(max-posts)을 넘으면 일부(10%)를 비워 메모리 상한 유지
+ *   (비워진 게시글은 다시 0부터 추정)
+ */
+public class MemoryUniqueViewerCounter implements UniqueViewerCounter {
+
+  private final int precision;
+  private final int maxPosts;
+
+  private final Map<Integer, HyperLogLog> sketches = new ConcurrentHashMap<>();
+  private final AtomicLong evictions = new AtomicLong();
+
+  public MemoryUniqueViewerCounter(int precision, int maxPosts) {
+    this.precision = precision;
+    this.maxPosts = maxPosts;
+  }
+
+  @Override
+  public long observe(int postId, String viewerKey) {
+    HyperLogLog hll = sketches.get(postId);
+    if (hll == null) {
+      if (sketches.size() >= maxPosts)
+        evictSome();
+      hll = sketches.computeIfAbsent(postId, k -> new HyperLogLog(precision));
+    }
+    hll.add(ViewerHash.hash64(viewerKey));
+    return hll.estimate();
+  }
+
+  private void evictSome() {
+    int target = Math.max(1, maxPosts / 10);
+    Iterator<Integer> it = sketches.keySet().iterator();
+    while (target-- > 0 && it.hasNext()) {
+      it.next();
+      it.remove();
+      evictions.incrementAndGet();
+    }
+  }
+
+  @Override
+  public Map<String, Object> stats() {
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("store", "memory");
+    s.put("tracked_posts", sketches.size());
+    s.put("memory_bytes", (long) sketches.size() * (1 << precision));
+    s.put("evictions", evictions.get());
+    return s;
+  }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.post.viewer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Redis HyperLogLog 고유 조회자 수(key: uv:{post_id})
+ *
+ * - Redis HLL은 키당 최대 12KB, 표준 오차 0.81%
+ * - Redis 장애 시 메모리 HLL로 대신 추정
+ */
+public class RedisUniqueViewerCounter implements UniqueViewerCounter {
+
+  private static final Logger log = LoggerFactory.getLogger(RedisUniqueViewerCounter.class);
+
+  private final StringRedisTemplate redis;
+  private final UniqueViewerCounter fallback;
+
+  private final AtomicLong redisErrors = new AtomicLong();
+
+  public RedisUniqueViewerCounter(StringRedisTemplate redis, UniqueViewerCounter fallback) {
+    this.redis = redis;
+    this.fallback = fallback;
+  }
+
+  @Override
+  public long observe(int postId, String viewerKey) {
+    String key = "uv:" + postId;
+    try {
+      redis.opsForHyperLogLog().add(key, Long.toHexString(ViewerHash.hash64(viewerKey)));
+      return redis.opsForHyperLogLog().size(key);
+    } catch (Exception e) {
+      if (redisErrors.incrementAndGet() % 1000 == 1)
+        log.warn("redis unique viewer count failed, using memory fallback: {}", e.toString());
+      return fallback.observe(postId, viewerKey);
+    }
+  }
+
+  @Override
+  public Map<String, Object> stats() {
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("store", "redis");
+    s.put("redis_errors", redisErrors.get());
+    s.put("fallback", fallback.stats());
+    return s;
+  }
+}
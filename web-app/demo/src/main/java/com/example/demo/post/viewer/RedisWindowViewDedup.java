@@ -0,0 +1,72 @@
+package com.example.demo.post.viewer;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 시간 창 해시 집합을 Redis에 보관(여러 API 노드가 공유)
+ *
+ * - key: pv:{post_id}:{viewer 해시}  / SET NX EX window
+ *   → 키가 새로 만들어졌으면 처음 본 조회
+ * - Redis 장애 시 메모리 window 전략으로 대신 판단(조회 요청은 실패시키지 않음)
+ */
+public class RedisWindowViewDedup implements ViewDedupStrategy {
+
+  private static final Logger log = LoggerFactory.getLogger(RedisWindowViewDedup.class);
+
+  private final StringRedisTemplate redis;
+  private final Duration window;
+  private final ViewDedupStrategy fallback;
+
+  private final AtomicLong checks = new AtomicLong();
+  private final AtomicLong firstViews = new AtomicLong();
+  private final AtomicLong redisErrors = new AtomicLong();
+
+  public RedisWindowViewDedup(StringRedisTemplate redis, Duration window, ViewDedupStrategy fallback) {
+    this.redis = redis;
+    this.window = window;
+    this.fallback = fallback;
+  }
+
+  @Override
+  public boolean firstView(int postId, String viewerKey) {
+    checks.incrementAndGet();
+
+    String key = "pv:" + postId + ":" + Long.toHexString(ViewerHash.hash64(viewerKey));
+    boolean first;
+    try {
+      first = Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(key, "1", window));
+    } catch (Exception e) {
+      if (redisErrors.incrementAndGet() % 1000 == 1)
+        log.warn("redis view dedup failed, using memory fallback: {}", e.toString());
+      first = fallback.firstView(postId, viewerKey);
+    }
+
+    if (first)
+      firstViews.incrementAndGet();
+    return first;
+  }
+
+  @Override
+  public String name() {
+    return "redis";
+  }
+
+  @Override
+  public Map<String, Object> stats() {
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("strategy", name());
+    s.put("checks", checks.get());
+    s.put("first_views", firstViews.get());
+    s.put("repeat_views", checks.get() - firstViews.get());
+    s.put("window_ms", window.toMillis());
+    s.put("redis_errors", redisErrors.get());
+    return s;
+  }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.post.viewer;
+
+import java.util.Map;
+
+/**
+ * 게시글별 고유 조회자 수(HyperLogLog 추정치)
+ *
+ * - memory: API 노드별 HyperLogLog(노드가 여러 대면 노드마다 값이 다름)
+ * - redis : PFADD / PFCOUNT(모든 노드 공유)
+ *
+ * app.view-dedup.unique-store 로 선택
+ */
+public interface UniqueViewerCounter {
+
+  /**
+   * 조회자 기록 후 현재 고유 조회자 수 반환
+   */
+  long observe(int postId, String viewerKey);
+
+  Map<String, Object> stats();
+}
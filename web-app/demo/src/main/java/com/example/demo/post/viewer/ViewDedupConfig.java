@@ -0,0 +1,52 @@
+package com.example.demo.post.viewer;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 조회수 중복 방지 전략 / 고유 조회자 수 저장소 선택
+ *
+ * app.view-dedup.strategy     : exact(기본) | bloom | window | redis
+ * app.view-dedup.unique-store : memory(기본) | redis
+ */
+@Configuration
+public class ViewDedupConfig {
+
+  @Bean
+  public ViewDedupStrategy viewDedupStrategy(
+      @Value("${app.view-dedup.strategy:exact}") String strategy,
+      @Value("${app.view-dedup.window-ms:86400000}") long windowMillis,
+      @Value("${app.view-dedup.bloom.expected-viewers:1000}") int expectedViewers,
+      @Value("${app.view-dedup.bloom.fpp:0.01}") double fpp,
+      @Value("${app.view-dedup.max-posts:10000}") int maxPosts,
+      @Value("${app.view-dedup.max-entries:1000000}") long maxEntries,
+      ObjectProvider<StringRedisTemplate> redis) {
+
+    return switch (strategy.trim()) {
+      case "bloom" -> new BloomViewDedup(expectedViewers, fpp, windowMillis, maxPosts);
+      case "window" -> new WindowViewDedup(windowMillis, maxEntries);
+      case "redis" -> new RedisWindowViewDedup(
+          redis.getObject(), Duration.ofMillis(windowMillis), new WindowViewDedup(windowMillis, maxEntries));
+      // exact: 최종 판단은 post_view_logs, Bloom은 flush 전 화면 조회수(pendingDelta)에 더할지만 판단
+      default -> new ExactViewDedup(new BloomViewDedup(expectedViewers, fpp, windowMillis, maxPosts));
+    };
+  }
+
+  @Bean
+  public UniqueViewerCounter uniqueViewerCounter(
+      @Value("${app.view-dedup.unique-store:memory}") String store,
+      @Value("${app.view-dedup.hll-precision:11}") int precision,
+      @Value("${app.view-dedup.max-posts:10000}") int maxPosts,
+      ObjectProvider<StringRedisTemplate> redis) {
+
+    UniqueViewerCounter memory = new MemoryUniqueViewerCounter(precision, maxPosts);
+    if ("redis".equals(store.trim()))
+      return new RedisUniqueViewerCounter(redis.getObject(), memory);
+    return memory;
+  }
+}
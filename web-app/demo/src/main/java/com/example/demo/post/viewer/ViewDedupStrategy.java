@@ -0,0 +1,33 @@
+package com.example.demo.post.viewer;
+
+import java.util.Map;
+
+/**
+ * 조회수 중복 방지 전략
+ *
+ * - exact : post_view_logs PK로 최종 판단(정확, 조회마다 DB 기록)
+ * - bloom : 게시글별 Bloom filter(메모리 고정, 오탐 시 조회수 누락 가능)
+ * - window: 시간 창 안의 해시 집합(메모리), 창이 지나면 다시 1회로 인정
+ * - redis : 시간 창 해시 집합을 Redis(SET NX EX)에 보관 → 여러 API 노드가 공유
+ *
+ * app.view-dedup.strategy 로 선택
+ */
+public interface ViewDedupStrategy {
+
+  /**
+   * 처음 보는 조회인지 판단하고 기록
+   * - true: 조회수 +1 대상
+   */
+  boolean firstView(int postId, String viewerKey);
+
+  /**
+   * true면 메모리 판단 없이 post_view_logs 테이블로 최종 판단(flush 시)
+   */
+  default boolean requiresLog() {
+    return false;
+  }
+
+  String name();
+
+  Map<String, Object> stats();
+}
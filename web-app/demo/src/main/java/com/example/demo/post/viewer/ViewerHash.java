@@ -0,0 +1,31 @@
+package com.example.demo.post.viewer;
+
+/**
+ * viewer_key 64비트 해시(Bloom filter / HyperLogLog / 해시 집합 공용)
+ *
+ * - FNV-1a 64로 문자열을 섞은 뒤 murmur3 fmix64로 비트를 고르게 분산
+ * - 보안용이 아니라 분포용(같은 입력이면 항상 같은 값)
+ */
+final class ViewerHash {
+
+  private ViewerHash() {
+  }
+
+  static long hash64(String s) {
+    long h = 0xcbf29ce484222325L;
+    for (int i = 0; i < s.length(); i++) {
+      h ^= s.charAt(i);
+      h *= 0x100000001b3L;
+    }
+    return fmix64(h);
+  }
+
+  private static long fmix64(long k) {
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.post.viewer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 시간 창(window) 단위 해시 집합으로 중복 조회 판단(메모리)
+ *
+ * - 게시글별로 viewer_key의 64비트 해시만 보관(문자열 원본은 저장하지 않음)
+ * - 현재 + 직전 세대만 확인 → 같은 사용자는 window가 지나면 다시 1회로 인정
+ * - 해시 충돌 확률은 사실상 0(64비트)이라 Bloom filter보다 정확하지만 메모리는 원소 수에 비례
+ * - 전체 원소 수가 max-entries를 넘으면 세대 교체(메모리 상한)
+ */
+public class WindowViewDedup implements ViewDedupStrategy {
+
+  private final long windowMillis;
+  private final long maxEntries;
+
+  private volatile Generation gen;
+
+  private final AtomicLong checks = new AtomicLong();
+  private final AtomicLong firstViews = new AtomicLong();
+  private final AtomicLong rotations = new AtomicLong();
+
+  private record Generation(
+      Map<Integer, Set<Long>> current,
+      Map<Integer, Set<Long>> previous,
+      AtomicLong entries,
+      long startedAt) {
+  }
+
+  public WindowViewDedup(long windowMillis, long maxEntries) {
+    this.windowMillis = windowMillis;
+    this.maxEntries = maxEntries;
+    this.gen = new Generation(new ConcurrentHashMap<>(), Map.of(), new AtomicLong(), System.currentTimeMillis());
+  }
+
+  @Override
+  public boolean firstView(int postId, String viewerKey) {
+    checks.incrementAndGet();
+    Generation g = rotateIfNeeded();
+
+    long hash = ViewerHash.hash64(viewerKey);
+
+    Set<Long> prev = g.previous().get(postId);
+    if (prev != null && prev.contains(hash))
+      return false;
+
+    Set<Long> cur = g.current().computeIfAbsent(postId, k -> ConcurrentHashMap.newKeySet());
+    boolean first = cur.add(hash);
+    if (first) {
+      g.entries().incrementAndGet();
+      firstViews.incrementAndGet();
+    }
+    return first;
+  }
+
+  private Generation rotateIfNeeded() {
+    Generation g = gen;
+    long now = System.currentTimeMillis();
+    if (now - g.startedAt() < windowMillis && g.entries().get() < maxEntries)
+      return g;
+
+    synchronized (this) {
+      g = gen;
+      if (now - g.startedAt() >= windowMillis || g.entries().get() >= maxEntries) {
+        g = new Generation(new ConcurrentHashMap<>(), g.current(), new AtomicLong(), now);
+        gen = g;
+        rotations.incrementAndGet();
+      }
+      return g;
+    }
+  }
+
+  @Override
+  public String name() {
+    return "window";
+  }
+
+  @Override
+  public Map<String, Object> stats() {
+    Generation g = gen;
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("strategy", name());
+    s.put("checks", checks.get());
+    s.put("first_views", firstViews.get());
+    s.put("repeat_views", checks.get() - firstViews.get());
+    s.put("tracked_posts", g.current().size());
+    s.put("entries", g.entries().get());
+    s.put("window_ms", windowMillis);
+    s.put("rotations", rotations.get());
+    return s;
+  }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.search;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 문자 bi-gram 토크나이저
+ *
+ * - 한글은 형태소 분석 없이도 "두 글자 단위"로 자르면 부분 문자열 검색이 가능
+ *   예) "게시글" -> "게시", "시글"
+ * - LIKE '%키워드%'와 같은 의미를 유지하기 위해 공백/기호도 그대로 토큰에 포함
+ * - 토큰은 char 2개를 int 하나로 묶어서 표현(문자열 객체 생성 없음)
+ */
+public final class BigramTokenizer {
+
+  private BigramTokenizer() {
+  }
+
+  /**
+   * 검색/색인 공통 정규화
+   * - MySQL 기본 collation(utf8mb4_general_ci)이 대소문자를 구분하지 않으므로 소문자로 통일
+   */
+  public static String normalize(String text) {
+    if (text == null)
+      return "";
+    return text.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * 정규화된 문자열의 bi-gram 목록(중복 제거, 오름차순)
+   * - 1글자 이하면 빈 배열
+   */
+  public static int[] bigrams(String normalized) {
+    int n = normalized.length();
+    if (n < 2)
+      return new int[0];
+
+    int[] out = new int[n - 1];
+    for (int i = 0; i < n - 1; i++) {
+      out[i] = pack(normalized.charAt(i), normalized.charAt(i + 1));
+    }
+
+    // 본문(TEXT)은 길 수 있으므로 정렬 후 인접 중복 제거(O(n log n))
+    Arrays.sort(out);
+    int size = 1;
+    for (int i = 1; i < out.length; i++) {
+      if (out[i] != out[size - 1])
+        out[size++] = out[i];
+    }
+    return size == out.length ? out : Arrays.copyOf(out, size);
+  }
+
+  private static int pack(char a, char b) {
+    return (a << 16) | b;
+  }
+}
@@ -0,0 +1,459 @@
+package com.example.demo.search;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.support.InList;
+import com.example.demo.support.ReadRouting;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * 게시글 검색용 인메모리 역색인(inverted index)
+ *
+ * - LIKE '%keyword%'는 인덱스를 못 타서 posts.content 전체를 스캔함
+ * - 제목/본문을 bi-gram으로 잘라 "토큰 -> 게시글 id 목록"을 메모리에 유지
+ * - 검색: 키워드 bi-gram 포스팅의 교집합(후보) -> 원문 contains로 최종 확인(LIKE와 같은 결과)
+ *   · 원문은 색인에 따로 두지 않음: 크기 상한(text-cache-bytes)이 있는 캐시에서 찾고, 없으면 후보 id로 DB에서 읽음
+ * - 키워드의 %, _는 글자 그대로 찾음(LIKE 경로에서는 와일드카드)
+ *
+ * 생명주기
+ * - 애플리케이션 시작 후 백그라운드로 posts 전체를 읽어 구축
+ * - 게시글 작성/수정/삭제 outbox 이벤트에서 index()/remove()로 반영(OutboxSubscribers, 보통 수백 ms 안)
+ *   · 예전 원문이 캐시에 없으면 예전 토큰을 지우지 못함 → 후보에만 남고 원문 확인에서 걸러짐
+ *   · 이런 글이 많아지면(stale_docs) 재구축으로 정리
+ * - 준비 전이거나 1글자 검색이면 search()가 null → 호출 측에서 기존 LIKE로 처리
+ */
+@Component
+public class PostSearchIndex {
+
+  private static final Logger log = LoggerFactory.getLogger(PostSearchIndex.class);
+
+  private static final String SCAN_SQL = "/* search.scanPosts */ SELECT id, title, content FROM posts";
+  private static final String TEXTS_SQL = "/* search.textsByIds */ SELECT id, title, content FROM posts WHERE id IN (%s)";
+
+  // 전체 스캔은 useCursorFetch=true(URL)로 이만큼씩 받아옴(전체 결과를 메모리에 올리지 않음)
+  private static final int SCAN_FETCH_SIZE = 1000;
+  // 원문 확인용 DB 조회 한 번에 묻는 최대 id 수
+  private static final int TEXT_FETCH_MAX = 64;
+  // 예전 토큰을 지우지 못한 글이 이보다 많고 전체의 1/4을 넘으면 재구축
+  private static final int STALE_REBUILD_MIN = 1000;
+  // 캐시 원문의 최대 보관 시간(DB 값과 어긋난 채 남는 일을 막는 안전장치)
+  private static final Duration TEXT_TTL = Duration.ofMinutes(10);
+
+  private static final int TITLE = 0;
+  private static final int CONTENT = 1;
+
+  private final DataSource dataSource;
+
+  // 최종 확인용 정규화 원문: id -> { title, content }
+  private final Cache<Integer, String[]> texts;
+  private final long maxTextBytes;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // 현재 검색에 사용하는 색인(null이면 아직 준비 안 됨)
+  private Segment live;
+
+  // 재구축 중 들어온 변경 작업(재구축 완료 시 새 색인에 다시 적용)
+  private List<Consumer<Segment>> pendingOps;
+
+  private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+  private volatile long lastBuildMillis = -1;
+  private volatile long lastBuiltAt = -1;
+
+  private final AtomicLong searches = new AtomicLong();
+  private final AtomicLong candidates = new AtomicLong();
+  private final AtomicLong textsFetched = new AtomicLong();
+
+  public PostSearchIndex(
+      DataSource dataSource,
+      @Value("${app.search.text-cache-bytes:33554432}") long maxTextBytes) {
+    this.dataSource = dataSource;
+    this.maxTextBytes = maxTextBytes;
+    this.texts = Caffeine.newBuilder()
+        .maximumWeight(maxTextBytes)
+        .weigher((Integer id, String[] doc) -> weight(doc))
+        .expireAfterWrite(TEXT_TTL)
+        .recordStats()
+        .build();
+  }
+
+  // 문자열은 UTF-16 기준 2바이트/글자 + 객체 헤더 여유분
+  private static int weight(String[] doc) {
+    long chars = (long) doc[TITLE].length() + doc[CONTENT].length();
+    return (int) Math.min(Integer.MAX_VALUE, 96 + chars * 2);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void buildOnStartup() {
+    rebuildAsync();
+  }
+
+  /**
+   * 색인 재구축(복구용)
+   * - 이미 재구축 중이면 false
+   * - 재구축 중에도 기존 색인으로 검색은 계속 동작
+   */
+  public boolean rebuildAsync() {
+    if (!rebuilding.compareAndSet(false, true))
+      return false;
+
+    Thread t = new Thread(this::rebuild, "post-search-index-build");
+    t.setDaemon(true);
+    t.start();
+    return true;
+  }
+
+  void rebuild() {
+    long started = System.currentTimeMillis();
+
+    lock.writeLock().lock();
+    try {
+      pendingOps = new ArrayList<>();
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    try {
+      Segment fresh = new Segment();
+
+      try (Connection conn = dataSource.getConnection();
+          PreparedStatement ps = conn.prepareStatement(SCAN_SQL,
+              ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+        ps.setFetchSize(SCAN_FETCH_SIZE);
+
+        try (ResultSet rs = ps.executeQuery()) {
+          while (rs.next()) {
+            int id = rs.getInt(1);
+            String[] doc = normalize(rs.getString(2), rs.getString(3));
+            fresh.put(id, null, doc);
+            // 스캔 도중 수정된 글은 index()가 먼저 넣은 새 원문을 덮지 않음
+            texts.asMap().putIfAbsent(id, doc);
+          }
+        }
+      }
+
+      lock.writeLock().lock();
+      try {
+        for (Consumer<Segment> op : pendingOps)
+          op.accept(fresh);
+        live = fresh;
+        pendingOps = null;
+      } finally {
+        lock.writeLock().unlock();
+      }
+
+      lastBuildMillis = System.currentTimeMillis() - started;
+      lastBuiltAt = System.currentTimeMillis();
+      log.info("post search index built: docs={}, {}ms", fresh.docs, lastBuildMillis);
+
+    } catch (Exception e) {
+      // DB 미연결 등: 기존 색인(또는 LIKE fallback) 그대로 사용
+      log.warn("post search index build failed: {}", e.toString());
+      lock.writeLock().lock();
+      try {
+        pendingOps = null;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    } finally {
+      rebuilding.set(false);
+    }
+  }
+
+  /**
+   * 게시글 추가/수정 반영
+   * - 같은 글의 이벤트는 outbox 레인에서 순서대로 들어옴
+   */
+  public void index(int id, String title, String content) {
+    String[] doc = normalize(title, content);
+    String[] previous = texts.getIfPresent(id);
+    texts.put(id, doc);
+    apply(seg -> seg.put(id, previous, doc));
+  }
+
+  /**
+   * 게시글 삭제 반영
+   */
+  public void remove(int id) {
+    String[] previous = texts.getIfPresent(id);
+    texts.invalidate(id);
+    apply(seg -> seg.remove(id, previous));
+  }
+
+  private void apply(Consumer<Segment> op) {
+    boolean compact;
+    lock.writeLock().lock();
+    try {
+      if (live != null)
+        op.accept(live);
+      if (pendingOps != null)
+        pendingOps.add(op);
+      compact = live != null && live.stale > Math.max(STALE_REBUILD_MIN, live.docs / 4);
+    } finally {
+      lock.writeLock().unlock();
+    }
+    if (compact && rebuildAsync())
+      log.info("post search index rebuild started: too many stale postings");
+  }
+
+  /**
+   * 검색
+   * - type: title | content | both (LIKE 조건과 동일한 의미)
+   * - 반환: 일치하는 게시글 id (id DESC)
+   * - null: 색인 미준비 또는 bi-gram이 없는 짧은 키워드 → 호출 측에서 LIKE로 처리
+   */
+  public int[] search(String type, String keyword) throws Exception {
+    String q = BigramTokenizer.normalize(keyword);
+    int[] tokens = BigramTokenizer.bigrams(q);
+    if (tokens.length == 0)
+      return null;
+
+    int[] ids;
+    lock.readLock().lock();
+    try {
+      if (live == null)
+        return null;
+      ids = live.candidates(type, tokens);
+    } finally {
+      lock.readLock().unlock();
+    }
+    searches.incrementAndGet();
+    candidates.addAndGet(ids.length);
+
+    // bi-gram 교집합은 후보일 뿐("게시"+"시글"이 떨어져 있어도 통과) → 원문으로 확인(락 밖)
+    Map<Integer, String[]> docs = textsOf(ids);
+    int n = 0;
+    for (int id : ids) {
+      String[] doc = docs.get(id);
+      if (doc != null && matches(type, doc, q))
+        ids[n++] = id;
+    }
+
+    // 목록 정렬(id DESC)에 맞춰 뒤집기
+    int[] hits = new int[n];
+    for (int i = 0; i < n; i++)
+      hits[i] = ids[n - 1 - i];
+    return hits;
+  }
+
+  private static boolean matches(String type, String[] doc, String q) {
+    return switch (type) {
+      case "title" -> doc[TITLE].contains(q);
+      case "content" -> doc[CONTENT].contains(q);
+      default -> doc[TITLE].contains(q) || doc[CONTENT].contains(q);
+    };
+  }
+
+  // 후보 원문: 캐시 → 없으면 id로 DB(삭제된 글은 결과에 없음)
+  private Map<Integer, String[]> textsOf(int[] ids) throws Exception {
+    List<Integer> keys = new ArrayList<>(ids.length);
+    for (int id : ids)
+      keys.add(id);
+
+    Map<Integer, String[]> docs = new HashMap<>(texts.getAllPresent(keys));
+    if (docs.size() == ids.length)
+      return docs;
+
+    List<Integer> missing = new ArrayList<>(ids.length - docs.size());
+    for (Integer id : keys) {
+      if (!docs.containsKey(id))
+        missing.add(id);
+    }
+    textsFetched.addAndGet(missing.size());
+
+    // 결과를 캐시에 남기므로 primary에서 읽음, 그 사이 index()가 넣은 새 원문은 덮지 않음
+    Map<Integer, String[]> loaded = ReadRouting.onPrimary(() -> loadTexts(missing));
+    for (Map.Entry<Integer, String[]> e : loaded.entrySet()) {
+      String[] current = texts.asMap().putIfAbsent(e.getKey(), e.getValue());
+      docs.put(e.getKey(), current == null ? e.getValue() : current);
+    }
+    return docs;
+  }
+
+  private Map<Integer, String[]> loadTexts(List<Integer> ids) throws Exception {
+    Map<Integer, String[]> out = new HashMap<>();
+    try (Connection conn = dataSource.getConnection()) {
+      for (int from = 0; from < ids.size(); from += TEXT_FETCH_MAX) {
+        int to = Math.min(ids.size(), from + TEXT_FETCH_MAX);
+        int slots = InList.slots(to - from);
+        try (PreparedStatement ps = conn.prepareStatement(TEXTS_SQL.formatted(InList.placeholders(slots)))) {
+          for (int i = 0; i < slots; i++)
+            ps.setInt(i + 1, ids.get(Math.min(from + i, to - 1)));
+          try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next())
+              out.put(rs.getInt(1), normalize(rs.getString(2), rs.getString(3)));
+          }
+        }
+      }
+    }
+    return out;
+  }
+
+  private static String[] normalize(String title, String content) {
+    return new String[] { BigramTokenizer.normalize(title), BigramTokenizer.normalize(content) };
+  }
+
+  public Map<String, Object> stats() {
+    Map<String, Object> s = new LinkedHashMap<>();
+    lock.readLock().lock();
+    try {
+      s.put("ready", live != null);
+      s.put("docs", live == null ? 0 : live.docs);
+      s.put("stale_docs", live == null ? 0 : live.stale);
+      s.put("title_tokens", live == null ? 0 : live.title.size());
+      s.put("content_tokens", live == null ? 0 : live.content.size());
+    } finally {
+      lock.readLock().unlock();
+    }
+    s.put("rebuilding", rebuilding.get());
+    s.put("last_build_ms", lastBuildMillis);
+    s.put("last_built_at", lastBuiltAt);
+    s.put("searches", searches.get());
+    s.put("candidates", candidates.get());
+
+    CacheStats st = texts.stats();
+    s.put("text_cache_entries", texts.estimatedSize());
+    s.put("text_cache_bytes", texts.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L));
+    s.put("text_cache_max_bytes", maxTextBytes);
+    s.put("text_cache_hit_rate", st.hitRate());
+    s.put("text_cache_evictions", st.evictionCount());
+    s.put("texts_fetched", textsFetched.get());
+    return s;
+  }
+
+  // --------------------------------------------------
+  // 색인 데이터(lock 하에서만 접근)
+  // --------------------------------------------------
+  private static final class Segment {
+
+    final Map<Integer, PostingList> title = new HashMap<>();
+    final Map<Integer, PostingList> content = new HashMap<>();
+
+    // 색인된 게시글 id(삭제되면 지움, 남은 토큰이 가리켜도 후보에서 빠짐)
+    final BitSet present = new BitSet();
+    int docs;
+    // 예전 토큰을 지우지 못한 수정/삭제 수
+    int stale;
+
+    // previous: 이전 원문(모르면 null → 이전 토큰은 남겨 둠)
+    void put(int id, String[] previous, String[] doc) {
+      if (present.get(id)) {
+        if (previous != null)
+          removeTokens(id, previous);
+        else
+          stale++;
+      } else {
+        present.set(id);
+        docs++;
+      }
+      addTokens(title, doc[TITLE], id);
+      addTokens(content, doc[CONTENT], id);
+    }
+
+    void remove(int id, String[] previous) {
+      if (!present.get(id))
+        return;
+      present.clear(id);
+      docs--;
+      if (previous != null)
+        removeTokens(id, previous);
+      else
+        stale++;
+    }
+
+    // 후보 id(오름차순)
+    int[] candidates(String type, int[] tokens) {
+      if ("title".equals(type))
+        return match(title, tokens);
+      if ("content".equals(type))
+        return match(content, tokens);
+      return union(match(title, tokens), match(content, tokens));
+    }
+
+    private int[] match(Map<Integer, PostingList> field, int[] tokens) {
+      PostingList[] lists = new PostingList[tokens.length];
+      for (int i = 0; i < tokens.length; i++) {
+        PostingList pl = field.get(tokens[i]);
+        if (pl == null)
+          return new int[0];
+        lists[i] = pl;
+      }
+
+      int[] ids = PostingList.intersect(lists);
+      int n = 0;
+      for (int id : ids) {
+        if (present.get(id))
+          ids[n++] = id;
+      }
+      return n == ids.length ? ids : Arrays.copyOf(ids, n);
+    }
+
+    private static int[] union(int[] a, int[] b) {
+      int[] out = new int[a.length + b.length];
+      int i = 0, j = 0, n = 0;
+      while (i < a.length && j < b.length) {
+        if (a[i] < b[j]) {
+          out[n++] = a[i++];
+        } else if (a[i] > b[j]) {
+          out[n++] = b[j++];
+        } else {
+          out[n++] = a[i++];
+          j++;
+        }
+      }
+      while (i < a.length)
+        out[n++] = a[i++];
+      while (j < b.length)
+        out[n++] = b[j++];
+      return Arrays.copyOf(out, n);
+    }
+
+    private void removeTokens(int id, String[] doc) {
+      removeTokens(title, doc[TITLE], id);
+      removeTokens(content, doc[CONTENT], id);
+    }
+
+    private static void addTokens(Map<Integer, PostingList> field, String text, int id) {
+      for (int token : BigramTokenizer.bigrams(text)) {
+        field.computeIfAbsent(token, k -> new PostingList()).add(id);
+      }
+    }
+
+    private static void removeTokens(Map<Integer, PostingList> field, String text, int id) {
+      for (int token : BigramTokenizer.bigrams(text)) {
+        PostingList pl = field.get(token);
+        if (pl == null)
+          continue;
+        pl.remove(id);
+        if (pl.size() == 0)
+          field.remove(token);
+      }
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package com.example.demo.search;
+
+import java.util.Arrays;
+
+/**
+ * 게시글 id 포스팅 리스트(int 배열, 오름차순)
+ *
+ * - Integer 박싱 없이 int[]에 직접 저장
+ * - 새 글은 항상 id가 가장 크므로 대부분 끝에 append(O(1))
+ * - 외부 동기화(PostSearchIndex의 lock) 하에서만 사용
+ */
+final class PostingList {
+
+  private int[] ids = new int[4];
+  private int size;
+
+  int size() {
+    return size;
+  }
+
+  void add(int id) {
+    if (size > 0 && ids[size - 1] >= id) {
+      int pos = Arrays.binarySearch(ids, 0, size, id);
+      if (pos >= 0)
+        return; // 이미 있음
+      insertAt(-pos - 1, id);
+      return;
+    }
+    if (size == ids.length)
+      ids = Arrays.copyOf(ids, size * 2);
+    ids[size++] = id;
+  }
+
+  void remove(int id) {
+    int pos = Arrays.binarySearch(ids, 0, size, id);
+    if (pos < 0)
+      return;
+    System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+    size--;
+  }
+
+  private void insertAt(int pos, int id) {
+    if (size == ids.length)
+      ids = Arrays.copyOf(ids, size * 2);
+    System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+    ids[pos] = id;
+    size++;
+  }
+
+  /**
+   * 여러 포스팅 리스트의 교집합(오름차순)
+   * - 가장 짧은 리스트를 기준으로 나머지에서 이진 탐색
+   */
+  static int[] intersect(PostingList[] lists) {
+    PostingList shortest = lists[0];
+    for (PostingList l : lists) {
+      if (l.size < shortest.size)
+        shortest = l;
+    }
+
+    int[] out = new int[shortest.size];
+    int n = 0;
+    for (int i = 0; i < shortest.size; i++) {
+      int id = shortest.ids[i];
+      boolean all = true;
+      for (PostingList l : lists) {
+        if (l != shortest && Arrays.binarySearch(l.ids, 0, l.size, id) < 0) {
+          all = false;
+          break;
+        }
+      }
+      if (all)
+        out[n++] = id;
+    }
+    return Arrays.copyOf(out, n);
+  }
+}
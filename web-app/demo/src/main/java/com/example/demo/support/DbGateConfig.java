@@ -0,0 +1,65 @@
+package com.example.demo.support;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+/**
+ * app.db-gate.enabled=true 이면 DataSource 빈을 GatedDataSource로 감쌈
+ *
+ * - permits 기본값은 Hikari maximum-pool-size(기본 10)
+ * - virtual-threads 프로필에서 켬
+ * - Ordered라서 순서 없는 BeanPostProcessor(DbMetricsConfig)보다 먼저 감쌈
+ *   → InstrumentedDataSource(바깥) → GatedDataSource → 풀, 커넥션 대기 시간에 게이트 대기도 포함
+ * - 읽기/쓰기 분리가 켜져 있으면 라우터는 감싸지 않음
+ *   → ReplicaRoutingConfig가 primary 풀과 복제본 풀마다 따로 게이트를 붙임(풀 크기도 풀마다)
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.db-gate", name = "enabled", havingValue = "true")
+public class DbGateConfig {
+
+  // BeanPostProcessor는 다른 빈보다 먼저 만들어지므로 static + Environment로 설정을 읽음
+  // (반환 타입이 Ordered여야 스프링이 등록 순서를 정할 때 Ordered로 봄)
+  @Bean
+  public static GateBeanPostProcessor dbGateBeanPostProcessor(Environment env) {
+    return new GateBeanPostProcessor(env);
+  }
+
+  static final class GateBeanPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final Environment env;
+
+    GateBeanPostProcessor(Environment env) {
+      this.env = env;
+    }
+
+    @Override
+    public int getOrder() {
+      return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (bean instanceof DataSource ds && !(bean instanceof GatedDataSource)
+          && !(bean instanceof ReplicaRoutingDataSource)) {
+        int permits = env.getProperty("app.db-gate.permits", Integer.class,
+            env.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        return new GatedDataSource(ds, permits, acquireTimeoutMillis(env));
+      }
+      return bean;
+    }
+  }
+
+  static boolean enabled(Environment env) {
+    return env.getProperty("app.db-gate.enabled", Boolean.class, false);
+  }
+
+  static long acquireTimeoutMillis(Environment env) {
+    return env.getProperty("app.db-gate.acquire-timeout-ms", Long.class, 30000L);
+  }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.support;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * app.db-metrics.enabled=true(기본) 이면 DataSource 빈을 InstrumentedDataSource로 감쌈
+ *
+ * - MeterRegistry는 DataSource를 감쌀 때 처음 꺼냄(BeanPostProcessor 생성 시점에는 아직 없음)
+ * - db-gate가 켜져 있으면 게이트 바깥쪽을 감쌈(DbGateConfig 참고)
+ * - app.slow-query.enabled=true면 느린 문장 기록(SlowQueryLog)도 같이 붙임
+ *   (EXPLAIN은 감싸기 전 DataSource로 실행하므로 빈으로 등록하지 않고 여기서 직접 만듦)
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.db-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DbMetricsConfig {
+
+  // BeanPostProcessor는 다른 빈보다 먼저 만들어지므로 static + Environment로 설정을 읽음
+  @Bean
+  public static BeanPostProcessor dbMetricsBeanPostProcessor(ObjectProvider<MeterRegistry> registry,
+      Environment env) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource ds && !(bean instanceof InstrumentedDataSource))
+          return new InstrumentedDataSource(ds, registry.getObject(), slowQueryLog(ds, env));
+        return bean;
+      }
+    };
+  }
+
+  private static SlowQueryLog slowQueryLog(DataSource target, Environment env) {
+    if (!env.getProperty("app.slow-query.enabled", Boolean.class, true))
+      return null;
+    return new SlowQueryLog(
+        target,
+        env.getProperty("app.slow-query.threshold-ms", Long.class, 200L),
+        env.getProperty("app.slow-query.capacity", Integer.class, 100),
+        env.getProperty("app.slow-query.max-param-length", Integer.class, 100),
+        env.getProperty("app.slow-query.explain", Boolean.class, true),
+        env.getProperty("app.slow-query.explain-queue-size", Integer.class, 16));
+  }
+}
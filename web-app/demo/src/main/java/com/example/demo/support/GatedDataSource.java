@@ -0,0 +1,133 @@
+package com.example.demo.support;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * 커넥션 풀 앞단의 공정(fair) 세마포어
+ *
+ * - 가상 스레드 모드에서는 요청마다 스레드가 생기므로 수천 개가 동시에 getConnection()을 부를 수 있음
+ *   → 풀 크기만큼만 통과시키고 나머지는 세마포어 대기열(FIFO)에서 싸게 기다리게 함
+ * - 빌린 커넥션의 close()에서 permit 반납(여러 번 불러도 한 번만)
+ * - acquire-timeout-ms 안에 permit을 못 얻으면 SQLTransientConnectionException(Hikari 시간 초과와 같은 종류)
+ * - unwrap/isWrapperFor는 DelegatingDataSource가 원본 풀로 넘겨줌(Boot 풀 메트릭/헬스 체크용)
+ */
+public class GatedDataSource extends DelegatingDataSource {
+
+  private final Semaphore permits;
+  private final int maxPermits;
+  private final long acquireTimeoutMillis;
+
+  private final LongAdder acquired = new LongAdder();
+  private final LongAdder timedOut = new LongAdder();
+  private final LongAdder waitNanos = new LongAdder();
+  private final AtomicLong maxWaitNanos = new AtomicLong();
+
+  public GatedDataSource(DataSource target, int maxPermits, long acquireTimeoutMillis) {
+    super(target);
+    this.maxPermits = maxPermits;
+    this.permits = new Semaphore(maxPermits, true);
+    this.acquireTimeoutMillis = acquireTimeoutMillis;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    acquire();
+    try {
+      return gate(super.getConnection());
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    acquire();
+    try {
+      return gate(super.getConnection(username, password));
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  private void acquire() throws SQLException {
+    long started = System.nanoTime();
+    try {
+      if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+        timedOut.increment();
+        throw new SQLTransientConnectionException(
+            "connection gate timed out after " + acquireTimeoutMillis + "ms (" + maxPermits + " permits)");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("interrupted while waiting for connection gate", e);
+    }
+    long waited = System.nanoTime() - started;
+    acquired.increment();
+    waitNanos.add(waited);
+    maxWaitNanos.accumulateAndGet(waited, Math::max);
+  }
+
+  // close() 때 permit을 돌려주는 프록시
+  private Connection gate(Connection target) {
+    AtomicBoolean closed = new AtomicBoolean();
+    InvocationHandler handler = (proxy, method, args) -> {
+      if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+        try {
+          target.close();
+        } finally {
+          if (closed.compareAndSet(false, true))
+            permits.release();
+        }
+        return null;
+      }
+      if ("unwrap".equals(method.getName()) || "isWrapperFor".equals(method.getName())) {
+        Class<?> iface = (Class<?>) args[0];
+        if (iface.isInstance(proxy))
+          return "unwrap".equals(method.getName()) ? proxy : true;
+      }
+      return invoke(target, method, args);
+    };
+    return (Connection) Proxy.newProxyInstance(
+        Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, handler);
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  public Map<String, Object> stats() {
+    long count = acquired.sum();
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("permits", maxPermits);
+    s.put("available", permits.availablePermits());
+    s.put("waiting", permits.getQueueLength());
+    s.put("acquired", count);
+    s.put("timed_out", timedOut.sum());
+    s.put("avg_wait_ms", count == 0 ? 0.0 : Math.round(waitNanos.sum() / (double) count / 1_000.0) / 1_000.0);
+    s.put("max_wait_ms", Math.round(maxWaitNanos.get() / 1_000.0) / 1_000.0);
+    return s;
+  }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.support;
+
+import java.util.Collections;
+
+/**
+ * IN (?, ?, ...) 자리표시자 개수 맞추기
+ *
+ * - id 개수가 바뀔 때마다 SQL 문자열이 달라지면 prepared statement 캐시가 문장마다 따로 쌓임
+ * - 개수를 2의 거듭제곱(1, 2, 4, 8, ...)으로 올려서 문장 종류를 몇 개로 고정
+ *   → 남는 자리는 마지막 id를 한 번 더 바인딩(IN 안의 중복 값은 결과에 영향 없음)
+ */
+public final class InList {
+
+  private InList() {
+  }
+
+  /**
+   * n개를 담을 자리표시자 개수(n 이상인 가장 작은 2의 거듭제곱)
+   */
+  public static int slots(int n) {
+    if (n <= 1)
+      return 1;
+    return Integer.highestOneBit(n - 1) << 1;
+  }
+
+  public static String placeholders(int slots) {
+    return String.join(",", Collections.nCopies(slots, "?"));
+  }
+}
@@ -0,0 +1,273 @@
+package com.example.demo.support;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * DataSource 계측(Micrometer 타이머 → /actuator/prometheus)
+ *
+ * - db.connection.acquire : getConnection() 대기 시간(GatedDataSource 대기 포함, 풀 고갈 확인용)
+ * - db.query              : 문장 실행 시간(execute*), 태그 query = SQL 맨 앞 블록 주석 안의 이름, outcome = success|error
+ *                           예) 주석 "post.count" + SELECT COUNT(*) ... → query="post.count", 주석이 없으면 "other"
+ * - db.transaction        : setAutoCommit(false) ~ commit/rollback, 태그 outcome = commit|rollback
+ * - 실행 시간은 execute*가 돌아올 때까지(ResultSet을 읽는 시간은 제외, 스트리밍 조회는 첫 행까지)
+ * - 느린 문장(SlowQueryLog)은 같은 자리에서 실행 시간 + 바인딩 값으로 기록
+ * - 커넥션/문장은 JDK 프록시로 감쌈(호출당 추가 비용은 README 14절 측정값 참고)
+ * - unwrap/isWrapperFor는 DelegatingDataSource가 원본 풀로 넘겨줌(Boot 풀 메트릭/헬스 체크용)
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+  static final String UNNAMED = "other";
+
+  private final MeterRegistry registry;
+  private final Timer acquireTimer;
+  private final Timer commitTimer;
+  private final Timer rollbackTimer;
+
+  // query 이름별 타이머(이름 종류는 상수 SQL 개수만큼으로 제한됨)
+  private final Map<String, Timer> successTimers = new ConcurrentHashMap<>();
+  private final Map<String, Timer> errorTimers = new ConcurrentHashMap<>();
+
+  // null이면 느린 문장 기록 안 함
+  private final SlowQueryLog slowQueries;
+
+  public InstrumentedDataSource(DataSource target, MeterRegistry registry) {
+    this(target, registry, null);
+  }
+
+  public InstrumentedDataSource(DataSource target, MeterRegistry registry, SlowQueryLog slowQueries) {
+    super(target);
+    this.registry = registry;
+    this.slowQueries = slowQueries;
+    this.acquireTimer = Timer.builder("db.connection.acquire")
+        .description("Time spent waiting for a pooled connection")
+        .publishPercentileHistogram()
+        .register(registry);
+    this.commitTimer = transactionTimer("commit");
+    this.rollbackTimer = transactionTimer("rollback");
+  }
+
+  /**
+   * 느린 문장 기록(꺼져 있으면 null)
+   */
+  public SlowQueryLog slowQueries() {
+    return slowQueries;
+  }
+
+  private Timer transactionTimer(String outcome) {
+    return Timer.builder("db.transaction")
+        .description("Time from setAutoCommit(false) to commit or rollback")
+        .tag("outcome", outcome)
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  private Timer queryTimer(String name, boolean success) {
+    Map<String, Timer> timers = success ? successTimers : errorTimers;
+    Timer t = timers.get(name);
+    if (t != null)
+      return t;
+    return timers.computeIfAbsent(name, n -> Timer.builder("db.query")
+        .description("Statement execution time by logical query name")
+        .tag("query", n)
+        .tag("outcome", success ? "success" : "error")
+        .publishPercentileHistogram()
+        .register(registry));
+  }
+
+  /**
+   * SQL 맨 앞 블록 주석에서 query 이름을 꺼냄(없으면 "other")
+   */
+  static String queryName(String sql) {
+    if (sql == null)
+      return UNNAMED;
+    int start = 0;
+    while (start < sql.length() && Character.isWhitespace(sql.charAt(start)))
+      start++;
+    if (!sql.startsWith("/*", start))
+      return UNNAMED;
+    int end = sql.indexOf("*/", start + 2);
+    if (end < 0)
+      return UNNAMED;
+    String name = sql.substring(start + 2, end).trim();
+    return name.isEmpty() ? UNNAMED : name;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    long started = System.nanoTime();
+    Connection conn = super.getConnection();
+    acquireTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    return instrument(conn);
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    long started = System.nanoTime();
+    Connection conn = super.getConnection(username, password);
+    acquireTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    return instrument(conn);
+  }
+
+  private Connection instrument(Connection target) {
+    return (Connection) Proxy.newProxyInstance(
+        Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, new ConnectionHandler(target));
+  }
+
+  /**
+   * 커넥션 프록시: 트랜잭션 시간 측정 + 만든 문장을 감쌈
+   * - 한 커넥션은 한 번에 한 스레드만 쓰므로 txStarted는 동기화하지 않음
+   */
+  private final class ConnectionHandler implements InvocationHandler {
+
+    private final Connection target;
+    private long txStarted;
+
+    ConnectionHandler(Connection target) {
+      this.target = target;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "prepareStatement" -> {
+          PreparedStatement ps = (PreparedStatement) call(target, method, args);
+          return statement(PreparedStatement.class, ps, (String) args[0]);
+        }
+        case "createStatement" -> {
+          Statement st = (Statement) call(target, method, args);
+          return statement(Statement.class, st, null);
+        }
+        case "setAutoCommit" -> {
+          call(target, method, args);
+          boolean autoCommit = (Boolean) args[0];
+          if (!autoCommit && txStarted == 0)
+            txStarted = System.nanoTime();
+          else if (autoCommit)
+            txStarted = 0; // 켜는 순간 드라이버가 암묵적 commit(이미 commit/rollback 했으면 기록할 것 없음)
+          return null;
+        }
+        case "commit", "rollback" -> {
+          if (args != null) // rollback(Savepoint)은 트랜잭션 종료가 아님
+            return call(target, method, args);
+          call(target, method, null);
+          if (txStarted != 0) {
+            long now = System.nanoTime();
+            ("commit".equals(method.getName()) ? commitTimer : rollbackTimer)
+                .record(now - txStarted, TimeUnit.NANOSECONDS);
+            txStarted = now; // autocommit=false 그대로면 다음 트랜잭션이 바로 시작
+          }
+          return null;
+        }
+        case "close" -> {
+          txStarted = 0;
+          return call(target, method, args);
+        }
+        case "unwrap", "isWrapperFor" -> {
+          Class<?> iface = (Class<?>) args[0];
+          if (iface.isInstance(proxy))
+            return "unwrap".equals(method.getName()) ? proxy : true;
+          return call(target, method, args);
+        }
+        default -> {
+          return call(target, method, args);
+        }
+      }
+    }
+  }
+
+  /**
+   * 문장 프록시: execute*만 시간 측정
+   * - PreparedStatement는 prepare 때의 SQL 주석 이름, Statement는 execute(sql)의 SQL 주석 이름
+   * - 느린 문장 기록이 켜져 있으면 set*(index, value) 바인딩 값을 배열에 같이 보관
+   */
+  private <T extends Statement> T statement(Class<T> type, T target, String preparedSql) {
+    StatementHandler handler = new StatementHandler(target, preparedSql);
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+  }
+
+  private final class StatementHandler implements InvocationHandler {
+
+    private final Statement target;
+    private final String preparedSql;
+    private final String preparedName;
+
+    private Object[] params;
+    private int paramCount;
+
+    StatementHandler(Statement target, String preparedSql) {
+      this.target = target;
+      this.preparedSql = preparedSql;
+      this.preparedName = preparedSql == null ? null : queryName(preparedSql);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String m = method.getName();
+      if (!m.startsWith("execute")) {
+        if (slowQueries != null && preparedSql != null)
+          captureParam(m, args);
+        if (("unwrap".equals(m) || "isWrapperFor".equals(m)) && ((Class<?>) args[0]).isInstance(proxy))
+          return "unwrap".equals(m) ? proxy : true;
+        return call(target, method, args);
+      }
+
+      String sql = preparedSql != null ? preparedSql
+          : (args != null && args.length > 0 && args[0] instanceof String s ? s : null);
+      String name = preparedName != null ? preparedName : queryName(sql);
+      long started = System.nanoTime();
+      boolean success = false;
+      try {
+        Object result = call(target, method, args);
+        success = true;
+        return result;
+      } finally {
+        long elapsed = System.nanoTime() - started;
+        queryTimer(name, success).record(elapsed, TimeUnit.NANOSECONDS);
+        if (slowQueries != null && slowQueries.isSlow(elapsed))
+          slowQueries.record(name, sql, params, preparedSql != null ? paramCount : 0, elapsed, success);
+      }
+    }
+
+    // PreparedStatement의 set*(int parameterIndex, value, ...) / clearParameters
+    private void captureParam(String m, Object[] args) {
+      if ("clearParameters".equals(m)) {
+        paramCount = 0;
+        return;
+      }
+      if (!m.startsWith("set") || args == null || args.length < 2 || !(args[0] instanceof Integer index))
+        return;
+      if (params == null)
+        params = new Object[Math.max(index, 8)];
+      else if (params.length < index)
+        params = Arrays.copyOf(params, Math.max(index, params.length * 2));
+      params[index - 1] = "setNull".equals(m) ? null : args[1];
+      paramCount = Math.max(paramCount, index);
+    }
+  }
+
+  private static Object call(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package com.example.demo.support;
+
+/**
+ * 작성자 본인만 할 수 있는 수정/삭제의 결과
+ *
+ * - DONE      : 반영됨
+ * - NOT_FOUND : 대상 행 없음
+ * - FORBIDDEN : 행은 있지만 작성자가 아님
+ */
+public enum OwnedWrite {
+  DONE,
+  NOT_FOUND,
+  FORBIDDEN
+}
@@ -0,0 +1,103 @@
+package com.example.demo.support;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 한 요청 안의 독립적인 DB 조회를 병렬로 실행하는 전용 스레드 풀
+ *
+ * - 작업마다 자기 커넥션을 빌려서 실행(같은 커넥션을 공유하지 않음)
+ * - 풀/대기열 크기 제한: 대기열이 가득 차면 요청 스레드가 직접 실행(CallerRuns)
+ *   → 부하가 높을 때는 자연스럽게 순차 실행으로 돌아감
+ * - Executor 타입 빈으로 노출하지 않음(스프링 기본 applicationTaskExecutor를 대체하지 않도록)
+ */
+@Component
+public class ParallelQueryExecutor {
+
+  private final ThreadPoolExecutor pool;
+
+  public ParallelQueryExecutor(
+      @Value("${app.parallel-query.threads:8}") int threads,
+      @Value("${app.parallel-query.queue-size:256}") int queueSize) {
+
+    AtomicInteger seq = new AtomicInteger();
+    this.pool = new ThreadPoolExecutor(
+        threads, threads,
+        60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(queueSize),
+        r -> {
+          Thread t = new Thread(r, "parallel-query-" + seq.incrementAndGet());
+          t.setDaemon(true);
+          return t;
+        },
+        new ThreadPoolExecutor.CallerRunsPolicy());
+    this.pool.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * 실행 결과 + 소요 시간(나노초)
+   */
+  public record Timed<T>(T value, long nanos) {
+
+    public double millis() {
+      return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+  }
+
+  /**
+   * 비동기 실행(소요 시간 포함)
+   * - 작업의 checked 예외는 CompletionException으로 감싸짐 → join()에서 unwrap
+   * - 요청 스레드의 복제본 라우팅 허용 여부(ReadRouting)를 작업 스레드로 넘김
+   */
+  public <T> CompletableFuture<Timed<T>> submit(Callable<T> callable) {
+    Callable<T> task = ReadRouting.wrap(callable);
+    return CompletableFuture.supplyAsync(() -> {
+      long started = System.nanoTime();
+      try {
+        T value = task.call();
+        return new Timed<>(value, System.nanoTime() - started);
+      } catch (Exception e) {
+        throw new CompletionException(e);
+      }
+    }, pool);
+  }
+
+  /**
+   * 결과 대기(작업에서 난 예외는 원래 예외로 다시 던짐)
+   */
+  public static <T> T join(CompletableFuture<T> f) throws Exception {
+    try {
+      return f.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof Exception cause)
+        throw cause;
+      throw e;
+    }
+  }
+
+  public Map<String, Object> stats() {
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("pool_size", pool.getPoolSize());
+    s.put("active", pool.getActiveCount());
+    s.put("queued", pool.getQueue().size());
+    s.put("completed", pool.getCompletedTaskCount());
+    return s;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    pool.shutdown();
+  }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.support;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 현재 스레드의 DB 읽기를 복제본으로 보내도 되는지(ReplicaRoutingDataSource가 getConnection 때 확인)
+ *
+ * - 기본값은 primary: 요청 밖(스케줄러, 조회수 flush, 색인 구축)과 쓰기 요청은 항상 primary
+ * - ReadRoutingFilter가 GET/HEAD 요청 동안만 replica 허용으로 바꿈(세션이 방금 쓰기를 했으면 그대로 primary)
+ * - 캐시 loader처럼 결과가 오래 남는 읽기는 onPrimary로 감쌈(복제 지연된 값을 TTL 동안 붙잡지 않도록)
+ * - 다른 스레드로 넘기는 작업은 wrap으로 현재 값을 같이 넘김(ParallelQueryExecutor)
+ */
+public final class ReadRouting {
+
+  private static final ThreadLocal<Boolean> REPLICA_ALLOWED = new ThreadLocal<>();
+
+  private ReadRouting() {
+  }
+
+  public static boolean replicaAllowed() {
+    return Boolean.TRUE.equals(REPLICA_ALLOWED.get());
+  }
+
+  static void allowReplica() {
+    REPLICA_ALLOWED.set(Boolean.TRUE);
+  }
+
+  static void clear() {
+    REPLICA_ALLOWED.remove();
+  }
+
+  /**
+   * task 안의 조회는 항상 primary(끝나면 원래 값으로 되돌림)
+   */
+  public static <T> T onPrimary(Callable<T> task) throws Exception {
+    Boolean previous = REPLICA_ALLOWED.get();
+    if (previous == null)
+      return task.call();
+    REPLICA_ALLOWED.remove();
+    try {
+      return task.call();
+    } finally {
+      REPLICA_ALLOWED.set(previous);
+    }
+  }
+
+  /**
+   * 호출한 스레드의 값을 작업 스레드에서도 쓰도록 감쌈
+   * - 대기열이 가득 차서 호출한 스레드가 직접 실행(CallerRuns)해도 원래 값으로 되돌림
+   */
+  public static <T> Callable<T> wrap(Callable<T> task) {
+    if (!replicaAllowed())
+      return task;
+    return () -> {
+      Boolean previous = REPLICA_ALLOWED.get();
+      REPLICA_ALLOWED.set(Boolean.TRUE);
+      try {
+        return task.call();
+      } finally {
+        if (previous == null)
+          REPLICA_ALLOWED.remove();
+        else
+          REPLICA_ALLOWED.set(previous);
+      }
+    };
+  }
+}
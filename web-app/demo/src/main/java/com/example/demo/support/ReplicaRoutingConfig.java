@@ -0,0 +1,183 @@
+package com.example.demo.support;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * app.replica.enabled=true 이면 읽기/쓰기 분리
+ *
+ * - DataSource 빈(primary Hikari)을 ReplicaRoutingDataSource로 감쌈
+ *   · 복제본 풀은 primary 설정(드라이버 속성, 계정, 풀 크기)을 복사해서 URL만 바꿔 만듦
+ *   · db-gate가 켜져 있으면 primary 풀과 복제본 풀마다 따로 GatedDataSource를 붙임
+ *     (permits = 그 풀의 maximum-pool-size, primary는 app.db-gate.permits로 덮어쓰기 가능)
+ *     → 복제본으로 가는 GET이 몰려도 primary 쓰기가 같은 대기열에 서지 않음
+ *   · 계측(InstrumentedDataSource)만 라우터 바깥에서 감쌈 → 복제본 커넥션 대기 시간도 포함
+ * - ReadRoutingFilter: GET/HEAD 요청 동안만 복제본 허용
+ *   · 쓰기 요청(POST/PUT/DELETE...)을 한 세션은 sticky-ms 동안 GET도 primary(read-your-writes)
+ *   · 세션에는 만료 시각(epoch ms) 하나만 저장
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.replica", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingConfig.class);
+
+  static final String STICKY_UNTIL = "db_primary_until";
+
+  // BeanPostProcessor는 다른 빈보다 먼저 만들어지므로 static + Environment로 설정을 읽음
+  // (반환 타입이 Ordered여야 스프링이 등록 순서를 정할 때 Ordered로 봄)
+  @Bean
+  public static RoutingBeanPostProcessor replicaRoutingBeanPostProcessor(Environment env) {
+    return new RoutingBeanPostProcessor(env);
+  }
+
+  static final class RoutingBeanPostProcessor implements DestructionAwareBeanPostProcessor, Ordered {
+
+    private final Environment env;
+    // 빈 이름 → 만든 래퍼(소멸 콜백에는 감싸기 전 원본 빈이 넘어오므로 따로 기억)
+    private final Map<String, ReplicaRoutingDataSource> created = new ConcurrentHashMap<>();
+
+    RoutingBeanPostProcessor(Environment env) {
+      this.env = env;
+    }
+
+    @Override
+    public int getOrder() {
+      return Ordered.LOWEST_PRECEDENCE - 1; // DbGateConfig보다 먼저 → 게이트는 라우터를 보고 건너뜀
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (!(bean instanceof HikariDataSource primary))
+        return bean;
+      ReplicaRoutingDataSource routing = routing(primary, env);
+      created.put(beanName, routing);
+      return routing;
+    }
+
+    // 복제본 풀과 헬스 체크 스레드 정리(primary 풀은 스프링이 원래대로 닫음)
+    @Override
+    public void postProcessBeforeDestruction(Object bean, String beanName) {
+      ReplicaRoutingDataSource routing = created.remove(beanName);
+      if (routing != null)
+        routing.close();
+    }
+
+    @Override
+    public boolean requiresDestruction(Object bean) {
+      return bean instanceof HikariDataSource;
+    }
+  }
+
+  static ReplicaRoutingDataSource routing(HikariDataSource primary, Environment env) {
+    boolean gated = DbGateConfig.enabled(env);
+    String[] urls = env.getProperty("app.replica.urls", String[].class, new String[0]);
+    Map<String, DataSource> replicas = new LinkedHashMap<>();
+    for (int i = 0; i < urls.length; i++) {
+      String url = urls[i].trim();
+      if (url.isEmpty())
+        continue;
+
+      HikariConfig config = new HikariConfig();
+      primary.copyStateTo(config);
+      config.setPoolName("replica-" + (i + 1));
+      config.setJdbcUrl(url);
+      config.setMaximumPoolSize(env.getProperty("app.replica.max-pool-size", Integer.class,
+          primary.getMaximumPoolSize()));
+      config.setUsername(env.getProperty("app.replica.username", primary.getUsername()));
+      config.setPassword(env.getProperty("app.replica.password", primary.getPassword()));
+      config.setInitializationFailTimeout(-1); // 복제본이 내려가 있어도 앱은 뜸(헬스 체크에서 제외)
+      HikariDataSource pool = new HikariDataSource(config);
+      replicas.put(config.getPoolName(), gated ? gate(pool, pool.getMaximumPoolSize(), env) : pool);
+    }
+
+    ReplicaRoutingDataSource.LagCheck lagCheck = "none".equalsIgnoreCase(env.getProperty("app.replica.lag-check"))
+        ? ReplicaRoutingDataSource.LagCheck.NONE
+        : ReplicaRoutingDataSource.LagCheck.REPLICA_STATUS;
+    log.info("read/write splitting: {} replica(s), lag check {}, db-gate per pool {}", replicas.size(), lagCheck,
+        gated);
+
+    DataSource primaryTarget = gated
+        ? gate(primary, env.getProperty("app.db-gate.permits", Integer.class, primary.getMaximumPoolSize()), env)
+        : primary;
+    return new ReplicaRoutingDataSource(primaryTarget, replicas,
+        env.getProperty("app.replica.max-lag-ms", Long.class, 2000L),
+        lagCheck,
+        env.getProperty("app.replica.health-interval-ms", Long.class, 2000L));
+  }
+
+  private static GatedDataSource gate(HikariDataSource pool, int permits, Environment env) {
+    return new GatedDataSource(pool, permits, DbGateConfig.acquireTimeoutMillis(env));
+  }
+
+  @Bean
+  public ReadRoutingFilter readRoutingFilter(Environment env) {
+    return new ReadRoutingFilter(env.getProperty("app.replica.sticky-ms", Long.class, 5000L));
+  }
+
+  /**
+   * 요청마다 복제본 허용 여부 결정(스프링 세션 필터 뒤에서 실행되므로 Redis 세션을 그대로 씀)
+   */
+  public static class ReadRoutingFilter extends OncePerRequestFilter {
+
+    private final long stickyMillis;
+
+    ReadRoutingFilter(long stickyMillis) {
+      this.stickyMillis = stickyMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+      String method = request.getMethod();
+      boolean read = "GET".equals(method) || "HEAD".equals(method);
+      HttpSession session = request.getSession(false);
+
+      if (!read) {
+        // 응답을 보낸 뒤가 아니라 처리 전에 표시(바로 이어지는 GET이 세션 저장보다 먼저 올 수 있음)
+        if (session != null && !"OPTIONS".equals(method))
+          session.setAttribute(STICKY_UNTIL, System.currentTimeMillis() + stickyMillis);
+        chain.doFilter(request, response);
+        return;
+      }
+
+      if (session != null && session.getAttribute(STICKY_UNTIL) instanceof Long until) {
+        if (until > System.currentTimeMillis()) {
+          chain.doFilter(request, response);
+          return;
+        }
+        session.removeAttribute(STICKY_UNTIL);
+      }
+
+      ReadRouting.allowReplica();
+      try {
+        chain.doFilter(request, response);
+      } finally {
+        ReadRouting.clear();
+      }
+    }
+  }
+}
@@ -0,0 +1,256 @@
+package com.example.demo.support;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * 읽기 전용 요청은 복제본으로, 나머지는 primary로 보내는 DataSource
+ *
+ * - getConnection 때 ReadRouting.replicaAllowed()가 true면 건강한 복제본 중 하나(라운드 로빈)
+ *   → 쓰기 요청, 트랜잭션(쓰기 요청 안에서만 씀), 요청 밖 작업은 항상 primary
+ * - 헬스 체크(health-interval-ms마다, 전용 스레드 1개)
+ *   · 커넥션 + isValid 실패 → 제외
+ *   · lag-check=replica-status: SHOW REPLICA STATUS(8.0.22 미만은 SHOW SLAVE STATUS)의 Seconds_Behind_*
+ *     NULL(복제 중단) 이거나 max-lag-ms 초과 → 제외, 다음 체크에서 다시 들어옴
+ *   · lag-check=none: 연결만 확인(복제 상태를 볼 권한이 없거나 MySQL이 아닌 경우)
+ * - 건강한 복제본이 없거나 복제본 getConnection이 실패하면 primary로 대신 보냄(fallback_to_primary)
+ * - unwrap/isWrapperFor는 DelegatingDataSource가 primary 풀로 넘겨줌(Boot 풀 메트릭/헬스 체크는 primary 기준)
+ * - 복제본 풀마다 GatedDataSource가 붙어 있을 수 있음(db-gate, ReplicaRoutingConfig 참고) → gateStats
+ */
+public class ReplicaRoutingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+  public enum LagCheck {
+    REPLICA_STATUS, NONE
+  }
+
+  /**
+   * 복제본 하나(상태는 헬스 체크 + 복제본 getConnection 실패 때 갱신)
+   */
+  static final class Replica {
+    final String name;
+    final DataSource dataSource;
+    volatile boolean healthy;
+    volatile long lagMillis = -1; // -1: 모름
+    volatile String lastError;
+    final LongAdder routed = new LongAdder();
+    final LongAdder failures = new LongAdder();
+
+    Replica(String name, DataSource dataSource) {
+      this.name = name;
+      this.dataSource = dataSource;
+    }
+  }
+
+  private final List<Replica> replicas;
+  private final long maxLagMillis;
+  private final LagCheck lagCheck;
+  private final ScheduledExecutorService checker;
+
+  private final AtomicInteger next = new AtomicInteger();
+  private final LongAdder primaryReads = new LongAdder();
+  private final LongAdder primaryOther = new LongAdder();
+  private final LongAdder fallbacks = new LongAdder();
+
+  /**
+   * replicas: 이름 → DataSource(순서 유지), healthIntervalMillis <= 0 이면 자동 체크 안 함(checkNow로 직접)
+   */
+  public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+      long maxLagMillis, LagCheck lagCheck, long healthIntervalMillis) {
+    super(primary);
+    List<Replica> list = new ArrayList<>();
+    replicas.forEach((name, ds) -> list.add(new Replica(name, ds)));
+    this.replicas = List.copyOf(list);
+    this.maxLagMillis = maxLagMillis;
+    this.lagCheck = lagCheck;
+
+    checkNow(); // 첫 요청 전에 한 번
+    if (healthIntervalMillis > 0) {
+      this.checker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "replica-health");
+        t.setDaemon(true);
+        return t;
+      });
+      this.checker.scheduleWithFixedDelay(this::checkNow, healthIntervalMillis, healthIntervalMillis,
+          TimeUnit.MILLISECONDS);
+    } else {
+      this.checker = null;
+    }
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (!ReadRouting.replicaAllowed()) {
+      primaryOther.increment();
+      return super.getConnection();
+    }
+
+    Replica r = pick();
+    if (r != null) {
+      try {
+        Connection conn = r.dataSource.getConnection();
+        r.routed.increment();
+        return conn;
+      } catch (SQLException e) {
+        // 다음 헬스 체크까지 빼 두고 이번 요청은 primary로
+        r.healthy = false;
+        r.lastError = e.getMessage();
+        r.failures.increment();
+      }
+    }
+    fallbacks.increment();
+    primaryReads.increment();
+    return super.getConnection();
+  }
+
+  // 건강한 복제본 라운드 로빈(없으면 null)
+  private Replica pick() {
+    int n = replicas.size();
+    if (n == 0)
+      return null;
+    int start = Math.floorMod(next.getAndIncrement(), n);
+    for (int i = 0; i < n; i++) {
+      Replica r = replicas.get((start + i) % n);
+      if (r.healthy)
+        return r;
+    }
+    return null;
+  }
+
+  /**
+   * 모든 복제본 상태 갱신
+   */
+  public void checkNow() {
+    for (Replica r : replicas) {
+      try {
+        long lag = probe(r.dataSource);
+        r.lagMillis = lag;
+        boolean ok = lag <= maxLagMillis;
+        if (r.healthy != ok)
+          log.info("replica {} {} (lag {}ms)", r.name, ok ? "back in rotation" : "lagging, skipped", lag);
+        r.healthy = ok;
+        r.lastError = ok ? null : "lag " + lag + "ms > " + maxLagMillis + "ms";
+      } catch (Exception e) {
+        if (r.healthy)
+          log.warn("replica {} unhealthy: {}", r.name, e.toString());
+        r.healthy = false;
+        r.lagMillis = -1;
+        r.lastError = e.getMessage();
+      }
+    }
+  }
+
+  // 복제 지연(ms), 복제가 멈춰 있으면 예외
+  private long probe(DataSource ds) throws SQLException {
+    try (Connection conn = ds.getConnection()) {
+      if (!conn.isValid(2))
+        throw new SQLException("connection not valid");
+      if (lagCheck == LagCheck.NONE)
+        return 0;
+
+      try (Statement st = conn.createStatement();
+          ResultSet rs = replicaStatus(st)) {
+        if (!rs.next())
+          throw new SQLException("not a replica (empty replica status)");
+        ResultSetMetaData meta = rs.getMetaData();
+        for (int c = 1; c <= meta.getColumnCount(); c++) {
+          String label = meta.getColumnLabel(c);
+          if ("Seconds_Behind_Source".equalsIgnoreCase(label) || "Seconds_Behind_Master".equalsIgnoreCase(label)) {
+            long seconds = rs.getLong(c);
+            if (rs.wasNull())
+              throw new SQLException("replication not running");
+            return TimeUnit.SECONDS.toMillis(seconds);
+          }
+        }
+        throw new SQLException("no Seconds_Behind_* column");
+      }
+    }
+  }
+
+  private static ResultSet replicaStatus(Statement st) throws SQLException {
+    try {
+      return st.executeQuery("SHOW REPLICA STATUS");
+    } catch (SQLException unsupported) {
+      return st.executeQuery("SHOW SLAVE STATUS"); // 8.0.22 미만
+    }
+  }
+
+  public Map<String, Object> stats() {
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("max_lag_ms", maxLagMillis);
+    s.put("lag_check", lagCheck.name().toLowerCase(Locale.ROOT));
+    s.put("primary_reads", primaryReads.sum());
+    s.put("primary_other", primaryOther.sum());
+    s.put("fallback_to_primary", fallbacks.sum());
+
+    List<Map<String, Object>> items = new ArrayList<>();
+    for (Replica r : replicas) {
+      Map<String, Object> m = new LinkedHashMap<>();
+      m.put("name", r.name);
+      m.put("healthy", r.healthy);
+      m.put("lag_ms", r.lagMillis);
+      m.put("routed", r.routed.sum());
+      m.put("failures", r.failures.sum());
+      m.put("last_error", r.lastError);
+      items.add(m);
+    }
+    s.put("replicas", items);
+    return s;
+  }
+
+  /**
+   * 복제본 풀 이름 → 게이트 상태(게이트가 붙은 복제본만)
+   */
+  public Map<String, Object> gateStats() {
+    Map<String, Object> s = new LinkedHashMap<>();
+    for (Replica r : replicas) {
+      if (r.dataSource instanceof GatedDataSource gate)
+        s.put(r.name, gate.stats());
+    }
+    return s;
+  }
+
+  /**
+   * 헬스 체크 중지 + 복제본 풀 닫기(primary 풀은 만든 쪽이 닫음)
+   */
+  @Override
+  public void close() {
+    if (checker != null)
+      checker.shutdownNow();
+    for (Replica r : replicas)
+      closeQuietly(r.name, r.dataSource);
+  }
+
+  private static void closeQuietly(String name, DataSource ds) {
+    // 게이트(DelegatingDataSource)로 감싸져 있으면 안쪽 풀을 닫음
+    while (!(ds instanceof AutoCloseable) && ds instanceof DelegatingDataSource d)
+      ds = d.getTargetDataSource();
+    if (ds instanceof AutoCloseable c) {
+      try {
+        c.close();
+      } catch (Exception e) {
+        log.warn("{} pool close failed: {}", name, e.toString());
+      }
+    }
+  }
+}
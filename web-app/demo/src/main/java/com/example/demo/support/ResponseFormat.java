@@ -0,0 +1,104 @@
+package com.example.demo.support;
+
+import java.util.List;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * /api 응답 인코딩(Accept 헤더로 선택, 기본 JSON)
+ *
+ * - 일반 응답(ApiResponse 반환)은 Spring 메시지 컨버터가 Accept를 보고 고름(cbor/smile 모듈이 classpath에 있으면 자동 등록)
+ * - 컨트롤러가 직접 바이트를 쓰는 곳(댓글 스트리밍, 목록 페이지 캐시)과 ETag만 이 enum으로 같은 판단을 함
+ * - 구조는 세 형식 모두 { ok, data, message } 그대로(직렬화기는 형식과 무관한 JsonGenerator API만 씀)
+ */
+public enum ResponseFormat {
+
+  JSON(MediaType.APPLICATION_JSON, ""),
+  CBOR(MediaType.APPLICATION_CBOR, "-cbor"),
+  SMILE(MediaType.parseMediaType("application/x-jackson-smile"), "-smile");
+
+  private static final ObjectMapper CBOR_MAPPER = CBORMapper.builder().build();
+  private static final ObjectMapper SMILE_MAPPER = SmileMapper.builder().build();
+
+  private final MediaType mediaType;
+  private final String etagSuffix;
+
+  ResponseFormat(MediaType mediaType, String etagSuffix) {
+    this.mediaType = mediaType;
+    this.etagSuffix = etagSuffix;
+  }
+
+  public MediaType mediaType() {
+    return mediaType;
+  }
+
+  public boolean binary() {
+    return this != JSON;
+  }
+
+  /**
+   * Accept 헤더 → 형식
+   * - 세 형식과 와일드카드(*\/*, application/*) 중 q값이 가장 큰 것(같으면 앞쪽), 와일드카드는 JSON
+   * - 모르는 타입(text/html 등)은 건너뜀(컨버터도 못 만드는 타입), 맞는 게 없거나 파싱 오류면 JSON
+   */
+  public static ResponseFormat of(String accept) {
+    if (accept == null || accept.isBlank())
+      return JSON;
+
+    List<MediaType> types;
+    try {
+      types = MediaType.parseMediaTypes(accept);
+    } catch (InvalidMediaTypeException e) {
+      return JSON;
+    }
+
+    ResponseFormat best = JSON;
+    double bestQuality = -1;
+    for (MediaType type : types) {
+      ResponseFormat f = exact(type);
+      if (f == null)
+        continue;
+      double q = type.getQualityValue();
+      if (q > bestQuality) {
+        best = f;
+        bestQuality = q;
+      }
+    }
+    return bestQuality > 0 ? best : JSON;
+  }
+
+  private static ResponseFormat exact(MediaType type) {
+    if (type.isWildcardType() || (type.isWildcardSubtype() && "application".equals(type.getType())))
+      return JSON;
+    for (ResponseFormat f : values())
+      if (f.mediaType.equalsTypeAndSubtype(type))
+        return f;
+    return null;
+  }
+
+  /**
+   * 직접 쓰는 응답용 mapper(JSON은 애플리케이션 JsonMapper 그대로)
+   */
+  public ObjectMapper mapper(ObjectMapper json) {
+    return switch (this) {
+      case JSON -> json;
+      case CBOR -> CBOR_MAPPER;
+      case SMILE -> SMILE_MAPPER;
+    };
+  }
+
+  /**
+   * 같은 리소스라도 형식마다 다른 표현이므로 ETag에 형식 표시를 붙임(JSON은 그대로)
+   * - W/"p1-abc" → W/"p1-abc-cbor"
+   */
+  public String etag(String etag) {
+    if (etagSuffix.isEmpty())
+      return etag;
+    return etag.substring(0, etag.length() - 1) + etagSuffix + "\"";
+  }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.support;
+
+import java.io.IOException;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * /api 응답 형식 협상(ResponseFormat)
+ *
+ * - VaryAcceptFilter: /api/** 응답에 Vary: Accept
+ *   · 같은 URL이 Accept에 따라 JSON/CBOR/Smile로 나가므로 중간 캐시(CDN, 브라우저)가 형식을 섞지 않도록
+ *   · 304에도 붙음(응답 쓰기 전에 헤더를 넣음)
+ */
+@Configuration
+public class ResponseFormatConfig {
+
+  @Bean
+  public VaryAcceptFilter varyAcceptFilter() {
+    return new VaryAcceptFilter();
+  }
+
+  public static class VaryAcceptFilter extends OncePerRequestFilter {
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+      return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+      response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+      chain.doFilter(request, response);
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package com.example.demo.support;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 같은 키의 동시 조회를 DB 한 번으로 합침(single-flight)
+ *
+ * - 먼저 온 요청(leader)이 자기 스레드에서 조회, 그동안 같은 키로 온 요청은 그 결과를 기다렸다가 같이 받음
+ * - 결과를 저장하지 않음: 조회가 끝나면 바로 키를 지우므로 다음 요청은 다시 DB로 감(캐시와는 별개, 캐시 유무와 상관없이 동작)
+ * - leader의 예외는 기다리던 요청 모두에게 같은 예외로 전달
+ * - 기다리는 시간은 timeout-ms까지(넘으면 WaitTimeoutException → 503)
+ * - 키에 현재 스레드의 읽기 라우팅(primary/replica)을 붙임: 방금 쓴 세션이 다른 요청의 복제본 결과를 받지 않도록
+ * - 결과 객체는 여러 요청이 같이 쓰므로 호출하는 쪽에서 수정하지 않음
+ * - 지표: singleflight.calls{group, outcome=leader|shared|timeout|error}, shared가 아낀 DB 호출 수
+ */
+@Component
+public class SingleFlight {
+
+  /**
+   * 기다리는 시간 초과
+   */
+  public static class WaitTimeoutException extends RuntimeException {
+    public WaitTimeoutException(String key) {
+      super("single-flight 대기 시간 초과: " + key);
+    }
+  }
+
+  private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+  private final MeterRegistry registry;
+  private final boolean enabled;
+  private final long timeoutMillis;
+
+  // group|outcome → counter
+  private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+  public SingleFlight(
+      MeterRegistry registry,
+      @Value("${app.single-flight.enabled:true}") boolean enabled,
+      @Value("${app.single-flight.timeout-ms:5000}") long timeoutMillis) {
+    this.registry = registry;
+    this.enabled = enabled;
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  /**
+   * group + key가 같은 진행 중 조회가 있으면 그 결과를, 없으면 직접 loader 실행
+   * - group은 지표 태그(예: "user", "comments.page")
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T execute(String group, Object key, Callable<T> loader) throws Exception {
+    if (!enabled)
+      return loader.call();
+
+    String flightKey = group + ":" + key + (ReadRouting.replicaAllowed() ? "@r" : "@p");
+    CompletableFuture<Object> mine = new CompletableFuture<>();
+    CompletableFuture<Object> running = inFlight.putIfAbsent(flightKey, mine);
+
+    if (running == null) {
+      try {
+        T value = loader.call();
+        mine.complete(value);
+        count(group, "leader");
+        return value;
+      } catch (Throwable e) {
+        mine.completeExceptionally(e);
+        count(group, "leader");
+        count(group, "error");
+        throw e;
+      } finally {
+        inFlight.remove(flightKey, mine);
+      }
+    }
+
+    try {
+      T value = (T) running.get(timeoutMillis, TimeUnit.MILLISECONDS);
+      count(group, "shared");
+      return value;
+    } catch (TimeoutException e) {
+      count(group, "timeout");
+      throw new WaitTimeoutException(flightKey);
+    } catch (ExecutionException e) {
+      count(group, "shared");
+      if (e.getCause() instanceof Exception cause)
+        throw cause;
+      if (e.getCause() instanceof Error error)
+        throw error;
+      throw e;
+    }
+  }
+
+  private void count(String group, String outcome) {
+    counters.computeIfAbsent(group + "|" + outcome, k -> Counter.builder("singleflight.calls")
+        .tag("group", group)
+        .tag("outcome", outcome)
+        .register(registry))
+        .increment();
+  }
+
+  /**
+   * group별 leader(DB 호출) / shared(아낀 호출) / timeout / error 누적 수
+   */
+  public Map<String, Object> stats() {
+    Map<String, Map<String, Long>> groups = new TreeMap<>();
+    counters.forEach((k, c) -> {
+      int sep = k.indexOf('|');
+      groups.computeIfAbsent(k.substring(0, sep), g -> new TreeMap<>())
+          .put(k.substring(sep + 1), (long) c.count());
+    });
+
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("enabled", enabled);
+    s.put("timeout_ms", timeoutMillis);
+    s.put("in_flight", inFlight.size());
+    s.put("saved_db_calls", groups.values().stream().mapToLong(g -> g.getOrDefault("shared", 0L)).sum());
+    s.put("groups", groups);
+    return s;
+  }
+}
@@ -0,0 +1,241 @@
+package com.example.demo.support;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 느린 문장 기록(최근 capacity건 링 버퍼) + SELECT는 비동기 EXPLAIN
+ *
+ * - InstrumentedDataSource가 execute* 시간이 threshold-ms 이상인 문장을 넘겨줌
+ * - 바인딩 값도 같이 저장(문자열은 max-param-length로 자름)
+ *   · SQL에 password가 들어가면 값은 모두 "***"(어느 ?가 비밀번호인지 SQL을 해석하지 않고 통째로 가림), EXPLAIN도 안 함
+ * - EXPLAIN은 요청 스레드가 아니라 전용 스레드 1개에서 실행
+ *   · 대기열(explain-queue-size)이 가득 차면 버림(explain_dropped)
+ *   · 계측되지 않은 원본 DataSource로 실행(EXPLAIN 자체가 메트릭/느린 문장에 섞이지 않음)
+ * - 결과는 GET /api/admin/slow-queries
+ */
+public class SlowQueryLog {
+
+  private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+  private static final int MAX_SQL_LENGTH = 2000;
+  private static final String REDACTED = "***";
+
+  /**
+   * 느린 문장 1건(explain은 나중에 채워짐)
+   */
+  private static final class Entry {
+    final long seq;
+    final Instant at;
+    final String query;
+    final String sql;
+    final List<String> params;
+    final double elapsedMs;
+    final boolean success;
+    final String thread;
+    volatile Object explain; // null: 안 함/대기 중, List<Map>: 결과, String: 실패 사유
+
+    Entry(long seq, String query, String sql, List<String> params, double elapsedMs, boolean success) {
+      this.seq = seq;
+      this.at = Instant.now();
+      this.query = query;
+      this.sql = sql;
+      this.params = params;
+      this.elapsedMs = elapsedMs;
+      this.success = success;
+      this.thread = Thread.currentThread().getName();
+    }
+
+    Map<String, Object> toMap() {
+      Map<String, Object> m = new LinkedHashMap<>();
+      m.put("seq", seq);
+      m.put("at", at.toString());
+      m.put("query", query);
+      m.put("elapsed_ms", elapsedMs);
+      m.put("success", success);
+      m.put("thread", thread);
+      m.put("sql", sql);
+      m.put("params", params);
+      m.put("explain", explain);
+      return m;
+    }
+  }
+
+  private final DataSource target;
+  private final long thresholdNanos;
+  private final int maxParamLength;
+  private final boolean explainEnabled;
+
+  private final Entry[] ring;
+  private long next; // 다음에 쓸 seq(ring 위치 = seq % capacity), this로 동기화
+
+  private final ThreadPoolExecutor explainer;
+
+  private final LongAdder recorded = new LongAdder();
+  private final LongAdder explained = new LongAdder();
+  private final LongAdder explainDropped = new LongAdder();
+  private final LongAdder explainFailed = new LongAdder();
+
+  public SlowQueryLog(DataSource target, long thresholdMillis, int capacity, int maxParamLength,
+      boolean explainEnabled, int explainQueueSize) {
+    this.target = target;
+    this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    this.maxParamLength = maxParamLength;
+    this.explainEnabled = explainEnabled;
+    this.ring = new Entry[Math.max(1, capacity)];
+    this.explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(Math.max(1, explainQueueSize)),
+        r -> {
+          Thread t = new Thread(r, "slow-query-explain");
+          t.setDaemon(true);
+          return t;
+        },
+        (r, executor) -> explainDropped.increment());
+  }
+
+  /**
+   * 기록 대상인지(문장마다 호출되므로 비교 한 번만)
+   */
+  boolean isSlow(long elapsedNanos) {
+    return elapsedNanos >= thresholdNanos;
+  }
+
+  /**
+   * 느린 문장 기록
+   * - params: 1번 자리표시자부터의 바인딩 값(없으면 null), 호출한 쪽 배열을 그대로 보관하지 않음
+   */
+  void record(String query, String sql, Object[] params, int paramCount, long elapsedNanos, boolean success) {
+    boolean sensitive = sql != null && sql.toLowerCase(Locale.ROOT).contains("password");
+
+    List<String> shown = new ArrayList<>(paramCount);
+    for (int i = 0; i < paramCount; i++)
+      shown.add(sensitive ? REDACTED : render(params[i]));
+
+    double elapsedMs = Math.round(elapsedNanos / 1_000.0) / 1_000.0;
+    Entry e;
+    synchronized (this) {
+      e = new Entry(next, query, truncate(sql, MAX_SQL_LENGTH), shown, elapsedMs, success);
+      ring[(int) (next % ring.length)] = e;
+      next++;
+    }
+    recorded.increment();
+
+    if (explainEnabled && success && !sensitive && isSelect(sql)) {
+      Object[] bind = paramCount == 0 ? new Object[0] : Arrays.copyOf(params, paramCount);
+      explainer.execute(() -> explain(e, sql, bind));
+    }
+  }
+
+  private void explain(Entry e, String sql, Object[] bind) {
+    try (Connection conn = target.getConnection();
+        PreparedStatement ps = conn.prepareStatement("EXPLAIN " + sql)) {
+      for (int i = 0; i < bind.length; i++)
+        ps.setObject(i + 1, bind[i]);
+
+      List<Map<String, Object>> rows = new ArrayList<>();
+      try (ResultSet rs = ps.executeQuery()) {
+        ResultSetMetaData meta = rs.getMetaData();
+        while (rs.next()) {
+          Map<String, Object> row = new LinkedHashMap<>();
+          for (int c = 1; c <= meta.getColumnCount(); c++)
+            row.put(meta.getColumnLabel(c), rs.getObject(c));
+          rows.add(row);
+        }
+      }
+      e.explain = rows;
+      explained.increment();
+    } catch (Exception ex) {
+      e.explain = "EXPLAIN 실패: " + ex.getMessage();
+      explainFailed.increment();
+      log.debug("slow query explain failed: {}", ex.toString());
+    }
+  }
+
+  // 앞의 주석/공백을 건너뛰고 SELECT로 시작하는지
+  static boolean isSelect(String sql) {
+    if (sql == null)
+      return false;
+    int i = 0;
+    while (i < sql.length()) {
+      if (Character.isWhitespace(sql.charAt(i))) {
+        i++;
+      } else if (sql.startsWith("/*", i)) {
+        int end = sql.indexOf("*/", i + 2);
+        if (end < 0)
+          return false;
+        i = end + 2;
+      } else {
+        break;
+      }
+    }
+    return sql.regionMatches(true, i, "SELECT", 0, 6);
+  }
+
+  private String render(Object v) {
+    if (v == null)
+      return "NULL";
+    if (v instanceof String s)
+      return "'" + truncate(s, maxParamLength) + "'";
+    if (v instanceof Number || v instanceof Boolean)
+      return v.toString();
+    return truncate(v.toString(), maxParamLength);
+  }
+
+  private static String truncate(String s, int max) {
+    if (s == null || s.length() <= max)
+      return s;
+    return s.substring(0, max) + "...(" + s.length() + ")";
+  }
+
+  /**
+   * 최근 느린 문장(최신순)
+   */
+  public List<Map<String, Object>> recent() {
+    List<Entry> entries = new ArrayList<>(ring.length);
+    synchronized (this) {
+      long from = Math.max(0, next - ring.length);
+      for (long seq = next - 1; seq >= from; seq--)
+        entries.add(ring[(int) (seq % ring.length)]);
+    }
+    List<Map<String, Object>> out = new ArrayList<>(entries.size());
+    for (Entry e : entries)
+      out.add(e.toMap());
+    return out;
+  }
+
+  public synchronized void clear() {
+    Arrays.fill(ring, null);
+    next = 0;
+  }
+
+  public Map<String, Object> stats() {
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("threshold_ms", TimeUnit.NANOSECONDS.toMillis(thresholdNanos));
+    s.put("capacity", ring.length);
+    s.put("recorded", recorded.sum());
+    s.put("explain_enabled", explainEnabled);
+    s.put("explain_queued", explainer.getQueue().size());
+    s.put("explained", explained.sum());
+    s.put("explain_dropped", explainDropped.sum());
+    s.put("explain_failed", explainFailed.sum());
+    return s;
+  }
+}
@@ -0,0 +1,203 @@
+package com.example.demo.user;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * BCrypt 해시/검증 전용 스레드 풀
+ *
+ * - BCrypt는 의도적으로 느린 CPU 작업이라 Tomcat 요청 스레드에서 돌리면
+ *   로그인이 몰릴 때 워커 스레드를 전부 잡아서 가벼운 조회까지 밀림
+ *   → CPU 코어 수 크기의 전용 풀 + 제한된 대기열에서만 실행
+ * - 대기열이 가득 차거나 wait-timeout-ms 안에 끝나지 않으면 BusyException(→ 429)
+ * - 비용(cost factor)은 app.password-hash.strength
+ *   → 저장된 해시의 cost가 설정과 다르면 needsRehash()가 true(로그인 성공 시 다시 해시해서 저장)
+ */
+@Component
+public class PasswordHasher {
+
+  /**
+   * 해시 풀이 바빠서 처리하지 못함(429로 응답)
+   */
+  public static class BusyException extends RuntimeException {
+    public BusyException(String message) {
+      super(message);
+    }
+  }
+
+  private final BCryptPasswordEncoder encoder;
+  private final int strength;
+  private final long waitTimeoutMillis;
+  private final int queueSize;
+  private final ThreadPoolExecutor pool;
+
+  private final LongAdder submitted = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder timedOut = new LongAdder();
+  private final LongAdder rehashed = new LongAdder();
+
+  // 대기열 대기 시간 / 해시 계산 시간(나노초)
+  private final LongAdder queueWaitNanos = new LongAdder();
+  private final LongAdder hashCount = new LongAdder();
+  private final LongAdder hashNanos = new LongAdder();
+  private final AtomicLong maxHashNanos = new AtomicLong();
+
+  public PasswordHasher(
+      @Value("${app.password-hash.strength:10}") int strength,
+      @Value("${app.password-hash.threads:0}") int threads,
+      @Value("${app.password-hash.queue-size:64}") int queueSize,
+      @Value("${app.password-hash.wait-timeout-ms:5000}") long waitTimeoutMillis) {
+
+    this.strength = strength;
+    this.encoder = new BCryptPasswordEncoder(strength);
+    this.waitTimeoutMillis = waitTimeoutMillis;
+    this.queueSize = queueSize;
+
+    int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger seq = new AtomicInteger();
+    this.pool = new ThreadPoolExecutor(
+        size, size,
+        60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(queueSize),
+        r -> {
+          Thread t = new Thread(r, "password-hash-" + seq.incrementAndGet());
+          t.setDaemon(true);
+          return t;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+    this.pool.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * 새 비밀번호 해시(설정된 cost)
+   */
+  public String encode(String rawPassword) {
+    return run(() -> encoder.encode(rawPassword));
+  }
+
+  /**
+   * 비밀번호 검증(해시에 들어 있는 cost로 계산)
+   */
+  public boolean matches(String rawPassword, String hash) {
+    return run(() -> encoder.matches(rawPassword, hash));
+  }
+
+  /**
+   * 저장된 해시의 cost가 현재 설정과 다르면 true
+   * - 형식: $2a$10$...(cost는 네 번째~다섯 번째 글자)
+   */
+  public boolean needsRehash(String hash) {
+    if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$')
+      return false;
+    try {
+      return Integer.parseInt(hash.substring(4, 6)) != strength;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  /**
+   * 로그인 성공 후 다시 해시(기다리지 않음)
+   * - 풀이 바쁘면 건너뜀(다음 로그인 때 다시 시도) → 로그인 자체는 실패시키지 않음
+   * - 반환 future는 새 해시로 완료, 건너뛰면 null로 완료
+   */
+  public CompletableFuture<String> rehashAsync(String rawPassword) {
+    try {
+      CompletableFuture<String> f = submit(() -> encoder.encode(rawPassword));
+      return f.thenApply(hash -> {
+        rehashed.increment();
+        return hash;
+      });
+    } catch (BusyException e) {
+      return CompletableFuture.completedFuture(null);
+    }
+  }
+
+  // 풀에서 실행하고 결과를 기다림
+  private <T> T run(Supplier<T> task) {
+    CompletableFuture<T> f = submit(task);
+    try {
+      return f.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      // 아직 대기열에 있으면 실행되지 않음
+      f.cancel(false);
+      timedOut.increment();
+      throw new BusyException("password hash timed out");
+    } catch (InterruptedException e) {
+      f.cancel(false);
+      Thread.currentThread().interrupt();
+      throw new BusyException("interrupted");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re)
+        throw re;
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  // 대기열이 가득 차면 BusyException
+  private <T> CompletableFuture<T> submit(Supplier<T> task) {
+    long enqueued = System.nanoTime();
+    try {
+      CompletableFuture<T> f = CompletableFuture.supplyAsync(() -> {
+        // 대기열 대기 시간 + 계산 시간 기록
+        long started = System.nanoTime();
+        queueWaitNanos.add(started - enqueued);
+        try {
+          return task.get();
+        } finally {
+          long took = System.nanoTime() - started;
+          hashCount.increment();
+          hashNanos.add(took);
+          maxHashNanos.accumulateAndGet(took, Math::max);
+        }
+      }, pool);
+      submitted.increment();
+      return f;
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw new BusyException("password hash queue full");
+    }
+  }
+
+  public Map<String, Object> stats() {
+    long count = hashCount.sum();
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("strength", strength);
+    s.put("threads", pool.getMaximumPoolSize());
+    s.put("active", pool.getActiveCount());
+    s.put("queued", pool.getQueue().size());
+    s.put("queue_capacity", queueSize);
+    s.put("submitted", submitted.sum());
+    s.put("rejected", rejected.sum());
+    s.put("timed_out", timedOut.sum());
+    s.put("rehashed", rehashed.sum());
+    s.put("hashes", count);
+    s.put("avg_hash_ms", count == 0 ? 0.0 : Math.round(hashNanos.sum() / (double) count / 1_000.0) / 1_000.0);
+    s.put("max_hash_ms", Math.round(maxHashNanos.get() / 1_000.0) / 1_000.0);
+    s.put("avg_queue_wait_ms",
+        count == 0 ? 0.0 : Math.round(queueWaitNanos.sum() / (double) count / 1_000.0) / 1_000.0);
+    return s;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    pool.shutdown();
+  }
+}
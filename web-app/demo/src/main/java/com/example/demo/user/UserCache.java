@@ -0,0 +1,227 @@
+package com.example.demo.user;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.support.ReadRouting;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * 사용자(users + user_profiles) read-through 캐시
+ *
+ * - 목록 화면에서 작성자 정보를 user_id마다 따로 조회하던 것을 줄이기 위한 공용 캐시
+ * - 단건(GET /users/{userId}, GET /me/profile)과 여러 건(GET /users?ids=...)이 같은 캐시를 사용
+ * - 2단계: 노드별 near cache(Caffeine) → 공유 Redis 계층(UserRedisTier, 선택) → DB
+ * - 여러 건 조회는 캐시에 없는 id만 모아서 한 번에 로드(Redis는 MGET, DB는 IN)
+ * - 무효화: PUT /me/profile
+ *   → Redis 계층이 켜져 있으면 pub/sub으로 모든 노드의 near cache에서도 지움
+ *   → 꺼져 있으면 다른 노드의 수정은 ttl-ms 이내에 반영
+ */
+@Component
+public class UserCache {
+
+  /**
+   * 캐시 항목(users LEFT JOIN user_profiles 한 행, 프로필 컬럼은 null 가능)
+   */
+  public record CachedUser(
+      int id,
+      String username,
+      String nickname,
+      String email,
+      String createdAt,
+      String bio,
+      String phone,
+      String birthDate,
+      String profileImageUrl,
+      String profileUpdatedAt) {
+  }
+
+  @FunctionalInterface
+  public interface Loader {
+    // 없으면 null
+    CachedUser load(int id) throws Exception;
+  }
+
+  @FunctionalInterface
+  public interface BulkLoader {
+    // 존재하는 사용자만 담아서 반환
+    Map<Integer, CachedUser> loadAll(List<Integer> ids) throws Exception;
+  }
+
+  /**
+   * 여러 건 조회 결과 + 이번 호출의 캐시 적중/미스 수
+   * - hits: near cache / redisHits: Redis 계층 / misses: DB에서 읽은 id 수
+   */
+  public record Lookup(Map<Integer, CachedUser> found, int hits, int redisHits, int misses) {
+  }
+
+  // null이면 캐시 비활성
+  private final Cache<Integer, CachedUser> cache;
+
+  private final long maxEntries;
+
+  // null이면 Redis 계층 없음(app.user-cache.redis.enabled=false)
+  private final UserRedisTier redisTier;
+
+  // 이 노드 near cache 무효화 횟수(지우기 전에 올림)
+  // - 여러 건 조회 도중 무효화가 있었으면 넣은 값을 다시 지움(수정 전 값이 TTL 동안 남지 않도록)
+  // - 단건 조회는 Caffeine이 로드 중인 키의 invalidate를 로드가 끝날 때까지 기다렸다가 지우므로 해당 없음
+  private final AtomicLong invalidations = new AtomicLong();
+
+  public UserCache(
+      @Value("${app.user-cache.enabled:true}") boolean enabled,
+      @Value("${app.user-cache.max-entries:100000}") long maxEntries,
+      @Value("${app.user-cache.ttl-ms:300000}") long ttlMillis,
+      ObjectProvider<UserRedisTier> redisTier) {
+    this.maxEntries = maxEntries;
+    this.redisTier = redisTier.getIfAvailable();
+    this.cache = !enabled ? null
+        : Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(Duration.ofMillis(ttlMillis))
+            .recordStats()
+            .build();
+  }
+
+  /**
+   * 단건 조회, 없으면 loader로 읽어서 저장(없는 사용자는 저장하지 않음)
+   */
+  public CachedUser get(int id, Loader loader) throws Exception {
+    if (cache == null)
+      return loadThrough(id, loader);
+
+    try {
+      return cache.get(id, k -> {
+        try {
+          return loadThrough(k, loader);
+        } catch (Exception e) {
+          throw new CompletionException(e);
+        }
+      });
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof Exception cause)
+        throw cause;
+      throw e;
+    }
+  }
+
+  // near cache 미스: Redis → DB(읽은 값은 Redis에도 저장)
+  // - 캐시에 넣을 값은 primary에서 읽음(복제 지연된 값을 TTL 동안 들고 있지 않도록)
+  private CachedUser loadThrough(int id, Loader loader) throws Exception {
+    if (redisTier != null) {
+      CachedUser u = redisTier.get(id);
+      if (u != null)
+        return u;
+    }
+
+    CachedUser u = cache == null && redisTier == null
+        ? loader.load(id)
+        : ReadRouting.onPrimary(() -> loader.load(id));
+    if (u != null && redisTier != null)
+      redisTier.put(u);
+    return u;
+  }
+
+  /**
+   * 여러 건 조회
+   * - near cache에 있는 것은 그대로, 없는 id는 Redis MGET → 그래도 없는 id만 loader 한 번으로 읽어서 저장
+   * - ids는 중복 없이 넘겨야 함
+   * - 조회 도중 무효화가 있었으면 결과는 그대로 반환하고 캐시에서는 다시 지움
+   */
+  public Lookup getAll(Collection<Integer> ids, BulkLoader loader) throws Exception {
+    long epoch = invalidations.get();
+    Map<Integer, CachedUser> found = new HashMap<>();
+    if (cache != null)
+      found.putAll(cache.getAllPresent(ids));
+    int hits = found.size();
+
+    List<Integer> missing = ids.stream().filter(id -> !found.containsKey(id)).toList();
+
+    int redisHits = 0;
+    if (redisTier != null && !missing.isEmpty()) {
+      Map<Integer, CachedUser> shared = redisTier.getAll(missing);
+      redisHits = shared.size();
+      putLocal(shared, epoch);
+      found.putAll(shared);
+      missing = missing.stream().filter(id -> !shared.containsKey(id)).toList();
+    }
+
+    if (!missing.isEmpty()) {
+      List<Integer> toLoad = missing;
+      Map<Integer, CachedUser> loaded = cache == null && redisTier == null
+          ? loader.loadAll(toLoad)
+          : ReadRouting.onPrimary(() -> loader.loadAll(toLoad));
+      putLocal(loaded, epoch);
+      // Redis 계층에 늦게 들어간 옛 값은 double delete가 지움
+      if (redisTier != null && invalidations.get() == epoch)
+        redisTier.putAll(loaded);
+      found.putAll(loaded);
+    }
+
+    return new Lookup(found, hits, redisHits, missing.size());
+  }
+
+  // 넣은 뒤에 확인: 그 사이 무효화가 있었으면 지움, 확인 뒤의 무효화는 넣은 값을 직접 지움
+  private void putLocal(Map<Integer, CachedUser> users, long epoch) {
+    if (cache == null || users.isEmpty())
+      return;
+    cache.putAll(users);
+    if (invalidations.get() != epoch)
+      cache.invalidateAll(users.keySet());
+  }
+
+  /**
+   * 사용자 정보 변경 시 호출(DB 커밋 후)
+   * - 이 노드 near cache + Redis 계층에서 지우고 다른 노드에 무효화 메시지 발행
+   */
+  public void invalidate(int id) {
+    evictLocal(id);
+    if (redisTier != null)
+      redisTier.invalidate(id);
+  }
+
+  // 이 노드 near cache에서만 지움(무효화 메시지 수신 시)
+  public void evictLocal(int id) {
+    invalidations.incrementAndGet();
+    if (cache != null)
+      cache.invalidate(id);
+  }
+
+  // Redis 계층 킬 스위치(계층이 없으면 false)
+  public boolean setRedisEnabled(boolean enabled) {
+    if (redisTier == null)
+      return false;
+    redisTier.setEnabled(enabled);
+    return true;
+  }
+
+  public Map<String, Object> stats() {
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("enabled", cache != null);
+    s.put("redis", redisTier == null ? Map.of("configured", false) : redisTier.stats());
+    if (cache == null)
+      return s;
+
+    CacheStats st = cache.stats();
+    s.put("entries", cache.estimatedSize());
+    s.put("max_entries", maxEntries);
+    s.put("hits", st.hitCount());
+    s.put("misses", st.missCount());
+    s.put("hit_rate", st.hitRate());
+    s.put("evictions", st.evictionCount());
+    s.put("load_failures", st.loadFailureCount());
+    return s;
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.user;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * 사용자 캐시 Redis 계층 + 무효화 구독
+ *
+ * - app.user-cache.redis.enabled=true 일 때만 등록(기본 false → 노드별 near cache만 사용)
+ * - 다른 노드가 보낸 무효화 메시지를 받으면 이 노드의 near cache에서 해당 사용자를 지움
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.user-cache.redis", name = "enabled", havingValue = "true")
+public class UserCacheRedisConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(UserCacheRedisConfig.class);
+
+  @Bean
+  public UserRedisTier userRedisTier(
+      StringRedisTemplate redis,
+      JsonMapper jsonMapper,
+      @Value("${app.user-cache.redis.key-prefix:user:}") String keyPrefix,
+      @Value("${app.user-cache.redis.channel:user-cache:invalidate}") String channel,
+      @Value("${app.user-cache.redis.ttl-ms:3600000}") long ttlMillis,
+      @Value("${app.user-cache.redis.double-delete-ms:500}") long doubleDeleteMillis) {
+    return new UserRedisTier(redis, jsonMapper, keyPrefix, channel, Duration.ofMillis(ttlMillis), doubleDeleteMillis);
+  }
+
+  @Bean
+  public RedisMessageListenerContainer userCacheInvalidationListener(
+      RedisConnectionFactory connectionFactory,
+      UserRedisTier tier,
+      UserCache userCache) {
+
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    container.addMessageListener((message, pattern) -> {
+      String body = new String(message.getBody(), StandardCharsets.UTF_8);
+      Integer userId = tier.parseMessage(body);
+      if (userId == null) {
+        log.warn("ignoring malformed user cache invalidation: {}", body);
+        return;
+      }
+      // 자기 노드가 보낸 메시지도 지움(double delete 사이에 옛 값이 다시 들어왔을 수 있음)
+      userCache.evictLocal(userId);
+    }, new ChannelTopic(tier.channel()));
+    return container;
+  }
+}
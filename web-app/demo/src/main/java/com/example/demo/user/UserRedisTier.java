@@ -0,0 +1,196 @@
+package com.example.demo.user;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+
+import com.example.demo.user.UserCache.CachedUser;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * 사용자 캐시의 공유 계층(Redis) + 노드 간 무효화 메시지
+ *
+ * - key: {prefix}{user_id} / value: CachedUser JSON / ttl-ms 후 만료
+ * - 무효화: 키 삭제 + channel에 "{node_id}:{user_id}" 발행
+ *   → 모든 노드가 자기 near cache에서 해당 사용자를 지움(UserCacheRedisConfig)
+ * - 수정 직전에 DB에서 읽은 옛 값을 다른 노드가 늦게 써 넣을 수 있으므로
+ *   double-delete-ms 뒤에 한 번 더 삭제 + 발행
+ * - 조회/저장 중 Redis 오류는 캐시 미스로 처리(요청은 실패시키지 않음)
+ * - enabled=false(킬 스위치)면 조회/저장은 건너뛰고 무효화(삭제 + 발행)만 계속 함
+ */
+public class UserRedisTier {
+
+  private static final Logger log = LoggerFactory.getLogger(UserRedisTier.class);
+
+  private final StringRedisTemplate redis;
+  private final JsonMapper jsonMapper;
+  private final String keyPrefix;
+  private final String channel;
+  private final Duration ttl;
+  private final long doubleDeleteMillis;
+
+  // 무효화 메시지에 실어 보내는 노드 식별자(추적용)
+  private final String nodeId = UUID.randomUUID().toString();
+
+  private volatile boolean enabled = true;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong writes = new AtomicLong();
+  private final AtomicLong published = new AtomicLong();
+  private final AtomicLong received = new AtomicLong();
+  private final AtomicLong redisErrors = new AtomicLong();
+
+  public UserRedisTier(StringRedisTemplate redis, JsonMapper jsonMapper, String keyPrefix, String channel,
+      Duration ttl, long doubleDeleteMillis) {
+    this.redis = redis;
+    this.jsonMapper = jsonMapper;
+    this.keyPrefix = keyPrefix;
+    this.channel = channel;
+    this.ttl = ttl;
+    this.doubleDeleteMillis = doubleDeleteMillis;
+  }
+
+  public String channel() {
+    return channel;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    log.info("user cache redis tier {}", enabled ? "enabled" : "disabled");
+  }
+
+  // 없거나 오류면 null
+  public CachedUser get(int id) {
+    if (!enabled)
+      return null;
+    try {
+      String json = redis.opsForValue().get(keyPrefix + id);
+      if (json == null) {
+        misses.incrementAndGet();
+        return null;
+      }
+      hits.incrementAndGet();
+      return jsonMapper.readValue(json, CachedUser.class);
+    } catch (Exception e) {
+      onError("get", e);
+      return null;
+    }
+  }
+
+  // MGET 한 번으로 조회, 찾은 것만 반환
+  public Map<Integer, CachedUser> getAll(List<Integer> ids) {
+    Map<Integer, CachedUser> found = new HashMap<>();
+    if (!enabled || ids.isEmpty())
+      return found;
+    try {
+      List<String> values = redis.opsForValue().multiGet(ids.stream().map(id -> keyPrefix + id).toList());
+      for (int i = 0; i < ids.size(); i++) {
+        String json = values == null ? null : values.get(i);
+        if (json != null)
+          found.put(ids.get(i), jsonMapper.readValue(json, CachedUser.class));
+      }
+      hits.addAndGet(found.size());
+      misses.addAndGet(ids.size() - found.size());
+    } catch (Exception e) {
+      onError("mget", e);
+    }
+    return found;
+  }
+
+  public void put(CachedUser u) {
+    putAll(Map.of(u.id(), u));
+  }
+
+  // SET PX를 파이프라인으로 한 번에
+  public void putAll(Map<Integer, CachedUser> users) {
+    if (!enabled || users.isEmpty())
+      return;
+    try {
+      Map<byte[], byte[]> entries = new HashMap<>();
+      for (CachedUser u : users.values())
+        entries.put((keyPrefix + u.id()).getBytes(StandardCharsets.UTF_8), jsonMapper.writeValueAsBytes(u));
+
+      Expiration expiration = Expiration.from(ttl);
+      redis.executePipelined((RedisCallback<Object>) conn -> {
+        entries.forEach((k, v) -> conn.stringCommands().set(k, v, expiration, SetOption.upsert()));
+        return null;
+      });
+      writes.addAndGet(users.size());
+    } catch (Exception e) {
+      onError("set", e);
+    }
+  }
+
+  /**
+   * 공유 계층에서 지우고 다른 노드에 알림
+   */
+  public void invalidate(int id) {
+    deleteAndPublish(id);
+    if (doubleDeleteMillis > 0)
+      CompletableFuture.delayedExecutor(doubleDeleteMillis, TimeUnit.MILLISECONDS)
+          .execute(() -> deleteAndPublish(id));
+  }
+
+  private void deleteAndPublish(int id) {
+    try {
+      redis.delete(keyPrefix + id);
+      redis.convertAndSend(channel, nodeId + ":" + id);
+      published.incrementAndGet();
+    } catch (Exception e) {
+      onError("invalidate", e);
+    }
+  }
+
+  /**
+   * 무효화 메시지 해석, 형식 오류면 null
+   */
+  public Integer parseMessage(String message) {
+    received.incrementAndGet();
+    int sep = message.lastIndexOf(':');
+    try {
+      return Integer.valueOf(message.substring(sep + 1));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private void onError(String op, Exception e) {
+    if (redisErrors.incrementAndGet() % 1000 == 1)
+      log.warn("user cache redis {} failed, falling back: {}", op, e.toString());
+  }
+
+  public Map<String, Object> stats() {
+    Map<String, Object> s = new LinkedHashMap<>();
+    s.put("enabled", enabled);
+    s.put("node_id", nodeId);
+    s.put("ttl_ms", ttl.toMillis());
+    s.put("double_delete_ms", doubleDeleteMillis);
+    s.put("hits", hits.get());
+    s.put("misses", misses.get());
+    s.put("writes", writes.get());
+    s.put("invalidations_published", published.get());
+    s.put("invalidations_received", received.get());
+    s.put("redis_errors", redisErrors.get());
+    return s;
+  }
+}
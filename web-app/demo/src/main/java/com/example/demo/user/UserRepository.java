@@ -0,0 +1,236 @@
+package com.example.demo.user;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.support.InList;
+import com.example.demo.user.UserCache.CachedUser;
+
+/**
+ * users / user_profiles 테이블 접근
+ *
+ * - PostRepository와 같은 규칙: 상수 SQL, 고정 컬럼 순서 + 인덱스 매핑
+ * - IN (...) 조회는 자리표시자 개수를 InList.slots로 맞춤
+ * - 프로필 UPSERT는 INSERT ... ON DUPLICATE KEY UPDATE 한 문장(트랜잭션/추가 왕복 없음)
+ * - SQL 앞의 주석은 메트릭의 query 이름(InstrumentedDataSource)
+ */
+@Repository
+public class UserRepository {
+
+  // 1:id 2:username 3:nickname 4:email 5:created_at
+  // 6:bio 7:phone 8:birth_date 9:profile_image_url 10:updated_at
+  private static final String USER_COLUMNS = """
+      SELECT u.id, u.username, u.nickname, u.email, u.created_at,
+             p.bio, p.phone, p.birth_date, p.profile_image_url, p.updated_at
+      FROM users u
+      LEFT JOIN user_profiles p ON u.id = p.user_id
+      """;
+
+  private static final String EXISTS_USERNAME_SQL = "/* user.existsByUsername */ SELECT id FROM users WHERE username = ? LIMIT 1";
+  private static final String CREDENTIALS_SQL = "/* user.credentials */ SELECT id, password FROM users WHERE username = ? LIMIT 1";
+  private static final String INSERT_SQL = "/* user.insert */ INSERT INTO users (username, password, nickname) VALUES (?, ?, ?)";
+  private static final String REHASH_SQL = "/* user.rehash */ UPDATE users SET password = ? WHERE id = ? AND password = ?";
+
+  // 게시글 작성자 + 댓글 첫 페이지 작성자(IN 서브쿼리 안에서 LIMIT은 직접 못 쓰므로 파생 테이블로 감쌈)
+  private static final String PAGE_AUTHORS_SQL = "/* user.pageAuthors */ " + USER_COLUMNS + """
+      WHERE u.id IN (
+        SELECT user_id FROM posts WHERE id = ?
+        UNION
+        SELECT c.user_id
+        FROM (
+          SELECT user_id
+          FROM comments
+          WHERE post_id = ?
+          ORDER BY id ASC
+          LIMIT ?
+        ) c
+      )
+      """;
+
+  // updated_at을 CURRENT_TIMESTAMP로 직접 갱신(값이 같아도 "수정 시각"은 바뀌도록)
+  private static final String UPSERT_PROFILE_SQL = """
+      /* user.upsertProfile */
+      INSERT INTO user_profiles (user_id, bio, phone, birth_date, profile_image_url)
+      VALUES (?, ?, ?, ?, ?)
+      ON DUPLICATE KEY UPDATE
+        bio = ?,
+        phone = ?,
+        birth_date = ?,
+        profile_image_url = ?,
+        updated_at = CURRENT_TIMESTAMP
+      """;
+
+  /**
+   * 로그인 검증용(id + 비밀번호 해시)
+   */
+  public record Credentials(int id, String passwordHash) {
+  }
+
+  // 자리표시자 개수(InList.slots)별 WHERE u.id IN (...) 문장
+  private final Map<Integer, String> findByIdsSql = new ConcurrentHashMap<>();
+
+  private final DataSource dataSource;
+
+  public UserRepository(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  private static CachedUser mapRow(ResultSet rs) throws SQLException {
+    return new CachedUser(
+        rs.getInt(1),
+        rs.getString(2),
+        rs.getString(3),
+        rs.getString(4),
+        rs.getString(5),
+        rs.getString(6),
+        rs.getString(7),
+        rs.getString(8),
+        rs.getString(9),
+        rs.getString(10));
+  }
+
+  public boolean existsByUsername(String username) throws SQLException {
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(EXISTS_USERNAME_SQL)) {
+      ps.setString(1, username);
+      try (ResultSet rs = ps.executeQuery()) {
+        return rs.next();
+      }
+    }
+  }
+
+  /**
+   * username으로 id + 해시 조회, 없으면 null
+   */
+  public Credentials findCredentials(String username) throws SQLException {
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(CREDENTIALS_SQL)) {
+      ps.setString(1, username);
+      try (ResultSet rs = ps.executeQuery()) {
+        if (!rs.next())
+          return null;
+        return new Credentials(rs.getInt(1), rs.getString(2));
+      }
+    }
+  }
+
+  /**
+   * users INSERT, 생성된 user_id 반환
+   */
+  public int insert(String username, String passwordHash, String nickname) throws SQLException {
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+      ps.setString(1, username);
+      ps.setString(2, passwordHash);
+      ps.setString(3, nickname);
+      ps.executeUpdate();
+
+      try (ResultSet keys = ps.getGeneratedKeys()) {
+        if (!keys.next())
+          throw new SQLException("생성된 user_id 키 없음");
+        return keys.getInt(1);
+      }
+    }
+  }
+
+  /**
+   * 비밀번호 해시 교체(rehash)
+   * - 그 사이 비밀번호가 바뀌었으면(password가 옛 해시와 다르면) 덮어쓰지 않음
+   */
+  public boolean updatePasswordHash(int userId, String oldHash, String newHash) throws SQLException {
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(REHASH_SQL)) {
+      ps.setString(1, newHash);
+      ps.setInt(2, userId);
+      ps.setString(3, oldHash);
+      return ps.executeUpdate() > 0;
+    }
+  }
+
+  /**
+   * 사용자 단건(UserCache loader), 없으면 null
+   */
+  public CachedUser findById(int userId) throws SQLException {
+    return findAllById(List.of(userId)).get(userId);
+  }
+
+  /**
+   * 사용자 여러 건(UserCache bulk loader), 없는 id는 결과에 없음
+   */
+  public Map<Integer, CachedUser> findAllById(List<Integer> ids) throws SQLException {
+    Map<Integer, CachedUser> found = new HashMap<>();
+    if (ids.isEmpty())
+      return found;
+
+    int slots = InList.slots(ids.size());
+    String sql = findByIdsSql.computeIfAbsent(slots,
+        n -> "/* user.byIds */ " + USER_COLUMNS + "WHERE u.id IN (" + InList.placeholders(n) + ")");
+
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(sql)) {
+      for (int i = 0; i < slots; i++)
+        ps.setInt(i + 1, ids.get(Math.min(i, ids.size() - 1)));
+
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          CachedUser u = mapRow(rs);
+          found.put(u.id(), u);
+        }
+      }
+    }
+    return found;
+  }
+
+  /**
+   * 게시글 작성자 + 댓글 첫 페이지(commentLimit건) 작성자
+   * - user_id 목록을 서브쿼리로 구하므로 게시글/댓글 조회 결과를 기다릴 필요 없음
+   */
+  public List<CachedUser> findPageAuthors(int postId, int commentLimit) throws SQLException {
+    List<CachedUser> authors = new ArrayList<>();
+
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(PAGE_AUTHORS_SQL)) {
+      ps.setInt(1, postId);
+      ps.setInt(2, postId);
+      ps.setInt(3, commentLimit);
+
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next())
+          authors.add(mapRow(rs));
+      }
+    }
+    return authors;
+  }
+
+  /**
+   * 프로필 UPSERT(user_profiles.user_id가 PK라 없으면 INSERT, 있으면 UPDATE)
+   */
+  public void upsertProfile(int userId, String bio, String phone, String birthDate, String profileImageUrl)
+      throws SQLException {
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(UPSERT_PROFILE_SQL)) {
+      ps.setInt(1, userId);
+      ps.setString(2, bio);
+      ps.setString(3, phone);
+      ps.setString(4, birthDate); // DATE 컬럼에 "YYYY-MM-DD" 문자열 가능
+      ps.setString(5, profileImageUrl);
+      ps.setString(6, bio);
+      ps.setString(7, phone);
+      ps.setString(8, birthDate);
+      ps.setString(9, profileImageUrl);
+      ps.executeUpdate();
+    }
+  }
+}
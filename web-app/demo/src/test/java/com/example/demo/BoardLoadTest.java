@@ -0,0 +1,469 @@
+package com.example.demo;
+
+import java.io.PrintStream;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * 게시판 트래픽 모양으로 API 전체를 두드리는 부하 테스트(gradle loadTest)
+ *
+ * - 앱을 임의 포트로 띄우고 H2(MySQL 모드) 메모리 DB에 시드 데이터를 넣어서 실행(application-loadtest.yml)
+ * - 가상 사용자마다 로그인 세션(쿠키)을 들고 mix 비율대로 요청을 반복(닫힌 루프, think time 선택)
+ *   list    : GET /posts?page=1..50 (load.list-pages로 범위 변경)
+ *   search  : GET /posts?type=title&keyword=(공지|질문|후기|자유|정보)&page=1..5
+ *   detail  : GET /posts/{id} (조회수 기록 포함)
+ *   comments: GET /posts/{id}/comments?limit=50 (댓글 첫 페이지)
+ *   comment : POST /posts/{id}/comments → DELETE /comments/{id} (comment_create / comment_delete로 따로 기록)
+ *   login   : POST /login (BCrypt 검증)
+ *   deep    : 같은 위치를 page=N(OFFSET)과 after_id(커서)로 번갈아 조회, 깊이별로 따로 기록
+ *             (deep_page_N / deep_after_N, N은 load.deep-pages, pageSize 20)
+ * - 엔드포인트별 HdrHistogram(µs): p50/p95/p99/max + 처리량, 실패 수(HTTP 오류 또는 ok:false)
+ * - 결과: build/reports/loadtest/summary.json + {endpoint}.hgrm
+ *   + metrics.prom(실행 직후 서버의 /actuator/prometheus: 쿼리별 db.query, 커넥션 대기 등)
+ *   + row_locks(MySQL/MariaDB로 실행했을 때만: 측정 구간의 InnoDB 행 락 대기 횟수/시간)
+ *   이전 실행의 summary.json이 있으면 summary.previous.json으로 옮기고 p99/처리량 변화를 같이 출력
+ * - 닫힌 루프라 서버가 느려지면 요청 수 자체가 줄어듦(coordinated omission) → 비교는 같은 설정끼리
+ *
+ * 설정(-P로 넘기면 시스템 프로퍼티로 전달):
+ *   load.users=32 load.seconds=30 load.warmup-seconds=5 load.think-ms=0
+ *   load.mix=list:40,search:15,detail:30,comment:10,login:5
+ *   load.hot-posts=0 (양수면 detail/comments/comment 대상을 1..N번 글로 좁힘, 인기 글 경합 재현)
+ *   load.list-pages=50 (list가 고르는 페이지 범위 1..N, 앞쪽 페이지에 몰리는 실제 트래픽 재현)
+ *   load.deep-pages=1,100,1000,10000 (deep이 비교하는 깊이, 글 수보다 깊은 페이지는 건너뜀)
+ *   load.posts=20000 (시드보다 크면 시작 전에 게시글을 더 넣음, page=10000은 200000 필요)
+ *   예) 깊은 페이지 비교: gradle loadTest -Pload.mix=deep:100 -Pload.posts=200000
+ *   app.* / spring.* 도 그대로 앱 설정으로 전달(예: -Papp.comment-count.slots=0 으로 변경 전 방식,
+ *   -Pspring.datasource.url=jdbc:mysql://... -Pspring.sql.init.mode=never 로 H2 대신 MySQL)
+ */
+@Tag("load")
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BoardLoadTest {
+
+	private static final int POSTS = 20_000;
+	private static final int DEEP_PAGE_SIZE = 20;
+	private static final int USERS = 200;
+	private static final String PASSWORD = "load1234";
+	private static final String[] KEYWORDS = { "공지", "질문", "후기", "자유", "정보" };
+	private static final Path REPORT_DIR = Path.of("build", "reports", "loadtest");
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private DataSource dataSource;
+
+	// 측정 시작 시점의 InnoDB 행 락 누계(H2면 null)
+	private Map<String, Long> rowLocksAtStart;
+
+	private final JsonMapper mapper = JsonMapper.builder().build();
+
+	private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+	private volatile boolean recording;
+
+	// detail/comment 대상 게시글 범위(1..targetPosts)
+	private int targetPosts = POSTS;
+
+	// list 페이지 범위(1..listPages)
+	private int listPages = 50;
+
+	// deep이 비교하는 깊이(페이지 번호)와 그 페이지 첫 글 바로 위 id(after_id)
+	private int[] deepPages = {};
+	private int[] deepAnchors = {};
+
+	/**
+	 * 엔드포인트별 지연 시간 기록(여러 스레드에서 동시에 기록 가능)
+	 */
+	private static final class Endpoint {
+		final Recorder recorder = new Recorder(TimeUnit.MINUTES.toMicros(1), 3);
+		final LongAdder failures = new LongAdder();
+		Histogram result;
+	}
+
+	@Test
+	void runBoardMix() throws Exception {
+		int users = Integer.getInteger("load.users", 32);
+		int seconds = Integer.getInteger("load.seconds", 30);
+		int warmupSeconds = Integer.getInteger("load.warmup-seconds", 5);
+		long thinkMillis = Long.getLong("load.think-ms", 0);
+		Map<String, Integer> mix = parseMix(System.getProperty("load.mix", "list:40,search:15,detail:30,comment:10,login:5"));
+		int hotPosts = Integer.getInteger("load.hot-posts", 0);
+		if (hotPosts > 0)
+			targetPosts = Math.min(hotPosts, POSTS);
+		listPages = Math.max(1, Integer.getInteger("load.list-pages", 50));
+		int posts = Math.max(POSTS, Integer.getInteger("load.posts", POSTS));
+		if (mix.containsKey("deep"))
+			prepareDeepPages(posts, System.getProperty("load.deep-pages", "1,100,1000,10000"));
+
+		for (String name : List.of("list", "search", "detail", "comments", "comment_create", "comment_delete", "login"))
+			endpoints.put(name, new Endpoint());
+		for (int page : deepPages) {
+			endpoints.put("deep_page_" + page, new Endpoint());
+			endpoints.put("deep_after_" + page, new Endpoint());
+		}
+
+		System.out.printf("load: users=%d seconds=%d warmup=%d think=%dms mix=%s posts=1..%d list-pages=1..%d%n",
+				users, seconds, warmupSeconds, thinkMillis, mix, targetPosts, listPages);
+
+		long warmupEnds = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+		long ends = warmupEnds + TimeUnit.SECONDS.toNanos(seconds);
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int u = 0; u < users; u++) {
+				int userNo = u % USERS + 1;
+				executor.submit(() -> {
+					VirtualUser vu = new VirtualUser(userNo);
+					// 동시에 로그인하면 BCrypt 풀이 429로 거절할 수 있음 → 세션을 얻을 때까지 재시도(예열 구간)
+					for (int attempt = 0; attempt < 50 && vu.send("login", vu.login()) == null; attempt++)
+						Thread.sleep(100);
+					while (System.nanoTime() < ends) {
+						if (!recording && System.nanoTime() >= warmupEnds)
+							startRecording();
+						vu.step(pick(mix));
+						if (thinkMillis > 0)
+							Thread.sleep(thinkMillis);
+					}
+					return null;
+				});
+			}
+		}
+
+		report(seconds, rowLockDelta());
+		saveServerMetrics();
+	}
+
+	// 게시글을 posts개까지 채우고(시드 뒤에 이어서), 깊이별 after_id 계산
+	// - id가 빈칸 없이 1..maxId라서 page=N의 첫 글은 maxId - (N-1)*pageSize
+	private void prepareDeepPages(int posts, String spec) throws SQLException {
+		int maxId = maxPostId();
+		if (maxId < posts) {
+			try (Connection conn = dataSource.getConnection();
+					PreparedStatement ps = conn.prepareStatement(
+							"INSERT INTO posts (user_id, title, content) VALUES (?, ?, ?)")) {
+				conn.setAutoCommit(false);
+				for (int id = maxId + 1; id <= posts; id++) {
+					ps.setInt(1, id % USERS + 1);
+					ps.setString(2, "게시글 " + id + " " + KEYWORDS[id % KEYWORDS.length]);
+					ps.setString(3, "부하 테스트용 본문입니다. 번호 " + id + ".");
+					ps.addBatch();
+					if (id % 1000 == 0)
+						ps.executeBatch();
+				}
+				ps.executeBatch();
+				conn.commit();
+				conn.setAutoCommit(true);
+			}
+			maxId = maxPostId();
+		}
+
+		List<Integer> pages = new ArrayList<>();
+		for (String part : spec.split(",")) {
+			int page = Integer.parseInt(part.trim());
+			if (page >= 1 && (long) page * DEEP_PAGE_SIZE <= maxId)
+				pages.add(page);
+			else
+				System.out.printf("load: deep page %d skipped (%d posts)%n", page, maxId);
+		}
+		if (pages.isEmpty())
+			throw new IllegalArgumentException("load.deep-pages: no page within " + maxId + " posts");
+		deepPages = pages.stream().mapToInt(Integer::intValue).toArray();
+		deepAnchors = new int[deepPages.length];
+		for (int i = 0; i < deepPages.length; i++)
+			deepAnchors[i] = maxId - (deepPages[i] - 1) * DEEP_PAGE_SIZE + 1;
+	}
+
+	private int maxPostId() throws SQLException {
+		try (Connection conn = dataSource.getConnection();
+				Statement st = conn.createStatement();
+				ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(id), 0) FROM posts")) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+
+	// 예열 구간 기록은 버리고 여기서부터 측정
+	private synchronized void startRecording() {
+		if (recording)
+			return;
+		for (Endpoint e : endpoints.values()) {
+			e.recorder.reset();
+			e.failures.reset();
+		}
+		rowLocksAtStart = rowLockStatus();
+		recording = true;
+	}
+
+	// InnoDB 행 락 누계(SHOW GLOBAL STATUS, MySQL/MariaDB 전용)
+	private Map<String, Long> rowLockStatus() {
+		Map<String, Long> status = new LinkedHashMap<>();
+		try (Connection conn = dataSource.getConnection();
+				Statement st = conn.createStatement();
+				ResultSet rs = st.executeQuery("SHOW GLOBAL STATUS LIKE 'Innodb_row_lock%'")) {
+			while (rs.next())
+				status.put(rs.getString(1).toLowerCase(Locale.ROOT), rs.getLong(2));
+		} catch (SQLException e) {
+			return null; // H2
+		}
+		return status.isEmpty() ? null : status;
+	}
+
+	// 측정 구간의 행 락 대기: 횟수, 합계(ms), 평균(ms), 서버 시작 이후 최대(ms)
+	private Map<String, Object> rowLockDelta() {
+		Map<String, Long> end = rowLockStatus();
+		if (rowLocksAtStart == null || end == null)
+			return null;
+		long waits = end.get("innodb_row_lock_waits") - rowLocksAtStart.get("innodb_row_lock_waits");
+		long time = end.get("innodb_row_lock_time") - rowLocksAtStart.get("innodb_row_lock_time");
+		Map<String, Object> m = new LinkedHashMap<>();
+		m.put("waits", waits);
+		m.put("time_ms", time);
+		m.put("avg_wait_ms", waits == 0 ? 0.0 : round(time / (double) waits));
+		m.put("max_wait_ms_since_start", end.get("innodb_row_lock_time_max"));
+		return m;
+	}
+
+	private static Map<String, Integer> parseMix(String spec) {
+		Map<String, Integer> mix = new LinkedHashMap<>();
+		for (String part : spec.split(",")) {
+			String[] kv = part.trim().split(":");
+			int weight = Integer.parseInt(kv[1].trim());
+			if (weight > 0)
+				mix.put(kv[0].trim(), weight);
+		}
+		return mix;
+	}
+
+	private static String pick(Map<String, Integer> mix) {
+		int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+		int r = ThreadLocalRandom.current().nextInt(total);
+		for (Map.Entry<String, Integer> e : mix.entrySet()) {
+			r -= e.getValue();
+			if (r < 0)
+				return e.getKey();
+		}
+		throw new IllegalStateException();
+	}
+
+	/**
+	 * 가상 사용자 한 명(자기 쿠키 = 자기 세션)
+	 */
+	private final class VirtualUser {
+
+		final int userNo;
+		final HttpClient client;
+		final String userAgent;
+
+		VirtualUser(int userNo) {
+			this.userNo = userNo;
+			this.client = HttpClient.newBuilder()
+					.cookieHandler(new CookieManager())
+					.connectTimeout(Duration.ofSeconds(5))
+					.build();
+			this.userAgent = "load-test/" + userNo + "-" + ThreadLocalRandom.current().nextInt(1_000_000);
+		}
+
+		void step(String op) throws Exception {
+			ThreadLocalRandom rnd = ThreadLocalRandom.current();
+			switch (op) {
+				case "list" -> send("list", get("/posts?page=" + rnd.nextInt(1, listPages + 1) + "&pageSize=20"));
+				case "search" -> send("search", get("/posts?type=title&pageSize=20&keyword="
+						+ java.net.URLEncoder.encode(KEYWORDS[rnd.nextInt(KEYWORDS.length)], StandardCharsets.UTF_8)
+						+ "&page=" + rnd.nextInt(1, 6)));
+				case "detail" -> send("detail", get("/posts/" + rnd.nextInt(1, targetPosts + 1)));
+				case "comments" -> send("comments", get("/posts/" + rnd.nextInt(1, targetPosts + 1) + "/comments?limit=50"));
+				case "comment" -> {
+					int postId = rnd.nextInt(1, targetPosts + 1);
+					JsonNode created = send("comment_create", post("/posts/" + postId + "/comments",
+							"{\"comment\":\"부하 테스트 댓글\"}"));
+					if (created != null)
+						send("comment_delete", delete("/comments/" + created.path("data").path("comment_id").asInt()));
+				}
+				case "login" -> send("login", login());
+				case "deep" -> {
+					int i = rnd.nextInt(deepPages.length);
+					if (rnd.nextBoolean())
+						send("deep_page_" + deepPages[i], get("/posts?page=" + deepPages[i] + "&pageSize=" + DEEP_PAGE_SIZE));
+					else
+						send("deep_after_" + deepPages[i], get("/posts?pageSize=" + DEEP_PAGE_SIZE + "&after_id=" + deepAnchors[i]));
+				}
+				default -> throw new IllegalArgumentException("unknown op: " + op);
+			}
+		}
+
+		HttpRequest login() {
+			return post("/login", "{\"username\":\"load" + userNo + "\",\"password\":\"" + PASSWORD + "\"}");
+		}
+
+		HttpRequest get(String path) {
+			return request(path).GET().build();
+		}
+
+		HttpRequest post(String path, String json) {
+			return request(path)
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(json))
+					.build();
+		}
+
+		HttpRequest delete(String path) {
+			return request(path).DELETE().build();
+		}
+
+		HttpRequest.Builder request(String path) {
+			return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api" + path))
+					.timeout(Duration.ofSeconds(30))
+					.header("User-Agent", userAgent);
+		}
+
+		/**
+		 * 요청 한 번 + 기록, 성공이면 응답 JSON(실패면 null)
+		 */
+		JsonNode send(String name, HttpRequest req) throws Exception {
+			Endpoint e = endpoints.get(name);
+			long started = System.nanoTime();
+			HttpResponse<String> res;
+			try {
+				res = client.send(req, HttpResponse.BodyHandlers.ofString());
+			} catch (Exception ex) {
+				e.failures.increment();
+				return null;
+			}
+			long micros = (System.nanoTime() - started) / 1_000;
+			e.recorder.recordValue(Math.min(micros, TimeUnit.MINUTES.toMicros(1)));
+
+			// 실패 응답은 { "ok": false, ... } 로 시작
+			if (res.statusCode() != 200 || res.body().startsWith("{\"ok\":false")) {
+				e.failures.increment();
+				return null;
+			}
+			return mapper.readTree(res.body());
+		}
+	}
+
+	// --------------------------------------------------
+	// 결과 출력/저장
+	// --------------------------------------------------
+
+	private void report(int seconds, Map<String, Object> rowLocks) throws Exception {
+		Files.createDirectories(REPORT_DIR);
+		Path summaryFile = REPORT_DIR.resolve("summary.json");
+		Path previousFile = REPORT_DIR.resolve("summary.previous.json");
+
+		JsonNode previous = null;
+		if (Files.exists(summaryFile)) {
+			Files.move(summaryFile, previousFile, StandardCopyOption.REPLACE_EXISTING);
+			previous = mapper.readTree(previousFile.toFile());
+		}
+
+		Map<String, Object> summary = new LinkedHashMap<>();
+		List<String> lines = new ArrayList<>();
+		lines.add(String.format("%-18s %8s %9s %9s %9s %9s %9s %7s %s",
+				"endpoint", "count", "req/s", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)", "fail", "vs previous"));
+
+		long totalCount = 0;
+		for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+			Endpoint e = entry.getValue();
+			Histogram h = e.recorder.getIntervalHistogram();
+			e.result = h;
+			long count = h.getTotalCount();
+			totalCount += count;
+
+			Map<String, Object> s = new LinkedHashMap<>();
+			s.put("count", count);
+			s.put("throughput", round(count / (double) seconds));
+			s.put("p50_ms", millis(h.getValueAtPercentile(50)));
+			s.put("p95_ms", millis(h.getValueAtPercentile(95)));
+			s.put("p99_ms", millis(h.getValueAtPercentile(99)));
+			s.put("max_ms", millis(h.getMaxValue()));
+			s.put("failures", e.failures.sum());
+			summary.put(entry.getKey(), s);
+
+			String delta = "";
+			if (previous != null && previous.has(entry.getKey())) {
+				JsonNode p = previous.get(entry.getKey());
+				delta = String.format("p99 %+.1f%% req/s %+.1f%%",
+						change(p.path("p99_ms").asDouble(), (double) s.get("p99_ms")),
+						change(p.path("throughput").asDouble(), (double) s.get("throughput")));
+			}
+			lines.add(String.format("%-18s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %7d %s",
+					entry.getKey(), count, s.get("throughput"), s.get("p50_ms"), s.get("p95_ms"), s.get("p99_ms"),
+					s.get("max_ms"), e.failures.sum(), delta));
+
+			if (count > 0) {
+				try (PrintStream out = new PrintStream(REPORT_DIR.resolve(entry.getKey() + ".hgrm").toFile(),
+						StandardCharsets.UTF_8)) {
+					// 값 단위 µs → ms로 출력
+					h.outputPercentileDistribution(out, 1000.0);
+				}
+			}
+		}
+		lines.add(String.format("%-18s %8d %9.1f", "total", totalCount, totalCount / (double) seconds));
+		if (rowLocks != null) {
+			summary.put("row_locks", rowLocks);
+			lines.add("innodb row lock waits: " + rowLocks);
+		}
+
+		Files.writeString(summaryFile, mapper.writerWithDefaultPrettyPrinter().writeValueAsString(summary));
+		lines.forEach(System.out::println);
+		System.out.println("report: " + REPORT_DIR.toAbsolutePath());
+	}
+
+	// 서버 쪽 분해(커넥션 대기 / 쿼리별 실행 / 트랜잭션)는 앱 메트릭으로 확인
+	private void saveServerMetrics() throws Exception {
+		HttpResponse<String> res = HttpClient.newHttpClient().send(
+				HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/actuator/prometheus")).build(),
+				HttpResponse.BodyHandlers.ofString());
+		if (res.statusCode() == 200)
+			Files.writeString(REPORT_DIR.resolve("metrics.prom"), res.body());
+	}
+
+	private static double millis(long micros) {
+		return round(micros / 1000.0);
+	}
+
+	private static double round(double v) {
+		return Math.round(v * 100) / 100.0;
+	}
+
+	private static double change(double before, double after) {
+		return before == 0 ? 0 : (after - before) / before * 100;
+	}
+}
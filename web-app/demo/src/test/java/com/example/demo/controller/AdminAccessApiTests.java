@@ -0,0 +1,65 @@
+package com.example.demo.controller;
+
+import static com.example.demo.controller.ApiClient.json;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import tools.jackson.databind.JsonNode;
+
+/**
+ * 운영 API 권한: app.admin.user-ids가 비어 있으면(기본값) 아무도 사용 불가, 적은 id만 허용
+ */
+@ActiveProfiles("apitest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AdminAccessApiTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Test
+	void disabledByDefault() throws Exception {
+		for (String username : new String[] { "api1", "api2", "api3" })
+			assertDenied(new ApiClient(port).login(username), username);
+		assertDenied(new ApiClient(port), "guest");
+	}
+
+	@Nested
+	// 설정이 달라 컨텍스트를 따로 띄우므로 메모리 DB도 따로
+	@TestPropertySource(properties = {
+			"app.admin.user-ids= 2 ,3",
+			"spring.datasource.url=jdbc:h2:mem:apitest-admin;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1" })
+	class Configured {
+
+		@LocalServerPort
+		private int configuredPort;
+
+		private ApiClient api1;
+
+		@BeforeEach
+		void setUp() throws Exception {
+			api1 = new ApiClient(configuredPort).login("api1");
+		}
+
+		@Test
+		void onlyListedUsersAreAllowed() throws Exception {
+			JsonNode allowed = json(new ApiClient(configuredPort).login("api2").get("/admin/search/stats"));
+			assertThat(allowed.path("ok").asBoolean()).isTrue();
+			assertThat(json(new ApiClient(configuredPort).login("api3").get("/admin/search/stats"))
+					.path("ok").asBoolean()).isTrue();
+			assertDenied(api1, "api1");
+		}
+	}
+
+	private static void assertDenied(ApiClient client, String who) throws Exception {
+		JsonNode res = json(client.get("/admin/search/stats"));
+		assertThat(res.path("ok").asBoolean()).as(who).isFalse();
+		assertThat(res.path("message").asString()).as(who).isEqualTo("권한 없음");
+	}
+}
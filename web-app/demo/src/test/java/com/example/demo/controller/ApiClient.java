@@ -0,0 +1,80 @@
+package com.example.demo.controller;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * API 테스트용 HTTP 클라이언트(자기 쿠키 = 자기 세션)
+ *
+ * - 앱은 @SpringBootTest(RANDOM_PORT) + @ActiveProfiles("apitest")로 띄움(application-apitest.yml)
+ * - 헤더는 name, value 순서로 넘김(If-None-Match 등)
+ */
+final class ApiClient {
+
+	private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+	private final int port;
+	private final HttpClient client = HttpClient.newBuilder()
+			.cookieHandler(new CookieManager())
+			.connectTimeout(Duration.ofSeconds(5))
+			.build();
+
+	ApiClient(int port) {
+		this.port = port;
+	}
+
+	ApiClient login(String username) throws Exception {
+		JsonNode res = json(post("/login", "{\"username\":\"" + username + "\",\"password\":\"load1234\"}"));
+		if (!res.path("ok").asBoolean())
+			throw new IllegalStateException("login failed: " + res);
+		return this;
+	}
+
+	HttpResponse<String> get(String path, String... headers) throws Exception {
+		return send(request(path, headers).GET().build());
+	}
+
+	HttpResponse<String> post(String path, String json) throws Exception {
+		return send(request(path).header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(json)).build());
+	}
+
+	HttpResponse<String> put(String path, String json) throws Exception {
+		return send(request(path).header("Content-Type", "application/json")
+				.PUT(HttpRequest.BodyPublishers.ofString(json)).build());
+	}
+
+	HttpResponse<String> delete(String path) throws Exception {
+		return send(request(path).DELETE().build());
+	}
+
+	// 200 응답 본문의 { "ok": ..., "data": ... }
+	static JsonNode json(HttpResponse<String> res) {
+		if (res.statusCode() != 200)
+			throw new IllegalStateException("HTTP " + res.statusCode() + ": " + res.body());
+		return MAPPER.readTree(res.body());
+	}
+
+	static JsonNode data(HttpResponse<String> res) {
+		return json(res).path("data");
+	}
+
+	private HttpResponse<String> send(HttpRequest req) throws Exception {
+		return client.send(req, HttpResponse.BodyHandlers.ofString());
+	}
+
+	private HttpRequest.Builder request(String path, String... headers) {
+		HttpRequest.Builder b = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api" + path))
+				.timeout(Duration.ofSeconds(30));
+		for (int i = 0; i + 1 < headers.length; i += 2)
+			b.header(headers[i], headers[i + 1]);
+		return b;
+	}
+}
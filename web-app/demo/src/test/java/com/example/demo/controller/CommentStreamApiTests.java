@@ -0,0 +1,87 @@
+package com.example.demo.controller;
+
+import static com.example.demo.controller.ApiClient.data;
+import static com.example.demo.controller.ApiClient.json;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import tools.jackson.databind.JsonNode;
+
+/**
+ * 댓글 전체 목록 스트리밍(GET /posts/{id}/comments, 파라미터 없음)
+ *
+ * - apitest의 coalesce-max-rows는 3: 시드 댓글 3개인 글은 공유 버퍼, 4개 이상이면 요청마다 스트리밍
+ * - 두 경로 모두 페이지 모드와 같은 항목, 같은 응답 모양({ data: { items }, ok })
+ */
+@ActiveProfiles("apitest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CommentStreamApiTests {
+
+	@LocalServerPort
+	private int port;
+
+	private ApiClient guest;
+
+	@BeforeEach
+	void setUp() {
+		guest = new ApiClient(port);
+	}
+
+	@Test
+	void sharedBufferMatchesPageMode() throws Exception {
+		JsonNode streamed = json(guest.get("/posts/4/comments"));
+		assertThat(streamed.path("ok").asBoolean()).isTrue();
+		assertThat(streamed.path("data").path("items")).hasSize(3);
+		assertThat(streamed.path("data").path("items")).isEqualTo(data(guest.get("/posts/4/comments?limit=200")).path("items"));
+	}
+
+	@Test
+	void perRequestStreamMatchesPageMode() throws Exception {
+		new ApiClient(port).login("api1").post("/posts/5/comments", "{\"comment\":\"넷째 댓글\"}");
+
+		JsonNode streamed = json(guest.get("/posts/5/comments"));
+		JsonNode items = streamed.path("data").path("items");
+		assertThat(items).hasSize(4);
+		assertThat(items.get(3).path("comment").asString()).isEqualTo("넷째 댓글");
+		assertThat(items).isEqualTo(data(guest.get("/posts/5/comments?limit=200")).path("items"));
+	}
+
+	@Test
+	void concurrentRequestsGetTheSameBody() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			for (String path : List.of("/posts/4/comments", "/posts/1/comments")) {
+				List<Future<HttpResponse<String>>> futures = new ArrayList<>();
+				for (int i = 0; i < 16; i++)
+					futures.add(pool.submit(() -> new ApiClient(port).get(path)));
+
+				String expected = futures.get(0).get().body();
+				for (Future<HttpResponse<String>> f : futures) {
+					assertThat(f.get().statusCode()).isEqualTo(200);
+					assertThat(f.get().body()).isEqualTo(expected);
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void missingPostStreamsAnEmptyList() throws Exception {
+		JsonNode streamed = json(guest.get("/posts/9999/comments"));
+		assertThat(streamed.path("ok").asBoolean()).isTrue();
+		assertThat(streamed.path("data").path("items")).isEmpty();
+	}
+}
@@ -0,0 +1,139 @@
+package com.example.demo.controller;
+
+import static com.example.demo.controller.ApiClient.data;
+import static com.example.demo.controller.ApiClient.json;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.http.HttpResponse;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.demo.post.PostListVersion;
+
+/**
+ * 조건부 GET: 게시글 상세 / 댓글 목록 / 사용자 / 게시글 목록의 If-None-Match, If-Modified-Since
+ *
+ * - 시드: application-apitest.yml(apitest/data.sql), 목록 시간 구간은 1시간(테스트 중 바뀌지 않음)
+ */
+@ActiveProfiles("apitest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ConditionalGetApiTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private DataSource dataSource;
+
+	private ApiClient guest;
+
+	@BeforeEach
+	void setUp() {
+		guest = new ApiClient(port);
+	}
+
+	@Test
+	void postDetail() throws Exception {
+		HttpResponse<String> first = guest.get("/posts/45");
+		String etag = header(first, "ETag");
+		String lastModified = header(first, "Last-Modified");
+		assertThat(etag).startsWith("W/\"p45-");
+		assertThat(lastModified).isNotNull();
+
+		HttpResponse<String> cached = guest.get("/posts/45", "If-None-Match", etag);
+		assertThat(cached.statusCode()).isEqualTo(304);
+		assertThat(cached.body()).isEmpty();
+		assertThat(header(cached, "ETag")).isEqualTo(etag);
+		assertThat(header(cached, "Last-Modified")).isEqualTo(lastModified);
+
+		// 댓글 수 변화는 시각에 남지 않으므로 If-Modified-Since만으로는 304를 주지 않음
+		assertThat(guest.get("/posts/45", "If-Modified-Since", lastModified).statusCode()).isEqualTo(200);
+
+		// 댓글 작성 → 댓글 수가 바뀌어 200
+		new ApiClient(port).login("api1").post("/posts/45/comments", "{\"comment\":\"etag\"}");
+		HttpResponse<String> afterComment = guest.get("/posts/45", "If-None-Match", etag);
+		assertThat(afterComment.statusCode()).isEqualTo(200);
+
+		// 수정 → 200
+		String commented = header(afterComment, "ETag");
+		new ApiClient(port).login("api2").put("/posts/45", "{\"title\":\"수정됨\",\"content\":\"본문\"}");
+		HttpResponse<String> afterUpdate = guest.get("/posts/45", "If-None-Match", commented);
+		assertThat(afterUpdate.statusCode()).isEqualTo(200);
+		assertThat(data(afterUpdate).path("title").asString()).isEqualTo("수정됨");
+	}
+
+	@Test
+	void commentList() throws Exception {
+		String etag = header(guest.get("/posts/2/comments"), "ETag");
+		assertThat(etag).startsWith("W/\"c2-");
+		assertThat(guest.get("/posts/2/comments", "If-None-Match", etag).statusCode()).isEqualTo(304);
+
+		ApiClient commenter = new ApiClient(port).login("api3");
+		int commentId = data(commenter.post("/posts/2/comments", "{\"comment\":\"새 댓글\"}")).path("comment_id").asInt();
+		String added = header(guest.get("/posts/2/comments", "If-None-Match", etag), "ETag");
+		assertThat(added).isNotEqualTo(etag);
+
+		// 수정(개수/마지막 id는 그대로, 수정 시각만 바뀜): 1초 안에 두 번 고쳐도 매번 새 ETag
+		commenter.put("/comments/" + commentId, "{\"comment\":\"고친 댓글\"}");
+		HttpResponse<String> edited = guest.get("/posts/2/comments", "If-None-Match", added);
+		assertThat(edited.statusCode()).isEqualTo(200);
+
+		commenter.put("/comments/" + commentId, "{\"comment\":\"다시 고친 댓글\"}");
+		HttpResponse<String> editedAgain = guest.get("/posts/2/comments", "If-None-Match", header(edited, "ETag"));
+		assertThat(editedAgain.statusCode()).isEqualTo(200);
+		assertThat(editedAgain.body()).contains("다시 고친 댓글");
+	}
+
+	@Test
+	void user() throws Exception {
+		HttpResponse<String> first = guest.get("/users/3");
+		String etag = header(first, "ETag");
+		String lastModified = header(first, "Last-Modified");
+		assertThat(etag).startsWith("W/\"u3-");
+
+		assertThat(guest.get("/users/3", "If-None-Match", etag).statusCode()).isEqualTo(304);
+		assertThat(guest.get("/users/3", "If-Modified-Since", lastModified).statusCode()).isEqualTo(304);
+
+		new ApiClient(port).login("api3").put("/me/profile", "{\"bio\":\"안녕하세요\"}");
+		HttpResponse<String> updated = guest.get("/users/3", "If-None-Match", etag);
+		assertThat(updated.statusCode()).isEqualTo(200);
+		assertThat(data(updated).path("bio").asString()).isEqualTo("안녕하세요");
+	}
+
+	@Test
+	void postList() throws Exception {
+		HttpResponse<String> first = guest.get("/posts?page=1&pageSize=10");
+		String etag = header(first, "ETag");
+		String lastModified = header(first, "Last-Modified");
+		assertThat(etag).startsWith("W/\"l");
+
+		assertThat(guest.get("/posts?page=1&pageSize=10", "If-None-Match", etag).statusCode()).isEqualTo(304);
+		assertThat(guest.get("/posts?page=1&pageSize=10", "If-Modified-Since", lastModified).statusCode())
+				.isEqualTo(304);
+		// 검색/커서 목록도 같은 검증값
+		assertThat(guest.get("/posts?type=title&keyword=%EA%B3%B5%EC%A7%80", "If-None-Match", etag).statusCode())
+				.isEqualTo(304);
+
+		// 다른 노드(또는 재시작한 노드)도 데이터만 보고 같은 ETag를 만듦
+		long now = System.currentTimeMillis();
+		assertThat(new PostListVersion(dataSource, 3_600_000).etag(now)).isEqualTo(etag);
+
+		// 게시글 작성 → 200
+		assertThat(json(new ApiClient(port).login("api1").post("/posts", "{\"title\":\"새 글\",\"content\":\"본문\"}"))
+				.path("ok").asBoolean()).isTrue();
+		HttpResponse<String> afterCreate = guest.get("/posts?page=1&pageSize=10", "If-None-Match", etag);
+		assertThat(afterCreate.statusCode()).isEqualTo(200);
+		assertThat(header(afterCreate, "ETag")).isNotEqualTo(etag);
+	}
+
+	private static String header(HttpResponse<String> res, String name) {
+		return res.headers().firstValue(name).orElse(null);
+	}
+}
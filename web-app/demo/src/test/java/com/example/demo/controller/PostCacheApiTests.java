@@ -0,0 +1,131 @@
+package com.example.demo.controller;
+
+import static com.example.demo.controller.ApiClient.data;
+import static com.example.demo.controller.ApiClient.json;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.demo.post.PostCache;
+import com.example.demo.post.ViewCountBuffer;
+
+import tools.jackson.databind.JsonNode;
+
+/**
+ * 게시글 캐시가 쓰기 경로(수정/삭제/댓글 작성·삭제)에서 무효화되는지, 조회수는 캐시 밖에서 읽는지
+ *
+ * - 시드: application-apitest.yml(apitest/data.sql), 홀수 번 글 작성자는 api2, 짝수 번 글은 api1
+ */
+@ActiveProfiles("apitest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PostCacheApiTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private PostCache postCache;
+
+	@Autowired
+	private ViewCountBuffer viewCounts;
+
+	private ApiClient guest;
+
+	@BeforeEach
+	void setUp() {
+		guest = new ApiClient(port);
+	}
+
+	@Test
+	void writesInvalidateTheCachedPost() throws Exception {
+		ApiClient author = new ApiClient(port).login("api2");
+		ApiClient commenter = new ApiClient(port).login("api1");
+
+		long hits = (Long) postCache.stats().get("hits");
+		assertThat(data(guest.get("/posts/41")).path("title").asString()).isEqualTo("게시글 41");
+		assertThat(data(guest.get("/posts/41")).path("title").asString()).isEqualTo("게시글 41");
+		assertThat((Long) postCache.stats().get("hits")).isGreaterThan(hits);
+
+		// 수정
+		assertThat(json(author.put("/posts/41", "{\"title\":\"바뀐 제목\",\"content\":\"바뀐 본문\"}"))
+				.path("ok").asBoolean()).isTrue();
+		JsonNode updated = data(guest.get("/posts/41"));
+		assertThat(updated.path("title").asString()).isEqualTo("바뀐 제목");
+		assertThat(updated.path("content").asString()).isEqualTo("바뀐 본문");
+
+		// 댓글 작성/삭제(comments_cnt)
+		int commentId = data(commenter.post("/posts/41/comments", "{\"comment\":\"첫 댓글\"}")).path("comment_id").asInt();
+		assertThat(data(guest.get("/posts/41")).path("comments_cnt").asInt()).isEqualTo(1);
+		assertThat(json(commenter.delete("/comments/" + commentId)).path("ok").asBoolean()).isTrue();
+		assertThat(data(guest.get("/posts/41")).path("comments_cnt").asInt()).isZero();
+
+		// 삭제
+		assertThat(json(author.delete("/posts/41")).path("ok").asBoolean()).isTrue();
+		JsonNode gone = json(guest.get("/posts/41"));
+		assertThat(gone.path("ok").asBoolean()).isFalse();
+		assertThat(gone.path("message").asString()).isEqualTo("게시글 없음");
+	}
+
+	@Test
+	void deletingAPostWithCommentsRemovesThem() throws Exception {
+		ApiClient author = new ApiClient(port).login("api1");
+		ApiClient commenter = new ApiClient(port).login("api2");
+		int postId = data(author.post("/posts", "{\"title\":\"지울 글\",\"content\":\"본문\"}")).path("post_id").asInt();
+		commenter.post("/posts/" + postId + "/comments", "{\"comment\":\"댓글 1\"}");
+		commenter.post("/posts/" + postId + "/comments", "{\"comment\":\"댓글 2\"}");
+
+		// 작성자가 아니면 글도 댓글도 그대로
+		assertThat(json(commenter.delete("/posts/" + postId)).path("message").asString()).isEqualTo("권한 없음");
+		assertThat(count("SELECT COUNT(*) FROM comments WHERE post_id = " + postId)).isEqualTo(2);
+
+		// 댓글이 달린 글도 삭제됨(FK에 CASCADE 없음 → 댓글과 댓글 수 슬롯을 먼저 지움)
+		assertThat(json(author.delete("/posts/" + postId)).path("ok").asBoolean()).isTrue();
+		assertThat(json(guest.get("/posts/" + postId)).path("message").asString()).isEqualTo("게시글 없음");
+		assertThat(count("SELECT COUNT(*) FROM comments WHERE post_id = " + postId)).isZero();
+		assertThat(count("SELECT COUNT(*) FROM post_comment_count_slots WHERE post_id = " + postId)).isZero();
+		assertThat(json(author.delete("/posts/" + postId)).path("message").asString()).isEqualTo("게시글 없음");
+	}
+
+	private long count(String sql) throws Exception {
+		try (Connection conn = dataSource.getConnection();
+				Statement st = conn.createStatement();
+				ResultSet rs = st.executeQuery(sql)) {
+			rs.next();
+			return rs.getLong(1);
+		}
+	}
+
+	@Test
+	void viewCountIsReadOutsideTheCache() throws Exception {
+		assertThat(data(guest.get("/posts/43?viewer_key=cache-a")).path("view_count").asLong()).isEqualTo(1);
+		viewCounts.flush();
+
+		// flush 뒤에 캐시가 다시 채워져도 증가분이 두 번 더해지지 않음
+		postCache.invalidate(43);
+		assertThat(data(guest.get("/posts/43?viewer_key=cache-a")).path("view_count").asLong()).isEqualTo(1);
+		viewCounts.flush();
+		assertThat(data(guest.get("/posts/43?viewer_key=cache-a")).path("view_count").asLong()).isEqualTo(1);
+
+		// 다른 노드의 flush(DB 직접 증가)도 캐시 TTL을 기다리지 않고 바로 보임
+		try (Connection conn = dataSource.getConnection(); Statement st = conn.createStatement()) {
+			st.executeUpdate("UPDATE posts SET view_count = view_count + 5 WHERE id = 43");
+		}
+		assertThat(data(guest.get("/posts/43?viewer_key=cache-a")).path("view_count").asLong()).isEqualTo(6);
+		assertThat(data(guest.get("/posts/43/full?viewer_key=cache-b")).path("post").path("view_count").asLong())
+				.isEqualTo(7);
+	}
+}
@@ -0,0 +1,145 @@
+package com.example.demo.controller;
+
+import static com.example.demo.controller.ApiClient.data;
+import static com.example.demo.controller.ApiClient.json;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import tools.jackson.databind.JsonNode;
+
+/**
+ * 게시글 목록 커서(keyset) 모드: after_id / before_id / cursor
+ *
+ * - 시드: 게시글 1..60(3의 배수는 제목에 " 공지"), 다른 API 테스트가 40번 이후 글을 고치거나 새 글을 씀
+ *   → 40번 아래 구간만 확인
+ */
+@ActiveProfiles("apitest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PostCursorApiTests {
+
+	private static final String NOTICE = "%EA%B3%B5%EC%A7%80"; // "공지"
+
+	@LocalServerPort
+	private int port;
+
+	private ApiClient guest;
+
+	@BeforeEach
+	void setUp() {
+		guest = new ApiClient(port);
+	}
+
+	@Test
+	void pageModeHandsOverToCursorMode() throws Exception {
+		JsonNode page1 = data(guest.get("/posts?page=1&pageSize=10"));
+		String next = page1.path("next_cursor").asString();
+		assertThat(next).isNotBlank();
+
+		// 첫 페이지의 next_cursor로 이어 읽으면 2페이지와 같음
+		JsonNode viaCursor = data(guest.get("/posts?pageSize=10&cursor=" + next));
+		assertThat(ids(viaCursor)).isEqualTo(ids(data(guest.get("/posts?page=2&pageSize=10"))));
+		assertThat(viaCursor.path("prev_cursor").asString()).isNotBlank();
+	}
+
+	@Test
+	void forwardToTheLastPage() throws Exception {
+		JsonNode page = data(guest.get("/posts?after_id=21&pageSize=10"));
+		assertThat(ids(page)).containsExactly(20, 19, 18, 17, 16, 15, 14, 13, 12, 11);
+		assertThat(page.path("prev_cursor").isNull()).isFalse();
+
+		// 마지막 페이지: 정확히 pageSize개 남았어도 next_cursor 없음
+		JsonNode last = data(guest.get("/posts?pageSize=10&cursor=" + page.path("next_cursor").asString()));
+		assertThat(ids(last)).containsExactly(10, 9, 8, 7, 6, 5, 4, 3, 2, 1);
+		assertThat(last.path("next_cursor").isNull()).isTrue();
+		assertThat(last.path("prev_cursor").asString()).isNotBlank();
+	}
+
+	@Test
+	void pastTheEndIsEmptyButCanGoBack() throws Exception {
+		JsonNode empty = data(guest.get("/posts?after_id=1&pageSize=10"));
+		assertThat(ids(empty)).isEmpty();
+		assertThat(empty.path("next_cursor").isNull()).isTrue();
+
+		// anchor - 1 기준 prev → 마지막 페이지로 돌아감
+		JsonNode back = data(guest.get("/posts?pageSize=10&cursor=" + empty.path("prev_cursor").asString()));
+		assertThat(ids(back)).containsExactly(10, 9, 8, 7, 6, 5, 4, 3, 2, 1);
+		assertThat(back.path("next_cursor").asString()).isNotBlank();
+	}
+
+	@Test
+	void backwardAndForwardAgain() throws Exception {
+		JsonNode page = data(guest.get("/posts?after_id=21&pageSize=10"));
+
+		// 이전(더 최신) 페이지도 화면 순서(id DESC)
+		JsonNode prev = data(guest.get("/posts?pageSize=10&cursor=" + page.path("prev_cursor").asString()));
+		assertThat(ids(prev)).containsExactly(30, 29, 28, 27, 26, 25, 24, 23, 22, 21);
+		assertThat(prev.path("prev_cursor").asString()).isNotBlank();
+
+		JsonNode again = data(guest.get("/posts?pageSize=10&cursor=" + prev.path("next_cursor").asString()));
+		assertThat(ids(again)).isEqualTo(ids(page));
+
+		// before_id 직접 지정도 같은 결과
+		assertThat(ids(data(guest.get("/posts?before_id=20&pageSize=10")))).isEqualTo(ids(prev));
+	}
+
+	@Test
+	void invalidCursorIsRejected() throws Exception {
+		assertRejected("/posts?cursor=not*base64");
+		assertRejected("/posts?cursor=" + cursor("x:1"));
+		assertRejected("/posts?cursor=" + cursor("n:abc"));
+		assertRejected("/posts?cursor=" + cursor("n"));
+		assertRejected("/posts?after_id=10&before_id=20");
+
+		// cursor가 after_id/before_id보다 우선
+		JsonNode page = data(guest.get("/posts?after_id=5&before_id=1&pageSize=3&cursor=" + cursor("n:21")));
+		assertThat(ids(page)).containsExactly(20, 19, 18);
+	}
+
+	@Test
+	void cursorWithSearchType() throws Exception {
+		// 색인이 준비되었든 아니든(LIKE) 같은 결과
+		String base = "/posts?type=title&keyword=" + NOTICE + "&pageSize=5";
+		JsonNode first = data(guest.get(base + "&after_id=40"));
+		assertThat(ids(first)).containsExactly(39, 36, 33, 30, 27);
+
+		JsonNode second = data(guest.get(base + "&cursor=" + first.path("next_cursor").asString()));
+		assertThat(ids(second)).containsExactly(24, 21, 18, 15, 12);
+
+		JsonNode last = data(guest.get(base + "&cursor=" + second.path("next_cursor").asString()));
+		assertThat(ids(last)).containsExactly(9, 6, 3);
+		assertThat(last.path("next_cursor").isNull()).isTrue();
+
+		JsonNode back = data(guest.get(base + "&cursor=" + last.path("prev_cursor").asString()));
+		assertThat(ids(back)).isEqualTo(ids(second));
+
+		// 본문에는 "공지"가 없음
+		JsonNode content = data(guest.get("/posts?type=content&keyword=" + NOTICE + "&pageSize=5&after_id=40"));
+		assertThat(ids(content)).isEmpty();
+	}
+
+	private void assertRejected(String path) throws Exception {
+		JsonNode res = json(guest.get(path));
+		assertThat(res.path("ok").asBoolean()).as(path).isFalse();
+	}
+
+	private static String cursor(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static List<Integer> ids(JsonNode data) {
+		List<Integer> ids = new ArrayList<>();
+		for (JsonNode item : data.path("items"))
+			ids.add(item.path("id").asInt());
+		return ids;
+	}
+}
@@ -0,0 +1,124 @@
+package com.example.demo.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * 타입 응답(ApiResponse/PostSummary/PostDetail/Comment)이 예전 HashMap 응답과 같은 바이트를 내는지 확인
+ *
+ * - legacy* 메서드는 예전 ApiController의 Map 생성 코드를 그대로 옮긴 것(키 넣는 순서 포함)
+ * - 할당량 비교는 기본 테스트가 아니라 JMH ResponseBenchmark(gc.alloc.rate.norm)로
+ */
+class ResponseJsonTests {
+
+	private final JsonMapper mapper = JsonMapper.builder().build();
+
+	@Test
+	void okAndFailMatchLegacyMaps() {
+		assertThat(mapper.writeValueAsString(ApiResponse.ok(Map.of("post_id", 7))))
+				.isEqualTo(mapper.writeValueAsString(legacyOk(Map.of("post_id", 7))));
+		assertThat(mapper.writeValueAsString(ApiResponse.ok(null)))
+				.isEqualTo(mapper.writeValueAsString(legacyOk(null)));
+		assertThat(mapper.writeValueAsString(ApiResponse.fail("입력값 오류")))
+				.isEqualTo(mapper.writeValueAsString(legacyFail("입력값 오류")));
+	}
+
+	@Test
+	void rowsMatchLegacyMaps() {
+		PostSummary summary = new PostSummary(12, 3, "제목 \"따옴표\"", "본문\n줄바꿈", 5_000_000_000L, 4, null);
+		assertThat(mapper.writeValueAsString(summary))
+				.isEqualTo(mapper.writeValueAsString(legacyPostRow(summary)));
+
+		PostDetail detail = new PostDetail(12, 3, "t", "c", 10, 0, "2026-01-01 00:00:00", 8, "u:3");
+		assertThat(mapper.writeValueAsString(detail))
+				.isEqualTo(mapper.writeValueAsString(legacyPostDetail(detail)));
+
+		Comment comment = new Comment(1, 12, 3, "<b>hi</b> \\ 😀", "2026-01-01 00:00:00");
+		assertThat(mapper.writeValueAsString(comment))
+				.isEqualTo(mapper.writeValueAsString(legacyComment(comment)));
+	}
+
+	@Test
+	void postListPageMatchesLegacyMaps() {
+		List<PostSummary> rows = rows(50);
+		assertThat(mapper.writeValueAsString(ApiResponse.ok(page(rows))))
+				.isEqualTo(mapper.writeValueAsString(legacyOk(page(rows.stream().map(ResponseJsonTests::legacyPostRow).toList()))));
+	}
+
+	// --------------------------------------------------
+
+	private static List<PostSummary> rows(int n) {
+		List<PostSummary> rows = new ArrayList<>();
+		for (int i = n; i > 0; i--)
+			rows.add(new PostSummary(i, i % 7, "제목 " + i, "본문 내용 " + i, i * 3, i % 5, "2026-01-01 00:00:00"));
+		return rows;
+	}
+
+	private static Map<String, Object> page(List<?> items) {
+		Map<String, Object> data = new HashMap<>();
+		data.put("page", 1);
+		data.put("pageSize", items.size());
+		data.put("total", 1234L);
+		data.put("items", items);
+		data.put("next_cursor", "bjox");
+		return data;
+	}
+
+	private static Map<String, Object> legacyOk(Object data) {
+		Map<String, Object> r = new HashMap<>();
+		r.put("ok", true);
+		r.put("data", data);
+		return r;
+	}
+
+	private static Map<String, Object> legacyFail(String message) {
+		Map<String, Object> r = new HashMap<>();
+		r.put("ok", false);
+		r.put("message", message);
+		return r;
+	}
+
+	private static Map<String, Object> legacyPostRow(PostSummary p) {
+		Map<String, Object> row = new HashMap<>();
+		row.put("id", p.id());
+		row.put("user_id", p.userId());
+		row.put("title", p.title());
+		row.put("content", p.content());
+		row.put("view_count", p.viewCount());
+		row.put("comments_cnt", p.commentsCnt());
+		row.put("created_at", p.createdAt());
+		return row;
+	}
+
+	private static Map<String, Object> legacyPostDetail(PostDetail p) {
+		Map<String, Object> post = new HashMap<>();
+		post.put("id", p.id());
+		post.put("user_id", p.userId());
+		post.put("title", p.title());
+		post.put("content", p.content());
+		post.put("view_count", p.viewCount());
+		post.put("comments_cnt", p.commentsCnt());
+		post.put("created_at", p.createdAt());
+		post.put("unique_viewers", p.uniqueViewers());
+		post.put("viewer_key", p.viewerKey());
+		return post;
+	}
+
+	private static Map<String, Object> legacyComment(Comment c) {
+		Map<String, Object> row = new HashMap<>();
+		row.put("id", c.id());
+		row.put("post_id", c.postId());
+		row.put("user_id", c.userId());
+		row.put("comment", c.comment());
+		row.put("created_at", c.createdAt());
+		return row;
+	}
+}
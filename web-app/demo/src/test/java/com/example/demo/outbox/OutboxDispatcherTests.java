@@ -0,0 +1,207 @@
+package com.example.demo.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.support.TestDatabase;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * outbox 전달(H2 MySQL 모드): 게시글별 순서, 오프셋 이어받기, 재시도/dead letter, id 빈칸
+ */
+class OutboxDispatcherTests {
+
+	private DataSource ds;
+	private SimpleMeterRegistry registry;
+	private final List<OutboxDispatcher> started = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		ds = TestDatabase.h2("outbox");
+		registry = new SimpleMeterRegistry();
+	}
+
+	@AfterEach
+	void tearDown() {
+		started.forEach(OutboxDispatcher::stop);
+	}
+
+	private OutboxDispatcher dispatcher(long gapTimeoutMillis, OutboxSubscriber... subscribers) {
+		return dispatcher(gapTimeoutMillis, 600_000, subscribers);
+	}
+
+	private OutboxDispatcher dispatcher(long gapTimeoutMillis, long lateWindowMillis, OutboxSubscriber... subscribers) {
+		OutboxDispatcher d = new OutboxDispatcher(ds, List.of(subscribers), registry, true, "node-a",
+				200, 50, 3, 3, 1, gapTimeoutMillis, lateWindowMillis, 60_000);
+		started.add(d);
+		return d;
+	}
+
+	private void append(OutboxEvent.Type type, int postId, Integer commentId) throws SQLException {
+		try (Connection conn = ds.getConnection()) {
+			OutboxWriter.append(conn, type, postId, commentId, 1);
+		}
+	}
+
+	@Test
+	void deliversInOrderPerPostAndResumesFromSavedOffset() throws Exception {
+		Map<Integer, List<Long>> seen = new ConcurrentHashMap<>();
+		OutboxSubscriber recorder = new OutboxSubscriber("recorder",
+				e -> seen.computeIfAbsent(e.postId(), k -> Collections.synchronizedList(new ArrayList<>())).add(e.id()));
+
+		OutboxDispatcher d = dispatcher(2000, recorder);
+		d.poll(); // 첫 실행: 현재 MAX(id)=0부터
+
+		for (int i = 0; i < 120; i++)
+			append(i % 2 == 0 ? OutboxEvent.Type.COMMENT_CREATED : OutboxEvent.Type.POST_UPDATED, i % 7, i);
+		d.poll();
+
+		assertThat(seen.values().stream().mapToInt(List::size).sum()).isEqualTo(120);
+		seen.values().forEach(ids -> assertThat(ids).isSorted());
+		assertThat(d.stats()).containsEntry("offset", 120L).containsEntry("dispatched", 120L);
+		assertThat(registry.get("outbox.lag").tag("subscriber", "recorder").timer().count()).isEqualTo(120);
+
+		// 같은 consumer로 다시 시작: 저장된 오프셋 다음부터
+		seen.clear();
+		append(OutboxEvent.Type.POST_DELETED, 3, null);
+		dispatcher(2000, recorder).poll();
+		assertThat(seen).containsOnlyKeys(3);
+		assertThat(seen.get(3)).containsExactly(121L);
+	}
+
+	@Test
+	void retriesThenDeadLettersWithoutBlockingOthers() throws Exception {
+		AtomicInteger flakyCalls = new AtomicInteger();
+		List<Long> healthy = Collections.synchronizedList(new ArrayList<>());
+		OutboxSubscriber flaky = new OutboxSubscriber("flaky", e -> {
+			if (flakyCalls.incrementAndGet() % 2 == 1)
+				throw new IllegalStateException("일시 오류");
+		});
+		OutboxSubscriber broken = new OutboxSubscriber("broken", e -> {
+			throw new IllegalStateException("항상 실패");
+		});
+		OutboxSubscriber ok = new OutboxSubscriber("ok", e -> healthy.add(e.id()));
+
+		OutboxDispatcher d = dispatcher(2000, flaky, broken, ok);
+		d.poll();
+		// 같은 게시글(같은 레인)이라 flaky 호출 순서가 정해짐
+		append(OutboxEvent.Type.POST_CREATED, 1, null);
+		append(OutboxEvent.Type.POST_UPDATED, 1, null);
+		d.poll();
+
+		assertThat(healthy).containsExactly(1L, 2L);
+		assertThat(flakyCalls).hasValue(4);
+		// flaky 2번 + broken (3-1)번 × 2
+		assertThat(d.stats()).containsEntry("retries", 6L).containsEntry("dead_lettered", 2L)
+				.containsEntry("offset", 2L);
+		assertThat(registry.get("outbox.events").tag("subscriber", "broken").tag("outcome", "dead").counter().count())
+				.isEqualTo(2);
+	}
+
+	@Test
+	void waitsOnIdGapThenSkipsIt() throws Exception {
+		List<Long> delivered = Collections.synchronizedList(new ArrayList<>());
+		OutboxDispatcher d = dispatcher(100, new OutboxSubscriber("recorder", e -> delivered.add(e.id())));
+		d.poll();
+
+		// 같은 게시글(같은 레인)이라 전달 순서가 정해짐
+		append(OutboxEvent.Type.POST_CREATED, 1, null);
+		append(OutboxEvent.Type.POST_UPDATED, 1, null);
+		// id 3: 롤백된(또는 아직 커밋 전) 트랜잭션 자리
+		try (Connection conn = ds.getConnection(); Statement st = conn.createStatement()) {
+			st.execute("INSERT INTO outbox_events (id, event_type, post_id, user_id, created_ms)"
+					+ " VALUES (4, 'POST_CREATED', 4, 1, " + System.currentTimeMillis() + ")");
+		}
+
+		assertThat(d.dispatchBatch()).isEqualTo(2);
+		assertThat(d.dispatchBatch()).isZero();
+		assertThat(delivered).containsExactly(1L, 2L);
+
+		Thread.sleep(150);
+		assertThat(d.dispatchBatch()).isEqualTo(1);
+		assertThat(delivered).containsExactly(1L, 2L, 4L);
+		assertThat(d.stats()).containsEntry("gaps_skipped", 1L).containsEntry("offset", 4L);
+	}
+
+	@Test
+	void deliversSkippedIdOnceItCommitsLate() throws Exception {
+		List<Long> delivered = Collections.synchronizedList(new ArrayList<>());
+		OutboxDispatcher d = dispatcher(50, new OutboxSubscriber("recorder", e -> delivered.add(e.id())));
+		d.poll();
+
+		append(OutboxEvent.Type.POST_CREATED, 1, null);
+		insertWithId(3, 3);
+		d.poll();
+		Thread.sleep(80);
+		d.poll();
+		assertThat(delivered).containsExactly(1L, 3L);
+		assertThat(d.stats()).containsEntry("gaps_skipped", 1L).containsEntry("gaps_watching", 1)
+				.containsEntry("offset", 3L);
+
+		// id 2: 락 대기 등으로 gap-timeout-ms보다 늦게 커밋된 트랜잭션
+		insertWithId(2, 2);
+		d.poll();
+		assertThat(delivered).containsExactly(1L, 3L, 2L);
+		assertThat(d.stats()).containsEntry("late_delivered", 1L).containsEntry("gaps_watching", 0)
+				.containsEntry("dispatched", 3L);
+
+		// 한 번만 전달
+		d.poll();
+		assertThat(delivered).hasSize(3);
+	}
+
+	@Test
+	void forgetsSkippedIdAfterLateWindow() throws Exception {
+		List<Long> delivered = Collections.synchronizedList(new ArrayList<>());
+		OutboxDispatcher d = dispatcher(0, 50, new OutboxSubscriber("recorder", e -> delivered.add(e.id())));
+		d.poll();
+
+		insertWithId(2, 2);
+		d.poll();
+		d.poll();
+		assertThat(delivered).containsExactly(2L);
+
+		// late-window-ms가 지나면 롤백으로 보고 더 확인하지 않음
+		Thread.sleep(80);
+		d.poll();
+		insertWithId(1, 1);
+		d.poll();
+		assertThat(delivered).containsExactly(2L);
+		assertThat(d.stats()).containsEntry("gaps_expired", 1L).containsEntry("gaps_watching", 0);
+	}
+
+	private void insertWithId(long id, int postId) throws SQLException {
+		try (Connection conn = ds.getConnection(); Statement st = conn.createStatement()) {
+			st.execute("INSERT INTO outbox_events (id, event_type, post_id, user_id, created_ms)"
+					+ " VALUES (" + id + ", 'POST_CREATED', " + postId + ", 1, " + System.currentTimeMillis() + ")");
+		}
+	}
+
+	@Test
+	void purgeDeletesOnlyExpiredEvents() throws Exception {
+		OutboxDispatcher d = dispatcher(2000);
+		append(OutboxEvent.Type.POST_CREATED, 1, null);
+		try (Connection conn = ds.getConnection(); Statement st = conn.createStatement()) {
+			st.execute("INSERT INTO outbox_events (event_type, post_id, user_id, created_ms)"
+					+ " VALUES ('POST_CREATED', 2, 1, 0)");
+		}
+		assertThat(d.purge()).isEqualTo(1);
+		assertThat(d.purge()).isZero();
+	}
+}
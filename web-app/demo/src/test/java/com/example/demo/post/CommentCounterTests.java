@@ -0,0 +1,151 @@
+package com.example.demo.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.example.demo.support.TestDatabase;
+
+/**
+ * reconcile: 전용 단일 스레드 실행기 + GET_LOCK으로 노드 하나만 실행
+ *
+ * - H2에는 GET_LOCK이 없음 → 없으면 잠금 없이 실행, 있는 경우는 별칭(NamedLock)으로 흉내
+ */
+class CommentCounterTests {
+
+	private DriverManagerDataSource h2;
+	private CommentCounter counter;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		h2 = TestDatabase.h2("commentcount");
+		TestDatabase.insertUsers(h2, 1);
+		TestDatabase.insertPosts(h2, 1, 2);
+		try (Connection conn = h2.getConnection(); Statement st = conn.createStatement()) {
+			// 글 1: 댓글 2개인데 comments_cnt 5(어긋남), 글 2: 맞음
+			st.execute("UPDATE posts SET comments_cnt = CASE id WHEN 1 THEN 5 ELSE 1 END");
+			st.execute("INSERT INTO comments (post_id, user_id, comment) VALUES (1, 1, 'a'), (1, 1, 'b'), (2, 1, 'c')");
+		}
+		NamedLock.reset();
+		counter = new CommentCounter(h2, new PostCache(false, 0, 0), 4, 100, 1000);
+	}
+
+	@AfterEach
+	void tearDown() {
+		counter.shutdown();
+		NamedLock.reset();
+	}
+
+	@Test
+	void runsWithoutElectionWhenGetLockIsMissing() {
+		assertThat(counter.reconcile()).isEqualTo(1);
+		assertThat(commentsCnt(1)).isEqualTo(2);
+		assertThat(counter.reconcile()).isZero();
+		assertThat(counter.stats())
+				.containsEntry("reconcile_runs", 2L)
+				.containsEntry("reconcile_skipped", 0L)
+				.containsEntry("reconcile_failures", 0L);
+	}
+
+	@Test
+	void skipsWhileAnotherNodeHoldsTheLock() throws Exception {
+		createLockAliases();
+		NamedLock.held.set(true); // 다른 노드가 실행 중
+
+		assertThat(counter.reconcile()).isZero();
+		assertThat(commentsCnt(1)).isEqualTo(5);
+		assertThat(counter.stats()).containsEntry("reconcile_skipped", 1L).containsEntry("reconcile_runs", 0L);
+
+		// 그 노드가 끝나면 다음 주기에 이 노드가 잡고, 끝나면 풀어 둠
+		NamedLock.held.set(false);
+		assertThat(counter.reconcile()).isEqualTo(1);
+		assertThat(commentsCnt(1)).isEqualTo(2);
+		assertThat(NamedLock.held).isFalse();
+	}
+
+	@Test
+	void asyncRunUsesTheManagedThreadAndRejectsOverlap() throws Exception {
+		createLockAliases();
+		NamedLock.gate = new CountDownLatch(1);
+
+		assertThat(counter.reconcileAsync()).isTrue();
+		assertThat(NamedLock.entered.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(NamedLock.thread).isEqualTo("comment-count-reconcile");
+		// 실행 중에는 다시 시작하지 않음
+		assertThat(counter.reconcileAsync()).isFalse();
+		assertThat(counter.stats()).containsEntry("reconciling", true);
+
+		NamedLock.gate.countDown();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (Boolean.TRUE.equals(counter.stats().get("reconciling")) && System.nanoTime() < deadline)
+			Thread.sleep(10);
+		assertThat(counter.stats()).containsEntry("reconciling", false).containsEntry("reconcile_repaired", 1L);
+
+		// 종료 후에는 시작하지 않음(스레드를 새로 만들지 않음)
+		counter.shutdown();
+		assertThat(counter.reconcileAsync()).isFalse();
+		assertThat(counter.stats()).containsEntry("reconciling", false);
+	}
+
+	private void createLockAliases() throws SQLException {
+		try (Connection conn = h2.getConnection(); Statement st = conn.createStatement()) {
+			st.execute("CREATE ALIAS GET_LOCK FOR \"" + NamedLock.class.getName() + ".getLock\"");
+			st.execute("CREATE ALIAS RELEASE_LOCK FOR \"" + NamedLock.class.getName() + ".releaseLock\"");
+		}
+	}
+
+	private int commentsCnt(int postId) {
+		try (Connection conn = h2.getConnection();
+				Statement st = conn.createStatement();
+				ResultSet rs = st.executeQuery("SELECT comments_cnt FROM posts WHERE id = " + postId)) {
+			rs.next();
+			return rs.getInt(1);
+		} catch (SQLException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * MySQL GET_LOCK/RELEASE_LOCK 흉내(노드 전체에서 하나, 기다리지 않음)
+	 */
+	public static class NamedLock {
+
+		static final AtomicBoolean held = new AtomicBoolean();
+		static volatile CountDownLatch gate;
+		static volatile CountDownLatch entered;
+		static volatile String thread;
+
+		static void reset() {
+			held.set(false);
+			gate = null;
+			entered = new CountDownLatch(1);
+			thread = null;
+		}
+
+		public static int getLock(String name, int timeout) throws InterruptedException {
+			thread = Thread.currentThread().getName();
+			if (!held.compareAndSet(false, true))
+				return 0;
+			entered.countDown();
+			CountDownLatch g = gate;
+			if (g != null)
+				g.await(5, TimeUnit.SECONDS);
+			return 1;
+		}
+
+		public static int releaseLock(String name) {
+			return held.compareAndSet(true, false) ? 1 : 0;
+		}
+	}
+}
@@ -0,0 +1,156 @@
+package com.example.demo.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.example.demo.dto.Comment;
+import com.example.demo.support.TestDatabase;
+
+/**
+ * 댓글 스트리밍(streamByPost): fetch size 전달, 쿼리 실행 뒤에만 handler 호출, 끝나면 커넥션 반납
+ *
+ * - fetch size대로 받아오는지는 MySQL 드라이버(useCursorFetch=true) 몫 → 여기서는 설정/전달만 확인
+ */
+class CommentStreamTests {
+
+	private DriverManagerDataSource h2;
+	private RecordingDataSource ds;
+	private CommentRepository comments;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		h2 = TestDatabase.h2("commentstream");
+		TestDatabase.insertUsers(h2, 3);
+		TestDatabase.insertPosts(h2, 1, 2);
+		try (Connection conn = h2.getConnection(); Statement st = conn.createStatement()) {
+			st.execute("INSERT INTO comments (post_id, user_id, comment)"
+					+ " SELECT 1, MOD(\"X\", 3) + 1, CONCAT('c', \"X\") FROM SYSTEM_RANGE(1, 1200)");
+			st.execute("INSERT INTO comments (post_id, user_id, comment) VALUES (2, 1, 'other')");
+		}
+		ds = new RecordingDataSource(h2);
+		comments = new CommentRepository(ds, new CommentCounter(ds, new PostCache(false, 0, 0), 0, 100, 1000));
+	}
+
+	@Test
+	void streamsAllRowsInOrderWithTheFetchSize() throws Exception {
+		List<Integer> ids = new ArrayList<>();
+		comments.streamByPost(1, 500, rows -> {
+			ds.events.add("handler");
+			while (rows.next()) {
+				Comment c = rows.current();
+				assertThat(c.postId()).isEqualTo(1);
+				ids.add(c.id());
+			}
+		});
+
+		assertThat(ids).hasSize(1200).isSorted();
+		assertThat(ds.events).containsExactly("getConnection", "setFetchSize:500", "executeQuery", "handler", "close");
+	}
+
+	@Test
+	void handlerCanStopEarlyAndTheConnectionIsReturned() throws Exception {
+		List<String> read = new ArrayList<>();
+		comments.streamByPost(1, 100, rows -> {
+			while (read.size() < 3 && rows.next())
+				read.add(rows.current().comment());
+		});
+
+		assertThat(read).containsExactly("c1", "c2", "c3");
+		assertThat(ds.events).endsWith("close");
+	}
+
+	@Test
+	void queryErrorIsThrownBeforeTheHandlerRuns() throws Exception {
+		try (Connection conn = h2.getConnection(); Statement st = conn.createStatement()) {
+			st.execute("DROP TABLE comments");
+		}
+
+		List<String> handled = new ArrayList<>();
+		assertThatThrownBy(() -> comments.streamByPost(1, 500, rows -> handled.add("called")))
+				.isInstanceOf(SQLException.class);
+		assertThat(handled).isEmpty();
+		assertThat(ds.events).endsWith("close");
+	}
+
+	@Test
+	void mysqlUrlsEnableCursorFetch() {
+		// 없으면 Connector/J가 fetch size를 무시하고 결과 전체를 메모리에 올림
+		for (String file : List.of("application.yml", "application-docker.yml")) {
+			YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+			yaml.setResources(new ClassPathResource(file));
+			assertThat(yaml.getObject().getProperty("spring.datasource.url")).as(file).contains("useCursorFetch=true");
+		}
+	}
+
+	/**
+	 * 커넥션/문장 호출 순서 기록(getConnection, setFetchSize, executeQuery, close)
+	 */
+	static class RecordingDataSource extends AbstractDataSource {
+
+		private final DriverManagerDataSource target;
+		final List<String> events = new CopyOnWriteArrayList<>();
+
+		RecordingDataSource(DriverManagerDataSource target) {
+			this.target = target;
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			events.add("getConnection");
+			Connection conn = target.getConnection();
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+					new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+						if (method.getName().equals("close"))
+							events.add("close");
+						Object result = invoke(conn, method, args);
+						if (result instanceof PreparedStatement ps)
+							return statement(ps);
+						return result;
+					});
+		}
+
+		private PreparedStatement statement(PreparedStatement ps) {
+			return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+					new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+						switch (method.getName()) {
+							case "setFetchSize" -> events.add("setFetchSize:" + args[0]);
+							case "executeQuery" -> events.add("executeQuery");
+							default -> {
+							}
+						}
+						return invoke(ps, method, args);
+					});
+		}
+
+		private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+
+		@Override
+		public Connection getConnection(String username, String password) throws SQLException {
+			return getConnection();
+		}
+	}
+}
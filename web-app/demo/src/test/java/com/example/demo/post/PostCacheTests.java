@@ -0,0 +1,144 @@
+package com.example.demo.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.post.PostCache.CachedPost;
+
+/**
+ * 게시글 단건 캐시: 바이트 상한(weigher) 축출, 무효화, 지표
+ */
+class PostCacheTests {
+
+	private static CachedPost post(int id, int contentChars) {
+		return new CachedPost(id, 1, "제목" + id, "가".repeat(contentChars), 0, "2026-01-01 00:00:00", null);
+	}
+
+	@Test
+	void evictsByApproximateBytesNotByCount() throws Exception {
+		// 한 건 ≈ 96 + (제목 + 본문 + 작성 시각) × 2 ≈ 20KB → 100KB 상한에는 몇 건만
+		PostCache cache = new PostCache(true, 100_000, 60_000);
+		for (int id = 1; id <= 50; id++)
+			cache.get(id, k -> post(k, 10_000));
+
+		// 20KB × 5건이면 상한을 넘으므로 남는 건 많아야 4건
+		awaitStats(cache, s -> (Long) s.get("evictions") >= 46);
+		assertThat((Long) cache.stats().get("weighted_bytes")).isLessThanOrEqualTo(100_000L);
+		assertThat((Long) cache.stats().get("evicted_bytes")).isGreaterThan(46L * 20_000);
+
+		// 짧은 글은 같은 상한 안에 훨씬 많이 들어감
+		PostCache small = new PostCache(true, 100_000, 60_000);
+		for (int id = 1; id <= 50; id++)
+			small.get(id, k -> post(k, 100));
+		awaitStats(small, s -> (Long) s.get("entries") == 50);
+		assertThat(small.stats()).containsEntry("evictions", 0L);
+		assertThat((Long) small.stats().get("weighted_bytes")).isLessThan(20_000L);
+	}
+
+	@Test
+	void loadsOnceAndCountsHitsAndMisses() throws Exception {
+		PostCache cache = new PostCache(true, 1 << 20, 60_000);
+		AtomicInteger loads = new AtomicInteger();
+		PostCache.Loader loader = id -> {
+			loads.incrementAndGet();
+			return id == 404 ? null : post(id, 10);
+		};
+
+		assertThat(cache.get(1, loader).title()).isEqualTo("제목1");
+		assertThat(cache.get(1, loader).title()).isEqualTo("제목1");
+		assertThat(cache.get(404, loader)).isNull();
+		assertThat(cache.get(404, loader)).isNull(); // 없는 글은 저장하지 않음
+		assertThat(loads).hasValue(3);
+		assertThat(cache.stats())
+				.containsEntry("hits", 1L)
+				.containsEntry("misses", 3L)
+				.containsEntry("max_bytes", 1L << 20);
+
+		// loader 예외는 그대로 전달(Caffeine은 null 결과도 load 실패로 셈 → 없는 글 2번 + 예외 1번)
+		assertThatThrownBy(() -> cache.get(2, id -> {
+			throw new SQLException("db down");
+		})).isInstanceOf(SQLException.class).hasMessage("db down");
+		assertThat(cache.stats()).containsEntry("load_failures", 3L);
+	}
+
+	@Test
+	void concurrentMissesShareOneLoad() throws Exception {
+		PostCache cache = new PostCache(true, 1 << 20, 60_000);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			Future<CachedPost> first = pool.submit(() -> cache.get(3, id -> {
+				loads.incrementAndGet();
+				loading.countDown();
+				release.await();
+				return post(id, 10);
+			}));
+			assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+			@SuppressWarnings("unchecked")
+			Future<CachedPost>[] others = new Future[7];
+			for (int i = 0; i < others.length; i++)
+				others[i] = pool.submit(() -> cache.get(3, id -> {
+					loads.incrementAndGet();
+					return post(id, 10);
+				}));
+			release.countDown();
+
+			assertThat(first.get(5, TimeUnit.SECONDS).id()).isEqualTo(3);
+			for (Future<CachedPost> f : others)
+				assertThat(f.get(5, TimeUnit.SECONDS).id()).isEqualTo(3);
+			assertThat(loads).hasValue(1);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void invalidateForcesReload() throws Exception {
+		PostCache cache = new PostCache(true, 1 << 20, 60_000);
+		AtomicInteger version = new AtomicInteger();
+		PostCache.Loader loader = id -> new CachedPost(id, 1, "v" + version.incrementAndGet(), "본문", 0, null, null);
+
+		assertThat(cache.get(5, loader).title()).isEqualTo("v1");
+		assertThat(cache.get(5, loader).title()).isEqualTo("v1");
+		cache.invalidate(5);
+		assertThat(cache.get(5, loader).title()).isEqualTo("v2");
+		cache.invalidate(999); // 캐시에 없는 id는 무시
+	}
+
+	@Test
+	void disabledCacheAlwaysLoads() throws Exception {
+		PostCache cache = new PostCache(false, 0, 0);
+		AtomicInteger loads = new AtomicInteger();
+		for (int i = 0; i < 3; i++)
+			cache.get(1, id -> {
+				loads.incrementAndGet();
+				return post(id, 10);
+			});
+		assertThat(loads).hasValue(3);
+		assertThat(cache.stats()).containsOnlyKeys("enabled").containsEntry("enabled", false);
+	}
+
+	// 크기 계산/축출은 Caffeine 유지보수 작업(비동기)에서 반영되므로 조건이 맞을 때까지 기다림
+	private static void awaitStats(PostCache cache, Predicate<Map<String, Object>> condition)
+			throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.test(cache.stats()) && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		assertThat(condition.test(cache.stats())).as("cache stats: %s", cache.stats()).isTrue();
+	}
+}
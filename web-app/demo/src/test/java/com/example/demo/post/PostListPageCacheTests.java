@@ -0,0 +1,151 @@
+package com.example.demo.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import redis.embedded.RedisServer;
+
+/**
+ * 목록 페이지 캐시: 로컬 redis-server 하나를 두 노드(캐시 인스턴스 두 개)가 공유
+ */
+class PostListPageCacheTests {
+
+	private static RedisServer redisServer;
+	private static int port;
+
+	private LettuceConnectionFactory factory;
+	private StringRedisTemplate redis;
+	private final List<PostListPageCache> caches = new ArrayList<>();
+
+	// "DB" 조회 횟수, 응답 본문에 버전으로 들어감
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@BeforeAll
+	static void startRedis() throws Exception {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		redisServer = new RedisServer(port);
+		redisServer.start();
+	}
+
+	@AfterAll
+	static void stopRedis() throws Exception {
+		if (redisServer != null)
+			redisServer.stop();
+	}
+
+	@BeforeEach
+	void connect() {
+		factory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+		factory.afterPropertiesSet();
+		factory.start();
+		redis = new StringRedisTemplate(factory);
+		redis.getConnectionFactory().getConnection().serverCommands().flushAll();
+	}
+
+	@AfterEach
+	void close() {
+		caches.forEach(PostListPageCache::close);
+		factory.destroy();
+	}
+
+	private PostListPageCache node(long softTtlMillis, long lockWaitMillis) {
+		PostListPageCache c = new PostListPageCache(redis, "test-list:", 3, 60_000, softTtlMillis, 3000, lockWaitMillis);
+		caches.add(c);
+		return c;
+	}
+
+	private byte[] load() {
+		return ("{\"ok\":true,\"v\":" + loads.incrementAndGet() + "}").getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static String text(byte[] body) {
+		return new String(body, StandardCharsets.UTF_8);
+	}
+
+	@Test
+	void servesStoredBytesUntilGenerationBump() throws Exception {
+		PostListPageCache node1 = node(60_000, 300);
+		PostListPageCache node2 = node(60_000, 300);
+
+		assertThat(text(node1.get(1, 20, "exact", this::load))).isEqualTo("{\"ok\":true,\"v\":1}");
+		assertThat(text(node2.get(1, 20, "exact", this::load))).isEqualTo("{\"ok\":true,\"v\":1}");
+		// 페이지 크기 / total 모드가 다르면 다른 항목
+		assertThat(text(node2.get(1, 10, "exact", this::load))).endsWith("2}");
+		assertThat(loads).hasValue(2);
+
+		// 글 작성 → 모든 페이지 미스
+		node1.bumpGeneration();
+		assertThat(text(node2.get(1, 20, "exact", this::load))).endsWith("3}");
+		assertThat(text(node1.get(1, 20, "exact", this::load))).endsWith("3}");
+		assertThat(loads).hasValue(3);
+
+		assertThat(node1.covers(3)).isTrue();
+		assertThat(node1.covers(4)).isFalse();
+		assertThat(node2.stats()).containsEntry("hits", 1L).containsEntry("misses", 2L);
+	}
+
+	@Test
+	void softExpiredEntryIsServedWhileOneBackgroundRefreshRuns() throws Exception {
+		PostListPageCache node1 = node(300, 300);
+		node1.get(1, 20, "exact", this::load);
+		Thread.sleep(350);
+
+		// 옛 값을 바로 내려주고 갱신은 뒤에서
+		assertThat(text(node1.get(1, 20, "exact", this::load))).endsWith("1}");
+		await().atMost(Duration.ofSeconds(5)).pollInterval(Duration.ofMillis(10))
+				.until(() -> node1.stats().get("refreshes").equals(1L));
+		assertThat(text(node1.get(1, 20, "exact", this::load))).endsWith("2}");
+		assertThat(node1.stats()).containsEntry("stale_hits", 1L);
+	}
+
+	@Test
+	void concurrentMissesAcrossNodesLoadOnce() throws Exception {
+		PostListPageCache node1 = node(60_000, 2000);
+		PostListPageCache node2 = node(60_000, 2000);
+		CountDownLatch start = new CountDownLatch(1);
+		PostListPageCache.Loader slow = () -> {
+			Thread.sleep(200);
+			return load();
+		};
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<byte[]>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				PostListPageCache node = i % 2 == 0 ? node1 : node2;
+				results.add(pool.submit(() -> {
+					start.await();
+					return node.get(1, 20, "exact", slow);
+				}));
+			}
+			start.countDown();
+			for (Future<byte[]> f : results)
+				assertThat(text(f.get())).endsWith("1}");
+		} finally {
+			pool.shutdownNow();
+		}
+		assertThat(loads).hasValue(1);
+	}
+}
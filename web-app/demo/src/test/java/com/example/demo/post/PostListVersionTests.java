@@ -0,0 +1,105 @@
+package com.example.demo.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.example.demo.outbox.OutboxEvent;
+import com.example.demo.outbox.OutboxWriter;
+import com.example.demo.support.TestDatabase;
+
+/**
+ * 목록 ETag는 데이터(마지막 게시글 outbox 이벤트)에서만 나옴 → 노드끼리, 재시작 전후로 같음
+ */
+class PostListVersionTests {
+
+	private static final long NOW = 1_800_000_000_000L;
+
+	private DriverManagerDataSource h2;
+	private ViewCountBufferTests.FlakyDataSource ds;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		h2 = TestDatabase.h2("listversion");
+		ds = new ViewCountBufferTests.FlakyDataSource(h2);
+	}
+
+	@Test
+	void sameDataGivesSameEtagOnEveryNode() throws Exception {
+		append(OutboxEvent.Type.POST_CREATED, 1);
+		append(OutboxEvent.Type.POST_UPDATED, 1);
+		append(OutboxEvent.Type.COMMENT_CREATED, 1); // 댓글 이벤트는 generation에 들어가지 않음
+
+		PostListVersion nodeA = new PostListVersion(ds, 5000);
+		PostListVersion nodeB = new PostListVersion(ds, 5000);
+		assertThat(nodeA.etag(NOW)).isEqualTo(nodeB.etag(NOW)).isEqualTo("W/\"l2-" + NOW / 5000 + "\"");
+
+		// 재시작한 노드도 같은 값
+		assertThat(new PostListVersion(ds, 5000).etag(NOW)).isEqualTo(nodeA.etag(NOW));
+		// 시간 구간이 바뀌면 다름
+		assertThat(nodeA.etag(NOW + 5000)).isNotEqualTo(nodeA.etag(NOW));
+	}
+
+	@Test
+	void writerRereadsAndOthersCatchUpThroughEvents() throws Exception {
+		append(OutboxEvent.Type.POST_CREATED, 1);
+		PostListVersion writer = new PostListVersion(ds, 5000);
+		PostListVersion other = new PostListVersion(ds, 5000);
+		String before = writer.etag(NOW);
+		assertThat(other.etag(NOW)).isEqualTo(before);
+
+		// 쓴 노드: 커밋 후 bump → 다음 요청에서 DB를 다시 읽음
+		long eventId = append(OutboxEvent.Type.POST_DELETED, 1);
+		writer.bump();
+		String after = writer.etag(NOW);
+		assertThat(after).isNotEqualTo(before);
+
+		// 다른 노드: outbox 이벤트를 받기 전에는 예전 값(DB를 다시 읽지 않음), 받은 뒤에는 같은 값
+		assertThat(other.etag(NOW)).isEqualTo(before);
+		other.observe(eventId, NOW - 1000);
+		other.observe(eventId, NOW - 1000); // 중복 전달
+		other.observe(eventId - 1, NOW - 2000); // 늦게 온 예전 이벤트
+		assertThat(other.etag(NOW)).isEqualTo(after);
+	}
+
+	@Test
+	void lastModifiedFollowsTheLatestPostEvent() throws Exception {
+		PostListVersion v = new PostListVersion(ds, 5000);
+		long bucketStart = NOW / 5000 * 5000;
+		assertThat(v.lastModified(NOW)).isEqualTo(bucketStart); // 이벤트 없음
+
+		v.observe(7, NOW + 1234);
+		assertThat(v.lastModified(NOW)).isEqualTo(NOW + 1234);
+		assertThat(v.lastModified(NOW + 60_000)).isEqualTo((NOW + 60_000) / 5000 * 5000);
+	}
+
+	@Test
+	void failedReadIsRetried() throws Exception {
+		append(OutboxEvent.Type.POST_CREATED, 1);
+		PostListVersion v = new PostListVersion(ds, 5000);
+
+		ds.down.set(true);
+		assertThatThrownBy(() -> v.etag(NOW)).isInstanceOf(SQLException.class);
+		// 다음 요청에서 다시 시도
+		ds.down.set(false);
+		assertThat(v.etag(NOW)).startsWith("W/\"l1-");
+	}
+
+	private long append(OutboxEvent.Type type, int postId) throws SQLException {
+		try (Connection conn = h2.getConnection()) {
+			OutboxWriter.append(conn, type, postId, null, 1);
+		}
+		try (Connection conn = h2.getConnection(); Statement st = conn.createStatement();
+				var rs = st.executeQuery("SELECT MAX(id) FROM outbox_events")) {
+			rs.next();
+			return rs.getLong(1);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package com.example.demo.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.example.demo.support.TestDatabase;
+
+/**
+ * 게시글 목록 total: 처음 한 번만 COUNT(*), 이후 ±1, 재동기화로 오차 보정, 검색 개수 TTL 캐시
+ */
+class PostTotalCounterTests {
+
+	private DriverManagerDataSource h2;
+	private ViewCountBufferTests.FlakyDataSource ds;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		h2 = TestDatabase.h2("totals");
+		TestDatabase.insertUsers(h2, 1);
+		insertPosts(10);
+		ds = new ViewCountBufferTests.FlakyDataSource(h2);
+	}
+
+	@Test
+	void countsOnceThenFollowsEvents() throws Exception {
+		PostTotalCounter totals = new PostTotalCounter(ds, 30_000, 100);
+
+		// 요청 전에는 이벤트도 재동기화도 아무것도 하지 않음
+		totals.onCreated();
+		totals.resync();
+		assertThat(totals.stats()).containsEntry("total", -1L);
+
+		assertThat(totals.exact()).isEqualTo(10);
+		// 이후에는 DB를 읽지 않음
+		ds.down.set(true);
+		totals.onCreated();
+		totals.onCreated();
+		totals.onDeleted();
+		assertThat(totals.exact()).isEqualTo(11);
+		assertThat(totals.estimate()).isEqualTo(11);
+	}
+
+	@Test
+	void neverGoesBelowZero() throws Exception {
+		try (Connection conn = h2.getConnection(); Statement st = conn.createStatement()) {
+			st.execute("DELETE FROM posts");
+		}
+		PostTotalCounter totals = new PostTotalCounter(ds, 30_000, 100);
+		assertThat(totals.exact()).isZero();
+		totals.onDeleted();
+		assertThat(totals.exact()).isZero();
+	}
+
+	@Test
+	void resyncCorrectsDuplicateOrMissedEvents() throws Exception {
+		PostTotalCounter totals = new PostTotalCounter(ds, 30_000, 100);
+		assertThat(totals.exact()).isEqualTo(10);
+
+		// 같은 POST_CREATED가 두 번 전달됨 + 다른 노드에서 이 노드 시작 전에 쓴 글
+		totals.onCreated();
+		totals.onCreated();
+		insertPosts(3);
+		assertThat(totals.exact()).isEqualTo(12);
+
+		totals.resync();
+		assertThat(totals.exact()).isEqualTo(13);
+
+		// DB 장애 중 재동기화는 실패해도 마지막 값 유지
+		totals.onCreated();
+		ds.down.set(true);
+		totals.resync();
+		assertThat(totals.exact()).isEqualTo(14);
+	}
+
+	@Test
+	void searchCountsExpireAndStayBounded() throws Exception {
+		PostTotalCounter totals = new PostTotalCounter(ds, 200, 3);
+
+		assertThat(totals.cachedSearchCount("title", "공지", false)).isNull();
+		totals.putSearchCount("title", "공지", 7);
+		assertThat(totals.cachedSearchCount("title", "공지", false)).isEqualTo(7);
+		assertThat(totals.cachedSearchCount("content", "공지", false)).isNull(); // type별로 따로
+
+		Thread.sleep(250);
+		assertThat(totals.cachedSearchCount("title", "공지", false)).isNull();
+		// estimate 모드는 만료된 값도 사용
+		assertThat(totals.cachedSearchCount("title", "공지", true)).isEqualTo(7);
+
+		// 상한: 만료된 항목부터 정리
+		totals.putSearchCount("both", "a", 1);
+		totals.putSearchCount("both", "b", 2);
+		totals.putSearchCount("both", "c", 3);
+		assertThat(totals.stats()).containsEntry("search_entries", 3);
+		assertThat(totals.cachedSearchCount("title", "공지", true)).isNull();
+
+		// 만료된 항목이 없으면 전체 비움
+		totals.putSearchCount("both", "d", 4);
+		assertThat(totals.stats()).containsEntry("search_entries", 1);
+		assertThat(totals.cachedSearchCount("both", "d", false)).isEqualTo(4);
+
+		assertThat(totals.stats())
+				.containsEntry("search_hits", 3L)
+				.containsEntry("search_misses", 4L);
+	}
+
+	private void insertPosts(int n) throws SQLException {
+		TestDatabase.insertPosts(h2, 1, n);
+	}
+}
@@ -0,0 +1,318 @@
+package com.example.demo.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.example.demo.dto.PostSummary;
+import com.example.demo.post.viewer.ExactViewDedup;
+import com.example.demo.support.OwnedWrite;
+import com.example.demo.support.TestDatabase;
+import com.example.demo.user.UserCache.CachedUser;
+import com.example.demo.user.UserRepository;
+
+/**
+ * Repository 계층의 DB 왕복 수 / SQL 문장 종류 확인(H2 MySQL 모드)
+ *
+ * - CountingDataSource: 실행(execute*) / 트랜잭션 제어(setAutoCommit, commit, rollback) 호출 수와
+ *   prepare된 SQL 문자열을 기록
+ * - 예전 컨트롤러 코드 기준 비교값
+ *   수정/삭제(작성자 확인) = SELECT + UPDATE/DELETE 2회, 프로필 UPSERT = autocommit 끄기 + UPDATE + INSERT + commit + autocommit 켜기
+ * - 문장 종류가 적을수록 서버 측 prepared statement 캐시(useServerPrepStmts + cachePrepStmts)에서
+ *   파싱 없이 재사용되는 비율이 높아짐(H2에서는 왕복/문장 수만 확인)
+ */
+class RepositoryRoundTripTests {
+
+	private CountingDataSource ds;
+	private PostRepository posts;
+	private CommentRepository comments;
+	private CommentCounter counter;
+	private UserRepository users;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		DriverManagerDataSource h2 = TestDatabase.h2("repo");
+
+		ds = new CountingDataSource(h2);
+		PostCache postCache = new PostCache(false, 0, 0);
+		ViewCountBuffer viewCounts = new ViewCountBuffer(ds, new ExactViewDedup(), 500, 100_000, false);
+		posts = new PostRepository(ds, viewCounts);
+		counter = new CommentCounter(ds, postCache, 4, 100, 1000);
+		comments = new CommentRepository(ds, counter);
+		users = new UserRepository(ds);
+
+		for (int u = 1; u <= 3; u++)
+			users.insert("user" + u, "hash" + u, "nick" + u);
+		for (int p = 1; p <= 60; p++)
+			posts.insert(p % 2 == 0 ? 1 : 2, "제목 " + p + (p % 10 == 0 ? " 공지" : ""), "내용 " + p);
+		try (Connection conn = h2.getConnection(); Statement st = conn.createStatement()) {
+			st.execute("DELETE FROM outbox_events");
+		}
+		ds.reset();
+	}
+
+	@Test
+	void ownerCheckedWritesTakeOneStatement() throws Exception {
+		// 작성자 확인 + UPDATE 한 문장 + 같은 트랜잭션의 outbox INSERT
+		assertThat(posts.update(2, 1, "새 제목", "새 내용")).isEqualTo(OwnedWrite.DONE);
+		assertThat(ds.executions).isEqualTo(2);
+		assertThat(ds.txControl).isEqualTo(3);
+		assertThat(outboxTypes()).containsExactly("POST_UPDATED");
+
+		// 같은 값으로 다시 수정해도 "조건에 맞은 행"이 있으므로 DONE
+		ds.reset();
+		assertThat(posts.update(2, 1, "새 제목", "새 내용")).isEqualTo(OwnedWrite.DONE);
+		assertThat(ds.executions).isEqualTo(2);
+
+		// 실패 경로에서만 구분용 SELECT가 한 번 더(이벤트는 남지 않음)
+		ds.reset();
+		assertThat(posts.update(2, 2, "x", "y")).isEqualTo(OwnedWrite.FORBIDDEN);
+		assertThat(posts.update(999, 1, "x", "y")).isEqualTo(OwnedWrite.NOT_FOUND);
+		assertThat(ds.executions).isEqualTo(4);
+		assertThat(outboxTypes()).containsExactly("POST_UPDATED", "POST_UPDATED");
+		assertThat(posts.findById(2).title()).isEqualTo("새 제목");
+
+		// 삭제는 행 잠금 + 작성자 확인 SELECT, 댓글/댓글 수 슬롯/게시글 DELETE, outbox INSERT(FK에 CASCADE 없음)
+		ds.reset();
+		assertThat(posts.delete(4, 1)).isEqualTo(OwnedWrite.DONE);
+		assertThat(ds.executions).isEqualTo(5);
+		assertThat(posts.findById(4)).isNull();
+		ds.reset();
+		assertThat(posts.delete(2, 2)).isEqualTo(OwnedWrite.FORBIDDEN);
+		assertThat(ds.executions).isEqualTo(1);
+
+		Integer commentId = comments.insert(2, 3, "댓글");
+		CommentRepository.Version before = comments.version(2);
+		assertThat(before.maxId()).isEqualTo(commentId.longValue());
+		assertThat(before.lastEdited()).isNull();
+		ds.reset();
+		assertThat(comments.update(commentId, 3, "수정")).isEqualTo(OwnedWrite.DONE);
+		assertThat(ds.executions).isEqualTo(1);
+		// 수정은 마지막 id 대신 수정 시각으로 버전이 바뀜
+		assertThat(comments.version(2).lastEdited()).isNotNull();
+		assertThat(comments.update(commentId, 1, "남의 댓글")).isEqualTo(OwnedWrite.FORBIDDEN);
+		assertThat(comments.findPage(2, 0, 10)).singleElement()
+				.satisfies(c -> assertThat(c.comment()).isEqualTo("수정"));
+	}
+
+	@Test
+	void profileUpsertIsOneStatementWithoutTransaction() throws Exception {
+		users.upsertProfile(1, "처음", "010", "2000-01-02", null);
+		users.upsertProfile(1, "두 번째", "011", null, "https://example.com/a.png");
+		assertThat(ds.executions).isEqualTo(2);
+		assertThat(ds.txControl).isZero();
+
+		CachedUser u = users.findById(1);
+		assertThat(u.bio()).isEqualTo("두 번째");
+		assertThat(u.phone()).isEqualTo("011");
+		assertThat(u.birthDate()).isNull();
+		assertThat(u.profileImageUrl()).isEqualTo("https://example.com/a.png");
+		assertThat(u.profileUpdatedAt()).isNotNull();
+	}
+
+	@Test
+	void statementTextsStayConstantAcrossArgumentShapes() throws Exception {
+		int[] idsDesc = IntStream.rangeClosed(1, 60).map(i -> 61 - i).toArray();
+		for (int n = 1; n <= 51; n++) {
+			List<PostSummary> page = posts.findByIds(idsDesc, 0, n);
+			// 남는 자리에 마지막 id를 다시 넣어도 결과는 n건
+			assertThat(page).hasSize(n);
+			assertThat(page.get(n - 1).id()).isEqualTo(idsDesc[n - 1]);
+		}
+		// 1, 2, 4, ..., 64 → 7종류(예전: 51종류)
+		assertThat(ds.distinctSql()).isEqualTo(7);
+
+		ds.reset();
+		List<Integer> userIds = new ArrayList<>();
+		for (int n = 1; n <= 100; n++) {
+			userIds.add(n);
+			assertThat(users.findAllById(userIds)).hasSize(Math.min(n, 3));
+		}
+		assertThat(ds.distinctSql()).isEqualTo(8);
+
+		ds.reset();
+		for (int page = 0; page < 5; page++) {
+			for (String type : List.of("title", "content", "both")) {
+				posts.findPage(type, "공지", 20, page * 20);
+				posts.seek(type, "공지", 30 + page, true, 21);
+				posts.seek(type, "공지", 30 + page, false, 21);
+			}
+			posts.findPage("both", null, 20, page * 20);
+		}
+		// findPage 4종류(검색 없음/title/content/both) + seek 6종류(title/content/both × 방향)
+		assertThat(ds.distinctSql()).isEqualTo(10);
+		assertThat(ds.prepares).isEqualTo(5 * 10);
+	}
+
+	@Test
+	void indexMappersReadTheRightColumns() throws Exception {
+		PostSummary first = posts.findPage("title", "공지", 20, 0).get(0);
+		assertThat(first.id()).isEqualTo(60);
+		assertThat(first.userId()).isEqualTo(1);
+		assertThat(first.title()).isEqualTo("제목 60 공지");
+		assertThat(first.content()).isEqualTo("내용 60");
+		assertThat(first.createdAt()).isNotNull();
+		assertThat(posts.countMatching("title", "공지")).isEqualTo(6);
+		assertThat(posts.countMatching("content", "공지")).isZero();
+
+		List<PostSummary> older = posts.seek("both", null, 10, true, 3);
+		assertThat(older).extracting(PostSummary::id).containsExactly(9, 8, 7);
+		List<PostSummary> newer = posts.seek("both", null, 10, false, 3);
+		assertThat(newer).extracting(PostSummary::id).containsExactly(11, 12, 13);
+
+		Integer c1 = comments.insert(10, 3, "a");
+		comments.insert(10, 1, "b");
+		assertThat(posts.findById(10).commentsCnt()).isEqualTo(2);
+		assertThat(comments.insert(999, 1, "없는 글")).isNull();
+
+		assertThat(users.findPageAuthors(10, 1)).extracting(CachedUser::id).containsExactlyInAnyOrder(1, 3);
+		assertThat(users.findCredentials("user2")).isEqualTo(new UserRepository.Credentials(2, "hash2"));
+		assertThat(users.existsByUsername("nobody")).isFalse();
+
+		CommentRepository.Deleted deleted = comments.delete(c1, 3);
+		assertThat(deleted).isEqualTo(new CommentRepository.Deleted(OwnedWrite.DONE, 10));
+		assertThat(posts.findById(10).commentsCnt()).isEqualTo(1);
+
+		List<String> streamed = new ArrayList<>();
+		comments.streamByPost(10, 100, rows -> {
+			while (rows.next())
+				streamed.add(rows.current().comment());
+		});
+		assertThat(streamed).containsExactly("b");
+	}
+
+	@Test
+	void commentCountSlotsFoldAndReconcile() throws Exception {
+		for (int i = 0; i < 20; i++)
+			comments.insert(20, 1 + i % 3, "c" + i);
+		Integer mine = comments.insert(20, 3, "지울 댓글");
+		comments.delete(mine, 3);
+		// posts 행은 그대로, 슬롯 합으로 읽힘
+		assertThat(posts.findById(20).commentsCnt()).isEqualTo(20);
+		assertThat(posts.findPage("both", null, 1, 40).get(0).commentsCnt()).isEqualTo(20);
+
+		counter.fold();
+		assertThat(rawCommentsCnt(20)).isEqualTo(20);
+		assertThat(posts.findById(20).commentsCnt()).isEqualTo(20);
+		assertThat(counter.stats()).containsEntry("folded_posts", 1L);
+
+		// 어긋난 값(수동 수정/유실)만 다시 계산
+		try (Connection conn = ds.getConnection(); Statement st = conn.createStatement()) {
+			st.executeUpdate("UPDATE posts SET comments_cnt = 7 WHERE id = 20");
+			st.executeUpdate("INSERT INTO post_comment_count_slots (post_id, slot, delta) VALUES (21, 0, 3)");
+		}
+		assertThat(counter.reconcile()).isEqualTo(2);
+		assertThat(posts.findById(20).commentsCnt()).isEqualTo(20);
+		assertThat(posts.findById(21).commentsCnt()).isZero();
+		assertThat(counter.reconcile()).isZero();
+	}
+
+	private List<String> outboxTypes() throws SQLException {
+		List<String> types = new ArrayList<>();
+		try (Connection conn = ds.getConnection();
+				Statement st = conn.createStatement();
+				ResultSet rs = st.executeQuery("SELECT event_type FROM outbox_events ORDER BY id")) {
+			while (rs.next())
+				types.add(rs.getString(1));
+		}
+		return types;
+	}
+
+	private int rawCommentsCnt(int postId) throws SQLException {
+		try (Connection conn = ds.getConnection();
+				PreparedStatement ps = conn.prepareStatement("SELECT comments_cnt FROM posts WHERE id = ?")) {
+			ps.setInt(1, postId);
+			try (ResultSet rs = ps.executeQuery()) {
+				rs.next();
+				return rs.getInt(1);
+			}
+		}
+	}
+
+	/**
+	 * 커넥션/문장 호출을 세는 DataSource(단일 스레드 테스트용)
+	 */
+	static class CountingDataSource extends AbstractDataSource {
+
+		private final DriverManagerDataSource target;
+
+		int executions;
+		int txControl;
+		int prepares;
+		final List<String> sql = new ArrayList<>();
+
+		CountingDataSource(DriverManagerDataSource target) {
+			this.target = target;
+		}
+
+		void reset() {
+			executions = 0;
+			txControl = 0;
+			prepares = 0;
+			sql.clear();
+		}
+
+		int distinctSql() {
+			Set<String> s = new HashSet<>(sql);
+			return s.size();
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			Connection conn = target.getConnection();
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+					new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+						switch (method.getName()) {
+							case "setAutoCommit", "commit", "rollback" -> txControl++;
+							case "prepareStatement" -> {
+								prepares++;
+								sql.add((String) args[0]);
+								return countExecutions((PreparedStatement) invoke(conn, method, args));
+							}
+							default -> {
+							}
+						}
+						return invoke(conn, method, args);
+					});
+		}
+
+		@Override
+		public Connection getConnection(String username, String password) throws SQLException {
+			return getConnection();
+		}
+
+		private PreparedStatement countExecutions(PreparedStatement ps) {
+			return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+					new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+						if (method.getName().startsWith("execute"))
+							executions++;
+						return invoke(ps, method, args);
+					});
+		}
+
+		private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+}
@@ -0,0 +1,236 @@
+package com.example.demo.post;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.example.demo.post.viewer.BloomViewDedup;
+import com.example.demo.post.viewer.ExactViewDedup;
+import com.example.demo.post.viewer.ViewDedupStrategy;
+import com.example.demo.post.viewer.WindowViewDedup;
+import com.example.demo.support.TestDatabase;
+
+/**
+ * 조회수 write-behind 버퍼(H2 MySQL 모드)
+ *
+ * - 새 조회 판단은 post_view_logs PK(INSERT IGNORE 행별 결과)
+ * - 대기열 상한 / 종료 시 flush / 조회와 flush가 겹칠 때 증가분 보존
+ */
+class ViewCountBufferTests {
+
+	private DriverManagerDataSource h2;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		h2 = TestDatabase.h2("views");
+		TestDatabase.insertUsers(h2, 1);
+		TestDatabase.insertPosts(h2, 1, 8);
+	}
+
+	@Test
+	void repeatViewersNeverRaiseTheDisplayedCount() throws Exception {
+		ViewCountBuffer views = new ViewCountBuffer(h2,
+				new ExactViewDedup(new BloomViewDedup(1000, 0.01, 86_400_000, 100)), 500, 1000, false);
+
+		views.record(1, "a");
+		views.record(1, "b");
+		assertThat(views.pendingDelta(1)).isEqualTo(2);
+		views.flush();
+		assertThat(viewCount(1)).isEqualTo(2);
+		assertThat(views.pendingDelta(1)).isZero();
+
+		// 다시 본 사용자: 스케치가 걸러서 flush 전에도 올라가지 않음(테이블 기준으로도 중복)
+		views.record(1, "a");
+		assertThat(views.pendingDelta(1)).isZero();
+		views.flush();
+		assertThat(viewCount(1)).isEqualTo(2);
+		assertThat(views.stats()).containsEntry("duplicate_views", 1L);
+	}
+
+	@Test
+	void twoNodesFlushingTheSamePairCountItOnce() throws Exception {
+		ViewCountBuffer nodeA = new ViewCountBuffer(h2, new ExactViewDedup(), 500, 1000, false);
+		ViewCountBuffer nodeB = new ViewCountBuffer(h2, new ExactViewDedup(), 500, 1000, false);
+
+		// 두 노드 모두 "처음 본 조회"로 기록 → PK에 먼저 들어간 쪽만 셈
+		nodeA.record(1, "x");
+		nodeB.record(1, "x");
+		nodeB.record(1, "y");
+		nodeA.flush();
+		nodeB.flush();
+
+		assertThat(viewCount(1)).isEqualTo(2);
+		assertThat(nodeA.stats()).containsEntry("new_views", 1L);
+		assertThat(nodeB.stats()).containsEntry("new_views", 1L).containsEntry("duplicate_views", 1L);
+		assertThat(nodeB.pendingDelta(1)).isZero();
+	}
+
+	@Test
+	void statementTextsStayConstantAcrossBatchShapes() throws Exception {
+		RepositoryRoundTripTests.CountingDataSource ds = new RepositoryRoundTripTests.CountingDataSource(h2);
+		ViewCountBuffer views = new ViewCountBuffer(ds, new ExactViewDedup(), 500, 1000, false);
+
+		int total = 0;
+		for (int n = 1; n <= 20; n++) {
+			for (int i = 0; i < n; i++)
+				views.record(1 + i % 8, "v" + n + ":" + i);
+			total += n;
+			views.flush();
+		}
+		assertThat(sumViewCounts()).isEqualTo(total);
+		// INSERT IGNORE 한 종류 + UPDATE 한 종류(예전: 배치 크기 / 게시글 수마다 다른 문장)
+		assertThat(ds.distinctSql()).isEqualTo(2);
+	}
+
+	@Test
+	void queueIsBoundedWhileTheDatabaseIsDown() throws Exception {
+		FlakyDataSource ds = new FlakyDataSource(h2);
+		ViewCountBuffer views = new ViewCountBuffer(ds, new ExactViewDedup(), 2, 3, false);
+
+		ds.down.set(true);
+		for (int i = 0; i < 5; i++)
+			views.record(1, "u" + i);
+		assertThat(views.stats())
+				.containsEntry("queued_logs", 3)
+				.containsEntry("dropped_views", 2L);
+		assertThat(views.pendingDelta(1)).isEqualTo(3);
+
+		// 실패한 배치는 다시 대기열로(상한은 그대로)
+		views.flush();
+		views.record(1, "late");
+		assertThat(views.stats())
+				.containsEntry("queued_logs", 3)
+				.containsEntry("dropped_views", 3L)
+				.containsEntry("flush_failures", 1L);
+		assertThat(views.pendingDelta(1)).isEqualTo(3);
+
+		ds.down.set(false);
+		views.flush();
+		assertThat(viewCount(1)).isEqualTo(3);
+		assertThat(views.pendingDelta(1)).isZero();
+		assertThat(views.stats()).containsEntry("queued_logs", 0);
+
+		views.record(1, "after");
+		assertThat(views.stats()).containsEntry("queued_logs", 1);
+	}
+
+	@Test
+	void shutdownFlushDrainsEveryBatch() throws Exception {
+		ViewCountBuffer views = new ViewCountBuffer(h2, new ExactViewDedup(), 2, 1000, false);
+		for (int i = 0; i < 7; i++)
+			views.record(2, "s" + i);
+
+		views.flushOnShutdown();
+
+		assertThat(viewCount(2)).isEqualTo(7);
+		assertThat(views.pendingDelta(2)).isZero();
+		assertThat(views.stats())
+				.containsEntry("queued_logs", 0)
+				.containsEntry("pending_posts", 0);
+	}
+
+	@Test
+	void recordsRacingWithSealingAreNotLost() throws Exception {
+		assertNoViewsLost(new ExactViewDedup(), 3);
+		assertNoViewsLost(new WindowViewDedup(86_400_000, 1_000_000), 4);
+	}
+
+	// 여러 스레드가 같은 글을 조회하는 동안 flush를 계속 돌림
+	// → 증가분이 0이 되어 SEALED로 지워지는 순간과 겹친 조회도 DB에 모두 반영돼야 함
+	private void assertNoViewsLost(ViewDedupStrategy dedup, int postId) throws Exception {
+		ViewCountBuffer views = new ViewCountBuffer(h2, dedup, 50, 1_000_000, false);
+		int threads = 8;
+		int perThread = 500;
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> writers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int id = t;
+			writers.add(pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < perThread; i++) {
+					views.record(postId, id + ":" + i);
+					if (i % 50 == 0)
+						Thread.yield();
+				}
+				return null;
+			}));
+		}
+
+		start.countDown();
+		while (writers.stream().anyMatch(f -> !f.isDone()))
+			views.flush();
+		for (Future<?> f : writers)
+			f.get();
+		pool.shutdown();
+		assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+		views.flushOnShutdown();
+		assertThat(viewCount(postId)).isEqualTo(threads * perThread);
+		assertThat(views.pendingDelta(postId)).isZero();
+		assertThat(views.stats()).containsEntry("pending_views", 0L);
+	}
+
+	private int viewCount(int postId) throws SQLException {
+		try (Connection conn = h2.getConnection();
+				PreparedStatement ps = conn.prepareStatement("SELECT view_count FROM posts WHERE id = ?")) {
+			ps.setInt(1, postId);
+			try (ResultSet rs = ps.executeQuery()) {
+				rs.next();
+				return rs.getInt(1);
+			}
+		}
+	}
+
+	private int sumViewCounts() throws SQLException {
+		try (Connection conn = h2.getConnection();
+				Statement st = conn.createStatement();
+				ResultSet rs = st.executeQuery("SELECT SUM(view_count) FROM posts")) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+
+	/**
+	 * down이면 커넥션을 주지 않는 DataSource(DB 장애 흉내)
+	 */
+	static class FlakyDataSource extends AbstractDataSource {
+
+		private final DriverManagerDataSource target;
+		final AtomicBoolean down = new AtomicBoolean();
+
+		FlakyDataSource(DriverManagerDataSource target) {
+			this.target = target;
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			if (down.get())
+				throw new SQLException("database is down");
+			return target.getConnection();
+		}
+
+		@Override
+		public Connection getConnection(String username, String password) throws SQLException {
+			return getConnection();
+		}
+	}
+}
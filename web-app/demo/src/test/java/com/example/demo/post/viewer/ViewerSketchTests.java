@@ -0,0 +1,66 @@
+package com.example.demo.post.viewer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import org.junit.jupiter.api.Test;
+
+class ViewerSketchTests {
+
+	@Test
+	void bloomFilterFalsePositiveRateStaysNearTarget() {
+		BloomFilter filter = new BloomFilter(1000, 0.01);
+		for (int i = 0; i < 1000; i++) {
+			filter.add(ViewerHash.hash64("u:" + i));
+		}
+		for (int i = 0; i < 1000; i++) {
+			assertThat(filter.mightContain(ViewerHash.hash64("u:" + i))).isTrue();
+		}
+
+		int falsePositives = 0;
+		for (int i = 1000; i < 11000; i++) {
+			if (filter.mightContain(ViewerHash.hash64("u:" + i)))
+				falsePositives++;
+		}
+
+		assertThat(falsePositives / 10000.0).isLessThan(0.03);
+		assertThat(filter.estimatedFpp()).isLessThan(0.03);
+	}
+
+	@Test
+	void hyperLogLogEstimatesWithinFewPercent() {
+		HyperLogLog hll = new HyperLogLog(11);
+		for (int i = 0; i < 50000; i++) {
+			hll.add(ViewerHash.hash64("g:" + i));
+			// 같은 사용자 재조회는 결과에 영향 없음
+			hll.add(ViewerHash.hash64("g:" + i));
+		}
+
+		assertThat(hll.estimate()).isBetween(47500L, 52500L);
+	}
+
+	@Test
+	void windowDedupCountsOncePerViewer() {
+		WindowViewDedup dedup = new WindowViewDedup(60_000, 1_000_000);
+
+		assertThat(dedup.firstView(1, "u:1")).isTrue();
+		assertThat(dedup.firstView(1, "u:1")).isFalse();
+		assertThat(dedup.firstView(2, "u:1")).isTrue();
+	}
+
+	@Test
+	void guestKeyMatchesLegacyFormat() throws Exception {
+		// 예전 ApiController.sha256Hex(raw).substring(0, 32)와 같은 값이어야 기존 조회 기록과 중복 판정이 이어짐
+		String raw = "10.0.0.1|curl/8.0";
+		byte[] dig = MessageDigest.getInstance("SHA-256")
+				.digest(raw.getBytes(StandardCharsets.UTF_8));
+		StringBuilder sb = new StringBuilder();
+		for (byte b : dig)
+			sb.append(String.format("%02x", b));
+
+		assertThat(ViewerKeys.guest("10.0.0.1", "curl/8.0")).isEqualTo("g:" + sb.substring(0, 32));
+		assertThat(ViewerKeys.guest("10.0.0.1", null)).isEqualTo(ViewerKeys.guest("10.0.0.1", ""));
+	}
+}
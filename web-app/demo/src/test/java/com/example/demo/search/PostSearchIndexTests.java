@@ -0,0 +1,201 @@
+package com.example.demo.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.example.demo.dto.PostSummary;
+import com.example.demo.post.PostRepository;
+import com.example.demo.post.ViewCountBuffer;
+import com.example.demo.post.viewer.ExactViewDedup;
+import com.example.demo.support.TestDatabase;
+
+/**
+ * 검색 역색인 결과가 LIKE 검색(PostRepository.findPage)과 같은지 확인(H2 MySQL 모드, 대소문자 무시)
+ *
+ * - type=title|content|both, 키워드 길이/공백/대소문자, id DESC 순서
+ * - 원문 캐시가 작아 후보를 DB에서 id로 다시 읽는 경우도 같은 결과
+ * - 재구축 중 들어온 변경(pendingOps)이 새 색인에 다시 적용되는지
+ */
+class PostSearchIndexTests {
+
+	private static final String[] WORDS = {
+			"게시글", "게시판", "공지", "공지사항", "질문", "답변", "스프링", "Spring", "boot", "BOOT",
+			"자바", "java", "인덱스", "검색", "시글", "글", "테스트", "test", "ab", "Ab", "a b", "!!", "ㅋㅋ" };
+
+	private static final String[] KEYWORDS = {
+			"게시글", "게시", "시글", "글 ", " 공지", "공지사항", "spring", "SPRING", "boot 자바", "ab", "a b",
+			"b a", "!!", "ㅋㅋㅋ", "인덱스 검색", "없는키워드", "판 질", "va" };
+
+	private DriverManagerDataSource h2;
+	private PostRepository posts;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		// MySQL _ci collation 흉내(LIKE 검색도 대소문자 무시)
+		h2 = TestDatabase.h2("search", ";IGNORECASE=TRUE");
+		TestDatabase.insertUsers(h2, 1);
+
+		Random random = new Random(42);
+		for (int i = 0; i < 300; i++)
+			insert(sentence(random, 1 + random.nextInt(3)), sentence(random, 2 + random.nextInt(8)));
+
+		posts = new PostRepository(h2,
+				new ViewCountBuffer(h2, new ExactViewDedup(), 500, 1000, false));
+	}
+
+	@Test
+	void matchesLikeSearchForEveryType() throws Exception {
+		PostSearchIndex index = new PostSearchIndex(h2, 64L << 20);
+		index.rebuild();
+		assertSameAsLike(index);
+		assertThat(index.stats()).containsEntry("docs", 300).containsEntry("texts_fetched", 0L);
+	}
+
+	@Test
+	void verifiesCandidatesFromRowsWhenTextCacheIsTooSmall() throws Exception {
+		// 원문을 거의 담지 못하는 캐시 → 후보 원문은 DB에서 id로
+		PostSearchIndex index = new PostSearchIndex(h2, 1);
+		index.rebuild();
+		assertSameAsLike(index);
+		assertThat((Long) index.stats().get("texts_fetched")).isPositive();
+
+		// 예전 원문을 몰라 토큰이 남아도(stale, 캐시 축출 시점에 따라 0~2건) 원문 확인에서 걸러짐
+		update(7, "바뀐 제목", "바뀐 본문");
+		index.index(7, "바뀐 제목", "바뀐 본문");
+		delete(8);
+		index.remove(8);
+		assertThat(index.stats()).containsEntry("docs", 299);
+		assertSameAsLike(index);
+		assertThat(index.search("both", "바뀐 본")).containsExactly(7);
+	}
+
+	@Test
+	void shortKeywordsAndWildcardsAreHandledByCaller() throws Exception {
+		PostSearchIndex index = new PostSearchIndex(h2, 64L << 20);
+		assertThat(index.search("both", "게시")).isNull(); // 구축 전
+
+		index.rebuild();
+		// bi-gram이 없는 1글자는 LIKE로
+		assertThat(index.search("both", "글")).isNull();
+		assertThat(index.search("title", " ")).isNull();
+
+		// %, _는 글자 그대로(LIKE에서는 와일드카드)
+		int id = insert("할인 50% 공지", "a_b");
+		index.index(id, "할인 50% 공지", "a_b");
+		assertThat(index.search("title", "50%")).containsExactly(id);
+		assertThat(index.search("content", "a_b")).containsExactly(id);
+		assertThat(index.search("content", "a_c")).isEmpty();
+	}
+
+	@Test
+	void replaysChangesMadeDuringRebuild() throws Exception {
+		CountDownLatch scanning = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		PostSearchIndex index = new PostSearchIndex(new AbstractDataSource() {
+			@Override
+			public Connection getConnection() throws SQLException {
+				if (Thread.currentThread().getName().equals("post-search-index-build")) {
+					scanning.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				return h2.getConnection();
+			}
+
+			@Override
+			public Connection getConnection(String username, String password) throws SQLException {
+				return getConnection();
+			}
+		}, 64L << 20);
+
+		update(11, "삭제될 글", "본문");
+		assertThat(index.rebuildAsync()).isTrue();
+		assertThat(scanning.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(index.rebuildAsync()).isFalse();
+
+		// 스캔 전에 들어온 변경: DB에는 아직 옛 내용(스캔이 읽는 값)이지만 색인은 이벤트 기준
+		index.index(10, "재구축 중 수정", "새 본문");
+		index.remove(11);
+		release.countDown();
+		waitUntilBuilt(index);
+
+		assertThat(index.search("title", "재구축 중")).containsExactly(10);
+		assertThat(index.search("both", "삭제될")).isEmpty();
+		assertThat(index.stats()).containsEntry("docs", 299);
+	}
+
+	private void assertSameAsLike(PostSearchIndex index) throws Exception {
+		for (String type : List.of("title", "content", "both")) {
+			for (String keyword : KEYWORDS) {
+				int[] hits = index.search(type, keyword);
+				int[] like = posts.findPage(type, keyword, 10_000, 0).stream().mapToInt(PostSummary::id).toArray();
+				assertThat(hits).as(type + " / " + keyword).containsExactly(like);
+			}
+		}
+	}
+
+	private static String sentence(Random random, int words) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < words; i++) {
+			if (i > 0)
+				sb.append(random.nextInt(4) == 0 ? "" : " ");
+			sb.append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		return sb.toString();
+	}
+
+	private static void waitUntilBuilt(PostSearchIndex index) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (Boolean.TRUE.equals(index.stats().get("rebuilding")) && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		assertThat(index.stats()).containsEntry("ready", true);
+	}
+
+	private int insert(String title, String content) throws SQLException {
+		try (Connection conn = h2.getConnection();
+				PreparedStatement ps = conn.prepareStatement(
+						"INSERT INTO posts (user_id, title, content) VALUES (1, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+			ps.setString(1, title);
+			ps.setString(2, content);
+			ps.executeUpdate();
+			try (var keys = ps.getGeneratedKeys()) {
+				keys.next();
+				return keys.getInt(1);
+			}
+		}
+	}
+
+	private void update(int id, String title, String content) throws SQLException {
+		try (Connection conn = h2.getConnection();
+				PreparedStatement ps = conn.prepareStatement("UPDATE posts SET title = ?, content = ? WHERE id = ?")) {
+			ps.setString(1, title);
+			ps.setString(2, content);
+			ps.setInt(3, id);
+			ps.executeUpdate();
+		}
+	}
+
+	private void delete(int id) throws SQLException {
+		try (Connection conn = h2.getConnection();
+				PreparedStatement ps = conn.prepareStatement("DELETE FROM posts WHERE id = ?")) {
+			ps.setInt(1, id);
+			ps.executeUpdate();
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package com.example.demo.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * InstrumentedDataSource: SQL 주석 이름별 db.query / 트랜잭션 / 커넥션 대기 타이머,
+ * 느린 문장 기록(SlowQueryLog, threshold 0 = 전부 기록)(H2)
+ */
+class InstrumentedDataSourceTests {
+
+	private SimpleMeterRegistry registry;
+	private SlowQueryLog slow;
+	private InstrumentedDataSource ds;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		registry = new SimpleMeterRegistry();
+		DriverManagerDataSource h2 = new DriverManagerDataSource(
+				"jdbc:h2:mem:metrics" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+		GatedDataSource gated = new GatedDataSource(h2, 2, 1000);
+		slow = new SlowQueryLog(gated, 0, 3, 10, true, 4);
+		ds = new InstrumentedDataSource(gated, registry, slow);
+
+		try (Connection conn = ds.getConnection(); Statement st = conn.createStatement()) {
+			st.execute("/* test.ddl */ CREATE TABLE t (id INT PRIMARY KEY)");
+		}
+	}
+
+	private long queryCount(String name, String outcome) {
+		var timer = registry.find("db.query").tag("query", name).tag("outcome", outcome).timer();
+		return timer == null ? 0 : timer.count();
+	}
+
+	@Test
+	void queryNameComesFromLeadingComment() {
+		assertThat(InstrumentedDataSource.queryName("/* post.count */ SELECT COUNT(*) FROM posts")).isEqualTo("post.count");
+		assertThat(InstrumentedDataSource.queryName("\n  /* post.incViewCount */\n  UPDATE posts")).isEqualTo("post.incViewCount");
+		assertThat(InstrumentedDataSource.queryName("SELECT 1")).isEqualTo("other");
+	}
+
+	@Test
+	void recordsStatementsByNameAndOutcome() throws Exception {
+		try (Connection conn = ds.getConnection()) {
+			for (int i = 1; i <= 3; i++) {
+				try (PreparedStatement ps = conn.prepareStatement("/* t.insert */ INSERT INTO t VALUES (?)")) {
+					ps.setInt(1, i);
+					ps.executeUpdate();
+				}
+			}
+			try (PreparedStatement ps = conn.prepareStatement("/* t.insert */ INSERT INTO t VALUES (?)")) {
+				ps.setInt(1, 1);
+				ps.executeUpdate();
+			} catch (Exception duplicate) {
+				// PK 중복 → outcome=error
+			}
+			try (Statement st = conn.createStatement()) {
+				st.executeQuery("SELECT COUNT(*) FROM t").close();
+			}
+		}
+
+		assertThat(queryCount("test.ddl", "success")).isEqualTo(1);
+		assertThat(queryCount("t.insert", "success")).isEqualTo(3);
+		assertThat(queryCount("t.insert", "error")).isEqualTo(1);
+		assertThat(queryCount("other", "success")).isEqualTo(1);
+		assertThat(registry.get("db.connection.acquire").timer().count()).isEqualTo(2);
+	}
+
+	@Test
+	void recordsTransactionsUntilCommitOrRollback() throws Exception {
+		try (Connection conn = ds.getConnection()) {
+			conn.setAutoCommit(false);
+			try (PreparedStatement ps = conn.prepareStatement("INSERT INTO t VALUES (10)")) {
+				ps.executeUpdate();
+			}
+			conn.commit();
+			try (PreparedStatement ps = conn.prepareStatement("INSERT INTO t VALUES (11)")) {
+				ps.executeUpdate();
+			}
+			conn.rollback();
+			conn.setAutoCommit(true);
+		}
+
+		assertThat(registry.get("db.transaction").tag("outcome", "commit").timer().count()).isEqualTo(1);
+		assertThat(registry.get("db.transaction").tag("outcome", "rollback").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void unwrapsToGate() throws Exception {
+		// AdminController(/admin/db-gate/stats)가 바깥 계측 래퍼를 지나 게이트를 찾는 경로
+		assertThat(ds.isWrapperFor(GatedDataSource.class)).isTrue();
+		assertThat(ds.unwrap(GatedDataSource.class).stats()).containsEntry("permits", 2);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void slowQueriesKeepParamsRedactPasswordsAndExplainSelects() throws Exception {
+		slow.clear();
+		try (Connection conn = ds.getConnection()) {
+			try (PreparedStatement ps = conn.prepareStatement("/* t.byId */ SELECT id FROM t WHERE id = ?")) {
+				ps.setInt(1, 7);
+				ps.executeQuery().close();
+			}
+			try (Statement st = conn.createStatement()) {
+				st.execute("CREATE TABLE u (name VARCHAR(50), password VARCHAR(100))");
+			}
+			try (PreparedStatement ps = conn.prepareStatement("/* u.insert */ INSERT INTO u (name, password) VALUES (?, ?)")) {
+				ps.setString(1, "a very long user name");
+				ps.setString(2, "secret");
+				ps.executeUpdate();
+			}
+		}
+
+		List<Map<String, Object>> items = slow.recent();
+		assertThat(items).hasSize(3); // capacity 3: 최신순
+		assertThat(items.get(0)).containsEntry("query", "u.insert").containsEntry("params", List.of("***", "***"));
+		assertThat(items.get(2)).containsEntry("query", "t.byId").containsEntry("params", List.of("7"));
+
+		// EXPLAIN은 전용 스레드에서 비동기로 채워짐
+		long deadline = System.currentTimeMillis() + 5000;
+		while (slow.recent().get(2).get("explain") == null && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		assertThat((List<Map<String, Object>>) slow.recent().get(2).get("explain")).isNotEmpty();
+		assertThat(slow.recent().get(0).get("explain")).isNull(); // INSERT는 EXPLAIN 안 함
+		assertThat(slow.stats()).containsEntry("explained", 1L);
+	}
+}
@@ -0,0 +1,104 @@
+package com.example.demo.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 병렬 조회 풀: 요청 스레드의 복제본 허용 여부 전달, 대기열이 차면 요청 스레드가 직접 실행(CallerRuns)
+ */
+class ParallelQueryExecutorTests {
+
+	private ParallelQueryExecutor executor;
+
+	@AfterEach
+	void tearDown() {
+		ReadRouting.clear();
+		if (executor != null)
+			executor.shutdown();
+	}
+
+	record Seen(String thread, boolean replicaAllowed) {
+	}
+
+	private static Seen seen() {
+		return new Seen(Thread.currentThread().getName(), ReadRouting.replicaAllowed());
+	}
+
+	@Test
+	void poolThreadSeesTheCallersRoutingAndDoesNotKeepIt() throws Exception {
+		executor = new ParallelQueryExecutor(1, 4);
+
+		ReadRouting.allowReplica();
+		Seen fromGet = ParallelQueryExecutor.join(executor.submit(ParallelQueryExecutorTests::seen)).value();
+		assertThat(fromGet.thread()).startsWith("parallel-query-");
+		assertThat(fromGet.replicaAllowed()).isTrue();
+
+		// onPrimary 안에서 넘긴 작업은 primary
+		Seen fromPrimary = ReadRouting.onPrimary(
+				() -> ParallelQueryExecutor.join(executor.submit(ParallelQueryExecutorTests::seen)).value());
+		assertThat(fromPrimary.replicaAllowed()).isFalse();
+		assertThat(ReadRouting.replicaAllowed()).isTrue();
+
+		// 같은 풀 스레드가 다음 작업(요청 밖)에 값을 남기지 않음
+		ReadRouting.clear();
+		Seen outside = ParallelQueryExecutor.join(executor.submit(ParallelQueryExecutorTests::seen)).value();
+		assertThat(outside.thread()).isEqualTo(fromGet.thread());
+		assertThat(outside.replicaAllowed()).isFalse();
+	}
+
+	@Test
+	void callerRunsWhenQueueIsFullAndKeepsItsRouting() throws Exception {
+		executor = new ParallelQueryExecutor(1, 1);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+
+		// 풀 스레드 1개를 잡아 두고 대기열 1칸을 채움
+		CompletableFuture<?> busy = executor.submit(() -> {
+			started.countDown();
+			return release.await(5, TimeUnit.SECONDS);
+		});
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<ParallelQueryExecutor.Timed<Seen>> queued = executor.submit(ParallelQueryExecutorTests::seen);
+		assertThat(executor.stats()).containsEntry("queued", 1);
+
+		// 세 번째는 요청 스레드가 직접 실행(반환 시점에 이미 끝남)
+		ReadRouting.allowReplica();
+		CompletableFuture<ParallelQueryExecutor.Timed<Seen>> inline = executor.submit(ParallelQueryExecutorTests::seen);
+		assertThat(inline).isDone();
+		assertThat(inline.join().value()).isEqualTo(seen());
+		assertThat(ReadRouting.replicaAllowed()).isTrue();
+
+		// primary 요청에서 직접 실행해도 값이 바뀌지 않음
+		ReadRouting.clear();
+		CompletableFuture<ParallelQueryExecutor.Timed<Seen>> inlinePrimary = executor
+				.submit(ParallelQueryExecutorTests::seen);
+		assertThat(inlinePrimary.join().value().replicaAllowed()).isFalse();
+		assertThat(ReadRouting.replicaAllowed()).isFalse();
+
+		release.countDown();
+		busy.get(5, TimeUnit.SECONDS);
+		// 대기열에 있던 작업은 넘긴 시점의 값(primary)으로 풀 스레드에서
+		Seen queuedSeen = queued.get(5, TimeUnit.SECONDS).value();
+		assertThat(queuedSeen.thread()).startsWith("parallel-query-");
+		assertThat(queuedSeen.replicaAllowed()).isFalse();
+	}
+
+	@Test
+	void joinRethrowsTheTasksException() {
+		executor = new ParallelQueryExecutor(1, 1);
+		CompletableFuture<ParallelQueryExecutor.Timed<Object>> failed = executor.submit(() -> {
+			throw new SQLException("replica down");
+		});
+		assertThatThrownBy(() -> ParallelQueryExecutor.join(failed))
+				.isInstanceOf(SQLException.class)
+				.hasMessage("replica down");
+	}
+}
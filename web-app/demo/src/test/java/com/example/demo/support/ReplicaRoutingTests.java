@@ -0,0 +1,217 @@
+package com.example.demo.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * 읽기/쓰기 분리: primary / 복제본 역할의 H2 두 개(각자 자기 이름을 돌려주는 테이블)
+ *
+ * - db-gate와 같이 켠 경우는 실제 BeanPostProcessor 순서대로 감싸서 확인(풀마다 게이트)
+ */
+class ReplicaRoutingTests {
+
+	private static DataSource h2(String name) throws SQLException {
+		return new DriverManagerDataSource(h2Url(name));
+	}
+
+	// 자기 이름을 돌려주는 테이블을 만든 H2 URL(DB_CLOSE_DELAY=-1이라 다른 풀에서 다시 열어도 그대로)
+	private static String h2Url(String name) throws SQLException {
+		String url = "jdbc:h2:mem:" + name + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+		try (Connection conn = new DriverManagerDataSource(url).getConnection(); Statement st = conn.createStatement()) {
+			st.execute("CREATE TABLE whoami (name VARCHAR(20))");
+			st.execute("INSERT INTO whoami VALUES ('" + name + "')");
+		}
+		return url;
+	}
+
+	private static String whoami(DataSource ds) throws SQLException {
+		try (Connection conn = ds.getConnection();
+				Statement st = conn.createStatement();
+				ResultSet rs = st.executeQuery("SELECT name FROM whoami")) {
+			rs.next();
+			return rs.getString(1);
+		}
+	}
+
+	private static ReplicaRoutingDataSource routing(Map<String, DataSource> replicas,
+			ReplicaRoutingDataSource.LagCheck lagCheck) throws SQLException {
+		return new ReplicaRoutingDataSource(h2("primary"), replicas, 2000, lagCheck, 0);
+	}
+
+	@Test
+	void readsGoToReplicasOnlyWhenAllowed() throws Exception {
+		Map<String, DataSource> replicas = new LinkedHashMap<>();
+		replicas.put("replica-1", h2("replica1"));
+		replicas.put("replica-2", h2("replica2"));
+		ReplicaRoutingDataSource ds = routing(replicas, ReplicaRoutingDataSource.LagCheck.NONE);
+
+		assertThat(whoami(ds)).isEqualTo("primary");
+
+		ReadRouting.allowReplica();
+		try {
+			List<String> seen = new ArrayList<>();
+			for (int i = 0; i < 4; i++)
+				seen.add(whoami(ds));
+			assertThat(seen).containsExactlyInAnyOrder("replica1", "replica2", "replica1", "replica2");
+
+			// 캐시 loader 등: 요청 안이어도 primary
+			assertThat(ReadRouting.onPrimary(() -> whoami(ds))).isEqualTo("primary");
+			assertThat(ReadRouting.replicaAllowed()).isTrue();
+		} finally {
+			ReadRouting.clear();
+		}
+	}
+
+	@Test
+	void fallsBackToPrimaryWhenReplicaIsDownOrNotReplicating() throws Exception {
+		DataSource down = new AbstractDataSource() {
+			@Override
+			public Connection getConnection() throws SQLException {
+				throw new SQLException("connection refused");
+			}
+
+			@Override
+			public Connection getConnection(String username, String password) throws SQLException {
+				return getConnection();
+			}
+		};
+		ReplicaRoutingDataSource ds = routing(Map.of("replica-1", down), ReplicaRoutingDataSource.LagCheck.NONE);
+
+		// H2에는 SHOW REPLICA STATUS가 없음 → 복제 상태를 확인할 수 없는 복제본도 제외
+		ReplicaRoutingDataSource noStatus = routing(Map.of("replica-1", h2("replica1")),
+				ReplicaRoutingDataSource.LagCheck.REPLICA_STATUS);
+
+		ReadRouting.allowReplica();
+		try {
+			assertThat(whoami(ds)).isEqualTo("primary");
+			assertThat(whoami(noStatus)).isEqualTo("primary");
+		} finally {
+			ReadRouting.clear();
+		}
+		assertThat(ds.stats()).containsEntry("fallback_to_primary", 1L);
+		@SuppressWarnings("unchecked")
+		Map<String, Object> replica = ((List<Map<String, Object>>) noStatus.stats().get("replicas")).get(0);
+		assertThat(replica).containsEntry("healthy", false);
+	}
+
+	@Test
+	void dbGateIsPerPoolWhenRoutingIsOn() throws Exception {
+		HikariConfig config = new HikariConfig();
+		config.setPoolName("primary");
+		config.setJdbcUrl(h2Url("primary"));
+		config.setMaximumPoolSize(2);
+		HikariDataSource primary = new HikariDataSource(config);
+		MockEnvironment env = new MockEnvironment()
+				.withProperty("app.db-gate.enabled", "true")
+				.withProperty("app.db-gate.acquire-timeout-ms", "200")
+				.withProperty("app.replica.urls", h2Url("replica1"))
+				.withProperty("app.replica.max-pool-size", "4")
+				.withProperty("app.replica.lag-check", "none")
+				.withProperty("app.replica.health-interval-ms", "0");
+
+		// 실제 빈 순서대로: 라우터 → 게이트(라우터는 건너뜀)
+		var routingPostProcessor = new ReplicaRoutingConfig.RoutingBeanPostProcessor(env);
+		Object bean = routingPostProcessor.postProcessAfterInitialization(primary, "dataSource");
+		bean = new DbGateConfig.GateBeanPostProcessor(env).postProcessAfterInitialization(bean, "dataSource");
+		assertThat(bean).isInstanceOf(ReplicaRoutingDataSource.class);
+		ReplicaRoutingDataSource ds = (ReplicaRoutingDataSource) bean;
+		assertThat(ds.unwrap(GatedDataSource.class).stats()).containsEntry("permits", 2);
+		assertThat(ds.gateStats()).containsOnlyKeys("replica-1");
+
+		List<Connection> held = new ArrayList<>();
+		try {
+			// 복제본 읽기는 primary 풀 크기(2)보다 많이 동시에 씀 → 복제본 게이트(4)만 참
+			ReadRouting.allowReplica();
+			for (int i = 0; i < 4; i++)
+				held.add(ds.getConnection());
+			ReadRouting.clear();
+			assertThat(ds.gateStats()).extractingByKey("replica-1").asInstanceOf(InstanceOfAssertFactories.MAP)
+					.containsEntry("available", 0);
+
+			// 복제본 게이트가 꽉 차도 primary 쓰기는 바로 받음
+			long start = System.nanoTime();
+			assertThat(whoami(ds)).isEqualTo("primary");
+			assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(200));
+			closeAll(held);
+
+			// 반대로 primary 게이트가 꽉 차도 복제본 읽기는 통과, primary만 시간 초과
+			held.add(ds.getConnection());
+			held.add(ds.getConnection());
+			ReadRouting.allowReplica();
+			assertThat(whoami(ds)).isEqualTo("replica1");
+			ReadRouting.clear();
+			assertThatThrownBy(ds::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+			assertThat(ds.unwrap(GatedDataSource.class).stats()).containsEntry("timed_out", 1L);
+			closeAll(held);
+		} finally {
+			ReadRouting.clear();
+			closeAll(held);
+			routingPostProcessor.postProcessBeforeDestruction(primary, "dataSource");
+		}
+
+		// 소멸 콜백이 게이트 안쪽 복제본 풀까지 닫음 → 복제본 읽기는 primary로
+		ReadRouting.allowReplica();
+		try {
+			assertThat(whoami(ds)).isEqualTo("primary");
+		} finally {
+			ReadRouting.clear();
+			primary.close();
+		}
+		assertThat(ds.stats()).containsEntry("fallback_to_primary", 1L);
+	}
+
+	private static void closeAll(List<Connection> held) throws SQLException {
+		for (Connection c : held)
+			c.close();
+		held.clear();
+	}
+
+	@Test
+	void sessionReadsItsOwnWritesFromPrimary() throws Exception {
+		var filter = new ReplicaRoutingConfig.ReadRoutingFilter(60_000);
+		MockHttpSession session = new MockHttpSession();
+
+		assertThat(replicaAllowedDuring(filter, "GET", session)).isTrue();
+		assertThat(replicaAllowedDuring(filter, "POST", session)).isFalse();
+		assertThat(replicaAllowedDuring(filter, "GET", session)).isFalse(); // sticky
+		assertThat(replicaAllowedDuring(filter, "GET", new MockHttpSession())).isTrue();
+
+		session.setAttribute(ReplicaRoutingConfig.STICKY_UNTIL, System.currentTimeMillis() - 1);
+		assertThat(replicaAllowedDuring(filter, "GET", session)).isTrue();
+		assertThat(ReadRouting.replicaAllowed()).isFalse(); // 요청이 끝나면 해제
+	}
+
+	private static boolean replicaAllowedDuring(ReplicaRoutingConfig.ReadRoutingFilter filter, String method,
+			MockHttpSession session) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/posts");
+		request.setSession(session);
+		boolean[] allowed = new boolean[1];
+		filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> allowed[0] = ReadRouting.replicaAllowed());
+		return allowed[0];
+	}
+}
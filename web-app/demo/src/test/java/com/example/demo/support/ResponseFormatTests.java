@@ -0,0 +1,55 @@
+package com.example.demo.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.dto.ApiResponse;
+import com.example.demo.dto.Comment;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Accept → 응답 형식 선택, 형식이 달라도 { ok, data, message } 구조는 같음
+ */
+class ResponseFormatTests {
+
+	private final JsonMapper json = JsonMapper.builder().build();
+
+	@Test
+	void picksHighestQualityKnownFormat() {
+		assertThat(ResponseFormat.of(null)).isEqualTo(ResponseFormat.JSON);
+		assertThat(ResponseFormat.of("*/*")).isEqualTo(ResponseFormat.JSON);
+		assertThat(ResponseFormat.of("application/cbor")).isEqualTo(ResponseFormat.CBOR);
+		assertThat(ResponseFormat.of("application/x-jackson-smile")).isEqualTo(ResponseFormat.SMILE);
+		// 모르는 타입은 건너뜀, q값 우선, 같으면 앞쪽
+		assertThat(ResponseFormat.of("text/html, application/cbor;q=0.8")).isEqualTo(ResponseFormat.CBOR);
+		assertThat(ResponseFormat.of("application/cbor;q=0.5, application/json")).isEqualTo(ResponseFormat.JSON);
+		assertThat(ResponseFormat.of("application/x-jackson-smile, application/cbor")).isEqualTo(ResponseFormat.SMILE);
+		assertThat(ResponseFormat.of("application/cbor;q=0")).isEqualTo(ResponseFormat.JSON);
+		assertThat(ResponseFormat.of("잘못된 헤더;;")).isEqualTo(ResponseFormat.JSON);
+	}
+
+	@Test
+	void binaryFormatsCarrySameStructure() {
+		ApiResponse<?> response = ApiResponse.ok(Map.of("items",
+				List.of(new Comment(1, 2, 3, "첫 댓글", "2026-01-01 00:00:00"))));
+		Object expected = json.readTree(json.writeValueAsBytes(response));
+
+		for (ResponseFormat f : List.of(ResponseFormat.CBOR, ResponseFormat.SMILE)) {
+			ObjectMapper mapper = f.mapper(json);
+			byte[] bytes = mapper.writeValueAsBytes(response);
+			assertThat(mapper.readTree(bytes)).isEqualTo(expected);
+		}
+	}
+
+	@Test
+	void etagIsMarkedPerFormat() {
+		assertThat(ResponseFormat.JSON.etag("W/\"p1-abc\"")).isEqualTo("W/\"p1-abc\"");
+		assertThat(ResponseFormat.CBOR.etag("W/\"p1-abc\"")).isEqualTo("W/\"p1-abc-cbor\"");
+	}
+}
@@ -0,0 +1,102 @@
+package com.example.demo.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 같은 키 동시 조회 합치기: 결과/예외 공유, 대기 시간 초과, 끝난 뒤에는 다시 조회
+ */
+class SingleFlightTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final ExecutorService pool = Executors.newFixedThreadPool(8);
+	private final AtomicInteger calls = new AtomicInteger();
+
+	@AfterEach
+	void shutdown() {
+		pool.shutdownNow();
+	}
+
+	// loader가 실행 중인 동안 나머지 요청이 모두 들어오도록 release까지 붙잡음
+	private List<Future<Object>> race(SingleFlight flight, CountDownLatch release, Callable<Object> body)
+			throws Exception {
+		CountDownLatch entered = new CountDownLatch(1);
+		List<Future<Object>> results = new ArrayList<>();
+		results.add(pool.submit(() -> flight.execute("user", 7, () -> {
+			calls.incrementAndGet();
+			entered.countDown();
+			release.await();
+			return body.call();
+		})));
+		entered.await();
+		for (int i = 0; i < 7; i++)
+			results.add(pool.submit(() -> flight.execute("user", 7, () -> {
+				calls.incrementAndGet();
+				return "own";
+			})));
+		Thread.sleep(100);
+		return results;
+	}
+
+	@Test
+	void concurrentCallersShareOneCall() throws Exception {
+		SingleFlight flight = new SingleFlight(registry, true, 5000);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Future<Object>> results = race(flight, release, () -> "shared");
+		release.countDown();
+
+		for (Future<Object> f : results)
+			assertThat(f.get()).isEqualTo("shared");
+		assertThat(calls).hasValue(1);
+		assertThat(registry.get("singleflight.calls").tag("group", "user").tag("outcome", "shared").counter().count())
+				.isEqualTo(7);
+		assertThat(flight.stats()).containsEntry("saved_db_calls", 7L).containsEntry("in_flight", 0);
+
+		// 끝난 조회는 저장하지 않음
+		assertThat(flight.execute("user", 7, () -> "again")).isEqualTo("again");
+	}
+
+	@Test
+	void loaderErrorReachesEveryWaiter() throws Exception {
+		SingleFlight flight = new SingleFlight(registry, true, 5000);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Future<Object>> results = race(flight, release, () -> {
+			throw new SQLException("연결 끊김");
+		});
+		release.countDown();
+
+		for (Future<Object> f : results)
+			assertThatThrownBy(f::get).isInstanceOf(ExecutionException.class)
+					.hasCauseInstanceOf(SQLException.class).hasMessageContaining("연결 끊김");
+		assertThat(calls).hasValue(1);
+	}
+
+	@Test
+	void waitersGiveUpAfterTimeout() throws Exception {
+		SingleFlight flight = new SingleFlight(registry, true, 50);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Future<Object>> results = race(flight, release, () -> "slow");
+
+		for (Future<Object> f : results.subList(1, results.size()))
+			assertThatThrownBy(f::get).hasCauseInstanceOf(SingleFlight.WaitTimeoutException.class);
+		release.countDown();
+		assertThat(results.get(0).get()).isEqualTo("slow");
+		assertThat(registry.get("singleflight.calls").tag("outcome", "timeout").counter().count()).isEqualTo(7);
+	}
+}
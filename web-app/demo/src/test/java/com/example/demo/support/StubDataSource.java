@@ -0,0 +1,57 @@
+package com.example.demo.support;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * DB 없이 커넥션 대기/사용 시간만 흉내 내는 DataSource
+ *
+ * - isValid() 한 번 = 쿼리 한 번(queryMillis 동안 블로킹)
+ * - 동시에 열려 있는 커넥션 수의 최댓값 기록
+ */
+class StubDataSource extends AbstractDataSource {
+
+	private final long queryMillis;
+	private final AtomicInteger open = new AtomicInteger();
+	private final AtomicInteger maxOpen = new AtomicInteger();
+
+	StubDataSource(long queryMillis) {
+		this.queryMillis = queryMillis;
+	}
+
+	int maxOpen() {
+		return maxOpen.get();
+	}
+
+	@Override
+	public Connection getConnection() {
+		maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+					switch (method.getName()) {
+						case "isValid" -> {
+							Thread.sleep(queryMillis);
+							return true;
+						}
+						case "close" -> {
+							open.decrementAndGet();
+							return null;
+						}
+						case "isClosed" -> {
+							return false;
+						}
+						default -> {
+							return null;
+						}
+					}
+				});
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) {
+		return getConnection();
+	}
+}
@@ -0,0 +1,76 @@
+package com.example.demo.support;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+/**
+ * 단위 테스트용 H2 메모리 DB(MySQL 모드)
+ *
+ * - 스키마는 apitest/loadtest 프로필과 같은 loadtest/schema.sql(db-init/01_schema.sql을 옮긴 것) 하나
+ *   → 테스트마다 필요한 컬럼만 따로 만들지 않음(FK, NOT NULL, 타입이 실제 스키마와 같음)
+ * - 부를 때마다 새 DB(이름 + nanoTime), DB_CLOSE_DELAY=-1이라 커넥션을 다 닫아도 남음
+ */
+public final class TestDatabase {
+
+	public static final String SCHEMA = "loadtest/schema.sql";
+
+	private TestDatabase() {
+	}
+
+	public static DriverManagerDataSource h2(String name) throws SQLException {
+		return h2(name, "");
+	}
+
+	/**
+	 * settings: URL 뒤에 붙일 H2 설정(예: ";IGNORECASE=TRUE")
+	 */
+	public static DriverManagerDataSource h2(String name, String settings) throws SQLException {
+		DriverManagerDataSource ds = new DriverManagerDataSource("jdbc:h2:mem:" + name + System.nanoTime()
+				+ ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1" + settings);
+		try (Connection conn = ds.getConnection()) {
+			ScriptUtils.executeSqlScript(conn,
+					new EncodedResource(new ClassPathResource(SCHEMA), StandardCharsets.UTF_8));
+		}
+		return ds;
+	}
+
+	/**
+	 * 사용자 user1..userN(id 1..N)
+	 */
+	public static void insertUsers(DataSource ds, int n) throws SQLException {
+		try (Connection conn = ds.getConnection();
+				PreparedStatement ps = conn.prepareStatement(
+						"INSERT INTO users (username, password, nickname) VALUES (?, 'hash', ?)")) {
+			for (int i = 1; i <= n; i++) {
+				ps.setString(1, "user" + i);
+				ps.setString(2, "nick" + i);
+				ps.executeUpdate();
+			}
+		}
+	}
+
+	/**
+	 * userId가 쓴 게시글 n개("제목 i" / "내용 i", i는 이 호출 안의 순번)
+	 */
+	public static void insertPosts(DataSource ds, int userId, int n) throws SQLException {
+		try (Connection conn = ds.getConnection();
+				PreparedStatement ps = conn.prepareStatement(
+						"INSERT INTO posts (user_id, title, content) VALUES (?, ?, ?)")) {
+			for (int i = 1; i <= n; i++) {
+				ps.setInt(1, userId);
+				ps.setString(2, "제목 " + i);
+				ps.setString(3, "내용 " + i);
+				ps.executeUpdate();
+			}
+		}
+	}
+}
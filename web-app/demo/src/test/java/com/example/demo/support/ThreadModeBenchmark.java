@@ -0,0 +1,93 @@
+package com.example.demo.support;
+
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 플랫폼 스레드 모드 vs 가상 스레드 모드 비교(gradle threadModeBenchmark)
+ *
+ * - 요청 한 건 = 1ms 블로킹(Redis/세션 등) + 절반은 DB 쿼리 5ms
+ * - 커넥션은 양쪽 모두 10개(플랫폼 모드의 Hikari 대기도 세마포어로 흉내)
+ * - 플랫폼 모드: Tomcat 기본 max-threads(200) 크기 고정 풀
+ *   → DB 대기 중인 스레드가 풀을 차지해서 DB를 안 쓰는 요청까지 대기열에서 기다림
+ * - 가상 모드: 요청마다 가상 스레드, DB를 쓰는 요청만 GatedDataSource에서 기다림
+ * - 지연 시간은 요청 제출 시점부터(대기열 대기 포함)
+ * - 실제 서버 비교는 README의 "가상 스레드 모드" 참고
+ */
+@Tag("benchmark")
+class ThreadModeBenchmark {
+
+	private static final int REQUESTS = 10_000;
+	private static final int POOL_SIZE = 10;
+
+	@Test
+	void compareThreadModes() throws Exception {
+		// JIT 예열
+		run("warmup", Executors.newFixedThreadPool(200), pool(), 2_000);
+		run("warmup", Executors.newVirtualThreadPerTaskExecutor(), pool(), 2_000);
+
+		run("platform(200)", Executors.newFixedThreadPool(200), pool(), REQUESTS);
+		run("virtual+gate", Executors.newVirtualThreadPerTaskExecutor(), pool(), REQUESTS);
+	}
+
+	private static DataSource pool() {
+		return new GatedDataSource(new StubDataSource(5), POOL_SIZE, 60_000);
+	}
+
+	private static void run(String name, ExecutorService executor, DataSource ds, int requests) throws Exception {
+		long[] dbLatency = new long[requests];
+		long[] plainLatency = new long[requests];
+		boolean[] usesDb = new boolean[requests];
+
+		long started = System.nanoTime();
+		try (executor) {
+			for (int i = 0; i < requests; i++) {
+				int n = i;
+				usesDb[n] = ThreadLocalRandom.current().nextBoolean();
+				long submitted = System.nanoTime();
+				executor.submit(() -> {
+					Thread.sleep(1);
+					if (usesDb[n]) {
+						try (Connection conn = ds.getConnection()) {
+							conn.isValid(1);
+						}
+					}
+					long took = System.nanoTime() - submitted;
+					if (usesDb[n])
+						dbLatency[n] = took;
+					else
+						plainLatency[n] = took;
+					return null;
+				});
+			}
+			executor.shutdown();
+			executor.awaitTermination(5, TimeUnit.MINUTES);
+		}
+		long elapsed = System.nanoTime() - started;
+
+		if (name.equals("warmup"))
+			return;
+
+		System.out.printf("%-14s %8.0f req/s | db p50 %7.1fms p99 %7.1fms | non-db p50 %7.1fms p99 %7.1fms%n",
+				name,
+				requests / (elapsed / 1e9),
+				percentile(dbLatency, 0.50), percentile(dbLatency, 0.99),
+				percentile(plainLatency, 0.50), percentile(plainLatency, 0.99));
+	}
+
+	private static double percentile(long[] nanos, double p) {
+		long[] values = Arrays.stream(nanos).filter(v -> v > 0).sorted().toArray();
+		if (values.length == 0)
+			return 0;
+		return values[(int) Math.min(values.length - 1, Math.ceil(p * values.length) - 1)] / 1e6;
+	}
+}
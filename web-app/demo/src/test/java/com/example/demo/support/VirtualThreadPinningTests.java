@@ -0,0 +1,143 @@
+package com.example.demo.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * 가상 스레드 고정(pinning) 감지
+ *
+ * - JFR jdk.VirtualThreadPinned 이벤트(임계값 0)를 모아서 확인
+ * - JDK 21~23은 synchronized 안에서 블로킹하면 가상 스레드가 캐리어 스레드에 고정됨
+ * - MySQL 드라이버 검사는 TEST_MYSQL_URL(+ TEST_MYSQL_USER / TEST_MYSQL_PASSWORD)이 있을 때만 실행
+ */
+class VirtualThreadPinningTests {
+
+	@Test
+	void detectorReportsPinningInsideSynchronized() throws Exception {
+		// JDK 24부터는 synchronized에서 고정되지 않음(JEP 491)
+		assumeTrue(Runtime.version().feature() < 24);
+
+		Object lock = new Object();
+		List<String> pinned = recordPinning(() -> runOnVirtualThreads(4, () -> {
+			synchronized (lock) {
+				Thread.sleep(5);
+			}
+		}));
+
+		assertThat(pinned).isNotEmpty();
+	}
+
+	@Test
+	void gatedDataSourceQueuesVirtualThreadsWithoutPinning() throws Exception {
+		StubDataSource pool = new StubDataSource(2);
+		GatedDataSource gated = new GatedDataSource(pool, 10, 30_000);
+
+		List<String> pinned = recordPinning(() -> runOnVirtualThreads(2000, () -> {
+			try (Connection conn = gated.getConnection()) {
+				conn.isValid(1);
+			}
+		}));
+
+		assertThat(pinned).isEmpty();
+		assertThat(pool.maxOpen()).isLessThanOrEqualTo(10);
+		assertThat(gated.stats().get("acquired")).isEqualTo(2000L);
+	}
+
+	@Test
+	void mysqlDriverDoesNotPinVirtualThreads() throws Exception {
+		String url = System.getenv("TEST_MYSQL_URL");
+		assumeTrue(url != null && !url.isBlank(), "TEST_MYSQL_URL not set");
+
+		HikariConfig config = new HikariConfig();
+		config.setJdbcUrl(url);
+		config.setUsername(System.getenv().getOrDefault("TEST_MYSQL_USER", "test"));
+		config.setPassword(System.getenv().getOrDefault("TEST_MYSQL_PASSWORD", "test123"));
+		config.setMaximumPoolSize(10);
+
+		try (HikariDataSource hikari = new HikariDataSource(config)) {
+			DataSource gated = new GatedDataSource(hikari, 10, 30_000);
+
+			List<String> pinned = recordPinning(() -> runOnVirtualThreads(500, () -> {
+				try (Connection conn = gated.getConnection();
+						Statement st = conn.createStatement();
+						ResultSet rs = st.executeQuery("SELECT SLEEP(0.001)")) {
+					rs.next();
+				}
+			}));
+
+			assertThat(pinned).isEmpty();
+		}
+	}
+
+	// --------------------------------------------------
+
+	@FunctionalInterface
+	interface Work {
+		void run() throws Exception;
+	}
+
+	// 작업 중에 발생한 pinning 이벤트의 스택 상단 프레임 목록
+	private static List<String> recordPinning(Work work) throws Exception {
+		List<String> pinned = new CopyOnWriteArrayList<>();
+		try (RecordingStream rs = new RecordingStream()) {
+			rs.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+			rs.onEvent("jdk.VirtualThreadPinned", e -> pinned.add(topFrames(e)));
+			rs.startAsync();
+			work.run();
+			rs.stop();
+		}
+		return pinned;
+	}
+
+	private static String topFrames(RecordedEvent e) {
+		if (e.getStackTrace() == null)
+			return "(no stack)";
+		StringBuilder sb = new StringBuilder();
+		List<RecordedFrame> frames = e.getStackTrace().getFrames();
+		for (int i = 0; i < Math.min(8, frames.size()); i++) {
+			RecordedFrame f = frames.get(i);
+			sb.append(f.getMethod().getType().getName()).append('.').append(f.getMethod().getName())
+					.append(':').append(f.getLineNumber()).append('\n');
+		}
+		return sb.toString();
+	}
+
+	private static void runOnVirtualThreads(int tasks, Work task) throws Exception {
+		List<Throwable> errors = new CopyOnWriteArrayList<>();
+		try (ExecutorService vt = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < tasks; i++) {
+				vt.submit(() -> {
+					try {
+						task.run();
+					} catch (Throwable t) {
+						errors.add(t);
+					}
+				});
+			}
+			vt.shutdown();
+			assertThat(vt.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+		}
+		assertThat(errors).isEmpty();
+	}
+}
@@ -0,0 +1,99 @@
+package com.example.demo.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.example.demo.controller.ApiExceptionHandler;
+import com.example.demo.dto.ApiResponse;
+
+/**
+ * BCrypt 전용 풀: 대기열 초과/시간 초과 → BusyException(429), cost 변경 시 다시 해시
+ *
+ * - 풀을 잡아 두는 작업은 cost 12 해시(수백 ms)
+ */
+class PasswordHasherTests {
+
+	private static final String COST_10_HASH = "$2a$10$eoURqZEDarr5WyrmoSlvV.sqvx1rnPw8zOlXrnvO4qrrj9ZWXmJPG"; // load1234
+
+	private PasswordHasher hasher;
+
+	@AfterEach
+	void tearDown() {
+		if (hasher != null)
+			hasher.shutdown();
+	}
+
+	@Test
+	void rejectsWhenQueueIsFull() throws Exception {
+		hasher = new PasswordHasher(12, 1, 1, 5000);
+		CompletableFuture<String> running = hasher.rehashAsync("a");
+		CompletableFuture<String> queued = hasher.rehashAsync("b");
+
+		assertThatThrownBy(() -> hasher.encode("c")).isInstanceOf(PasswordHasher.BusyException.class);
+		// 로그인 후 다시 해시는 바쁘면 건너뜀(null)
+		assertThat(hasher.rehashAsync("d").get()).isNull();
+
+		assertThat(running.get(10, TimeUnit.SECONDS)).isNotNull();
+		assertThat(queued.get(10, TimeUnit.SECONDS)).isNotNull();
+		assertThat(hasher.stats())
+				.containsEntry("rejected", 2L)
+				.containsEntry("submitted", 2L)
+				.containsEntry("rehashed", 2L);
+	}
+
+	@Test
+	void timedOutTaskIsCancelledBeforeItRuns() throws Exception {
+		hasher = new PasswordHasher(12, 1, 4, 50);
+		CompletableFuture<String> running = hasher.rehashAsync("a");
+
+		long started = System.nanoTime();
+		assertThatThrownBy(() -> hasher.matches("b", COST_10_HASH))
+				.isInstanceOf(PasswordHasher.BusyException.class)
+				.hasMessageContaining("timed out");
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(1000);
+
+		// 대기열에 있던 검증은 취소되어 계산하지 않음
+		running.get(10, TimeUnit.SECONDS);
+		Thread.sleep(100);
+		assertThat(hasher.stats())
+				.containsEntry("timed_out", 1L)
+				.containsEntry("hashes", 1L)
+				.containsEntry("queued", 0);
+	}
+
+	@Test
+	void busyMapsTo429WithRetryAfter() {
+		ResponseEntity<ApiResponse<?>> res = new ApiExceptionHandler()
+				.passwordHashBusy(new PasswordHasher.BusyException("password hash queue full"));
+		assertThat(res.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(res.getHeaders().getFirst("Retry-After")).isEqualTo("1");
+		assertThat(res.getBody().ok()).isFalse();
+	}
+
+	@Test
+	void rehashesOnlyWhenCostDiffers() throws Exception {
+		hasher = new PasswordHasher(4, 1, 4, 5000);
+		assertThat(hasher.needsRehash(COST_10_HASH)).isTrue();
+		assertThat(new PasswordHasher(10, 1, 1, 5000).needsRehash(COST_10_HASH)).isFalse();
+		assertThat(hasher.needsRehash(null)).isFalse();
+		assertThat(hasher.needsRehash("plain")).isFalse();
+		assertThat(hasher.needsRehash("$2a$xx$abc")).isFalse();
+
+		// 예전 cost 해시도 검증은 그대로, 새 해시는 설정된 cost
+		assertThat(hasher.matches("load1234", COST_10_HASH)).isTrue();
+		String rehashed = hasher.rehashAsync("load1234").get(10, TimeUnit.SECONDS);
+		assertThat(rehashed).startsWith("$2a$04$");
+		assertThat(hasher.needsRehash(rehashed)).isFalse();
+		assertThat(hasher.matches("load1234", rehashed)).isTrue();
+		assertThat(hasher.matches("wrong", rehashed)).isFalse();
+		assertThat(hasher.stats()).containsEntry("rehashed", 1L).containsEntry("strength", 4);
+	}
+}
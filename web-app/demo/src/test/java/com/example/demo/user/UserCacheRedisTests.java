@@ -0,0 +1,138 @@
+package com.example.demo.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.example.demo.user.UserCache.CachedUser;
+
+import redis.embedded.RedisServer;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * API 노드 두 개(각자 애플리케이션 컨텍스트)가 로컬 redis-server 하나를 공유하는 상황
+ */
+class UserCacheRedisTests {
+
+	private static RedisServer redisServer;
+	private static int port;
+
+	// 두 노드가 같이 보는 "DB"
+	private final Map<Integer, CachedUser> db = new ConcurrentHashMap<>();
+	private final AtomicInteger dbLoads = new AtomicInteger();
+
+	@BeforeAll
+	static void startRedis() throws Exception {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		redisServer = new RedisServer(port);
+		redisServer.start();
+	}
+
+	@AfterAll
+	static void stopRedis() throws Exception {
+		if (redisServer != null)
+			redisServer.stop();
+	}
+
+	@Test
+	void profileUpdateOnOneNodeEvictsNearCacheOnTheOther() throws Exception {
+		db.put(1, user(1, "before"));
+
+		try (AnnotationConfigApplicationContext node1 = node();
+				AnnotationConfigApplicationContext node2 = node()) {
+
+			UserCache cache1 = node1.getBean(UserCache.class);
+			UserCache cache2 = node2.getBean(UserCache.class);
+
+			// node1: DB에서 읽어서 Redis에 저장 → node2: Redis에서 읽음(DB 조회 없음)
+			assertThat(cache1.get(1, this::load).nickname()).isEqualTo("before");
+			assertThat(cache2.get(1, this::load).nickname()).isEqualTo("before");
+			assertThat(dbLoads.get()).isEqualTo(1);
+
+			// node1에서 수정 → node2 near cache도 무효화되어 새 값이 보여야 함
+			db.put(1, user(1, "after"));
+			cache1.invalidate(1);
+
+			await().atMost(Duration.ofSeconds(5))
+					.until(() -> "after".equals(cache2.get(1, this::load).nickname()));
+			assertThat(cache1.get(1, this::load).nickname()).isEqualTo("after");
+		}
+	}
+
+	@Test
+	void batchLookupUsesRedisBeforeDatabase() throws Exception {
+		db.put(10, user(10, "a"));
+		db.put(11, user(11, "b"));
+
+		try (AnnotationConfigApplicationContext node1 = node();
+				AnnotationConfigApplicationContext node2 = node()) {
+
+			UserCache.Lookup first = node1.getBean(UserCache.class).getAll(List.of(10, 11, 12), this::loadAll);
+			assertThat(first.found()).containsOnlyKeys(10, 11);
+			assertThat(first.misses()).isEqualTo(3);
+
+			UserCache.Lookup second = node2.getBean(UserCache.class).getAll(List.of(10, 11), this::loadAll);
+			assertThat(second.redisHits()).isEqualTo(2);
+			assertThat(second.misses()).isZero();
+		}
+	}
+
+	private AnnotationConfigApplicationContext node() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+				"app.user-cache.redis.enabled", "true",
+				"app.user-cache.redis.key-prefix", "test-user:",
+				"app.user-cache.redis.double-delete-ms", "0")));
+		ctx.registerBean(LettuceConnectionFactory.class,
+				() -> new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port)));
+		ctx.registerBean(StringRedisTemplate.class,
+				() -> new StringRedisTemplate(ctx.getBean(LettuceConnectionFactory.class)));
+		ctx.registerBean(JsonMapper.class, () -> JsonMapper.builder().build());
+		ctx.register(UserCache.class, UserCacheRedisConfig.class);
+		ctx.refresh();
+
+		// 무효화 채널 구독이 붙을 때까지 대기
+		await().atMost(Duration.ofSeconds(5))
+				.until(() -> ctx.getBean(RedisMessageListenerContainer.class).isListening());
+		return ctx;
+	}
+
+	private CachedUser load(int id) {
+		dbLoads.incrementAndGet();
+		return db.get(id);
+	}
+
+	private Map<Integer, CachedUser> loadAll(List<Integer> ids) {
+		dbLoads.addAndGet(ids.size());
+		Map<Integer, CachedUser> found = new ConcurrentHashMap<>();
+		for (Integer id : ids) {
+			CachedUser u = db.get(id);
+			if (u != null)
+				found.put(id, u);
+		}
+		return found;
+	}
+
+	private static CachedUser user(int id, String nickname) {
+		return new CachedUser(id, "user" + id, nickname, "user" + id + "@example.com", "2026-01-01 00:00:00",
+				null, null, null, null, null);
+	}
+}
@@ -0,0 +1,154 @@
+package com.example.demo.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import com.example.demo.user.UserCache.CachedUser;
+
+/**
+ * near cache(Redis 계층 없음): 단건/여러 건 read-through, 무효화, 로드 도중 무효화
+ */
+class UserCacheTests {
+
+	// "DB"
+	private final Map<Integer, CachedUser> db = new ConcurrentHashMap<>();
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private static UserCache cache(boolean enabled) {
+		return new UserCache(enabled, 1000, 300_000, new StaticListableBeanFactory().getBeanProvider(UserRedisTier.class));
+	}
+
+	@Test
+	void invalidateMakesTheNextReadGoToTheDatabase() throws Exception {
+		UserCache cache = cache(true);
+		db.put(1, user(1, "before"));
+
+		assertThat(cache.get(1, this::load).nickname()).isEqualTo("before");
+		db.put(1, user(1, "after"));
+		// 무효화 전에는 캐시 값
+		assertThat(cache.get(1, this::load).nickname()).isEqualTo("before");
+		assertThat(loads).hasValue(1);
+
+		cache.invalidate(1);
+		assertThat(cache.get(1, this::load).nickname()).isEqualTo("after");
+		assertThat(loads).hasValue(2);
+
+		// 여러 건 조회도 같은 캐시: 1은 적중, 2만 DB
+		db.put(2, user(2, "two"));
+		UserCache.Lookup lookup = cache.getAll(List.of(1, 2), this::loadAll);
+		assertThat(lookup.hits()).isEqualTo(1);
+		assertThat(lookup.misses()).isEqualTo(1);
+		assertThat(lookup.found().get(1).nickname()).isEqualTo("after");
+
+		// 무효화된 id만 다시 읽음
+		db.put(2, user(2, "two-after"));
+		cache.evictLocal(2);
+		UserCache.Lookup again = cache.getAll(List.of(1, 2), this::loadAll);
+		assertThat(again.hits()).isEqualTo(1);
+		assertThat(again.misses()).isEqualTo(1);
+		assertThat(again.found().get(2).nickname()).isEqualTo("two-after");
+	}
+
+	@Test
+	void missingUsersAreNotCached() throws Exception {
+		UserCache cache = cache(true);
+		assertThat(cache.get(9, this::load)).isNull();
+		assertThat(cache.getAll(List.of(9), this::loadAll).found()).isEmpty();
+
+		db.put(9, user(9, "joined"));
+		assertThat(cache.get(9, this::load).nickname()).isEqualTo("joined");
+	}
+
+	@Test
+	void bulkLoadRacingAnInvalidationDoesNotCacheTheOldRow() throws Exception {
+		UserCache cache = cache(true);
+		db.put(1, user(1, "before"));
+		db.put(2, user(2, "two"));
+
+		// 여러 건 로드가 옛 값을 읽은 직후, 캐시에 넣기 전에 프로필 수정 + 무효화
+		UserCache.Lookup racing = cache.getAll(List.of(1, 2), ids -> {
+			Map<Integer, CachedUser> read = loadAll(ids);
+			db.put(1, user(1, "after"));
+			cache.invalidate(1);
+			return read;
+		});
+		assertThat(racing.found().get(1).nickname()).isEqualTo("before"); // 이번 응답은 읽은 그대로
+
+		// 다음 조회는 새 값(옛 값이 TTL 동안 남지 않음)
+		assertThat(cache.get(1, this::load).nickname()).isEqualTo("after");
+		assertThat(cache.getAll(List.of(1), this::loadAll).found().get(1).nickname()).isEqualTo("after");
+	}
+
+	@Test
+	void singleLoadRacingAnInvalidationDoesNotCacheTheOldRow() throws Exception {
+		UserCache cache = cache(true);
+		db.put(1, user(1, "before"));
+		CountDownLatch reading = new CountDownLatch(1);
+		CountDownLatch updated = new CountDownLatch(1);
+
+		CompletableFuture<CachedUser> racing = CompletableFuture.supplyAsync(() -> {
+			try {
+				return cache.get(1, id -> {
+					CachedUser read = load(id);
+					reading.countDown();
+					updated.await(5, TimeUnit.SECONDS);
+					return read;
+				});
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+
+		assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+		db.put(1, user(1, "after"));
+		// 로드 중인 키의 무효화는 로드가 끝난 뒤에 지움
+		CompletableFuture<Void> invalidated = CompletableFuture.runAsync(() -> cache.invalidate(1));
+		updated.countDown();
+		invalidated.get(5, TimeUnit.SECONDS);
+
+		assertThat(racing.get(5, TimeUnit.SECONDS).nickname()).isEqualTo("before");
+		assertThat(cache.get(1, this::load).nickname()).isEqualTo("after");
+	}
+
+	@Test
+	void disabledCacheAlwaysReads() throws Exception {
+		UserCache cache = cache(false);
+		db.put(1, user(1, "a"));
+		cache.get(1, this::load);
+		cache.get(1, this::load);
+		assertThat(cache.getAll(List.of(1), this::loadAll).misses()).isEqualTo(1);
+		assertThat(loads).hasValue(3);
+		assertThat(cache.stats()).containsEntry("enabled", false);
+	}
+
+	private CachedUser load(int id) {
+		loads.incrementAndGet();
+		return db.get(id);
+	}
+
+	private Map<Integer, CachedUser> loadAll(List<Integer> ids) {
+		loads.addAndGet(ids.size());
+		Map<Integer, CachedUser> found = new ConcurrentHashMap<>();
+		for (Integer id : ids) {
+			CachedUser u = db.get(id);
+			if (u != null)
+				found.put(id, u);
+		}
+		return found;
+	}
+
+	private static CachedUser user(int id, String nickname) {
+		return new CachedUser(id, "user" + id, nickname, "user" + id + "@example.com", "2026-01-01 00:00:00",
+				null, null, null, null, null);
+	}
+}
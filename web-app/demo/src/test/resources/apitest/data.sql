@@ -0,0 +1,19 @@
+-- API 테스트 시드 데이터
+-- - 사용자 3명: api1 ~ api3 / 비밀번호 load1234(BCrypt cost 10)
+-- - 게시글 60건: 1 ~ 60번, 작성자는 api1 / api2 번갈아, 3의 배수 번호 제목에 "공지"
+-- - 댓글: 1 ~ 5번 글에 3건씩
+INSERT INTO users (username, password, nickname)
+SELECT CONCAT('api', "X"), '$2a$10$eoURqZEDarr5WyrmoSlvV.sqvx1rnPw8zOlXrnvO4qrrj9ZWXmJPG', CONCAT('테스터', "X")
+FROM SYSTEM_RANGE(1, 3);
+
+INSERT INTO posts (user_id, title, content)
+SELECT MOD("X", 2) + 1,
+       CONCAT('게시글 ', "X", CASE MOD("X", 3) WHEN 0 THEN ' 공지' ELSE '' END),
+       CONCAT('본문 ', "X")
+FROM SYSTEM_RANGE(1, 60);
+
+INSERT INTO comments (post_id, user_id, comment)
+SELECT MOD("X", 5) + 1, MOD("X", 3) + 1, CONCAT('댓글 ', "X")
+FROM SYSTEM_RANGE(0, 14);
+
+UPDATE posts SET comments_cnt = 3 WHERE id <= 5;
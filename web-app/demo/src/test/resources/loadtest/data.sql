@@ -0,0 +1,19 @@
+-- 부하 테스트 시드 데이터
+-- - 사용자 200명: load1 ~ load200 / 비밀번호 load1234(BCrypt cost 10)
+-- - 게시글 20,000건: 제목에 검색어(공지/질문/후기/자유/정보) 중 하나 포함
+-- - 댓글 60,000건: 게시글마다 3건
+-- - SYSTEM_RANGE 컬럼은 대문자 X라서 DATABASE_TO_LOWER 모드에서는 "X"로 따옴표 필요
+INSERT INTO users (username, password, nickname)
+SELECT CONCAT('load', "X"), '$2a$10$eoURqZEDarr5WyrmoSlvV.sqvx1rnPw8zOlXrnvO4qrrj9ZWXmJPG', CONCAT('부하', "X")
+FROM SYSTEM_RANGE(1, 200);
+
+INSERT INTO posts (user_id, title, content, comments_cnt)
+SELECT MOD("X", 200) + 1,
+       CONCAT('게시글 ', "X", ' ', CASE MOD("X", 5) WHEN 0 THEN '공지' WHEN 1 THEN '질문' WHEN 2 THEN '후기' WHEN 3 THEN '자유' ELSE '정보' END),
+       CONCAT('부하 테스트용 본문입니다. 번호 ', "X", '. ', REPEAT('내용 ', 40)),
+       3
+FROM SYSTEM_RANGE(1, 20000);
+
+INSERT INTO comments (post_id, user_id, comment)
+SELECT MOD("X", 20000) + 1, MOD("X" * 7, 200) + 1, CONCAT('댓글 ', "X")
+FROM SYSTEM_RANGE(0, 59999);
@@ -0,0 +1,132 @@
+-- 부하 테스트/API 테스트용 스키마(H2 MySQL 모드)
+-- - web-app/db-init/01_schema.sql을 그대로 옮김, H2 문법 때문에 다른 곳만 고침
+--   · 앞의 SET FOREIGN_KEY_CHECKS / DROP TABLE 없음(빈 메모리 DB에서 시작)
+--   · 인덱스 COMMENT는 줄 끝 주석으로, post_view_logs의 `testdb`. 접두사 없음
+--   · UNSIGNED는 받아들이기만 하고 음수를 막지는 않음
+-- - FK(ON DELETE 동작 포함), 타입, ON UPDATE는 같게 유지: 테스트가 실제 스키마와 다르게 통과하지 않도록
+
+-- =========================
+-- users
+-- =========================
+CREATE TABLE users (
+    id INT UNSIGNED AUTO_INCREMENT PRIMARY KEY COMMENT '사용자 PK',
+    username VARCHAR(50) NOT NULL UNIQUE COMMENT '로그인 아이디',
+    email VARCHAR(100) UNIQUE COMMENT '이메일 (선택)',
+    password VARCHAR(255) NOT NULL COMMENT '비밀번호 해시',
+    nickname VARCHAR(50) NOT NULL COMMENT '닉네임',
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '가입일',
+    updated_at DATETIME NULL ON UPDATE CURRENT_TIMESTAMP COMMENT '수정일'
+);
+
+-- =========================
+-- posts
+-- =========================
+CREATE TABLE posts (
+    id INT UNSIGNED AUTO_INCREMENT PRIMARY KEY COMMENT '게시글 PK',
+    user_id INT UNSIGNED NOT NULL COMMENT '작성자 ID',
+    title VARCHAR(200) NOT NULL COMMENT '제목',
+    content TEXT NOT NULL COMMENT '내용',
+    view_count INT UNSIGNED NOT NULL DEFAULT 0 COMMENT '조회수',
+    comments_cnt INT UNSIGNED NOT NULL DEFAULT 0 COMMENT '댓글수',
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '작성일',
+    updated_at DATETIME NULL ON UPDATE CURRENT_TIMESTAMP COMMENT '수정일',
+
+    INDEX idx_posts_user_id (user_id),
+    INDEX idx_posts_created_at (created_at),
+
+    CONSTRAINT fk_posts_user
+        FOREIGN KEY (user_id)
+        REFERENCES users(id)
+);
+
+-- =========================
+-- comments
+-- =========================
+CREATE TABLE comments (
+    id INT UNSIGNED AUTO_INCREMENT PRIMARY KEY COMMENT '댓글 PK',
+    post_id INT UNSIGNED NOT NULL COMMENT '게시글 ID',
+    user_id INT UNSIGNED NOT NULL COMMENT '댓글 작성자 ID',
+    comment VARCHAR(500) NOT NULL COMMENT '댓글 내용',
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '작성일',
+    updated_at DATETIME(3) NULL ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '수정일(ms, 댓글 목록 ETag가 1초 안의 두 번 수정도 구분)',
+
+    INDEX idx_comments_post_id (post_id),
+    INDEX idx_comments_post_updated (post_id, updated_at), -- 댓글 목록 ETag(최근 수정 시각)
+    INDEX idx_comments_user_id (user_id),
+
+    CONSTRAINT fk_comments_post
+        FOREIGN KEY (post_id)
+        REFERENCES posts(id),
+
+    CONSTRAINT fk_comments_user
+        FOREIGN KEY (user_id)
+        REFERENCES users(id)
+);
+
+CREATE TABLE user_profiles (
+  user_id INT UNSIGNED NOT NULL,
+  bio VARCHAR(300) NULL,
+  phone VARCHAR(20) NULL,
+  birth_date DATE NULL,
+  profile_image_url VARCHAR(500) NULL,
+  created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at DATETIME NULL DEFAULT CURRENT_TIMESTAMP
+    ON UPDATE CURRENT_TIMESTAMP,
+
+  PRIMARY KEY (user_id),
+  CONSTRAINT fk_user_profiles_user
+    FOREIGN KEY (user_id)
+    REFERENCES users(id)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE
+);
+
+CREATE TABLE post_view_logs (
+  post_id INT NOT NULL,
+  viewer_key VARCHAR(100) NOT NULL,
+  viewed_at DATETIME NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (post_id, viewer_key)
+);
+
+-- =========================
+-- post_comment_count_slots
+-- - 댓글 작성/삭제는 posts.comments_cnt 대신 (post_id, 임의 slot) 행에 ±1
+-- - 읽을 때 comments_cnt + SUM(delta), 주기적으로 comments_cnt에 접고 삭제(CommentCounter)
+-- =========================
+CREATE TABLE post_comment_count_slots (
+    post_id INT UNSIGNED NOT NULL COMMENT '게시글 ID',
+    slot TINYINT UNSIGNED NOT NULL COMMENT '슬롯 번호(0 ~ slots-1)',
+    delta INT NOT NULL DEFAULT 0 COMMENT '아직 접히지 않은 댓글 수 증감',
+
+    PRIMARY KEY (post_id, slot)
+);
+
+-- =========================
+-- outbox_events
+-- - 게시글/댓글 쓰기와 같은 트랜잭션에서 기록하는 변경 이벤트(OutboxWriter)
+-- - OutboxDispatcher가 id 순서로 폴링해서 구독자(검색 색인, 캐시, 전체 개수)에 전달
+-- - created_ms가 보존 기간(app.outbox.retention-ms)보다 오래되면 삭제
+-- =========================
+CREATE TABLE outbox_events (
+    id BIGINT UNSIGNED NOT NULL AUTO_INCREMENT COMMENT '이벤트 ID(전달 순서)',
+    event_type VARCHAR(40) NOT NULL COMMENT 'POST_CREATED, COMMENT_DELETED 등',
+    post_id INT UNSIGNED NOT NULL COMMENT '게시글 ID(같은 글의 이벤트는 순서대로 전달)',
+    comment_id INT UNSIGNED NULL COMMENT '댓글 이벤트의 댓글 ID',
+    user_id INT UNSIGNED NOT NULL COMMENT '작성자 ID',
+    created_ms BIGINT NOT NULL COMMENT '기록 시각(epoch ms, 전달 지연 측정용)',
+
+    PRIMARY KEY (id),
+    INDEX idx_outbox_events_created_ms (created_ms)
+);
+
+-- =========================
+-- outbox_offsets
+-- - 노드(consumer)별로 마지막으로 전달을 마친 outbox_events.id
+-- =========================
+CREATE TABLE outbox_offsets (
+    consumer VARCHAR(100) NOT NULL COMMENT '노드 이름(app.outbox.consumer)',
+    last_id BIGINT UNSIGNED NOT NULL COMMENT '전달을 마친 마지막 이벤트 ID',
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (consumer)
+);